@@ -0,0 +1,20 @@
+package de.lessvoid.nifty.benchmark;
+
+import de.lessvoid.nifty.spi.render.BatchRenderDevice;
+
+/**
+ * A BenchmarkRenderDevice that lets Nifty batch the render calls.
+ * @author void
+ */
+public class BenchmarkBatchRenderDevice extends BenchmarkRenderDevice implements BatchRenderDevice {
+
+  public BenchmarkBatchRenderDevice(final int width, final int height) {
+    super(width, height);
+  }
+
+  public void beginBatch() {
+  }
+
+  public void endBatch() {
+  }
+}
@@ -0,0 +1,32 @@
+package de.lessvoid.nifty.benchmark;
+
+import de.lessvoid.nifty.NiftyInputConsumer;
+import de.lessvoid.nifty.spi.input.InputSystem;
+
+/**
+ * An InputSystem that forwards a prepared list of mouse moves on every Nifty.update().
+ * @author void
+ */
+public class BenchmarkInputSystem implements InputSystem {
+  private int[] mouseX = new int[0];
+  private int[] mouseY = new int[0];
+
+  /**
+   * Set the mouse positions that are forwarded as mouse move events with every update.
+   * @param newMouseX x positions
+   * @param newMouseY y positions
+   */
+  public void setMouseMoves(final int[] newMouseX, final int[] newMouseY) {
+    mouseX = newMouseX;
+    mouseY = newMouseY;
+  }
+
+  public void forwardEvents(final NiftyInputConsumer inputEventConsumer) {
+    for (int i=0; i<mouseX.length; i++) {
+      inputEventConsumer.processMouseEvent(mouseX[i], mouseY[i], 0, -1, false);
+    }
+  }
+
+  public void setMousePosition(final int x, final int y) {
+  }
+}
@@ -0,0 +1,77 @@
+package de.lessvoid.nifty.benchmark;
+
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+
+/**
+ * A NullRenderDevice with a screen size and with fonts and images that have a size. The plain
+ * NullRenderDevice has a size of 0x0 and no fonts which would make layout and text handling trivial.
+ * @author void
+ */
+public class BenchmarkRenderDevice extends NullRenderDevice {
+  private int width;
+  private int height;
+
+  public BenchmarkRenderDevice(final int width, final int height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public RenderFont createFont(final String filename) {
+    return new BenchmarkFont();
+  }
+
+  public RenderImage createImage(final String filename, final boolean filterLinear) {
+    return new BenchmarkImage();
+  }
+
+  /**
+   * A monospaced font.
+   * @author void
+   */
+  public static class BenchmarkFont implements RenderFont {
+    private static final int CHARACTER_WIDTH = 10;
+    private static final Integer CHARACTER_ADVANCE = Integer.valueOf(CHARACTER_WIDTH);
+
+    public int getWidth(final String text) {
+      return text.length() * CHARACTER_WIDTH;
+    }
+
+    public int getHeight() {
+      return 16;
+    }
+
+    public Integer getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      return CHARACTER_ADVANCE;
+    }
+
+    public void dispose() {
+    }
+  }
+
+  /**
+   * An image that only has a size.
+   * @author void
+   */
+  public static class BenchmarkImage implements RenderImage {
+    public int getWidth() {
+      return 64;
+    }
+
+    public int getHeight() {
+      return 64;
+    }
+
+    public void dispose() {
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+/**
+ * Creates Nifty instances and generates the nifty xml for the synthetic screens the benchmarks use.
+ * @author void
+ */
+public class BenchmarkScreens {
+  public static final int SCREEN_WIDTH = 1024;
+  public static final int SCREEN_HEIGHT = 768;
+  public static final String SCREEN_ID = "start";
+
+  private static final String TEXT = "The quick brown fox jumps over the lazy dog";
+
+  /**
+   * Nifty logs a lot at level INFO which would be measured too. We only want warnings.
+   */
+  public static void disableLogging() {
+    Logger.getLogger("").setLevel(Level.WARNING);
+    Logger.getLogger("de.lessvoid").setLevel(Level.WARNING);
+  }
+
+  /**
+   * Create a Nifty instance that renders to a BenchmarkRenderDevice.
+   * @param inputSystem the InputSystem to use
+   * @return Nifty
+   */
+  public static Nifty createNifty(final BenchmarkInputSystem inputSystem) {
+    return createNifty(inputSystem, false);
+  }
+
+  /**
+   * Create a Nifty instance that renders to a BenchmarkRenderDevice or a BenchmarkBatchRenderDevice.
+   * @param inputSystem the InputSystem to use
+   * @param batch true to use the BenchmarkBatchRenderDevice
+   * @return Nifty
+   */
+  public static Nifty createNifty(final BenchmarkInputSystem inputSystem, final boolean batch) {
+    return new Nifty(
+        batch ? new BenchmarkBatchRenderDevice(SCREEN_WIDTH, SCREEN_HEIGHT) : new BenchmarkRenderDevice(SCREEN_WIDTH, SCREEN_HEIGHT),
+        new NullSoundDevice(),
+        inputSystem,
+        new TimeProvider());
+  }
+
+  /**
+   * Load the given nifty xml and go to the screen SCREEN_ID.
+   * @param nifty Nifty
+   * @param xml the nifty xml
+   */
+  public static void load(final Nifty nifty, final String xml) {
+    try {
+      nifty.fromXml("benchmark.xml", new ByteArrayInputStream(xml.getBytes("UTF-8")), SCREEN_ID);
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Generate a screen with a grid of panels. The texts and the effects are distributed over the panels.
+   * @param panels number of panels
+   * @param texts number of text elements
+   * @param effects number of panels with an active effect
+   * @return the nifty xml
+   */
+  public static String flatScreen(final int panels, final int texts, final int effects) {
+    int columns = Math.max(1, (int) Math.ceil(Math.sqrt(panels)));
+    int rows = Math.max(1, (panels + columns - 1) / columns);
+    int panelWidth = Math.max(1, SCREEN_WIDTH / columns);
+    int panelHeight = Math.max(1, SCREEN_HEIGHT / rows);
+
+    StringBuilder xml = new StringBuilder();
+    begin(xml);
+    xml.append("<layer id=\"layer\" childLayout=\"absolute\">\n");
+    for (int i=0; i<panels; i++) {
+      xml.append("<panel id=\"panel-").append(i).append("\" childLayout=\"vertical\" visibleToMouse=\"true\"")
+         .append(" x=\"").append((i % columns) * panelWidth).append("px\"")
+         .append(" y=\"").append((i / columns) * panelHeight).append("px\"")
+         .append(" width=\"").append(panelWidth).append("px\"")
+         .append(" height=\"").append(panelHeight).append("px\"")
+         .append(" backgroundColor=\"#").append(Integer.toHexString(0x100 + i % 0xf00)).append("f\">\n");
+      appendEffects(xml, i < effects);
+      for (int t=i; t<texts; t+=panels) {
+        xml.append("<text id=\"text-").append(t).append("\" font=\"benchmark.fnt\" text=\"").append(TEXT).append("\" />\n");
+      }
+      xml.append("</panel>\n");
+    }
+    xml.append("</layer>\n");
+    end(xml);
+    return xml.toString();
+  }
+
+  /**
+   * Generate a screen with a grid of images. Every second image is faded so that the images are rendered with
+   * a changed alpha too.
+   * @param images number of images
+   * @return the nifty xml
+   */
+  public static String imageScreen(final int images) {
+    int columns = Math.max(1, (int) Math.ceil(Math.sqrt(images)));
+    int size = Math.max(1, SCREEN_WIDTH / columns);
+
+    StringBuilder xml = new StringBuilder();
+    begin(xml);
+    xml.append("<layer id=\"layer\" childLayout=\"absolute\">\n");
+    for (int i=0; i<images; i++) {
+      xml.append("<image id=\"image-").append(i).append("\" filename=\"image-").append(i % 16).append(".png\"")
+         .append(" x=\"").append((i % columns) * size).append("px\"")
+         .append(" y=\"").append((i / columns) * size).append("px\"")
+         .append(" width=\"").append(size).append("px\"")
+         .append(" height=\"").append(size).append("px\"");
+      if (i % 2 == 0) {
+        xml.append(">\n<effect><onActive name=\"fade\" start=\"#f\" end=\"#8\" length=\"1000000\" /></effect>\n</image>\n");
+      } else {
+        xml.append(" />\n");
+      }
+    }
+    xml.append("</layer>\n");
+    end(xml);
+    return xml.toString();
+  }
+
+  /**
+   * Generate a screen with a deep tree of panels. Every panel has a "#item" sub id so that the ids look
+   * like the ones generated for controls.
+   * @param depth depth of the tree
+   * @param children number of child panels of every panel
+   * @return the nifty xml
+   */
+  public static String deepScreen(final int depth, final int children) {
+    StringBuilder xml = new StringBuilder();
+    begin(xml);
+    xml.append("<layer id=\"layer\" childLayout=\"vertical\">\n");
+    appendDeepPanel(xml, "p", depth, children);
+    xml.append("</layer>\n");
+    end(xml);
+    return xml.toString();
+  }
+
+  private static void appendDeepPanel(final StringBuilder xml, final String id, final int depth, final int children) {
+    String layout = depth % 2 == 0 ? "vertical" : "horizontal";
+    xml.append("<panel id=\"").append(id).append("#item\" childLayout=\"").append(layout).append("\"")
+       .append(" width=\"*\" height=\"*\" visibleToMouse=\"true\">\n");
+    if (depth > 1) {
+      for (int i=0; i<children; i++) {
+        appendDeepPanel(xml, id + "-" + i, depth - 1, children);
+      }
+    } else {
+      xml.append("<text font=\"benchmark.fnt\" text=\"").append(id).append("\" />\n");
+    }
+    xml.append("</panel>\n");
+  }
+
+  private static void appendEffects(final StringBuilder xml, final boolean active) {
+    xml.append("<effect>\n");
+    if (active) {
+      xml.append("<onActive name=\"colorBar\" color=\"#f008\" post=\"true\" />\n");
+    }
+    xml.append("<onHover name=\"colorBar\" color=\"#0f08\" post=\"true\" />\n");
+    xml.append("</effect>\n");
+  }
+
+  private static void begin(final StringBuilder xml) {
+    xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    xml.append("<nifty>\n");
+    xml.append("<registerEffect name=\"colorBar\" class=\"de.lessvoid.nifty.effects.impl.ColorBar\" />\n");
+    xml.append("<screen id=\"").append(SCREEN_ID).append("\">\n");
+  }
+
+  private static void end(final StringBuilder xml) {
+    xml.append("</screen>\n");
+    xml.append("</nifty>\n");
+  }
+}
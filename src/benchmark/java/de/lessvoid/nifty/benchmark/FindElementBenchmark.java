@@ -0,0 +1,71 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.screen.Screen;
+
+/**
+ * findElementByName() with full ids and with "#id" sub ids on a deep element tree.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindElementBenchmark {
+  @Param({"6"})
+  private int depth;
+
+  @Param({"4"})
+  private int children;
+
+  private Screen screen;
+  private Element parent;
+  private String lastId;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    Nifty nifty = BenchmarkScreens.createNifty(new BenchmarkInputSystem());
+    BenchmarkScreens.load(nifty, BenchmarkScreens.deepScreen(depth, children));
+    screen = nifty.getCurrentScreen();
+
+    StringBuilder id = new StringBuilder("p");
+    for (int i=1; i<depth; i++) {
+      id.append("-").append(children - 1);
+    }
+    lastId = id.append("#item").toString();
+    parent = screen.findElementByName("p-" + (children - 1) + "#item");
+  }
+
+  @Benchmark
+  public Element findById() {
+    return screen.findElementByName(lastId);
+  }
+
+  @Benchmark
+  public Element findBySubIdBelowElement() {
+    return parent.findElementByName("#item");
+  }
+
+  @Benchmark
+  public Element findMissing() {
+    return screen.findElementByName("missing");
+  }
+}
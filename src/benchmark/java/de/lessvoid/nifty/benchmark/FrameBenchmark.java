@@ -0,0 +1,54 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+
+/**
+ * A complete frame (Nifty.update() and Nifty.render()) of a synthetic screen.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark {
+  @Param({"100", "1000"})
+  private int panels;
+
+  @Param({"200"})
+  private int texts;
+
+  @Param({"0", "50"})
+  private int effects;
+
+  private Nifty nifty;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    nifty = BenchmarkScreens.createNifty(new BenchmarkInputSystem());
+    BenchmarkScreens.load(nifty, BenchmarkScreens.flatScreen(panels, texts, effects));
+  }
+
+  @Benchmark
+  public boolean frame() {
+    boolean done = nifty.update();
+    nifty.render(true);
+    return done;
+  }
+}
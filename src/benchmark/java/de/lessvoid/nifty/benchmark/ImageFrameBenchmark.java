@@ -0,0 +1,53 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+
+/**
+ * A complete frame of a screen that shows lots of images. Run it with "-prof gc": gc.alloc.rate.norm is the
+ * garbage produced per frame. Only a batching RenderDevice gets reused Color instances, a plain RenderDevice
+ * still gets a new Color for every image.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageFrameBenchmark {
+  @Param({"500"})
+  private int images;
+
+  @Param({"false", "true"})
+  private boolean batch;
+
+  private Nifty nifty;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    nifty = BenchmarkScreens.createNifty(new BenchmarkInputSystem(), batch);
+    BenchmarkScreens.load(nifty, BenchmarkScreens.imageScreen(images));
+  }
+
+  @Benchmark
+  public boolean frame() {
+    boolean done = nifty.update();
+    nifty.render(true);
+    return done;
+  }
+}
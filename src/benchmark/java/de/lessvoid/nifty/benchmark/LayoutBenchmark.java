@@ -0,0 +1,70 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.screen.Screen;
+
+/**
+ * Layout of a deep element tree. Either the whole tree or only a single leaf is invalidated.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+  @Param({"4", "6"})
+  private int depth;
+
+  @Param({"4"})
+  private int children;
+
+  private Screen screen;
+  private Element layer;
+  private Element leaf;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    Nifty nifty = BenchmarkScreens.createNifty(new BenchmarkInputSystem());
+    BenchmarkScreens.load(nifty, BenchmarkScreens.deepScreen(depth, children));
+    screen = nifty.getCurrentScreen();
+    layer = screen.findElementByName("layer");
+
+    StringBuilder leafId = new StringBuilder("p");
+    for (int i=1; i<depth; i++) {
+      leafId.append("-").append(children - 1);
+    }
+    leaf = screen.findElementByName(leafId.append("#item").toString());
+  }
+
+  @Benchmark
+  public Element layoutAll() {
+    layer.resetLayout();
+    screen.layoutLayers();
+    return layer;
+  }
+
+  @Benchmark
+  public Element layoutSingleLeaf() {
+    leaf.resetLayout();
+    screen.layoutLayers();
+    return leaf;
+  }
+}
@@ -0,0 +1,62 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+
+/**
+ * A storm of mouse move events over a synthetic screen. Every Nifty.update() processes all moves.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MouseMoveBenchmark {
+  @Param({"100", "1000"})
+  private int panels;
+
+  @Param({"100"})
+  private int moves;
+
+  private Nifty nifty;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    BenchmarkInputSystem inputSystem = new BenchmarkInputSystem();
+    nifty = BenchmarkScreens.createNifty(inputSystem);
+    BenchmarkScreens.load(nifty, BenchmarkScreens.flatScreen(panels, 0, 0));
+    nifty.update();
+    nifty.render(true);
+
+    Random random = new Random(42);
+    int[] mouseX = new int[moves];
+    int[] mouseY = new int[moves];
+    for (int i=0; i<moves; i++) {
+      mouseX[i] = random.nextInt(BenchmarkScreens.SCREEN_WIDTH);
+      mouseY[i] = random.nextInt(BenchmarkScreens.SCREEN_HEIGHT);
+    }
+    inputSystem.setMouseMoves(mouseX, mouseY);
+  }
+
+  @Benchmark
+  public boolean mouseMoves() {
+    return nifty.update();
+  }
+}
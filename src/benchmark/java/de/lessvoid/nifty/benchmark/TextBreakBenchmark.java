@@ -0,0 +1,99 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.elements.tools.TextBreak;
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+/**
+ * Wrapping text with TextBreak compared to the old implementation (LegacyTextBreak).
+ *
+ * - tooltip: a short text with a few words wrapped into a narrow box
+ * - chatlog: a long chat log with hard line breaks, some very long words (urls) and a wide box
+ *
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBreakBenchmark {
+  @Param({"tooltip", "chatlog"})
+  private String text;
+
+  private RenderFont font = new BenchmarkRenderDevice.BenchmarkFont();
+  private String[] lines;
+  private int width;
+  private TextBreak textBreak = new TextBreak();
+  private List < String > result = new ArrayList < String >();
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    if ("tooltip".equals(text)) {
+      lines = new String[] { createLine(random, 30, 0) };
+      width = 200;
+    } else {
+      lines = new String[500];
+      for (int i=0; i<lines.length; i++) {
+        lines[i] = "<player" + i + "> " + createLine(random, 5 + random.nextInt(60), i % 10 == 0 ? 80 : 0);
+      }
+      width = 600;
+    }
+  }
+
+  @Benchmark
+  public List < String > legacy() {
+    List < String > all = new ArrayList < String >();
+    for (int i=0; i<lines.length; i++) {
+      all.addAll(new LegacyTextBreak(lines[i], width, font).split());
+    }
+    return all;
+  }
+
+  @Benchmark
+  public List < String > current() {
+    result.clear();
+    for (int i=0; i<lines.length; i++) {
+      textBreak.split(lines[i], width, font, result);
+    }
+    return result;
+  }
+
+  private String createLine(final Random random, final int words, final int longWordLength) {
+    StringBuilder line = new StringBuilder();
+    for (int i=0; i<words; i++) {
+      if (i > 0) {
+        line.append(' ');
+      }
+      int length = 2 + random.nextInt(8);
+      for (int j=0; j<length; j++) {
+        line.append((char) ('a' + random.nextInt(26)));
+      }
+    }
+    if (longWordLength > 0) {
+      line.append(" http://");
+      for (int j=0; j<longWordLength; j++) {
+        line.append((char) ('a' + random.nextInt(26)));
+      }
+    }
+    return line.toString();
+  }
+}
@@ -0,0 +1,50 @@
+package de.lessvoid.nifty.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.lessvoid.nifty.Nifty;
+
+/**
+ * Loading a large generated nifty xml file into a new Nifty instance.
+ * @author void
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XmlLoadingBenchmark {
+  @Param({"1000"})
+  private int panels;
+
+  @Param({"1000"})
+  private int texts;
+
+  private String xml;
+
+  @Setup
+  public void setup() {
+    BenchmarkScreens.disableLogging();
+    xml = BenchmarkScreens.flatScreen(panels, texts, panels / 10);
+  }
+
+  @Benchmark
+  public Nifty load() {
+    Nifty nifty = BenchmarkScreens.createNifty(new BenchmarkInputSystem());
+    BenchmarkScreens.load(nifty, xml);
+    return nifty;
+  }
+}
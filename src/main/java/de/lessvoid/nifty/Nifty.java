@@ -3,6 +3,7 @@ package de.lessvoid.nifty;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,18 +12,19 @@ import org.bushe.swing.event.EventServiceExistsException;
 import org.bushe.swing.event.EventServiceLocator;
 import org.bushe.swing.event.EventTopicSubscriber;
 import org.bushe.swing.event.ProxySubscriber;
-import org.bushe.swing.event.ThreadSafeEventService;
 import org.bushe.swing.event.annotation.ReferenceStrength;
 
 import de.lessvoid.nifty.controls.StandardControl;
 import de.lessvoid.nifty.effects.EffectEventId;
 import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.elements.render.ImageRenderer;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 import de.lessvoid.nifty.input.keyboard.KeyboardInputEvent;
 import de.lessvoid.nifty.input.mouse.MouseInputEventProcessor;
 import de.lessvoid.nifty.layout.Box;
 import de.lessvoid.nifty.layout.BoxConstraints;
 import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.loaderv2.CompiledNiftyXml;
 import de.lessvoid.nifty.loaderv2.NiftyLoader;
 import de.lessvoid.nifty.loaderv2.RootLayerFactory;
 import de.lessvoid.nifty.loaderv2.types.ControlDefinitionType;
@@ -30,6 +32,7 @@ import de.lessvoid.nifty.loaderv2.types.ElementType;
 import de.lessvoid.nifty.loaderv2.types.LayerType;
 import de.lessvoid.nifty.loaderv2.types.NiftyType;
 import de.lessvoid.nifty.loaderv2.types.PopupType;
+import de.lessvoid.nifty.loaderv2.types.PreparedElementTypeCache;
 import de.lessvoid.nifty.loaderv2.types.RegisterEffectType;
 import de.lessvoid.nifty.loaderv2.types.RegisterMusicType;
 import de.lessvoid.nifty.loaderv2.types.RegisterSoundType;
@@ -46,6 +49,7 @@ import de.lessvoid.nifty.screen.Screen;
 import de.lessvoid.nifty.screen.ScreenController;
 import de.lessvoid.nifty.sound.SoundSystem;
 import de.lessvoid.nifty.spi.input.InputSystem;
+import de.lessvoid.nifty.spi.render.AsyncRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.sound.SoundDevice;
 import de.lessvoid.nifty.tools.ObjectPool;
@@ -95,7 +99,14 @@ public class Nifty {
   private NiftyMouseImpl niftyMouse;
   private NiftyInputConsumerImpl niftyInputConsumer = new NiftyInputConsumerImpl();
   private SubscriberRegistry subscriberRegister = new SubscriberRegistry();
+  private NiftyEventDispatcher eventDispatcher = new NiftyEventDispatcher();
+  private NiftyEventService eventService;
+  private PreparedElementTypeCache preparedElementTypes = new PreparedElementTypeCache();
   private boolean debugOptionPanelColors;
+  private boolean retainedRenderMode;
+  private NiftyStatistics statistics = new NiftyStatistics();
+  private ExecutorService loadingExecutor;
+  private boolean imagePreloadingSupported;
 
   /**
    * Create nifty with optional console parameter.
@@ -109,7 +120,10 @@ public class Nifty {
       final SoundDevice newSoundDevice,
       final InputSystem newInputSystem,
       final TimeProvider newTimeProvider) {
-    initialize(new NiftyRenderEngineImpl(newRenderDevice), new SoundSystem(newSoundDevice), newInputSystem, newTimeProvider);
+    NiftyRenderEngineImpl newRenderEngine = new NiftyRenderEngineImpl(newRenderDevice);
+    newRenderEngine.setStatistics(statistics);
+    imagePreloadingSupported = newRenderDevice instanceof AsyncRenderDevice;
+    initialize(newRenderEngine, new SoundSystem(newSoundDevice), newInputSystem, newTimeProvider);
   }
 
   /**
@@ -149,27 +163,80 @@ public class Nifty {
   }
 
   private void initalizeEventBus() throws EventServiceExistsException {
-    EventServiceLocator.setEventService("NiftyEventBus", new ThreadSafeEventService());
+    eventService = new NiftyEventService();
+    EventServiceLocator.setEventService("NiftyEventBus", eventService);
   }
 
+  /**
+   * The EventBus EventService all events published with publishEvent() are forwarded to. Nifty itself delivers
+   * its events with the NiftyEventDispatcher. The events are only forwarded to the EventService when someone has
+   * subscribed to it directly, so publishing to this EventService does not reach the subscribers registered with
+   * subscribe() or the NiftyEventSubscriber annotation. Use publishEvent() for that.
+   * @return the EventService
+   */
   public EventService getEventService() {
     return EventServiceLocator.getEventService("NiftyEventBus");
   }
 
+  /**
+   * @return the dispatcher that delivers the events published with publishEvent()
+   */
+  public NiftyEventDispatcher getEventDispatcher() {
+    return eventDispatcher;
+  }
+
   @SuppressWarnings("rawtypes")
   public void publishEvent(final String id, final NiftyEvent event) {
     // we can't publish events for elements without an id
     if (id != null) {
-      getEventService().publish(id, event);
+      eventDispatcher.publish(id, event);
+      if (isEventServiceSubscribed()) {
+        getEventService().publish(id, event);
+      }
+    }
+  }
+
+  /**
+   * Publish an event from a thread other than the one that calls update(). The event is delivered with the next
+   * call of update().
+   * @param id the id of the element
+   * @param event the event
+   */
+  @SuppressWarnings("rawtypes")
+  public void publishEventLater(final String id, final NiftyEvent event) {
+    if (id != null) {
+      eventDispatcher.publishLater(id, event);
+    }
+  }
+
+  /**
+   * Check if anyone would receive an event published for the given id. This allows to skip creating events
+   * nobody listens to.
+   * @param id the id of the element
+   * @return true when there is at least one subscriber
+   */
+  public boolean hasEventSubscribers(final String id) {
+    if (id == null) {
+      return false;
     }
+    return eventDispatcher.hasSubscribers(id) || isEventServiceSubscribed();
+  }
+
+  private boolean isEventServiceSubscribed() {
+    EventService current = getEventService();
+    if (current != eventService) {
+      // someone else registered the EventService (another Nifty instance or the application), so we can't know
+      return true;
+    }
+    return eventService.hasSubscriptions();
   }
 
   public void subscribeAnnotations(final Object object) {
-    NiftyEventAnnotationProcessor.process(object);
+    NiftyEventAnnotationProcessor.process(object, eventDispatcher);
   }
 
   public void unsubscribeAnnotations(final Object object) {
-    NiftyEventAnnotationProcessor.unprocess(object);
+    NiftyEventAnnotationProcessor.unprocess(object, eventDispatcher);
   }
 
   public <T, S extends EventTopicSubscriber<? extends T>> void subscribe(final Screen screen, final String elementId, final Class<T> eventClass, final S subscriber) {
@@ -178,7 +245,7 @@ public class Nifty {
       return;
     }
     ClassSaveEventTopicSubscriber theSubscriber = new ClassSaveEventTopicSubscriber(elementId, subscriber, eventClass);
-    getEventService().subscribeStrongly(elementId, theSubscriber);
+    eventDispatcher.subscribe(elementId, theSubscriber);
     NiftyDefaults.eventBusLog.info("-> subscribe [" + elementId + "] screen [" + screen + "] -> [" + theSubscriber + "(" + subscriber + "),(" + eventClass + ")]");
 
     subscriberRegister.register(screen, elementId, theSubscriber);
@@ -191,7 +258,7 @@ public class Nifty {
         log.warning("trying to unsubscribe events for an element with elementId = null. this won't work. offending object \"" + object + "\". try to find the offending element and give it an id!");
         return;
       }
-      getEventService().unsubscribe(elementId, (EventTopicSubscriber<?>) object);
+      eventDispatcher.unsubscribe(elementId, object);
       NiftyDefaults.eventBusLog.info("<- unsubscribe [" + elementId + "] -> [" + object + "]");
     }
   }
@@ -213,18 +280,27 @@ public class Nifty {
    * @return true when nifty has finished processing the screen and false when rendering should continue.
    */
   public boolean update() {
+    long updateStart = statistics.startTiming();
+    eventDispatcher.dispatchQueuedEvents();
     if (!currentScreen.isNull()) {
+      long inputStart = statistics.startTiming();
       mouseInputEventProcessor.begin();
       inputSystem.forwardEvents(niftyInputConsumer);
       if (mouseInputEventProcessor.hasLastMouseDownEvent()) {
         forwardMouseEventToScreen(mouseInputEventProcessor.getLastMouseDownEvent());
       }
+      statistics.stopTiming(NiftyStatistics.Timing.INPUT, inputStart);
     }
+    long dynamicElementsStart = statistics.startTiming();
     handleDynamicElements();
+    statistics.stopTiming(NiftyStatistics.Timing.DYNAMIC_ELEMENTS, dynamicElementsStart);
+    long soundStart = statistics.startTiming();
     updateSoundSystem();
+    statistics.stopTiming(NiftyStatistics.Timing.SOUND, soundStart);
     if (log.isLoggable(Level.FINER)) {
       log.fine(currentScreen.debugOutput());
     }
+    statistics.stopTiming(NiftyStatistics.Timing.UPDATE, updateStart);
     return exit;
   }
 
@@ -241,6 +317,7 @@ public class Nifty {
    * @param clearScreen true if nifty should clean the screen and false when you've done that already.
    */
   public void render(final boolean clearScreen) {
+    long renderStart = statistics.startTiming();
     renderEngine.beginFrame();
     if (clearScreen) {
       renderEngine.clear();
@@ -254,6 +331,8 @@ public class Nifty {
       renderEngine.clear();
     }
     renderEngine.endFrame();
+    statistics.stopTiming(NiftyStatistics.Timing.RENDER, renderStart);
+    statistics.endFrame();
 
     // now that the frame is complete we can reset the renderdevice in case of the resolution change
     if (resolutionChanged) {
@@ -362,9 +441,22 @@ public class Nifty {
     if (hasEndOfFrameElementActions()) {
       ArrayList<EndOfFrameElementAction> listCopy = new ArrayList<EndOfFrameElementAction>(endOfFrameElementActions);
       endOfFrameElementActions.clear();
+
+      // all removes and moves of this frame are layouted once per screen when the updates are committed
       for (int i=0; i<listCopy.size(); i++) {
-        EndOfFrameElementAction elementAction = listCopy.get(i);
-        elementAction.perform();
+        listCopy.get(i).beginUpdate();
+      }
+      try {
+        for (int i=0; i<listCopy.size(); i++) {
+          listCopy.get(i).perform();
+        }
+      } finally {
+        for (int i=0; i<listCopy.size(); i++) {
+          listCopy.get(i).commit();
+        }
+      }
+      for (int i=0; i<listCopy.size(); i++) {
+        listCopy.get(i).notifyEnd();
       }
     }
   }
@@ -449,6 +541,42 @@ public class Nifty {
     gotoScreen(startScreen);
   }
 
+  /**
+   * Initialize this Nifty instance from the given compiled nifty xml file (see CompiledNiftyXml).
+   * @param filename filename of the compiled nifty xml
+   * @param startScreen screen to start exec
+   */
+  public void fromBinary(final String filename, final String startScreen) {
+    prepareScreens(filename);
+    loadFromBinary(filename);
+    gotoScreen(startScreen);
+  }
+
+  /**
+   * Initialize this Nifty instance from the given compiled nifty xml file (see CompiledNiftyXml).
+   * @param filename filename of the compiled nifty xml
+   * @param startScreen screen to start exec
+   * @param controllers controllers to use
+   */
+  public void fromBinary(
+      final String filename,
+      final String startScreen,
+      final ScreenController ... controllers) {
+    registerScreenController(controllers);
+    prepareScreens(filename);
+    loadFromBinary(filename);
+    gotoScreen(startScreen);
+  }
+
+  /**
+   * Load an additional compiled nifty xml file without removing any of the data that might already been
+   * loaded.
+   * @param filename the compiled file to load
+   */
+  public void addBinary(final String filename) {
+    loadFromBinary(filename);
+  }
+
   /**
    * Load an additional xml file without removing any of the data that might already been loaded.
    * @param filename the file to load
@@ -527,6 +655,27 @@ public class Nifty {
     }
   }
 
+  /**
+   * load from the given compiled nifty xml file.
+   * @param filename filename to load
+   */
+  void loadFromBinary(final String filename) {
+    log.info("loadFromBinary [" + filename + "]");
+
+    try {
+      long start = timeProvider.getMsTime();
+      NiftyType niftyType = loader.loadNiftyBinary("nifty.nxs", CompiledNiftyXml.read(filename), this);
+      niftyType.create(this, timeProvider);
+      if (log.isLoggable(Level.INFO)) {
+        log.info(niftyType.output());
+      }
+      long end = timeProvider.getMsTime();
+      log.info("loadFromBinary took [" + (end - start) + "]");
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
+  }
+
   /**
    * prepare/reset screens.
    * @param xmlId xml id
@@ -935,10 +1084,13 @@ public class Nifty {
       element.resetAllEffects();
       element.onEndScreen(screen);
 
+      screen.unregisterElement(element);
       removeSingleElement(screen, element);
       Element parent = element.getParent();
       if (parent != null) {
         parent.getElements().remove(element);
+        parent.markRenderDirty();
+        parent.markLayoutDirty();
 
         // when the parent is the root element then the element we're removing is a layer element
         if (parent == screen.getRootElement()) {
@@ -952,6 +1104,7 @@ public class Nifty {
       Iterator < Element > elementIt = element.getElements().iterator();
       while (elementIt.hasNext()) {
         Element el = elementIt.next();
+        screen.unregisterElement(el);
         removeSingleElement(screen, el);
         elementIt.remove();
       }
@@ -969,6 +1122,8 @@ public class Nifty {
       Element parent = element.getParent();
       if (parent != null) {
         parent.getElements().remove(element);
+        parent.markRenderDirty();
+        parent.markLayoutDirty();
       }
       element.setParent(destinationElement);
       destinationElement.add(element);
@@ -989,8 +1144,19 @@ public class Nifty {
       this.endNotify = endNotify;
     }
 
+    public void beginUpdate() {
+      screen.beginUpdate();
+    }
+
     public void perform() {
       action.perform(screen, element);
+    }
+
+    public void commit() {
+      screen.commit();
+    }
+
+    public void notifyEnd() {
       if (endNotify != null) {
         endNotify.perform();
       }
@@ -1075,10 +1241,19 @@ public class Nifty {
   public void registerStyle(final StyleType style) {
     log.fine("registerStyle " + style.getStyleId());
     styles.put(style.getStyleId(), style);
+    preparedElementTypes.clear();
   }
 
   public void registerControlDefintion(final ControlDefinitionType controlDefintion) {
     controlDefintions.put(controlDefintion.getName(), controlDefintion);
+    preparedElementTypes.clear();
+  }
+
+  /**
+   * @return the cache of prepared ElementTypes that createElementFromType() uses
+   */
+  public PreparedElementTypeCache getPreparedElementTypeCache() {
+    return preparedElementTypes;
   }
 
   public void registerEffect(final RegisterEffectType registerEffectType) {
@@ -1330,12 +1505,15 @@ public class Nifty {
 
     private boolean processEvent(final NiftyMouseInputEvent mouseInputEvent) {
       boolean handled = true;
-      if (mouseInputEventProcessor.canProcess(mouseInputEvent)) {
-        mouseInputEventProcessor.process(mouseInputEvent);
-        handled = forwardMouseEventToScreen(mouseInputEvent);
-        handleDynamicElements();
+      try {
+        if (mouseInputEventProcessor.canProcess(mouseInputEvent)) {
+          mouseInputEventProcessor.process(mouseInputEvent);
+          handled = forwardMouseEventToScreen(mouseInputEvent);
+          handleDynamicElements();
+        }
+      } finally {
+        pool.free(mouseInputEvent);
       }
-      pool.free(mouseInputEvent);
       return handled;
     }
   }
@@ -1363,7 +1541,8 @@ public class Nifty {
     @SuppressWarnings("unchecked")
     @Override
     public void onEvent(final String topic, final Object data) {
-      if (eventClass.isInstance(data)) {
+      // target is null when we've been unsubscribed while the event was dispatched
+      if (target != null && eventClass.isInstance(data)) {
         target.onEvent(topic, data);
       }
     }
@@ -1396,17 +1575,12 @@ public class Nifty {
   }
 
   private Element createElementFromTypeInternal(final Screen screen, final Element parent, final ElementType type, final LayoutPart layoutPart) {
-    ElementType elementType = type.copy();
-    elementType.prepare(this, screen, screen.getRootElement().getElementType());
+    ElementType elementType = preparedElementTypes.prepare(this, screen, type);
     elementType.connectParentControls(parent);
     Element element = elementType.create(parent, this, screen, layoutPart);
     if (screen.isBound()) {
       screen.layoutLayers();
-      element.bindControls(screen);
-      element.initControls();
-      element.startEffect(EffectEventId.onStartScreen);
-      element.startEffect(EffectEventId.onActive);
-      element.onStartScreen();
+      screen.startElement(element);
     }
     return element;
   }
@@ -1421,6 +1595,65 @@ public class Nifty {
     return renderEngine.createImage(name, filterLinear);
   }
 
+  /**
+   * Check if all the images of the given screen are loaded. When the RenderDevice implements AsyncRenderDevice
+   * the images are loaded in the background and a screen might be shown before all of its images are available.
+   * To prevent this call this method once per frame until it returns true and go to the screen then. Images of
+   * the screen that are still loading are loaded before all other images.
+   * @param screenId the screen
+   * @return true when all images of the screen are loaded (or the screen doesn't exist)
+   */
+  public boolean preloadScreenImages(final String screenId) {
+    Screen screen = screens.get(screenId);
+    if (screen == null) {
+      return true;
+    }
+    boolean loaded = true;
+    for (Element layer : screen.getLayerElements()) {
+      loaded &= preloadElementImages(layer);
+    }
+    return loaded;
+  }
+
+  /**
+   * Pin or unpin all images of the given screen. Pinned images are kept loaded even when the elements that use
+   * them are removed, so screens that are shown often don't load their images again each time.
+   * @param screenId the id of the screen
+   * @param pin true to pin and false to unpin the images
+   */
+  public void pinScreenImages(final String screenId, final boolean pin) {
+    Screen screen = screens.get(screenId);
+    if (screen == null) {
+      return;
+    }
+    for (Element layer : screen.getLayerElements()) {
+      pinElementImages(layer, pin);
+    }
+  }
+
+  private void pinElementImages(final Element element, final boolean pin) {
+    ImageRenderer imageRenderer = element.getRenderer(ImageRenderer.class);
+    if (imageRenderer != null && imageRenderer.getImage() != null) {
+      imageRenderer.getImage().setPinned(pin);
+    }
+    for (Element child : element.getElements()) {
+      pinElementImages(child, pin);
+    }
+  }
+
+  private boolean preloadElementImages(final Element element) {
+    boolean loaded = true;
+    ImageRenderer imageRenderer = element.getRenderer(ImageRenderer.class);
+    if (imageRenderer != null && imageRenderer.getImage() != null && !imageRenderer.getImage().isLoaded()) {
+      imageRenderer.getImage().setLoadPriority(Integer.MAX_VALUE);
+      loaded = false;
+    }
+    for (Element child : element.getElements()) {
+      loaded &= preloadElementImages(child);
+    }
+    return loaded;
+  }
+
   /**
    * You can set this option to true to let Nifty automatically render all panels in random
    * background colors for debugging purposes.
@@ -1438,6 +1671,62 @@ public class Nifty {
     return debugOptionPanelColors;
   }
 
+  /**
+   * Enable or disable retained render mode. In retained render mode each element records its output
+   * and replays the recorded output in the next frame when nothing has changed. This saves walking
+   * the whole element tree every frame for static screens. Custom ElementRenderer implementations
+   * need to implement RetainedElementRenderer to take part in this, all other elements are still
+   * rendered every frame. This is disabled by default.
+   * @param retainedRenderMode enable (true) or disable (false) retained render mode
+   */
+  public void setRetainedRenderMode(final boolean retainedRenderMode) {
+    this.retainedRenderMode = retainedRenderMode;
+  }
+
+  /**
+   * Returns true if retained render mode is enabled.
+   * @return true if retained render mode is enabled and false if not
+   */
+  public boolean isRetainedRenderMode() {
+    return retainedRenderMode;
+  }
+
+  /**
+   * Set an ExecutorService to prepare screens, popups and control definitions in parallel when xml is
+   * loaded. Only the preparation (resolving styles, controls and parameters) runs on the executor.
+   * Creating the elements and registering them with Nifty is still done on the thread that loads the
+   * xml. Note that ${CALL.method()} values then call the ScreenController from the executor threads.
+   * Nifty doesn't shut the executor down. This is disabled (null) by default.
+   * @param executor the ExecutorService to use or null to prepare everything on the calling thread
+   */
+  public void setLoadingExecutor(final ExecutorService executor) {
+    this.loadingExecutor = executor;
+  }
+
+  /**
+   * Get the ExecutorService used to prepare screens when xml is loaded.
+   * @return the ExecutorService or null when everything is prepared on the calling thread
+   */
+  public ExecutorService getLoadingExecutor() {
+    return loadingExecutor;
+  }
+
+  /**
+   * @return true when the RenderDevice implements AsyncRenderDevice and images can be preloaded in the background
+   */
+  public boolean isImagePreloadingSupported() {
+    return imagePreloadingSupported;
+  }
+
+  /**
+   * Get the per frame statistics of this Nifty instance. They are disabled by default, use
+   * getStatistics().setEnabled(true) to record them.
+   * @return the NiftyStatistics
+   */
+  public NiftyStatistics getStatistics() {
+    return statistics;
+  }
+
   /**
    * A helper method to call the special values replace method ${} syntax
    * @param value the value to perform the replace on
@@ -1474,7 +1763,7 @@ public class Nifty {
           List < ClassSaveEventTopicSubscriber > list = entry.getValue();
           for (int i=0; i<list.size(); i++) {
             ClassSaveEventTopicSubscriber subscriber = list.get(i);
-            getEventService().unsubscribe(subscriber.getElementId(), subscriber);
+            eventDispatcher.unsubscribe(subscriber.getElementId(), subscriber);
             NiftyDefaults.eventBusLog.info("<- unsubscribe screen for [" + screen + "] [" + subscriber.getElementId() + "] -> [" + subscriber + "]");
           }
           list.clear();
@@ -1494,7 +1783,7 @@ public class Nifty {
         if (list != null && !list.isEmpty()) {
           for (int i=0; i<list.size(); i++) {
             ClassSaveEventTopicSubscriber subscriber = list.get(i);
-            getEventService().unsubscribe(subscriber.getElementId(), subscriber);
+            eventDispatcher.unsubscribe(subscriber.getElementId(), subscriber);
             NiftyDefaults.eventBusLog.info("<- unsubscribe element [" + elementId + "] [" + subscriber.getElementId() + "] -> [" + subscriber + "]");
           }
           list.clear();
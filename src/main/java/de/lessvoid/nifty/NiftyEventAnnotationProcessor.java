@@ -15,15 +15,39 @@ import org.bushe.swing.event.annotation.ReferenceStrength;
 public class NiftyEventAnnotationProcessor {
   private static Logger log = Logger.getLogger(NiftyEventAnnotationProcessor.class.getName());
 
+  /**
+   * Subscribe the NiftyEventSubscriber methods of the object to the "NiftyEventBus" EventService. Nifty forwards
+   * the events it publishes to this EventService as long as it has subscribers. Nifty.subscribeAnnotations()
+   * subscribes to the NiftyEventDispatcher of the Nifty instance instead which is faster.
+   * @param obj the object
+   */
   public static void process(final Object obj) {
-    processOrUnprocess(obj, true);
+    processOrUnprocess(obj, null, true);
   }
 
+  /**
+   * Unsubscribe an object subscribed with process(Object).
+   * @param obj the object
+   */
   public static void unprocess(final Object obj) {
-    processOrUnprocess(obj, false);
+    processOrUnprocess(obj, null, false);
   }
 
-  private static void processOrUnprocess(final Object obj, final boolean add) {
+  public static void process(final Object obj, final NiftyEventDispatcher dispatcher) {
+    processOrUnprocess(obj, dispatcher, true);
+  }
+
+  public static void unprocess(final Object obj, final NiftyEventDispatcher dispatcher) {
+    processOrUnprocess(obj, dispatcher, false);
+  }
+
+  /**
+   * Subscribe or unsubscribe all NiftyEventSubscriber methods of the object.
+   * @param obj the object
+   * @param dispatcher the NiftyEventDispatcher or null to use the "NiftyEventBus" EventService
+   * @param add true to subscribe and false to unsubscribe
+   */
+  private static void processOrUnprocess(final Object obj, final NiftyEventDispatcher dispatcher, final boolean add) {
     if (obj == null) {
       return;
     }
@@ -38,22 +62,21 @@ public class NiftyEventAnnotationProcessor {
         if (log.isLoggable(Level.FINE)) {
           log.fine("Found NiftyEventSubscriber:" + niftyEventSubscriber + " on method:" + method);
         }
-        process(niftyEventSubscriber, obj, method, add);
+        process(niftyEventSubscriber, obj, method, dispatcher, add);
       }
     }
   }
 
-  private static void process(final NiftyEventSubscriber annotation, final Object obj, final Method method, final boolean add) {
+  private static void process(final NiftyEventSubscriber annotation, final Object obj, final Method method, final NiftyEventDispatcher dispatcher, final boolean add) {
     String id = annotation.id();
     String pattern = annotation.pattern();
     ensureNotNull(id, pattern);
     ensureMethodParamCount(method.getParameterTypes());
-    EventService eventService = getEventService();
     Class<?> eventClass = method.getParameterTypes()[1];
     if (isSet(id)) {
-      idProcess(obj, method, add, id, eventClass, eventService);
+      idProcess(obj, method, add, id, eventClass, dispatcher);
     } else {
-      patternProcess(obj, method, add, pattern, eventClass, eventService);
+      patternProcess(obj, method, add, pattern, eventClass, dispatcher);
     }
   }
 
@@ -73,25 +96,41 @@ public class NiftyEventAnnotationProcessor {
     }
   }
 
-  private static void patternProcess(final Object obj, final Method method, final boolean add, final String topicPattern, final Class<?> eventClass, final EventService eventService) {
+  private static void patternProcess(final Object obj, final Method method, final boolean add, final String topicPattern, final Class<?> eventClass, final NiftyEventDispatcher dispatcher) {
     Pattern pattern = Pattern.compile(topicPattern);
     if (add) {
       Subscriber subscriber = new Subscriber(obj, method, eventClass);
-      eventService.subscribeStrongly(pattern, subscriber);
+      if (dispatcher != null) {
+        dispatcher.subscribe(pattern, subscriber);
+      } else {
+        getEventService().subscribeStrongly(pattern, subscriber);
+      }
       NiftyDefaults.eventBusLog.info("-> subscribe [" + pattern + "] -> [" + subscriber + "]");
     } else {
-      eventService.unsubscribe(pattern, obj);
+      if (dispatcher != null) {
+        dispatcher.unsubscribe(pattern, obj);
+      } else {
+        getEventService().unsubscribe(pattern, obj);
+      }
       NiftyDefaults.eventBusLog.info("<- unsubscribe [" + pattern + "] -> [" + obj + "]");
     }
   }
 
-  private static void idProcess(final Object obj, final Method method, final boolean add, final String id, final Class<?> eventClass, final EventService eventService) {
+  private static void idProcess(final Object obj, final Method method, final boolean add, final String id, final Class<?> eventClass, final NiftyEventDispatcher dispatcher) {
     if (add) {
       Subscriber subscriber = new Subscriber(obj, method, eventClass);
-      eventService.subscribeStrongly(id, subscriber);
+      if (dispatcher != null) {
+        dispatcher.subscribe(id, subscriber);
+      } else {
+        getEventService().subscribeStrongly(id, subscriber);
+      }
       NiftyDefaults.eventBusLog.info("-> subscribe [" + id + "] -> [" + subscriber + "]");
     } else {
-      eventService.unsubscribe(id, obj);
+      if (dispatcher != null) {
+        dispatcher.unsubscribe(id, obj);
+      } else {
+        getEventService().unsubscribe(id, obj);
+      }
       NiftyDefaults.eventBusLog.info("<- unsubscribe [" + id + "] -> [" + obj + "]");
     }
   }
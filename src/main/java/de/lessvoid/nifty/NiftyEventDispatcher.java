@@ -0,0 +1,234 @@
+package de.lessvoid.nifty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+import org.bushe.swing.event.ProxySubscriber;
+
+/**
+ * Delivers the events Nifty publishes for element ids to the subscribers registered with Nifty.subscribe() and
+ * the NiftyEventSubscriber annotations.
+ *
+ * The subscribers for an id (the subscribers of the id itself followed by the subscribers of all patterns that
+ * match the id) are resolved into an array the first time an event is published for that id and reused until
+ * the subscriptions change. Publishing an event is therefore a single map lookup and a loop over an array, and
+ * hasSubscribers() allows to skip creating the event at all when nobody listens.
+ *
+ * The dispatcher is not thread safe: subscribe and publish on the thread that calls Nifty.update(). Other threads
+ * can use publishLater() to queue events that are delivered with the next dispatchQueuedEvents() call.
+ *
+ * @author void
+ */
+@SuppressWarnings("rawtypes")
+public class NiftyEventDispatcher {
+  private static Logger log = Logger.getLogger(NiftyEventDispatcher.class.getName());
+  private static final EventTopicSubscriber[] NO_SUBSCRIBERS = new EventTopicSubscriber[0];
+
+  private Map < String, List < EventTopicSubscriber >> idSubscribers = new HashMap < String, List < EventTopicSubscriber >>();
+  private List < PatternSubscriber > patternSubscribers = new ArrayList < PatternSubscriber >();
+  private Map < String, EventTopicSubscriber[] > resolved = new HashMap < String, EventTopicSubscriber[] >();
+  private ConcurrentLinkedQueue < QueuedEvent > queue = new ConcurrentLinkedQueue < QueuedEvent >();
+
+  /**
+   * Subscribe to all events published for the given id. Subscribing the same subscriber twice does nothing.
+   * @param id the id
+   * @param subscriber the subscriber
+   */
+  public void subscribe(final String id, final EventTopicSubscriber subscriber) {
+    List < EventTopicSubscriber > list = idSubscribers.get(id);
+    if (list == null) {
+      list = new ArrayList < EventTopicSubscriber >();
+      idSubscribers.put(id, list);
+    }
+    if (!containsInstance(list, subscriber)) {
+      list.add(subscriber);
+      resolved.clear();
+    }
+  }
+
+  /**
+   * Subscribe to all events published for ids that match the given pattern.
+   * @param pattern the pattern
+   * @param subscriber the subscriber
+   */
+  public void subscribe(final Pattern pattern, final EventTopicSubscriber subscriber) {
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscriber existing = patternSubscribers.get(i);
+      if (existing.subscriber == subscriber && existing.pattern.pattern().equals(pattern.pattern())) {
+        return;
+      }
+    }
+    patternSubscribers.add(new PatternSubscriber(pattern, subscriber));
+    resolved.clear();
+  }
+
+  /**
+   * Unsubscribe from the given id.
+   * @param id the id
+   * @param subscriber the subscriber or the object a ProxySubscriber has been subscribed for
+   * @return true when something has been unsubscribed
+   */
+  public boolean unsubscribe(final String id, final Object subscriber) {
+    List < EventTopicSubscriber > list = idSubscribers.get(id);
+    if (list == null) {
+      return false;
+    }
+    boolean removed = false;
+    for (int i=list.size() - 1; i>=0; i--) {
+      if (isSubscriber(list.get(i), subscriber)) {
+        unsubscribed(list.remove(i));
+        removed = true;
+      }
+    }
+    if (list.isEmpty()) {
+      idSubscribers.remove(id);
+    }
+    if (removed) {
+      resolved.clear();
+    }
+    return removed;
+  }
+
+  /**
+   * Unsubscribe from the given pattern.
+   * @param pattern the pattern (patterns are compared by their string representation)
+   * @param subscriber the subscriber or the object a ProxySubscriber has been subscribed for
+   * @return true when something has been unsubscribed
+   */
+  public boolean unsubscribe(final Pattern pattern, final Object subscriber) {
+    boolean removed = false;
+    for (int i=patternSubscribers.size() - 1; i>=0; i--) {
+      PatternSubscriber existing = patternSubscribers.get(i);
+      if (existing.pattern.pattern().equals(pattern.pattern()) && isSubscriber(existing.subscriber, subscriber)) {
+        unsubscribed(patternSubscribers.remove(i).subscriber);
+        removed = true;
+      }
+    }
+    if (removed) {
+      resolved.clear();
+    }
+    return removed;
+  }
+
+  /**
+   * @param id the id
+   * @return true when there is at least one subscriber for the id
+   */
+  public boolean hasSubscribers(final String id) {
+    return getSubscribers(id).length > 0;
+  }
+
+  /**
+   * Deliver the event to all subscribers of the id. Exceptions thrown by a subscriber are logged and don't keep
+   * the event from being delivered to the other subscribers.
+   * @param id the id
+   * @param event the event
+   */
+  @SuppressWarnings("unchecked")
+  public void publish(final String id, final Object event) {
+    EventTopicSubscriber[] subscribers = getSubscribers(id);
+    for (int i=0; i<subscribers.length; i++) {
+      try {
+        subscribers[i].onEvent(id, event);
+      } catch (RuntimeException e) {
+        log.log(Level.WARNING, "subscriber [" + subscribers[i] + "] failed to handle event [" + event + "] for [" + id + "]", e);
+      }
+    }
+  }
+
+  /**
+   * Queue the event. This can be called from any thread. The event is delivered with the next call of
+   * dispatchQueuedEvents().
+   * @param id the id
+   * @param event the event
+   */
+  public void publishLater(final String id, final Object event) {
+    queue.add(new QueuedEvent(id, event));
+  }
+
+  /**
+   * Deliver all events queued with publishLater().
+   */
+  public void dispatchQueuedEvents() {
+    QueuedEvent queued;
+    while ((queued = queue.poll()) != null) {
+      publish(queued.id, queued.event);
+    }
+  }
+
+  private EventTopicSubscriber[] getSubscribers(final String id) {
+    EventTopicSubscriber[] subscribers = resolved.get(id);
+    if (subscribers == null) {
+      subscribers = resolve(id);
+      resolved.put(id, subscribers);
+    }
+    return subscribers;
+  }
+
+  private EventTopicSubscriber[] resolve(final String id) {
+    List < EventTopicSubscriber > result = new ArrayList < EventTopicSubscriber >();
+    List < EventTopicSubscriber > list = idSubscribers.get(id);
+    if (list != null) {
+      result.addAll(list);
+    }
+    for (int i=0; i<patternSubscribers.size(); i++) {
+      PatternSubscriber patternSubscriber = patternSubscribers.get(i);
+      if (patternSubscriber.pattern.matcher(id).matches()) {
+        result.add(patternSubscriber.subscriber);
+      }
+    }
+    if (result.isEmpty()) {
+      return NO_SUBSCRIBERS;
+    }
+    return result.toArray(new EventTopicSubscriber[result.size()]);
+  }
+
+  private boolean isSubscriber(final EventTopicSubscriber candidate, final Object subscriber) {
+    if (candidate == subscriber) {
+      return true;
+    }
+    return candidate instanceof ProxySubscriber && ((ProxySubscriber) candidate).getProxiedSubscriber() == subscriber;
+  }
+
+  private void unsubscribed(final EventTopicSubscriber subscriber) {
+    if (subscriber instanceof ProxySubscriber) {
+      ((ProxySubscriber) subscriber).proxyUnsubscribed();
+    }
+  }
+
+  private boolean containsInstance(final List < EventTopicSubscriber > list, final EventTopicSubscriber subscriber) {
+    for (int i=0; i<list.size(); i++) {
+      if (list.get(i) == subscriber) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class PatternSubscriber {
+    private Pattern pattern;
+    private EventTopicSubscriber subscriber;
+
+    private PatternSubscriber(final Pattern pattern, final EventTopicSubscriber subscriber) {
+      this.pattern = pattern;
+      this.subscriber = subscriber;
+    }
+  }
+
+  private static class QueuedEvent {
+    private String id;
+    private Object event;
+
+    private QueuedEvent(final String id, final Object event) {
+      this.id = id;
+      this.event = event;
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package de.lessvoid.nifty;
+
+import java.util.Map;
+
+import org.bushe.swing.event.ThreadSafeEventService;
+
+/**
+ * The EventBus EventService Nifty registers as "NiftyEventBus". It remembers if anyone has ever subscribed to it
+ * so that Nifty can skip forwarding its events to the EventService when nobody listens there.
+ *
+ * @author void
+ */
+class NiftyEventService extends ThreadSafeEventService {
+  private volatile boolean subscriptions;
+
+  /**
+   * @return true when anything has been subscribed to this EventService
+   */
+  public boolean hasSubscriptions() {
+    return subscriptions;
+  }
+
+  @Override
+  protected boolean subscribe(final Object classTopicOrPatternWrapper, final Map<Object, Object> subscriberMap, final Object subscriber) {
+    subscriptions = true;
+    return super.subscribe(classTopicOrPatternWrapper, subscriberMap, subscriber);
+  }
+
+  @SuppressWarnings("rawtypes")
+  @Override
+  protected boolean subscribeVetoListener(final Object subscription, final Map vetoListenerMap, final Object vetoListener) {
+    subscriptions = true;
+    return super.subscribeVetoListener(subscription, vetoListenerMap, vetoListener);
+  }
+}
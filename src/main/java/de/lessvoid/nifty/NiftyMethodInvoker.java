@@ -1,21 +1,38 @@
 package de.lessvoid.nifty;
 
 import java.lang.reflect.Method;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.lessvoid.xml.tools.MethodResolver;
 
 /**
  * A object and a method for the object.
+ *
+ * The method of each target object and the parameters encoded in the method string are resolved once when the
+ * NiftyMethodInvoker is created and not every time it is invoked.
+ *
  * @author void
  */
 public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
   private static Logger log = Logger.getLogger(NiftyMethodInvoker.class.getName());
 
+  private static final Object[] NO_PARAMETERS = new Object[0];
+
   private Object[] target;
   private String methodWithName;
   private Nifty nifty;
 
+  /**
+   * the resolved method for each target object (null when the target object doesn't have the method).
+   */
+  private Method[] methods;
+
+  /**
+   * the parameters encoded in methodWithName.
+   */
+  private Object[] encodedParameters = NO_PARAMETERS;
+
   /**
    * create null MethodInvoker.
    */
@@ -39,13 +56,29 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
       this.target = new Object[targetParam.length];
       System.arraycopy(targetParam, 0, target, 0, targetParam.length);
 
-      log.info("target objects for [" + methodWithName + "]");
-      for (Object o : target) {
-        log.info(o.toString());
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("target objects for [" + methodWithName + "]");
+        for (Object o : target) {
+          log.fine(String.valueOf(o));
+        }
+      }
+      if (methodWithName != null) {
+        encodedParameters = MethodResolver.extractParameters(methodWithName);
+        methods = resolveMethods(target, methodWithName);
       }
     }
   }
 
+  private static Method[] resolveMethods(final Object[] target, final String methodWithName) {
+    Method[] result = new Method[target.length];
+    for (int i=0; i<target.length; i++) {
+      if (target[i] != null) {
+        result[i] = MethodResolver.findMethod(target[i].getClass(), methodWithName);
+      }
+    }
+    return result;
+  }
+
   /**
    * invoke method with optional parameters.
    * @param invokeParametersParam parameter array for call
@@ -67,9 +100,10 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
 
   public void performInvoke(final Object ... invokeParametersParam) {
     // process all methods (first one wins)
-    for (Object object : target) {
+    for (int i=0; i<target.length; i++) {
+      Object object = target[i];
       if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
+        Method method = methods[i];
         if (method != null) {
           // we've found a method with the given name. now we need to match the parameters.
           //
@@ -82,41 +116,54 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
           //        if this is not possible we fall back to 2b)
           //    2b) just call the method without any parameters
           Object methodResult = null;
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
-          if (invokeParameters.length > 0) {
+          if (encodedParameters.length > 0) {
             // does the method supports the parameters?
             // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
-              log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
-              methodResult = callMethod(object, method, invokeParameters);
+            if (getMethodParameterCount(method) == encodedParameters.length) {
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(encodedParameters) + ")");
+              }
+              methodResult = callMethod(object, method, encodedParameters);
             } else {
-              log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
-              methodResult = callMethod(object, method, new Object[0]);
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
+              }
+              methodResult = callMethod(object, method, NO_PARAMETERS);
             }
           } else {
             // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
             if (invokeParametersParam.length > 0) {
               if (getMethodParameterCount(method) == invokeParametersParam.length) {
-                log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+                if (log.isLoggable(Level.FINE)) {
+                  log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+                }
                 methodResult = callMethod(object, method, invokeParametersParam);
               } else {
-                log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                if (log.isLoggable(Level.FINE)) {
+                  log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                }
                 methodResult = callMethod(object, method, null);
               }
             } else {
-              log.fine("invoking method '" + methodWithName + "' without parameters");
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("invoking method '" + methodWithName + "' without parameters");
+              }
               methodResult = callMethod(object, method, null);
             }
           }
           if (methodResult != null && (methodResult.getClass().equals(Boolean.class))) {
             if ((Boolean) methodResult) {
-              log.fine("method invoke for '" + methodWithName + "' returns true. by definition this means we're not calling any other targets for this method.");
+              if (log.isLoggable(Level.FINE)) {
+                log.fine("method invoke for '" + methodWithName + "' returns true. by definition this means we're not calling any other targets for this method.");
+              }
               return;
             }
             
           }
         } else {
-          log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          if (log.isLoggable(Level.FINE)) {
+            log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          }
         }
       } else {
         log.warning("target object is null");
@@ -133,15 +180,6 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
    */
   private Object callMethod(final Object targetObject, final Method method, final Object[] invokeParameters) {
     try {
-      log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + invokeParameters);
-      if (method != null) {
-        log.fine(method.getName());
-      }
-      if (invokeParameters != null) {
-        for (Object o : invokeParameters) {
-          log.fine("parameter: " + o);
-        }
-      }
       return method.invoke(targetObject, invokeParameters);
     } catch (RuntimeException e) {
       log.warning("RuntimeException: " + e.toString());
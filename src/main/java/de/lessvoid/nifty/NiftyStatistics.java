@@ -0,0 +1,238 @@
+package de.lessvoid.nifty;
+
+import de.lessvoid.nifty.tools.RollingHistogram;
+
+/**
+ * Per frame statistics of a Nifty instance. When enabled Nifty measures how long the different parts of
+ * update() and render() take and counts what has been rendered. At the end of every frame (after
+ * Nifty.render()) the values of the frame are added to a RollingHistogram for each Timing and Counter.
+ *
+ * The statistics are disabled by default. When they are disabled every call only checks a flag. The
+ * histograms can be read from any thread (see RollingHistogram).
+ *
+ * @author void
+ */
+public class NiftyStatistics {
+  /**
+   * The default number of frames the histograms keep.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 300;
+
+  /**
+   * Measured times in nanoseconds.
+   */
+  public enum Timing {
+    /**
+     * the complete Nifty.update().
+     */
+    UPDATE,
+
+    /**
+     * forwarding input events to the screen (part of UPDATE).
+     */
+    INPUT,
+
+    /**
+     * adding and removing elements, closing popups and invoking delayed methods (part of UPDATE).
+     */
+    DYNAMIC_ELEMENTS,
+
+    /**
+     * updating the sound system (part of UPDATE).
+     */
+    SOUND,
+
+    /**
+     * Screen.layoutLayers().
+     */
+    LAYOUT,
+
+    /**
+     * the complete Nifty.render().
+     */
+    RENDER,
+
+    /**
+     * processing the effects of all elements (part of RENDER).
+     */
+    EFFECTS
+  }
+
+  /**
+   * Things that are counted per frame.
+   */
+  public enum Counter {
+    /**
+     * elements render() has been called for.
+     */
+    VISITED_ELEMENTS,
+
+    /**
+     * elements that have really been rendered (visible and not replayed in retained render mode).
+     */
+    RENDERED_ELEMENTS,
+
+    QUADS,
+
+    IMAGES,
+
+    TEXTS,
+
+    SAVE_STATES,
+
+    /**
+     * enableClip() and disableClip() calls.
+     */
+    CLIP_CHANGES
+  }
+
+  private static final int TIMING_COUNT = Timing.values().length;
+  private static final int COUNTER_COUNT = Counter.values().length;
+
+  private volatile boolean enabled;
+  private long[] frameTimings = new long[TIMING_COUNT];
+  private long[] frameCounters = new long[COUNTER_COUNT];
+  private RollingHistogram[] timingHistograms = new RollingHistogram[TIMING_COUNT];
+  private RollingHistogram[] counterHistograms = new RollingHistogram[COUNTER_COUNT];
+  private long frames;
+
+  public NiftyStatistics() {
+    this(DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * Create statistics that keep the given number of frames.
+   * @param windowSize number of frames
+   */
+  public NiftyStatistics(final int windowSize) {
+    for (int i=0; i<TIMING_COUNT; i++) {
+      timingHistograms[i] = new RollingHistogram(windowSize);
+    }
+    for (int i=0; i<COUNTER_COUNT; i++) {
+      counterHistograms[i] = new RollingHistogram(windowSize);
+    }
+  }
+
+  public void setEnabled(final boolean newEnabled) {
+    enabled = newEnabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start a measurement.
+   * @return the start time to give to stopTiming() or 0 when the statistics are disabled
+   */
+  public long startTiming() {
+    if (!enabled) {
+      return 0;
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Add the time since start to the given Timing of the current frame.
+   * @param timing the Timing
+   * @param start the value startTiming() returned
+   */
+  public void stopTiming(final Timing timing, final long start) {
+    if (!enabled || start == 0) {
+      return;
+    }
+    frameTimings[timing.ordinal()] += System.nanoTime() - start;
+  }
+
+  /**
+   * Increment the given Counter of the current frame.
+   * @param counter the Counter
+   */
+  public void count(final Counter counter) {
+    if (!enabled) {
+      return;
+    }
+    frameCounters[counter.ordinal()]++;
+  }
+
+  /**
+   * Add the values of the current frame to the histograms and start a new frame. Nifty calls this at the
+   * end of Nifty.render().
+   */
+  public void endFrame() {
+    if (!enabled) {
+      return;
+    }
+    for (int i=0; i<TIMING_COUNT; i++) {
+      timingHistograms[i].add(frameTimings[i]);
+      frameTimings[i] = 0;
+    }
+    for (int i=0; i<COUNTER_COUNT; i++) {
+      counterHistograms[i].add(frameCounters[i]);
+      frameCounters[i] = 0;
+    }
+    frames++;
+  }
+
+  /**
+   * Forget all frames. Must be called from the thread that calls Nifty.update() and Nifty.render().
+   */
+  public void reset() {
+    for (int i=0; i<TIMING_COUNT; i++) {
+      timingHistograms[i].clear();
+      frameTimings[i] = 0;
+    }
+    for (int i=0; i<COUNTER_COUNT; i++) {
+      counterHistograms[i].clear();
+      frameCounters[i] = 0;
+    }
+    frames = 0;
+  }
+
+  /**
+   * @return number of frames recorded since the statistics have been created or reset
+   */
+  public long getFrameCount() {
+    return frames;
+  }
+
+  /**
+   * Get the histogram of the given Timing. The values are nanoseconds per frame.
+   * @param timing the Timing
+   * @return the histogram
+   */
+  public RollingHistogram getHistogram(final Timing timing) {
+    return timingHistograms[timing.ordinal()];
+  }
+
+  /**
+   * Get the histogram of the given Counter. The values are counts per frame.
+   * @param counter the Counter
+   * @return the histogram
+   */
+  public RollingHistogram getHistogram(final Counter counter) {
+    return counterHistograms[counter.ordinal()];
+  }
+
+  /**
+   * get state string.
+   * @return String with the mean, the 99th percentile and the maximum of all histograms
+   */
+  public String getStatisticsString() {
+    StringBuilder result = new StringBuilder();
+    result.append("frames: ").append(frames).append("\n");
+    for (Timing timing : Timing.values()) {
+      RollingHistogram histogram = getHistogram(timing);
+      result.append(timing).append(" [us]: mean ").append(Math.round(histogram.getMean() / 1000.0))
+            .append(", p99 ").append(histogram.getPercentile(0.99) / 1000)
+            .append(", max ").append(histogram.getMax() / 1000).append("\n");
+    }
+    for (Counter counter : Counter.values()) {
+      RollingHistogram histogram = getHistogram(counter);
+      result.append(counter).append(": mean ").append(Math.round(histogram.getMean()))
+            .append(", p99 ").append(histogram.getPercentile(0.99))
+            .append(", max ").append(histogram.getMax()).append("\n");
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,18 @@
+package de.lessvoid.nifty.controls;
+
+import de.lessvoid.nifty.elements.Element;
+
+/**
+ * Fills the row elements of a VirtualListControl with the data of a row.
+ * @author void
+ */
+public interface VirtualListBinder {
+
+  /**
+   * Show the data of the given row in the given element. The element has been created from the row template and
+   * might have shown any other row before.
+   * @param rowElement the element created from the row template
+   * @param row the index of the row
+   */
+  void bind(Element rowElement, int row);
+}
@@ -0,0 +1,349 @@
+package de.lessvoid.nifty.controls;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.NiftyDelayedMethodInvoke;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.elements.events.NiftyMouseWheelEvent;
+import de.lessvoid.nifty.input.NiftyInputEvent;
+import de.lessvoid.nifty.layout.manager.VirtualVerticalLayout;
+import de.lessvoid.nifty.loaderv2.types.ElementType;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.xml.xpp3.Attributes;
+
+/**
+ * A scrolling list that can show a huge number of rows. Only the visible rows (plus a few rows of overscan above
+ * and below) exist as elements. They are created from the row template and reused while the list scrolls: a
+ * VirtualListBinder fills them with the data of the row they currently show. All other rows don't take part in
+ * layout, rendering, mouse handling or focus handling at all.
+ *
+ * Attach this controller to a panel with a fixed size, for instance controller="de.lessvoid.nifty.controls.VirtualListControl".
+ * The panel gets a VirtualVerticalLayout and clips its children. The optional parameters are "rowHeight",
+ * "overscan" and "measureRows" (see setMeasureRows()). The row template, the binder and the row count are set
+ * from Java. Make the panel visibleToMouse to scroll it with the mouse wheel.
+ *
+ * @author void
+ */
+public class VirtualListControl extends AbstractController {
+  private static final int DEFAULT_ROW_HEIGHT = 20;
+  private static final int DEFAULT_OVERSCAN = 2;
+
+  private Nifty nifty;
+  private Screen screen;
+  private Element element;
+  private VirtualVerticalLayout layout = new VirtualVerticalLayout();
+  private ElementType rowTemplate;
+  private VirtualListBinder binder;
+  private int overscan = DEFAULT_OVERSCAN;
+  private List < Element > rowElements = new ArrayList < Element >();
+  private int[] childRows = new int[0];
+  private boolean started;
+  private boolean updatePending;
+  private int lastViewportHeight = -1;
+  private EventTopicSubscriber < NiftyMouseWheelEvent > wheelSubscriber = new EventTopicSubscriber < NiftyMouseWheelEvent >() {
+    public void onEvent(final String topic, final NiftyMouseWheelEvent event) {
+      scrollBy(-event.getMouseWheel() * layout.getRowHeight());
+    }
+  };
+
+  public void bind(
+      final Nifty niftyParam,
+      final Screen screenParam,
+      final Element newElement,
+      final Properties properties,
+      final Attributes controlDefinitionAttributes) {
+    super.bind(newElement);
+    nifty = niftyParam;
+    screen = screenParam;
+    element = newElement;
+    element.setLayoutManager(layout);
+    element.setClipChildren(true);
+    layout.setRowHeight(Integer.valueOf(properties.getProperty("rowHeight", String.valueOf(DEFAULT_ROW_HEIGHT))));
+    layout.setMeasureRows(Boolean.valueOf(properties.getProperty("measureRows", "false")));
+    overscan = Integer.valueOf(properties.getProperty("overscan", String.valueOf(DEFAULT_OVERSCAN)));
+  }
+
+  public void onStartScreen() {
+    started = true;
+    nifty.subscribe(screen, element.getId(), NiftyMouseWheelEvent.class, wheelSubscriber);
+    updateRows();
+  }
+
+  public boolean inputEvent(final NiftyInputEvent inputEvent) {
+    return false;
+  }
+
+  /**
+   * When the size of the list changed other rows become visible. We can't add elements while the layout is in
+   * progress so the rows are updated with the next Nifty.update().
+   */
+  @Override
+  public void layoutCallback() {
+    if (started && !updatePending && element.getHeight() != lastViewportHeight) {
+      updatePending = true;
+      nifty.delayedMethodInvoke(new NiftyDelayedMethodInvoke() {
+        public void performInvoke(final Object ... invokeParametersParam) {
+          updatePending = false;
+          updateRows();
+        }
+      }, new Object[0]);
+    }
+  }
+
+  /**
+   * @param rowTemplate the ElementType every row element is created from
+   */
+  public void setRowTemplate(final ElementType rowTemplate) {
+    this.rowTemplate = rowTemplate;
+    removeRowElements();
+    updateRows();
+  }
+
+  /**
+   * @param binder the binder that fills the row elements
+   */
+  public void setBinder(final VirtualListBinder binder) {
+    this.binder = binder;
+    refresh();
+  }
+
+  /**
+   * Change the number of rows. All visible rows are bound again.
+   * @param rowCount the number of rows
+   */
+  public void setRowCount(final int rowCount) {
+    layout.setRowCount(rowCount);
+    layout.setScrollY(clampScrollY(layout.getScrollY()));
+    refresh();
+  }
+
+  public int getRowCount() {
+    return layout.getRowCount();
+  }
+
+  /**
+   * @param rowHeight the height of a row in pixel (the estimated height when measureRows is enabled)
+   */
+  public void setRowHeight(final int rowHeight) {
+    layout.setRowHeight(rowHeight);
+    updateRows();
+  }
+
+  /**
+   * With measureRows enabled every row can have a different height: the binder sets a height constraint in px on
+   * the row element and the layout remembers it. Rows that have not been shown yet are assumed to have the
+   * default row height.
+   * @param measureRows true to measure the rows
+   */
+  public void setMeasureRows(final boolean measureRows) {
+    layout.setMeasureRows(measureRows);
+    refresh();
+  }
+
+  /**
+   * @param overscan the number of rows to keep above and below the visible rows
+   */
+  public void setOverscan(final int overscan) {
+    this.overscan = Math.max(0, overscan);
+    updateRows();
+  }
+
+  /**
+   * Scroll to the given position.
+   * @param scrollY the position of the top of the list in pixel
+   */
+  public void scrollTo(final int scrollY) {
+    int newScrollY = clampScrollY(scrollY);
+    if (newScrollY == layout.getScrollY()) {
+      return;
+    }
+    layout.setScrollY(newScrollY);
+    updateRows();
+  }
+
+  public void scrollBy(final int deltaY) {
+    scrollTo(layout.getScrollY() + deltaY);
+  }
+
+  /**
+   * Scroll so that the given row is the first visible row.
+   * @param row the row
+   */
+  public void scrollToRow(final int row) {
+    if (row < 0 || row >= layout.getRowCount()) {
+      return;
+    }
+    scrollTo(layout.getRowY(row));
+  }
+
+  public int getScrollY() {
+    return layout.getScrollY();
+  }
+
+  public int getMaxScrollY() {
+    return Math.max(0, layout.getContentHeight() - getViewportHeight());
+  }
+
+  /**
+   * @return the number of row elements that currently exist
+   */
+  public int getRowElementCount() {
+    return rowElements.size();
+  }
+
+  /**
+   * @param row the row
+   * @return the element that shows the row or null when the row is not visible
+   */
+  public Element getRowElement(final int row) {
+    for (int i=0; i<rowElements.size(); i++) {
+      if (childRows[i] == row) {
+        return rowElements.get(i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Bind all visible rows again, for instance because the data changed.
+   */
+  public void refresh() {
+    Arrays.fill(childRows, -1);
+    updateRows();
+  }
+
+  /**
+   * Bind the given row again when it is visible.
+   * @param row the row
+   */
+  public void refreshRow(final int row) {
+    layout.invalidateRow(row);
+    for (int i=0; i<rowElements.size(); i++) {
+      if (childRows[i] == row) {
+        childRows[i] = -1;
+      }
+    }
+    updateRows();
+  }
+
+  private void updateRows() {
+    if (!started || rowTemplate == null || binder == null) {
+      return;
+    }
+    // with measured rows the first layout might change the heights and so the visible rows. a second pass will
+    // show the right rows in that case.
+    int contentHeight = layout.getContentHeight();
+    updateVisibleRows();
+    if (layout.isMeasureRows() && layout.getContentHeight() != contentHeight) {
+      layout.setScrollY(clampScrollY(layout.getScrollY()));
+      updateVisibleRows();
+    }
+  }
+
+  private void updateVisibleRows() {
+    int viewportHeight = getViewportHeight();
+    lastViewportHeight = element.getHeight();
+
+    int first = 0;
+    int last = -1;
+    if (layout.getRowCount() > 0) {
+      first = Math.max(0, layout.getRowAt(layout.getScrollY()) - overscan);
+      last = Math.min(layout.getRowCount() - 1, layout.getRowAt(layout.getScrollY() + Math.max(0, viewportHeight - 1)) + overscan);
+    }
+    ensureRowElements(last - first + 1);
+
+    int slots = rowElements.size();
+    int[] newChildRows = new int[slots];
+    Arrays.fill(newChildRows, -1);
+    for (int row=first; row<=last; row++) {
+      newChildRows[row % slots] = row;
+    }
+
+    for (int i=0; i<slots; i++) {
+      Element rowElement = rowElements.get(i);
+      int row = newChildRows[i];
+      if (row == -1) {
+        if (rowElement.isVisible()) {
+          rowElement.hideWithoutEffect();
+        }
+      } else {
+        if (childRows[i] != row) {
+          binder.bind(rowElement, row);
+        }
+        if (!rowElement.isVisible()) {
+          rowElement.showWithoutEffects();
+        }
+      }
+    }
+    childRows = newChildRows;
+    layout.setChildRows(getRowsOfChildren());
+    element.layoutElements();
+  }
+
+  /**
+   * The layout needs the rows in the order of the children of the element. These might contain other elements
+   * (for instance row elements that are about to be removed) too.
+   */
+  private int[] getRowsOfChildren() {
+    List < Element > children = element.getElements();
+    int[] rows = new int[children.size()];
+    for (int i=0; i<children.size(); i++) {
+      rows[i] = -1;
+      Element child = children.get(i);
+      for (int j=0; j<rowElements.size(); j++) {
+        if (rowElements.get(j) == child) {
+          rows[i] = childRows[j];
+          break;
+        }
+      }
+    }
+    return rows;
+  }
+
+  private void ensureRowElements(final int count) {
+    if (rowElements.size() >= count) {
+      return;
+    }
+    screen.beginUpdate();
+    try {
+      for (int i=rowElements.size(); i<count; i++) {
+        ElementType rowType = rowTemplate.copy();
+        rowType.getAttributes().set("id", element.getId() + "#row-" + i);
+        rowElements.add(nifty.createElementFromType(screen, element, rowType));
+      }
+    } finally {
+      screen.commit();
+    }
+    // rows are assigned to the elements by (row % element count) so all rows need to be bound again
+    childRows = new int[rowElements.size()];
+    Arrays.fill(childRows, -1);
+  }
+
+  private void removeRowElements() {
+    for (int i=0; i<rowElements.size(); i++) {
+      Element rowElement = rowElements.get(i);
+      rowElement.hideWithoutEffect();
+      nifty.removeElement(screen, rowElement);
+    }
+    rowElements.clear();
+    childRows = new int[0];
+    layout.setChildRows(childRows);
+  }
+
+  private int clampScrollY(final int scrollY) {
+    return Math.max(0, Math.min(scrollY, getMaxScrollY()));
+  }
+
+  private int getViewportHeight() {
+    if (element == null) {
+      return 0;
+    }
+    return element.getHeight();
+  }
+}
@@ -1,20 +1,21 @@
 package de.lessvoid.nifty.effects;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
  * This stores all active effects and is used by the EffectProcessor. It will
  * classify effects on add (overlay, pre, post).
+ *
+ * The effects are kept in ArrayLists so that they can be walked with an index
+ * while rendering without creating an Iterator for every element every frame.
  * @author void
  */
 public class ActiveEffects {
-  private Collection<Effect> all = new ArrayDeque<Effect>();
-  private Collection<Effect> post = new ArrayDeque<Effect>();
-  private Collection<Effect> pre = new ArrayDeque<Effect>();
-  private Collection<Effect> overlay = new ArrayDeque<Effect>();
+  private List<Effect> all = new ArrayList<Effect>();
+  private List<Effect> post = new ArrayList<Effect>();
+  private List<Effect> pre = new ArrayList<Effect>();
+  private List<Effect> overlay = new ArrayList<Effect>();
 
   private volatile boolean anyNotNeverStopRendering = true;
 
@@ -59,27 +60,27 @@ public class ActiveEffects {
   }
 
   public boolean containsActiveEffects() {
-    for (Effect e : all) {
-        if (e.isActive()) {
+    for (int i=0; i<all.size(); i++) {
+        if (all.get(i).isActive()) {
             return true;
         }
     }
     return false;
   }
 
-  public Collection<Effect> getActive() {
+  public List<Effect> getActive() {
     return all;
   }
 
-  public Collection<Effect> getActivePost() {
+  public List<Effect> getActivePost() {
     return post;
   }
 
-  public Collection<Effect> getActivePre() {
+  public List<Effect> getActivePre() {
     return pre;
   }
 
-  public Collection<Effect> getActiveOverlay() {
+  public List<Effect> getActiveOverlay() {
     return overlay;
   }
 
@@ -88,8 +89,8 @@ public class ActiveEffects {
     }
 
     private boolean _isAnyNotNeverStopRendering(){
-    for (Effect e : all) {
-      if (e.isNeverStopRendering()) {
+    for (int i=0; i<all.size(); i++) {
+      if (all.get(i).isNeverStopRendering()) {
         return false;
       }
     }
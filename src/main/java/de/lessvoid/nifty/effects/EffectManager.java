@@ -1,6 +1,7 @@
 package de.lessvoid.nifty.effects;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 
 import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.elements.Element;
@@ -10,43 +11,178 @@ import de.lessvoid.nifty.tools.TimeProvider;
 
 /**
  * manage all effects of an element.
+ *
+ * The EffectProcessors are kept in an array in render order. Each EffectProcessor tells us when it needs
+ * to be rendered and we keep that information in a bitmask. The render phases and begin() only visit the
+ * EffectProcessors that have their bit set, which usually are none or only very few of them.
+ *
+ * Most elements don't have any effects at all. The EffectProcessors are therefore only created when the first
+ * effect for their EffectEventId is registered and elements without effects share the EMPTY instance.
+ *
  * @author void
  */
 public class EffectManager {
-  private Map<EffectEventId, EffectProcessor> effectProcessor = new LinkedHashMap<EffectEventId, EffectProcessor>();
-  private List<EffectProcessor> effectProcessorList;
+  /**
+   * the order in which the EffectProcessors are rendered. the index is the bit in renderRequiredMask.
+   */
+  private static final EffectEventId[] renderOrder = new EffectEventId[] {
+    EffectEventId.onShow,
+    EffectEventId.onHide,
+    EffectEventId.onStartScreen,
+    EffectEventId.onEndScreen,
+    EffectEventId.onCustom,
+    EffectEventId.onActive,
+    EffectEventId.onHover,
+    EffectEventId.onStartHover,
+    EffectEventId.onEndHover,
+    EffectEventId.onFocus,
+    EffectEventId.onLostFocus,
+    EffectEventId.onGetFocus,
+    EffectEventId.onClick,
+    EffectEventId.onEnabled,
+    EffectEventId.onDisabled
+  };
+
+  private static final EffectEventId[] effectEventIds = EffectEventId.values();
+
+  /**
+   * the index in renderOrder for each EffectEventId.ordinal().
+   */
+  private static final int[] renderIndex = new int[effectEventIds.length];
+
+  static {
+    for (int i=0; i<renderOrder.length; i++) {
+      renderIndex[renderOrder[i].ordinal()] = i;
+    }
+  }
+
+  /**
+   * the EffectProcessors that reset() resets.
+   */
+  private static final EffectEventId[] resetIds = new EffectEventId[] {
+    // onHover, onActive, onFocus, onLostFocus and onClick should stay active and are not reset
+    EffectEventId.onStartScreen,
+    EffectEventId.onEndScreen,
+    EffectEventId.onShow,
+    EffectEventId.onHide
+  };
+
+  /**
+   * the EffectProcessors that resetAll() resets.
+   */
+  private static final EffectEventId[] resetAllIds = new EffectEventId[] {
+    EffectEventId.onStartScreen,
+    EffectEventId.onEndScreen,
+    EffectEventId.onShow,
+    EffectEventId.onHide,
+    EffectEventId.onCustom,
+    EffectEventId.onHover,
+    EffectEventId.onStartHover,
+    EffectEventId.onEndHover,
+    // onActive is currently used by the nifty-panel style. when we reset that effect here
+    // we would not be able to use the nifty-panel in popups. when a popup is being closed
+    // all effects will be reset. which makes sense but probably not for the onActive effect.
+    // we need to check later if leaving it out has any bad influence on other controls.
+    EffectEventId.onFocus,
+    EffectEventId.onLostFocus,
+    EffectEventId.onGetFocus,
+    EffectEventId.onClick
+  };
+
+  /**
+   * the EffectProcessors that resetForHide() and restoreForShow() save and restore (all but onActive).
+   */
+  private static final EffectEventId[] hideIds = resetAllIds;
+
+  private static final RenderPhase renderPhasePre = new RenderPhasePre();
+  private static final RenderPhase renderPhasePost = new RenderPhasePost();
+  private static final RenderPhase renderPhaseOverlay = new RenderPhaseOverlay();
+
+  /**
+   * The EffectManager of all elements without effects. It can't be changed. Element replaces it with an
+   * EffectManager of its own before the first effect is registered.
+   */
+  public static final EffectManager EMPTY = new EmptyEffectManager();
+
+  /**
+   * EffectProcessors indexed by EffectEventId.ordinal(). null until the first effect is registered.
+   */
+  private EffectProcessor[] effectProcessors;
+
+  /**
+   * EffectProcessors in render order. null until the first effect is registered.
+   */
+  private EffectProcessor[] renderProcessors;
+
+  /**
+   * bit i is set when renderProcessors[i] needs to be rendered.
+   */
+  private int renderRequiredMask;
   private Falloff hoverFalloff;
-  private NiftyRenderDeviceProxy renderDeviceProxy = new NiftyRenderDeviceProxy();
+  private NiftyRenderDeviceProxy renderDeviceProxy;
   private String alternateKey;
   private boolean isEmpty = true;
-  private RenderPhase renderPhasePre = new RenderPhasePre();
-  private RenderPhase renderPhasePost = new RenderPhasePost();
-  private RenderPhase renderPhaseOverlay = new RenderPhaseOverlay();
 
   /**
-   * create a new effectManager with the given listener.
+   * create a new effectManager. The EffectProcessors are created when the effects are registered.
    */
   public EffectManager() {
     this.alternateKey = null;
+  }
+
+  private static boolean isNeverStopRendering(final EffectEventId id) {
+    switch (id) {
+      case onEndScreen:
+      case onFocus:
+      case onHover:
+      case onActive:
+      case onHide:
+      case onEnabled:
+      case onDisabled:
+        return true;
+      default:
+        return false;
+    }
+  }
 
-    effectProcessor.put(EffectEventId.onStartScreen, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onEndScreen, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onFocus, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onGetFocus, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onLostFocus, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onClick, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onHover, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onStartHover, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onEndHover, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onActive, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onCustom, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onShow, new EffectProcessor(false));
-    effectProcessor.put(EffectEventId.onHide, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onEnabled, new EffectProcessor(true));
-    effectProcessor.put(EffectEventId.onDisabled, new EffectProcessor(true));
-
-    // we'll need to iterate over all effectProcessors later and so we keep them here in an ArrayList
-    effectProcessorList = new ArrayList<EffectProcessor>(effectProcessor.values());
+  /**
+   * @param id the EffectEventId
+   * @return the EffectProcessor or null when no effect has been registered for the id
+   */
+  private EffectProcessor getEffectProcessor(final EffectEventId id) {
+    if (effectProcessors == null) {
+      return null;
+    }
+    return effectProcessors[id.ordinal()];
+  }
+
+  private EffectProcessor getOrCreateEffectProcessor(final EffectEventId id) {
+    if (effectProcessors == null) {
+      effectProcessors = new EffectProcessor[effectEventIds.length];
+      renderProcessors = new EffectProcessor[renderOrder.length];
+      renderDeviceProxy = new NiftyRenderDeviceProxy();
+    }
+    EffectProcessor processor = effectProcessors[id.ordinal()];
+    if (processor == null) {
+      int i = renderIndex[id.ordinal()];
+      processor = new EffectProcessor(isNeverStopRendering(id), this, 1 << i);
+      effectProcessors[id.ordinal()] = processor;
+      renderProcessors[i] = processor;
+    }
+    return processor;
+  }
+
+  /**
+   * Called by the EffectProcessors when they start or stop to require rendering.
+   * @param mask the bit of the EffectProcessor
+   * @param renderRequired true when the EffectProcessor needs to be rendered
+   */
+  void setRenderRequired(final int mask, final boolean renderRequired) {
+    if (renderRequired) {
+      renderRequiredMask |= mask;
+    } else {
+      renderRequiredMask &= ~mask;
+    }
   }
 
   /**
@@ -55,7 +191,7 @@ public class EffectManager {
    * @param e the effect
    */
   public void registerEffect(final EffectEventId id, final Effect e) {
-    effectProcessor.get(id).registerEffect(e);
+    getOrCreateEffectProcessor(id).registerEffect(e);
     isEmpty = false;
   }
 
@@ -71,7 +207,7 @@ public class EffectManager {
       final Element w,
       final TimeProvider time,
       final EndNotify listener) {
-    effectProcessor.get(id).activate(listener, alternateKey, null);
+    startEffect(id, w, time, listener, null);
   }
 
   public void startEffect(
@@ -80,11 +216,17 @@ public class EffectManager {
       final TimeProvider time,
       final EndNotify listener,
       final String customKey) {
-    effectProcessor.get(id).activate(listener, alternateKey, customKey);
+    EffectProcessor processor = getEffectProcessor(id);
+    if (processor != null) {
+      processor.activate(listener, alternateKey, customKey);
+    }
   }
 
   public void stopEffect(final EffectEventId effectId) {
-    effectProcessor.get(effectId).setActive(false);
+    EffectProcessor processor = getEffectProcessor(effectId);
+    if (processor != null) {
+      processor.setActive(false);
+    }
   }
 
   /**
@@ -92,13 +234,15 @@ public class EffectManager {
    * @param renderDevice RenderDevice
    */
   public void begin(final NiftyRenderEngine renderDevice, final Element element) {
-    Set < RenderStateType > renderStates = RenderStateType.allStatesCopy();
-    for (int i=0; i<effectProcessorList.size(); i++) {
-      EffectProcessor processor = effectProcessorList.get(i);
-      processor.getRenderStatesToSave(renderDeviceProxy);
-      renderStates.removeAll(renderDeviceProxy.getStates());
+    int renderStates = RenderStateType.allStatesMask();
+    int mask = renderRequiredMask;
+    while (mask != 0) {
+      int i = Integer.numberOfTrailingZeros(mask);
+      mask &= mask - 1;
+      renderProcessors[i].getRenderStatesToSave(renderDeviceProxy);
+      renderStates &= ~renderDeviceProxy.getStateMask();
     }
-    renderDevice.saveState(renderStates);
+    renderDevice.saveState(RenderStateType.statesForMask(renderStates));
   }
 
   /**
@@ -110,21 +254,14 @@ public class EffectManager {
   }
 
   private void render(final Element element, final NiftyRenderEngine renderEngine, final RenderPhase phase) {
-    phase.render(effectProcessor.get(EffectEventId.onShow), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onHide), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onStartScreen), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onEndScreen), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onCustom), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onActive), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onHover), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onStartHover), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onEndHover), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onFocus), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onLostFocus), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onGetFocus), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onClick), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onEnabled), renderEngine);
-    phase.render(effectProcessor.get(EffectEventId.onDisabled), renderEngine);
+    // rendering an effect might start or stop other effects and so we read the mask again after each
+    // processor. only the bits of the processors that still follow in render order are used.
+    int mask = renderRequiredMask;
+    while (mask != 0) {
+      int i = Integer.numberOfTrailingZeros(mask);
+      phase.render(renderProcessors[i], renderEngine);
+      mask = renderRequiredMask & (-2 << i);
+    }
   }
 
   public void renderPre(final NiftyRenderEngine renderEngine, final Element element) {
@@ -146,21 +283,29 @@ public class EffectManager {
    * @param y mouse y position
    */
   public void handleHover(final Element element, final int x, final int y) {
-    EffectProcessor processor = effectProcessor.get(EffectEventId.onHover);
-    processor.processHover(x, y);
+    EffectProcessor processor = getEffectProcessor(EffectEventId.onHover);
+    if (processor != null) {
+      processor.processHover(x, y);
+    }
   }
 
   public void handleHoverStartAndEnd(final Element element, final int x, final int y) {
-    EffectProcessor processor = effectProcessor.get(EffectEventId.onStartHover);
-    processor.processStartHover(x, y);
+    EffectProcessor processor = getEffectProcessor(EffectEventId.onStartHover);
+    if (processor != null) {
+      processor.processStartHover(x, y);
+    }
 
-    processor = effectProcessor.get(EffectEventId.onEndHover);
-    processor.processEndHover(x, y);
-}
+    processor = getEffectProcessor(EffectEventId.onEndHover);
+    if (processor != null) {
+      processor.processEndHover(x, y);
+    }
+  }
 
   public void handleHoverDeactivate(final Element element, final int x, final int y) {
-    EffectProcessor processor = effectProcessor.get(EffectEventId.onHover);
-    processor.processHoverDeactivate(x, y);
+    EffectProcessor processor = getEffectProcessor(EffectEventId.onHover);
+    if (processor != null) {
+      processor.processHoverDeactivate(x, y);
+    }
   }
 
   /**
@@ -169,81 +314,78 @@ public class EffectManager {
    * @return true, if active, false otherwise
    */
   public final boolean isActive(final EffectEventId effectEventId) {
-    return effectProcessor.get(effectEventId).isActive();
+    EffectProcessor processor = getEffectProcessor(effectEventId);
+    return processor != null && processor.isActive();
+  }
+
+  /**
+   * checks if any effect is active.
+   * @return true, if at least one effect is active, false otherwise
+   */
+  public boolean hasActiveEffects() {
+    // an active EffectProcessor with active effects always requires rendering so we only need to check these
+    int mask = renderRequiredMask;
+    while (mask != 0) {
+      int i = Integer.numberOfTrailingZeros(mask);
+      mask &= mask - 1;
+      if (renderProcessors[i].isActive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * checks if any EffectProcessor needs to be rendered. This includes neverStopRendering effects that
+   * keep on rendering after they have ended.
+   * @return true, if at least one EffectProcessor needs to be rendered, false otherwise
+   */
+  public boolean isRenderRequired() {
+    return renderRequiredMask != 0;
   }
 
   public void reset() {
-	// onHover should stay active and is not reset
-	// onActive should stay active and is not reset
-	// onFocus should stay active and is not reset
-  // onLostFocus should stay active and is not reset
-  // onClick should stay active and is not reset
-    effectProcessor.get(EffectEventId.onStartScreen).reset();
-    effectProcessor.get(EffectEventId.onEndScreen).reset();
-    effectProcessor.get(EffectEventId.onShow).reset();
-    effectProcessor.get(EffectEventId.onHide).reset();
-  //  effectProcessor.get(EffectEventId.onCustom).reset();
+    for (EffectEventId id : resetIds) {
+      resetSingleEffect(id);
+    }
   }
 
   public void resetAll() {
-      effectProcessor.get(EffectEventId.onStartScreen).reset();
-      effectProcessor.get(EffectEventId.onEndScreen).reset();
-      effectProcessor.get(EffectEventId.onShow).reset();
-      effectProcessor.get(EffectEventId.onHide).reset();
-      effectProcessor.get(EffectEventId.onCustom).reset();
-      effectProcessor.get(EffectEventId.onHover).reset();
-      effectProcessor.get(EffectEventId.onStartHover).reset();
-      effectProcessor.get(EffectEventId.onEndHover).reset();
-// onActive is currently used by the nifty-panel style. when we reset that effect here
-// we would not be able to use the nifty-panel in popups. when a popup is being closed
-// all effects will be reset. which makes sense but probably not for the onActive effect.
-// we need to check later if this uncommenting has any bad influence on other controls.
-//
-//      effectProcessor.get(EffectEventId.onActive).reset();
-      effectProcessor.get(EffectEventId.onFocus).reset();
-      effectProcessor.get(EffectEventId.onLostFocus).reset();
-      effectProcessor.get(EffectEventId.onGetFocus).reset();
-      effectProcessor.get(EffectEventId.onClick).reset();
+    for (EffectEventId id : resetAllIds) {
+      resetSingleEffect(id);
     }
+  }
 
   public void resetForHide() {
-    effectProcessor.get(EffectEventId.onStartScreen).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onEndScreen).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onShow).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onHide).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onCustom).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onHover).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onStartHover).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onEndHover).saveActiveNeverStopRenderingEffects();
-// not sure about this one yet :)
-//    effectProcessor.get(EffectEventId.onActive).pushNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onFocus).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onLostFocus).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onGetFocus).saveActiveNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onClick).saveActiveNeverStopRenderingEffects();
+    for (EffectEventId id : hideIds) {
+      EffectProcessor processor = getEffectProcessor(id);
+      if (processor != null) {
+        processor.saveActiveNeverStopRenderingEffects();
+      }
+    }
   }
 
   public void restoreForShow() {
-    effectProcessor.get(EffectEventId.onStartScreen).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onEndScreen).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onShow).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onHide).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onCustom).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onHover).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onStartHover).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onEndHover).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onFocus).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onLostFocus).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onGetFocus).restoreNeverStopRenderingEffects();
-    effectProcessor.get(EffectEventId.onClick).restoreNeverStopRenderingEffects();
+    for (EffectEventId id : hideIds) {
+      EffectProcessor processor = getEffectProcessor(id);
+      if (processor != null) {
+        processor.restoreNeverStopRenderingEffects();
+      }
+    }
   }
 
   public void resetSingleEffect(final EffectEventId effectEventId) {
-    effectProcessor.get(effectEventId).reset();
+    EffectProcessor processor = getEffectProcessor(effectEventId);
+    if (processor != null) {
+      processor.reset();
+    }
   }
-  
+
   public void resetSingleEffect(final EffectEventId effectEventId, final String customKey) {
-	  effectProcessor.get(effectEventId).reset(customKey);
+    EffectProcessor processor = getEffectProcessor(effectEventId);
+    if (processor != null) {
+      processor.reset(customKey);
+    }
   }
 
   /**
@@ -263,9 +405,9 @@ public class EffectManager {
     StringBuffer data = new StringBuffer();
 
     int activeProcessors = 0;
-    for (EffectEventId eventId : effectProcessor.keySet()) {
-      EffectProcessor processor = effectProcessor.get(eventId);
-      if (processor.isActive()) {
+    for (EffectEventId eventId : effectEventIds) {
+      EffectProcessor processor = getEffectProcessor(eventId);
+      if (processor != null && processor.isActive()) {
         activeProcessors++;
 
         data.append(offset);
@@ -290,9 +432,12 @@ public class EffectManager {
   }
 
   public void removeAllEffects() {
-    for (int i=0; i<effectProcessorList.size(); i++) {
-      EffectProcessor processor = effectProcessorList.get(i);
-      processor.removeAllEffects();
+    if (effectProcessors != null) {
+      for (int i=0; i<effectProcessors.length; i++) {
+        if (effectProcessors[i] != null) {
+          effectProcessors[i].removeAllEffects();
+        }
+      }
     }
     isEmpty = true;
   }
@@ -301,8 +446,28 @@ public class EffectManager {
     return isEmpty;
   }
 
+  /**
+   * @return the number of EffectProcessors this EffectManager has created so far
+   */
+  public int getEffectProcessorCount() {
+    if (effectProcessors == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i=0; i<effectProcessors.length; i++) {
+      if (effectProcessors[i] != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   public <T extends EffectImpl> List<Effect> getEffects(final EffectEventId effectEventId, final Class<T> requestedClass) {
-    return effectProcessor.get(effectEventId).getEffects(requestedClass);
+    EffectProcessor processor = getEffectProcessor(effectEventId);
+    if (processor == null) {
+      return new ArrayList<Effect>();
+    }
+    return processor.getEffects(requestedClass);
   }
 
   interface RenderPhase {
@@ -326,4 +491,24 @@ public class EffectManager {
       processor.renderOverlay(renderEngine);
     }
   }
+
+  /**
+   * The shared EMPTY EffectManager. Everything that changes the EffectManager is ignored (the alternate key is
+   * only used to start effects) or not supported.
+   */
+  private final static class EmptyEffectManager extends EffectManager {
+    @Override
+    public void registerEffect(final EffectEventId id, final Effect e) {
+      throw new UnsupportedOperationException("the shared empty EffectManager can't register effects");
+    }
+
+    @Override
+    public void setAlternateKey(final String newAlternateKey) {
+    }
+
+    @Override
+    public void setFalloff(final Falloff newFalloff) {
+      throw new UnsupportedOperationException("the shared empty EffectManager can't have a Falloff");
+    }
+  }
 }
@@ -29,10 +29,26 @@ public class EffectProcessor {
   private boolean processingEffects;
   private boolean pendingEffectsRemove;
 
+  private EffectManager effectManager;
+  private int renderMask;
+  private boolean renderRequired;
+
   public EffectProcessor(final boolean neverStopRenderingParam) {
     neverStopRendering = neverStopRenderingParam;
   }
 
+  /**
+   * Create an EffectProcessor that tells the EffectManager when it needs to be rendered or not.
+   * @param neverStopRenderingParam never stop rendering
+   * @param effectManagerParam the EffectManager this EffectProcessor belongs to
+   * @param renderMaskParam the bit of this EffectProcessor in the mask of the EffectManager
+   */
+  EffectProcessor(final boolean neverStopRenderingParam, final EffectManager effectManagerParam, final int renderMaskParam) {
+    neverStopRendering = neverStopRenderingParam;
+    effectManager = effectManagerParam;
+    renderMask = renderMaskParam;
+  }
+
   public void registerEffect(final Effect e) {
     allEffects.add(e);
   }
@@ -45,13 +61,16 @@ public class EffectProcessor {
     renderDeviceProxy.reset();
 
     processingEffects = true;
-      for (Effect e : activeEffects.getActive()) {
-          if (e.isInherit() && (isActive(e))) {
-              e.execute(renderDeviceProxy);
-          }
+    List<Effect> effects = activeEffects.getActive();
+    for (int i=0; i<effects.size(); i++) {
+      Effect e = effects.get(i);
+      if (e.isInherit() && (isActive(e))) {
+        e.execute(renderDeviceProxy);
       }
+    }
 
     checkPendingEffectsRemove();
+    updateRenderRequired();
   }
 
   public void renderPre(final NiftyRenderEngine renderDevice) {
@@ -66,29 +85,40 @@ public class EffectProcessor {
     renderActive(renderDevice, activeEffects.getActiveOverlay());
   }
 
-  private void renderActive(final NiftyRenderEngine renderDevice, final Collection<Effect> effects) {
+  private void renderActive(final NiftyRenderEngine renderDevice, final List<Effect> effects) {
     if (isInactive()) {
       return;
     }
 
     processingEffects = true;
-    for (Effect e : effects) {
+    for (int i=0; i<effects.size(); i++) {
+      Effect e = effects.get(i);
+      if (isActive(e)) {
+        e.update();
         if (isActive(e)) {
-            e.update();
-            if (isActive(e)) {
-                e.execute(renderDevice);
-            }
+          e.execute(renderDevice);
         }
+      }
     }
 
     checkFinish();
     checkPendingEffectsRemove();
+    updateRenderRequired();
   }
 
   public boolean isActive() {
     return active;
   }
 
+  /**
+   * Check if this EffectProcessor needs to be rendered at all. When it has no active effects or when it's not
+   * active anymore and none of its effects is neverStopRendering rendering it would not do anything.
+   * @return true when this EffectProcessor needs to be rendered
+   */
+  public boolean isRenderRequired() {
+    return !activeEffects.isEmpty() && !isInactive();
+  }
+
   public void saveActiveNeverStopRenderingEffects() {
     pushedEffects.clear();
 
@@ -117,6 +147,7 @@ public class EffectProcessor {
     } else {
       pendingEffectsRemove = true;
     }
+    updateRenderRequired();
   }
 
   public void reset(final String customKey) {
@@ -139,6 +170,7 @@ public class EffectProcessor {
          activeEffects.remove(e);
        }
      }
+     updateRenderRequired();
   }
 
   public void activate(final EndNotify newListener, final String alternate, final String customKey) {
@@ -153,6 +185,7 @@ public class EffectProcessor {
       active = true;
       pendingEffectsRemove = false;
     }
+    updateRenderRequired();
   }
 
   public String getStateString() {
@@ -175,6 +208,7 @@ public class EffectProcessor {
     if (!active) {
       reset();
     }
+    updateRenderRequired();
   }
 
   public void processHover(final int x, final int y) {
@@ -196,6 +230,7 @@ public class EffectProcessor {
         }
       }
     }
+    updateRenderRequired();
   }
 
   public void processStartHover(final int x, final int y) {
@@ -217,6 +252,7 @@ public class EffectProcessor {
         }
       }
     }
+    updateRenderRequired();
   }
 
   public void processEndHover(final int x, final int y) {
@@ -234,6 +270,7 @@ public class EffectProcessor {
         }
       }
     }
+    updateRenderRequired();
   }
 
   public void processHoverDeactivate(final int x, final int y) {
@@ -247,6 +284,7 @@ public class EffectProcessor {
         }
       }
     }
+    updateRenderRequired();
   }
 
   private void startEffect(final Effect e, final String alternate, final String customKey) {
@@ -265,6 +303,7 @@ public class EffectProcessor {
   public void removeAllEffects() {
     allEffects.clear();
     activeEffects.clear();
+    updateRenderRequired();
   }
 
   /**
@@ -307,6 +346,17 @@ public class EffectProcessor {
     }
   }
 
+  private void updateRenderRequired() {
+    boolean newRenderRequired = isRenderRequired();
+    if (newRenderRequired == renderRequired) {
+      return;
+    }
+    renderRequired = newRenderRequired;
+    if (effectManager != null) {
+      effectManager.setRenderRequired(renderMask, newRenderRequired);
+    }
+  }
+
   private boolean isInactive() {
     return !active && isNotNeverStopRendering();
   }
@@ -1,6 +1,5 @@
 package de.lessvoid.nifty.effects;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import de.lessvoid.nifty.render.BlendMode;
@@ -18,7 +17,7 @@ import de.lessvoid.nifty.tools.Color;
  */
 public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
 
-  private Set < RenderStateType > renderStates = new HashSet < RenderStateType >();
+  private int renderStates;
 
   @Override
   public void beginFrame() {
@@ -42,13 +41,17 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
     return null;
   }
 
+  @Override
+  public void preloadImage(final String name, final boolean filterLinear, final int priority) {
+  }
+
   @Override
   public void disableClip() {
   }
 
   @Override
   public void enableClip(final int x0, final int y0, final int x1, final int y1) {
-    renderStates.add(RenderStateType.clip);
+    renderStates |= RenderStateType.clip.getMask();
   }
 
   @Override
@@ -63,18 +66,29 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
 
   @Override
   public void setColor(final Color colorParam) {
-    renderStates.add(RenderStateType.color);
-    renderStates.add(RenderStateType.alpha);
+    renderStates |= RenderStateType.color.getMask();
+    renderStates |= RenderStateType.alpha.getMask();
+  }
+
+  @Override
+  public void setColor(final float red, final float green, final float blue, final float alpha) {
+    renderStates |= RenderStateType.color.getMask();
+    renderStates |= RenderStateType.alpha.getMask();
   }
 
   @Override
   public void setColorAlpha(final float newColorAlpha) {
-    renderStates.add(RenderStateType.alpha);
+    renderStates |= RenderStateType.alpha.getMask();
   }
 
   @Override
   public void setColorIgnoreAlpha(final Color color) {
-    renderStates.add(RenderStateType.color);
+    renderStates |= RenderStateType.color.getMask();
+  }
+
+  @Override
+  public void setColorIgnoreAlpha(final float red, final float green, final float blue, final float alpha) {
+    renderStates |= RenderStateType.color.getMask();
   }
 
   @Override
@@ -89,7 +103,7 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
 
   @Override
   public void moveTo(final float param, final float param2) {
-    renderStates.add(RenderStateType.position);
+    renderStates |= RenderStateType.position.getMask();
   }
 
   @Override
@@ -124,7 +138,7 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
 
   @Override
   public void setFont(final RenderFont font) {
-    renderStates.add(RenderStateType.font);
+    renderStates |= RenderStateType.font.getMask();
   }
 
   @Override
@@ -134,22 +148,22 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
 
   @Override
   public void setGlobalPosition(final float pos, final float pos2) {
-    renderStates.add(RenderStateType.position);
+    renderStates |= RenderStateType.position.getMask();
   }
 
   @Override
   public void setImageScale(final float scale) {
-    renderStates.add(RenderStateType.imageScale);
+    renderStates |= RenderStateType.imageScale.getMask();
   }
 
   @Override
   public void setRenderTextSize(final float size) {
-    renderStates.add(RenderStateType.textSize);
+    renderStates |= RenderStateType.textSize.getMask();
   }
 
   @Override
   public void setBlendMode(final BlendMode blendMode) {
-    renderStates.add(RenderStateType.blendMode);
+    renderStates |= RenderStateType.blendMode.getMask();
   }
 
   @Override
@@ -161,16 +175,28 @@ public class NiftyRenderDeviceProxy implements NiftyRenderEngine {
   public void disposeImage(final RenderImage image) {
   }
 
+  @Override
+  public void pinImage(final RenderImage image, final boolean pin) {
+  }
+
   @Override
   public void displayResolutionChanged() {
   }
 
   
   public void reset() {
-    renderStates.clear();
+    renderStates = 0;
   }
 
   public Set < RenderStateType > getStates() {
+    return RenderStateType.statesForMask(renderStates);
+  }
+
+  /**
+   * Get the states that have been changed since the last reset() as a mask.
+   * @return render state mask
+   */
+  public int getStateMask() {
     return renderStates;
   }
 
@@ -20,7 +20,6 @@ import de.lessvoid.nifty.tools.SizeValue;
 public class ColorBar implements EffectImpl {
   private Logger log = Logger.getLogger(ColorBar.class.getName());
   private Color color;
-  private Color tempColor = new Color("#000f");
   private SizeValue width;
   private SizeValue insetLeft = new SizeValue("0px");
   private SizeValue insetRight = new SizeValue("0px");
@@ -47,20 +46,15 @@ public class ColorBar implements EffectImpl {
       final Falloff falloff,
       final NiftyRenderEngine r) {
     r.saveState(null);
+    float factor = falloff == null ? 1.0f : falloff.getFalloffValue();
+    float red = color.getRed() * factor;
+    float green = color.getGreen() * factor;
+    float blue = color.getBlue() * factor;
+    float alpha = color.getAlpha() * factor;
     if (r.isColorAlphaChanged()) {
-      if (falloff == null) {
-        r.setColorIgnoreAlpha(color);
-      } else {
-        tempColor.mutiply(color, falloff.getFalloffValue());
-        r.setColorIgnoreAlpha(tempColor);
-      }
+      r.setColorIgnoreAlpha(red, green, blue, alpha);
     } else {
-      if (falloff == null) {
-        r.setColor(color);
-      } else {
-        tempColor.mutiply(color, falloff.getFalloffValue());
-        r.setColor(tempColor);
-      }
+      r.setColor(red, green, blue, alpha);
     }
 
     int insetOffsetLeft = insetLeft.getValueAsInt(element.getWidth());
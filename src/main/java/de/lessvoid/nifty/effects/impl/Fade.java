@@ -46,8 +46,7 @@ public class Fade implements EffectImpl {
     if (interpolator != null) {
       r.setColorAlpha(interpolator.getValue(normalizedTime));
     } else {
-      Alpha a = start.linear(end, normalizedTime);
-      r.setColorAlpha(a.getAlpha());
+      r.setColorAlpha(start.getAlpha() + normalizedTime * (end.getAlpha() - start.getAlpha()));
     }
   }
 
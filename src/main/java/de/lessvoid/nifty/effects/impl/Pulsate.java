@@ -17,7 +17,6 @@ import de.lessvoid.nifty.tools.pulsate.Pulsator;
  * @author void
  */
 public class Pulsate implements EffectImpl {
-  private Color currentColor = new Color("#000f");
   private Color startColor;
   private Color endColor;
   private SizeValue width;
@@ -49,8 +48,11 @@ public class Pulsate implements EffectImpl {
       }
 
       float value = pulsator.update();
-      currentColor.linear(startColor, endColor, value);
-      r.setColor(currentColor);
+      r.setColor(
+          linear(startColor.getRed(), endColor.getRed(), value),
+          linear(startColor.getGreen(), endColor.getGreen(), value),
+          linear(startColor.getBlue(), endColor.getBlue(), value),
+          linear(startColor.getAlpha(), endColor.getAlpha(), value));
   
       if (!changeColorOnly) {
         int size = (int) width.getValue(element.getParent().getWidth());
@@ -67,6 +69,10 @@ public class Pulsate implements EffectImpl {
     }
   }
 
+  private float linear(final float start, final float end, final float t) {
+    return start + t * (end - start);
+  }
+
   public void deactivate() {
     activated = true;
   }
@@ -14,8 +14,6 @@ import de.lessvoid.nifty.tools.Color;
  * @author void
  */
 public class TextColorAnimated implements EffectImpl {
-  private Color currentColor = new Color("#000f");
-  private Color tempColor = new Color("#000f");
   private Color startColor;
   private Color endColor;
 
@@ -29,21 +27,20 @@ public class TextColorAnimated implements EffectImpl {
       final float normalizedTime,
       final Falloff falloff,
       final NiftyRenderEngine r) {
-    currentColor.linear(startColor, endColor, normalizedTime);
-    if (falloff == null) {
-      setColor(r, currentColor);
+    float factor = falloff == null ? 1.0f : falloff.getFalloffValue();
+    float red = linear(startColor.getRed(), endColor.getRed(), normalizedTime) * factor;
+    float green = linear(startColor.getGreen(), endColor.getGreen(), normalizedTime) * factor;
+    float blue = linear(startColor.getBlue(), endColor.getBlue(), normalizedTime) * factor;
+    float alpha = linear(startColor.getAlpha(), endColor.getAlpha(), normalizedTime) * factor;
+    if (r.isColorAlphaChanged()) {
+      r.setColorIgnoreAlpha(red, green, blue, alpha);
     } else {
-      tempColor.mutiply(currentColor, falloff.getFalloffValue());
-      setColor(r, tempColor);
+      r.setColor(red, green, blue, alpha);
     }
   }
 
-  private void setColor(final NiftyRenderEngine r, final Color color) {
-    if (r.isColorAlphaChanged()) {
-      r.setColorIgnoreAlpha(color);
-    } else {
-      r.setColor(color);
-    }
+  private float linear(final float start, final float end, final float t) {
+    return start + t * (end - start);
   }
 
   public void deactivate() {
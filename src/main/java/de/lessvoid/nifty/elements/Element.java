@@ -10,6 +10,9 @@ import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.NiftyEvent;
 import de.lessvoid.nifty.NiftyMethodInvoker;
+import de.lessvoid.nifty.NiftyStatistics;
+import de.lessvoid.nifty.NiftyStatistics.Counter;
+import de.lessvoid.nifty.NiftyStatistics.Timing;
 import de.lessvoid.nifty.controls.Controller;
 import de.lessvoid.nifty.controls.FocusHandler;
 import de.lessvoid.nifty.controls.NiftyControl;
@@ -26,6 +29,7 @@ import de.lessvoid.nifty.elements.events.ElementShowEvent;
 import de.lessvoid.nifty.elements.render.ElementRenderer;
 import de.lessvoid.nifty.elements.render.ImageRenderer;
 import de.lessvoid.nifty.elements.render.PanelRenderer;
+import de.lessvoid.nifty.elements.render.RetainedElementRenderer;
 import de.lessvoid.nifty.elements.render.TextRenderer;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 import de.lessvoid.nifty.input.keyboard.KeyboardInputEvent;
@@ -40,6 +44,7 @@ import de.lessvoid.nifty.loaderv2.types.apply.ApplyRendererImage;
 import de.lessvoid.nifty.loaderv2.types.apply.ApplyRendererPanel;
 import de.lessvoid.nifty.loaderv2.types.apply.Convert;
 import de.lessvoid.nifty.loaderv2.types.helper.PaddingAttributeParser;
+import de.lessvoid.nifty.render.DisplayList;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.screen.KeyInputHandler;
 import de.lessvoid.nifty.screen.MouseOverHandler;
@@ -96,10 +101,15 @@ public class Element implements NiftyEvent<Void> {
   private ElementRenderer[] elementRenderer = new ElementRenderer[0];
 
   /**
-   * the effect manager for this element.
+   * the effect manager for this element. this is the shared EffectManager.EMPTY until the first effect is registered.
    */
   private EffectManager effectManager;
 
+  /**
+   * the alternate key used to start effects.
+   */
+  private String alternateKey;
+
   /**
    * Element interaction.
    */
@@ -203,6 +213,44 @@ public class Element implements NiftyEvent<Void> {
   private int parentClipWidth;
   private int parentClipHeight;
 
+  /**
+   * In retained render mode this is true when the output of this element (or any of its children)
+   * might have changed since the displayList has been recorded.
+   */
+  private boolean renderDirty = true;
+
+  /**
+   * The recorded output of this element used in retained render mode.
+   */
+  private DisplayList displayList;
+
+  /**
+   * The layout of this element and all of its children has to be done again.
+   */
+  private boolean layoutDirty = true;
+
+  /**
+   * The layout of some element below this element has to be done again.
+   */
+  private boolean childLayoutDirty;
+
+  /**
+   * The version of our BoxConstraints when this element has been layouted the last time. When the version
+   * has changed someone changed the BoxConstraints directly and the layout has to be done again.
+   */
+  private int layoutConstraintsVersion;
+
+  /**
+   * The LayoutParts of all child elements. We keep this around so that we don't need to create a new
+   * list every time we layout our children.
+   */
+  private ArrayList < LayoutPart > layoutPartChildren;
+
+  /**
+   * This is changed whenever the layout of this element or any element below it has been changed.
+   */
+  private int layoutVersion;
+
   private static Convert convert = new Convert();
   private static Map < Class < ? extends ElementRenderer >, ApplyRenderer > rendererApplier = new LinkedHashMap< Class < ? extends ElementRenderer>, ApplyRenderer >();
   {
@@ -310,6 +358,7 @@ public class Element implements NiftyEvent<Void> {
       this.visible = true;
     }
     this.visibleToMouseEvents = attributes.getAsBoolean("visibleToMouse", Convert.DEFAULT_VISIBLE_TO_MOUSE);
+    layoutChanged();
     this.layoutManager = convert.layoutManager(attributes.get("childLayout"));
     this.focusable = attributes.getAsBoolean("focusable", Convert.DEFAULT_FOCUSABLE);
     this.focusableInsertBeforeElementId = attributes.get("focusableInsertBeforeElementId");
@@ -318,6 +367,7 @@ public class Element implements NiftyEvent<Void> {
       ApplyRenderer rendererApply = rendererApplier.get(renderer.getClass());
       rendererApply.apply(this, attributes, renderEngine);
     }
+    markLayoutDirty();
   }
 
   public void initializeFromPostAttributes(final Attributes attributes) {
@@ -329,6 +379,7 @@ public class Element implements NiftyEvent<Void> {
 
   private void hideWithChildren() {
     visible = false;
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element element = elements.get(i);
       element.hideWithChildren();
@@ -366,8 +417,13 @@ public class Element implements NiftyEvent<Void> {
     } else {
       this.elementRenderer = newElementRenderer;
     }
-    this.effectManager = new EffectManager();
-    this.effectManager.setAlternateKey(nifty.getAlternateKey());
+    for (int i=0; i<elementRenderer.length; i++) {
+      if (elementRenderer[i] instanceof RetainedElementRenderer) {
+        ((RetainedElementRenderer) elementRenderer[i]).setElement(this);
+      }
+    }
+    this.effectManager = EffectManager.EMPTY;
+    this.alternateKey = nifty.getAlternateKey();
     this.layoutPart = newLayoutPart;
     this.enabled = true;
     this.enabledCount = 0;
@@ -540,6 +596,8 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setHeight(int height) {
     layoutPart.getBox().setHeight(height);
+    markRenderDirty();
+    layoutChanged();
   }
   
   /**
@@ -548,6 +606,8 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setWidth(int width) {
     layoutPart.getBox().setWidth(width);
+    markRenderDirty();
+    layoutChanged();
   }
 
   /**
@@ -564,6 +624,9 @@ public class Element implements NiftyEvent<Void> {
    */
   public void add(final Element widget) {
     elements.add(widget);
+    markRenderDirty();
+    invalidateLayout();
+    layoutChanged();
   }
 
   /**
@@ -571,26 +634,113 @@ public class Element implements NiftyEvent<Void> {
    * @param r the RenderDevice to use
    */
   public void render(final NiftyRenderEngine r) {
-    if (visible) {
-      if (effectManager.isEmpty()) {
-        r.saveState(null);
-        renderElement(r);
-        renderChildren(r);
-        r.restoreState();
-      } else {
-        r.saveState(null);
-        effectManager.begin(r, this);
-        effectManager.renderPre(r, this);
-        renderElement(r);
-        effectManager.renderPost(r, this);
-        effectManager.end(r);
-        renderChildren(r);
-        r.restoreState();
-        r.saveState(null);
-        effectManager.renderOverlay(r, this);
-        r.restoreState();
+    render(r, true);
+  }
+
+  /**
+   * Render this element. In retained render mode an element that has not changed since the last frame
+   * simply replays its DisplayList. Everything else is recorded while it is rendered.
+   * @param r the RenderDevice to use
+   * @param replayAllowed false when a parent element renders effects. Our output depends on the
+   * render state the effects of the parent set up and so we can't use the recorded output.
+   */
+  private void render(final NiftyRenderEngine r, final boolean replayAllowed) {
+    nifty.getStatistics().count(Counter.VISITED_ELEMENTS);
+    if (!visible) {
+      return;
+    }
+    if (!replayAllowed || !nifty.isRetainedRenderMode() || nifty.isDebugOptionPanelColors()) {
+      renderDirty = true;
+      renderInternal(r, false);
+      return;
+    }
+    if (!renderDirty && displayList != null) {
+      displayList.replay(r);
+      return;
+    }
+    if (displayList == null) {
+      displayList = new DisplayList();
+    }
+    boolean effectsRendered = effectManager.isRenderRequired();
+    displayList.beginRecording(r);
+    renderInternal(displayList, !effectsRendered);
+    displayList.endRecording();
+    renderDirty = effectsRendered || effectManager.isRenderRequired() || !isRenderCacheable() || isChildRenderDirty();
+  }
+
+  private void renderInternal(final NiftyRenderEngine r, final boolean replayAllowed) {
+    NiftyStatistics statistics = nifty.getStatistics();
+    statistics.count(Counter.RENDERED_ELEMENTS);
+    if (effectManager.isEmpty()) {
+      r.saveState(null);
+      renderElement(r);
+      renderChildren(r, replayAllowed);
+      r.restoreState();
+    } else {
+      r.saveState(null);
+      long effectsStart = statistics.startTiming();
+      effectManager.begin(r, this);
+      effectManager.renderPre(r, this);
+      statistics.stopTiming(Timing.EFFECTS, effectsStart);
+      renderElement(r);
+      effectsStart = statistics.startTiming();
+      effectManager.renderPost(r, this);
+      effectManager.end(r);
+      statistics.stopTiming(Timing.EFFECTS, effectsStart);
+      renderChildren(r, replayAllowed);
+      r.restoreState();
+      r.saveState(null);
+      effectsStart = statistics.startTiming();
+      effectManager.renderOverlay(r, this);
+      statistics.stopTiming(Timing.EFFECTS, effectsStart);
+      r.restoreState();
+    }
+  }
+
+  private boolean isRenderCacheable() {
+    for (int i=0; i<elementRenderer.length; i++) {
+      if (!(elementRenderer[i] instanceof RetainedElementRenderer)) {
+        return false;
       }
     }
+    return true;
+  }
+
+  private boolean isChildRenderDirty() {
+    for (int i=0; i<elements.size(); i++) {
+      Element e = elements.get(i);
+      if (e.visible && e.renderDirty) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tell this element that its output has changed. The element and all of its parents will be rendered
+   * again in the next frame instead of replaying the recorded output (retained render mode only).
+   */
+  public void markRenderDirty() {
+    Element current = this;
+    while (current != null) {
+      current.renderDirty = true;
+      current = current.parent;
+    }
+  }
+
+  private void markRenderDirtyWithChildren() {
+    renderDirty = true;
+    for (int i=0; i<elements.size(); i++) {
+      elements.get(i).markRenderDirtyWithChildren();
+    }
+  }
+
+  /**
+   * Check if this element needs to be rendered again in retained render mode.
+   * @return true when the recorded output of this element can't be used
+   */
+  public boolean isRenderDirty() {
+    return renderDirty;
   }
 
   private void renderElement(final NiftyRenderEngine r) {
@@ -600,20 +750,20 @@ public class Element implements NiftyEvent<Void> {
     }
   }
 
-  private void renderChildren(final NiftyRenderEngine r) {
+  private void renderChildren(final NiftyRenderEngine r, final boolean replayAllowed) {
     if (clipChildren) {
       r.enableClip(getX(), getY(), getX() + getWidth(), getY() + getHeight());
-      renderInternalChildElements(r);
+      renderInternalChildElements(r, replayAllowed);
       r.disableClip();
     } else {
-      renderInternalChildElements(r);
+      renderInternalChildElements(r, replayAllowed);
     }
   }
 
-  private void renderInternalChildElements(final NiftyRenderEngine r) {
+  private void renderInternalChildElements(final NiftyRenderEngine r, final boolean replayAllowed) {
     for (int i=0; i<elements.size(); i++) {
       Element p = elements.get(i);
-      p.render(r);
+      p.render(r, replayAllowed);
     }
   }
 
@@ -623,18 +773,134 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setLayoutManager(final LayoutManager newLayout) {
     this.layoutManager = newLayout;
+    invalidateLayout();
   }
 
   public void resetLayout() {
+    resetLayoutInternal();
+    invalidateLayout();
+  }
+
+  private void resetLayoutInternal() {
     isCalcWidthConstraint = false;
     isCalcHeightConstraint = false;
+    layoutDirty = true;
 
     for (int i=0; i<elements.size(); i++) {
       Element e = elements.get(i);
-      e.resetLayout();
+      e.resetLayoutInternal();
     }
   }
 
+  /**
+   * Tell this element that something changed that influences its own layout, for instance one of its
+   * constraints. The next Screen.layoutLayers() will layout the parent of this element again.
+   */
+  public void markLayoutDirty() {
+    layoutDirty = true;
+    if (parent != null) {
+      parent.invalidateLayout();
+    } else {
+      invalidateLayout();
+    }
+  }
+
+  /**
+   * The layout of this element has to be done again. When this element has a width and a height
+   * constraint that do not depend on the child elements the layout of the parent element is not
+   * influenced and we only need to layout this element again. Otherwise we'll continue with the parent.
+   * All the elements above the element we stop at only remember that there is something to do below them.
+   */
+  private void invalidateLayout() {
+    Element current = this;
+    while (current != null) {
+      current.layoutDirty = true;
+      if (current.hasFixedSize()) {
+        break;
+      }
+      current = current.parent;
+    }
+    if (current != null) {
+      current = current.parent;
+      while (current != null) {
+        current.childLayoutDirty = true;
+        current = current.parent;
+      }
+    }
+  }
+
+  private boolean hasFixedSize() {
+    return
+      getConstraintWidth() != null &&
+      getConstraintHeight() != null &&
+      !isCalcWidthConstraint &&
+      !isCalcHeightConstraint;
+  }
+
+  /**
+   * Check if the layout of this element has to be done again.
+   * @return true when this element or any element below it needs to be layouted
+   */
+  public boolean isLayoutDirty() {
+    return layoutDirty || childLayoutDirty;
+  }
+
+  /**
+   * Layout only the parts of this element that have changed since the last layout. This includes elements
+   * with BoxConstraints that have been changed directly (getLayoutPart().getBoxConstraints()) instead of
+   * using the setters of the element.
+   */
+  public void layoutDirtyElements() {
+    markChangedConstraintsLayoutDirty();
+    layoutDirtyElementsInternal();
+  }
+
+  private void markChangedConstraintsLayoutDirty() {
+    if (layoutConstraintsVersion != layoutPart.getBoxConstraints().getVersion()) {
+      markLayoutDirty();
+    }
+    for (int i=0; i<elements.size(); i++) {
+      Element e = elements.get(i);
+      e.markChangedConstraintsLayoutDirty();
+    }
+  }
+
+  private void layoutDirtyElementsInternal() {
+    if (layoutDirty) {
+      layoutElements();
+      return;
+    }
+    if (!childLayoutDirty) {
+      return;
+    }
+    childLayoutDirty = false;
+    for (int i=0; i<elements.size(); i++) {
+      Element e = elements.get(i);
+      e.layoutDirtyElementsInternal();
+    }
+  }
+
+  private void clearLayoutDirty() {
+    layoutDirty = false;
+    childLayoutDirty = false;
+    layoutConstraintsVersion = layoutPart.getBoxConstraints().getVersion();
+    for (int i=0; i<elements.size(); i++) {
+      Element e = elements.get(i);
+      e.clearLayoutDirty();
+    }
+  }
+
+  private List < LayoutPart > getLayoutPartChildren() {
+    if (layoutPartChildren == null) {
+      layoutPartChildren = new ArrayList < LayoutPart >(elements.size());
+    }
+    layoutPartChildren.clear();
+    for (int i=0; i<elements.size(); i++) {
+      layoutPartChildren.add(elements.get(i).layoutPart);
+    }
+    return layoutPartChildren;
+  }
+
   private void preProcessConstraintWidth() {
     for (int i=0; i<elements.size(); i++) {
       Element e = elements.get(i);
@@ -651,21 +917,12 @@ public class Element implements NiftyEvent<Void> {
     // is it empty and we have an layoutManager there's still hope for a width constraint
     if (layoutManager != null && (myWidth == null || isCalcWidthConstraint)) {
 
-      // collect all child layoutPart that have a fixed pixel size in a list
-      List < LayoutPart > layoutPartChild = new ArrayList < LayoutPart >();
-      for (int i=0; i<elements.size(); i++) {
-        Element e = elements.get(i);
-        SizeValue childWidth = e.getConstraintWidth();
-        if (childWidth != null && childWidth.isPixel()) {
-          layoutPartChild.add(e.layoutPart);
-        }
-      }
-
       // if all (!) child elements have a pixel fixed width we can calculate a new width constraint for this element!
-      if (elements.size() == layoutPartChild.size()) {
-        SizeValue newWidth = layoutManager.calculateConstraintWidth(this.layoutPart, layoutPartChild);
+      if (allChildrenHavePixelWidth()) {
+        SizeValue newWidth = layoutManager.calculateConstraintWidth(this.layoutPart, getLayoutPartChildren());
         if (newWidth != null) {
-          setConstraintWidth(newWidth);
+          layoutPart.getBoxConstraints().setWidth(newWidth);
+          notifyListeners();
           isCalcWidthConstraint = true;
         }
       }
@@ -687,27 +944,39 @@ public class Element implements NiftyEvent<Void> {
 
     // is it empty and we have an layoutManager there's still hope for a height constraint
     if (layoutManager != null && (myHeight == null || isCalcHeightConstraint)) {
-      // collect all child layoutPart that have a fixed px size in a list
-      List < LayoutPart > layoutPartChild = new ArrayList < LayoutPart >();
-      for (int i=0; i<elements.size(); i++) {
-        Element e = elements.get(i);
-        SizeValue childHeight = e.getConstraintHeight();
-        if (childHeight != null && childHeight.isPixel()) {
-          layoutPartChild.add(e.layoutPart);
-        }
-      }
 
       // if all (!) child elements have a px fixed height we can calculate a new height constraint for this element!
-      if (elements.size() == layoutPartChild.size()) {
-        SizeValue newHeight = layoutManager.calculateConstraintHeight(this.layoutPart, layoutPartChild);
+      if (allChildrenHavePixelHeight()) {
+        SizeValue newHeight = layoutManager.calculateConstraintHeight(this.layoutPart, getLayoutPartChildren());
         if (newHeight != null) {
-          setConstraintHeight(newHeight);
+          layoutPart.getBoxConstraints().setHeight(newHeight);
+          notifyListeners();
           isCalcHeightConstraint = true;
         }
       }
     }
   }
 
+  private boolean allChildrenHavePixelWidth() {
+    for (int i=0; i<elements.size(); i++) {
+      SizeValue childWidth = elements.get(i).getConstraintWidth();
+      if (childWidth == null || !childWidth.isPixel()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean allChildrenHavePixelHeight() {
+    for (int i=0; i<elements.size(); i++) {
+      SizeValue childHeight = elements.get(i).getConstraintHeight();
+      if (childHeight == null || !childHeight.isPixel()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void processLayoutInternal() {
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
@@ -722,15 +991,8 @@ public class Element implements NiftyEvent<Void> {
     processLayoutInternal();
 
     if (layoutManager != null) {
-      // we need a list of LayoutPart and not of Element, so we'll build one on the fly here
-      List < LayoutPart > layoutPartChild = new ArrayList < LayoutPart >();
-      for (int i=0; i<elements.size(); i++) {
-        Element w = elements.get(i);
-        layoutPartChild.add(w.layoutPart);
-      }
-
       // use out layoutManager to layout our children
-      layoutManager.layoutElements(layoutPart, layoutPartChild);
+      layoutManager.layoutElements(layoutPart, getLayoutPartChildren());
 
       if (attachedInputControl != null) {
         NiftyControl niftyControl = attachedInputControl.getNiftyControl(NiftyControl.class);
@@ -756,12 +1018,48 @@ public class Element implements NiftyEvent<Void> {
     }
   }
 
+  /**
+   * Layout this element and all of its children. When the layout changes any constraints (text with line
+   * wrapping or controls that change their child elements in the layoutCallback) we'll need a second pass.
+   */
   public void layoutElements() {
     prepareLayout();
+    clearLayoutDirty();
     processLayout();
 
-    prepareLayout();
-    processLayout();
+    if (layoutDirty || childLayoutDirty) {
+      prepareLayout();
+      processLayout();
+    }
+    clearLayoutDirty();
+
+    // when we're not the top level element some element above might clip us. because the clip area
+    // of the element on top wins we'll need to apply it again after our children got their new values.
+    if (parentClipArea) {
+      setParentClipArea(parentClipX, parentClipY, parentClipWidth, parentClipHeight);
+    }
+
+    markRenderDirtyWithChildren();
+    markRenderDirty();
+    layoutChanged();
+  }
+
+  private void layoutChanged() {
+    Element current = this;
+    while (current != null) {
+      current.layoutVersion++;
+      current = current.parent;
+    }
+  }
+
+  /**
+   * The layout version changes whenever the layout of this element or any element below it has been
+   * done again, an element has been added or the visibleToMouse flag has been changed. You can use it
+   * to find out if any information you've calculated from the layout is still up to date.
+   * @return the layout version
+   */
+  public int getLayoutVersion() {
+    return layoutVersion;
   }
 
   private void prepareLayout() {
@@ -788,6 +1086,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void resetEffects() {
     effectManager.reset();
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetEffects();
@@ -796,6 +1095,7 @@ public class Element implements NiftyEvent<Void> {
 
   public void resetAllEffects() {
     effectManager.resetAll();
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetAllEffects();
@@ -804,6 +1104,7 @@ public class Element implements NiftyEvent<Void> {
 
   public void resetForHide() {
     effectManager.resetForHide();
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetForHide();
@@ -812,6 +1113,7 @@ public class Element implements NiftyEvent<Void> {
 
   public void resetSingleEffect(final EffectEventId effectEventId) {
     effectManager.resetSingleEffect(effectEventId);
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetSingleEffect(effectEventId);
@@ -820,6 +1122,7 @@ public class Element implements NiftyEvent<Void> {
   
   public void resetSingleEffect(final EffectEventId effectEventId, final String customKey) {
     effectManager.resetSingleEffect(effectEventId, customKey);
+    markRenderDirty();
     for (int i=0; i<elements.size(); i++) {
       Element w = elements.get(i);
       w.resetSingleEffect(effectEventId, customKey);
@@ -840,6 +1143,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintX(final SizeValue newX) {
     layoutPart.getBoxConstraints().setX(newX);
+    markLayoutDirty();
     notifyListeners();
   }
 
@@ -849,6 +1153,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintY(final SizeValue newY) {
     layoutPart.getBoxConstraints().setY(newY);
+    markLayoutDirty();
     notifyListeners();
   }
 
@@ -858,6 +1163,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintWidth(final SizeValue newWidth) {
     layoutPart.getBoxConstraints().setWidth(newWidth);
+    markLayoutDirty();
     notifyListeners();
   }
 
@@ -867,6 +1173,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintHeight(final SizeValue newHeight) {
     layoutPart.getBoxConstraints().setHeight(newHeight);
+    markLayoutDirty();
     notifyListeners();
   }
 
@@ -900,6 +1207,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintHorizontalAlign(final HorizontalAlign newHorizontalAlign) {
     layoutPart.getBoxConstraints().setHorizontalAlign(newHorizontalAlign);
+    markLayoutDirty();
   }
 
   /**
@@ -908,6 +1216,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setConstraintVerticalAlign(final VerticalAlign newVerticalAlign) {
     layoutPart.getBoxConstraints().setVerticalAlign(newVerticalAlign);
+    markLayoutDirty();
   }
 
   /**
@@ -935,7 +1244,8 @@ public class Element implements NiftyEvent<Void> {
       final EffectEventId theId,
       final Effect e) {
     log.fine("[" + this.getId() + "] register: " + theId.toString() + "(" + e.getStateString() + ")");
-    effectManager.registerEffect(theId, e);
+    getOwnEffectManager().registerEffect(theId, e);
+    markRenderDirty();
   }
 
   public void startEffect(final EffectEventId effectEventId) {
@@ -992,6 +1302,7 @@ public class Element implements NiftyEvent<Void> {
 
     // start the effect for ourself
     effectManager.startEffect(effectEventId, this, time, forwardToSelf, customKey);
+    markRenderDirty();
 
     // notify all child elements of the start effect
     if (withChildren) {
@@ -1038,6 +1349,7 @@ public class Element implements NiftyEvent<Void> {
 
     // start the effect for ourself
     effectManager.startEffect(effectEventId, this, time, forwardToSelf, customKey);
+    markRenderDirty();
 
     // notify all child elements of the start effect
     for (int i=0; i<elements.size(); i++) {
@@ -1073,6 +1385,7 @@ public class Element implements NiftyEvent<Void> {
       }
     }
     effectManager.stopEffect(effectEventId);
+    markRenderDirty();
 
     // notify all child elements of the start effect
     if (withChildren) {
@@ -1210,6 +1523,7 @@ public class Element implements NiftyEvent<Void> {
   private void internalShow() {
     visible = true;
     effectManager.restoreForShow();
+    markRenderDirty();
 
     for (int i=0; i<elements.size(); i++) {
       Element element = elements.get(i);
@@ -1278,6 +1592,7 @@ public class Element implements NiftyEvent<Void> {
 
   public void internalHide() {
     visible = false;
+    markRenderDirty();
     disableFocus();
 
     for (int i=0; i<elements.size(); i++) {
@@ -1301,7 +1616,10 @@ public class Element implements NiftyEvent<Void> {
    * @param newFalloff new Falloff
    */
   public void setHotSpotFalloff(final Falloff newFalloff) {
-    effectManager.setFalloff(newFalloff);
+    if (newFalloff == null && effectManager == EffectManager.EMPTY) {
+      return;
+    }
+    getOwnEffectManager().setFalloff(newFalloff);
   }
 
   public Falloff getFalloff() {
@@ -1309,14 +1627,12 @@ public class Element implements NiftyEvent<Void> {
   }
 
   /**
-   * Checks if this element can handle mouse events.
+   * Checks if this element can handle mouse events. The cheap checks are done first because
+   * this is called for every element that is visible to the mouse on every mouse event.
    * @return true can handle mouse events, false can't handle them
    */
-  boolean canHandleMouseEvents() {
-    if (isEffectActive(EffectEventId.onStartScreen)) {
-      return false;
-    }
-    if (isEffectActive(EffectEventId.onEndScreen)) {
+  public boolean canHandleMouseEvents() {
+    if (!visibleToMouseEvents) {
       return false;
     }
     if (!visible) {
@@ -1325,16 +1641,19 @@ public class Element implements NiftyEvent<Void> {
     if (done) {
       return false;
     }
-    if (!visibleToMouseEvents) {
+    if (interactionBlocked) {
+      return false;
+    }
+    if (!enabled) {
       return false;
     }
     if (!focusHandler.canProcessMouseEvents(this)) {
       return false;
     }
-    if (interactionBlocked) {
+    if (isEffectActive(EffectEventId.onStartScreen)) {
       return false;
     }
-    if (!enabled) {
+    if (isEffectActive(EffectEventId.onEndScreen)) {
       return false;
     }
     return true;
@@ -1362,6 +1681,14 @@ public class Element implements NiftyEvent<Void> {
     }
   }
 
+  /**
+   * @return true when a mouse button has been pressed on this element and not released yet. the element
+   * needs to see the mouse events even when the mouse has left it in this case.
+   */
+  public boolean isMouseDown() {
+    return interaction.isMouseDown();
+  }
+
   public void mouseEventHoverPreprocess(final NiftyMouseInputEvent mouseEvent, final long eventTime) {
     effectManager.handleHoverDeactivate(this, mouseEvent.getMouseX(), mouseEvent.getMouseY());
   }
@@ -1379,6 +1706,9 @@ public class Element implements NiftyEvent<Void> {
   private void mouseEventHover(final NiftyMouseInputEvent mouseEvent) {
     effectManager.handleHover(this, mouseEvent.getMouseX(), mouseEvent.getMouseY());
     effectManager.handleHoverStartAndEnd(this, mouseEvent.getMouseX(), mouseEvent.getMouseY());
+    if (effectManager.hasActiveEffects()) {
+      markRenderDirty();
+    }
   }
 
   /**
@@ -1456,6 +1786,16 @@ public class Element implements NiftyEvent<Void> {
       return null;
     }
 
+    if (screen != null) {
+      Element indexed = screen.findIndexedElementByName(this, name);
+      assert indexed == findElementByNameInTree(name) : "id index of screen [" + screen.getScreenId() + "] is out of date for [" + name + "]";
+      return indexed;
+    }
+    return findElementByNameInTree(name);
+  }
+
+  private Element findElementByNameInTree(final String name) {
+
     if (id != null && id.equals(name)) {
       return this;
     }
@@ -1466,7 +1806,7 @@ public class Element implements NiftyEvent<Void> {
 
     for (int i=0; i<elements.size(); i++) {
       Element e = elements.get(i);
-      Element found = e.findElementByName(name);
+      Element found = e.findElementByNameInTree(name);
       if (found != null) {
         return found;
       }
@@ -1497,6 +1837,7 @@ public class Element implements NiftyEvent<Void> {
    * @param alternateKey new alternate key
    */
   public void setAlternateKey(final String alternateKey) {
+    this.alternateKey = alternateKey;
     effectManager.setAlternateKey(alternateKey);
 
     for (int i=0; i<elements.size(); i++) {
@@ -1506,10 +1847,18 @@ public class Element implements NiftyEvent<Void> {
   }
 
   /**
-   * get the effect manager.
+   * get the effect manager. An element without effects gets an EffectManager of its own when this is called
+   * so that the caller is able to change it.
    * @return the EffectManager
    */
   public EffectManager getEffectManager() {
+    return getOwnEffectManager();
+  }
+
+  /**
+   * @return the current EffectManager which is EffectManager.EMPTY for an element without effects
+   */
+  EffectManager getCurrentEffectManager() {
     return effectManager;
   }
 
@@ -1521,9 +1870,22 @@ public class Element implements NiftyEvent<Void> {
     effectManager = effectManagerParam;
   }
 
+  /**
+   * Elements without effects share EffectManager.EMPTY. Replace it with an EffectManager of our own when we need to
+   * change it.
+   * @return the EffectManager of this element
+   */
+  private EffectManager getOwnEffectManager() {
+    if (effectManager == EffectManager.EMPTY) {
+      effectManager = new EffectManager();
+      effectManager.setAlternateKey(alternateKey);
+    }
+    return effectManager;
+  }
+
   private void bindToScreen(final Screen newScreen) {
     screen = newScreen;
-    screen.registerElementId(id);
+    screen.registerElement(this);
   }
 
   private void bindToFocusHandler() {
@@ -1582,6 +1944,7 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setVisibleToMouseEvents(final boolean newVisibleToMouseEvents) {
     this.visibleToMouseEvents = newVisibleToMouseEvents;
+    layoutChanged();
   }
 
   /**
@@ -1601,6 +1964,8 @@ public class Element implements NiftyEvent<Void> {
    */
   public void setClipChildren(final boolean clipChildrenParam) {
     this.clipChildren = clipChildrenParam;
+    markRenderDirty();
+    invalidateLayout();
   }
 
   /**
@@ -1702,7 +2067,13 @@ public class Element implements NiftyEvent<Void> {
    * @param newId new id
    */
   public void setId(final String newId) {
+    if (screen != null) {
+      screen.unregisterElement(this);
+    }
     this.id = newId;
+    if (screen != null) {
+      screen.registerElement(this);
+    }
   }
 
   /**
@@ -1788,6 +2159,7 @@ public class Element implements NiftyEvent<Void> {
     elementType.applyAttributes(this, elementType.getAttributes(), nifty.getRenderEngine());
     elementType.applyEffects(nifty, screen, this);
     elementType.applyInteract(nifty, screen, this);
+    markRenderDirty();
 
     log.info("after setStyle [" + newStyle + "]\n" + elementType.output(0));
     notifyListeners();
@@ -1802,6 +2174,7 @@ public class Element implements NiftyEvent<Void> {
 
     elementType.removeWithTag(style);
     effectManager.removeAllEffects();
+    markRenderDirty();
 
     log.info("after removeStyle [" + style + "]\n" + elementType.output(0));
     notifyListeners();
@@ -1916,21 +2289,25 @@ public class Element implements NiftyEvent<Void> {
 
   public void setPaddingLeft(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingLeft(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingRight(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingRight(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingTop(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingTop(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingBottom(final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingBottom(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
@@ -1978,8 +2355,6 @@ public class Element implements NiftyEvent<Void> {
   }
 
   public void onEndScreen(final Screen screen) {
-    screen.unregisterElementId(id);
-
     if (attachedInputControl != null) {
       attachedInputControl.onEndScreen(nifty, screen, id);
     }
@@ -31,6 +31,13 @@ public class ElementInteraction {
     tertiary.resetMouseDown();
   }
 
+  /**
+   * @return true when a mouse button has been pressed on the element and not released yet
+   */
+  public boolean isMouseDown() {
+    return primary.isMouseDown() || secondary.isMouseDown() || tertiary.isMouseDown();
+  }
+
   public ElementInteractionClickHandler getPrimary() {
     return primary;
   }
@@ -93,6 +93,10 @@ public class ElementInteractionClickHandler {
     this.isMouseDown = false;
   }
 
+  public boolean isMouseDown() {
+    return isMouseDown;
+  }
+
   private void onInitialClick() {
     mouseMethods.onInitialClick();
   }
@@ -57,7 +57,9 @@ public class ElementInteractionMoveHandler {
         mouseEvent.getMouseY() != lastMouseY) {
       lastMouseX = mouseEvent.getMouseX();
       lastMouseY = mouseEvent.getMouseY();
-      nifty.publishEvent(element.getId(), new NiftyMouseMovedEvent(element, mouseEvent));
+      if (nifty.hasEventSubscribers(element.getId())) {
+        nifty.publishEvent(element.getId(), new NiftyMouseMovedEvent(element, mouseEvent));
+      }
       return true;
     }
     return false;
@@ -65,13 +67,19 @@ public class ElementInteractionMoveHandler {
 
   private boolean handleWheelEvent(final NiftyMouseInputEvent mouseEvent) {
     if (mouseEvent.getMouseWheel() != 0) {
-      nifty.publishEvent(element.getId(), new NiftyMouseWheelEvent(element, mouseEvent));
+      if (nifty.hasEventSubscribers(element.getId())) {
+        nifty.publishEvent(element.getId(), new NiftyMouseWheelEvent(element, mouseEvent));
+      }
       return true;
     }
     return false;
   }
 
   private void handleGeneralEvent(final NiftyMouseInputEvent mouseEvent) {
+    // this is called for every mouse event so we don't create the event when nobody listens
+    if (!nifty.hasEventSubscribers(element.getId())) {
+      return;
+    }
     nifty.publishEvent(element.getId(), new NiftyMouseEvent(element, mouseEvent));
   }
 }
@@ -8,9 +8,10 @@ import de.lessvoid.nifty.render.NiftyRenderEngine;
  * Image Renderer.
  * @author void
  */
-public class ImageRenderer implements ElementRenderer {
+public class ImageRenderer implements RetainedElementRenderer {
   private NiftyImage image = null;
   private int inset = 0;
+  private Element element;
 
   /**
    * Set Insert.
@@ -18,6 +19,7 @@ public class ImageRenderer implements ElementRenderer {
    */
   public void setInset(final int insetParam) {
     inset = insetParam;
+    markRenderDirty();
   }
 
   /**
@@ -50,5 +52,20 @@ public class ImageRenderer implements ElementRenderer {
    */
   public void setImage(final NiftyImage newImage) {
     image = newImage;
+    markRenderDirty();
+  }
+
+  /**
+   * attach to element.
+   * @param elementParam element
+   */
+  public void setElement(final Element elementParam) {
+    element = elementParam;
+  }
+
+  private void markRenderDirty() {
+    if (element != null) {
+      element.markRenderDirty();
+    }
   }
 }
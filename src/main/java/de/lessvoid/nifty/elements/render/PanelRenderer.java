@@ -10,13 +10,15 @@ import de.lessvoid.nifty.tools.Color;
  * The ElementRenderer for a Panel.
  * @author void
  */
-public class PanelRenderer implements ElementRenderer {
+public class PanelRenderer implements RetainedElementRenderer {
 
   /**
    * the background color when used otherwise null.
    */
   private Color backgroundColor;
 
+  private Element element;
+
   private Color debugColor = new Color(new Random().nextFloat(), new Random().nextFloat(), new Random().nextFloat(), .5f);
 
   /**
@@ -62,5 +64,20 @@ public class PanelRenderer implements ElementRenderer {
    */
   public void setBackgroundColor(final Color newBackgroundColor) {
     this.backgroundColor = newBackgroundColor;
+    markRenderDirty();
+  }
+
+  /**
+   * attach to element.
+   * @param elementParam element
+   */
+  public void setElement(final Element elementParam) {
+    element = elementParam;
+  }
+
+  private void markRenderDirty() {
+    if (element != null) {
+      element.markRenderDirty();
+    }
   }
 }
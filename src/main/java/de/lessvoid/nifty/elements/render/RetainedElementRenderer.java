@@ -0,0 +1,19 @@
+package de.lessvoid.nifty.elements.render;
+
+import de.lessvoid.nifty.elements.Element;
+
+/**
+ * An ElementRenderer that tells the Element it is attached to whenever its output changes. Only Elements
+ * that use ElementRenderers of this type can cache their output when Nifty runs in retained render mode.
+ * Elements with other ElementRenderers are simply rendered every frame.
+ * @author void
+ */
+public interface RetainedElementRenderer extends ElementRenderer {
+
+  /**
+   * Attach this renderer to the given Element. The renderer should call Element.markRenderDirty()
+   * when anything changes that changes the output of render().
+   * @param element the Element this renderer is attached to
+   */
+  void setElement(Element element);
+}
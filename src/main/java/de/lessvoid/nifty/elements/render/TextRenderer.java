@@ -6,6 +6,7 @@ import java.util.List;
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.elements.tools.FontHelper;
+import de.lessvoid.nifty.elements.tools.FontMetrics;
 import de.lessvoid.nifty.elements.tools.TextBreak;
 import de.lessvoid.nifty.layout.align.HorizontalAlign;
 import de.lessvoid.nifty.layout.align.VerticalAlign;
@@ -18,13 +19,18 @@ import de.lessvoid.nifty.tools.SizeValue;
  * The TextRenderer implementation.
  * @author void
  */
-public class TextRenderer implements ElementRenderer {
+public class TextRenderer implements RetainedElementRenderer {
 
   /**
    * the font to use.
    */
   private RenderFont font = new RenderFontNull();
 
+  /**
+   * the cached metrics of font (created when it's first needed).
+   */
+  private FontMetrics fontMetrics;
+
   /**
    * this is the original text.
    */
@@ -40,6 +46,16 @@ public class TextRenderer implements ElementRenderer {
    */
   private int maxWidth;
 
+  /**
+   * the x offsets of the lines in lineOffsetsLines. they are calculated again when the lines, the font,
+   * the width of the element or the horizontal alignment change.
+   */
+  private int[] lineOffsets;
+  private String[] lineOffsetsLines;
+  private RenderFont lineOffsetsFont;
+  private int lineOffsetsElementWidth;
+  private HorizontalAlign lineOffsetsHAlign;
+
    /**
    * can't remember what this is :>.
    */
@@ -95,8 +111,20 @@ public class TextRenderer implements ElementRenderer {
    */
   private SizeValue textMinHeight;
 
+  /**
+   * TextBreak and the list of wrapped lines are kept so that they can be reused when the text is
+   * wrapped again.
+   */
+  private TextBreak textBreak;
+  private List < String > wrappedLines;
+
   private Nifty nifty;
 
+  /**
+   * the element we're attached to.
+   */
+  private Element element;
+
   /**
    * default constructor.
    */
@@ -141,20 +169,51 @@ public class TextRenderer implements ElementRenderer {
    */
   private void initText(final String param) {
     String newText = nifty.specialValuesReplace(param);
+    if (textLines.length > 0 && newText.equals(originalText)) {
+      // nothing changed (the current lines might be wrapped already and are still valid)
+      return;
+    }
+    setLines(newText);
+  }
+
+  /**
+   * split the text into lines and measure them with the current font.
+   * @param newText the text
+   */
+  private void setLines(final String newText) {
     if (lineWrapping && isCalculatedLineWrapping) {
       isCalculatedLineWrapping = false;
+      if (element != null) {
+        element.markLayoutDirty();
+      }
     }
 
     this.originalText = newText;
     this.textLines = newText.split("\n", -1);
 
+    FontMetrics metrics = getFontMetrics(font);
     maxWidth = 0;
     for (String line : textLines) {
-      int lineWidth = font.getWidth(line);
+      int lineWidth = metrics.getWidth(line);
       if (lineWidth > maxWidth) {
         maxWidth = lineWidth;
       }
     }
+    markRenderDirty();
+  }
+
+  /**
+   * attach to element.
+   * @param elementParam element
+   */
+  public void setElement(final Element elementParam) {
+    element = elementParam;
+  }
+
+  private void markRenderDirty() {
+    if (element != null) {
+      element.markRenderDirty();
+    }
   }
 
   /**
@@ -175,19 +234,23 @@ public class TextRenderer implements ElementRenderer {
     boolean stateSaved = prepareRenderEngine(r, font);
 
     int y = getStartYWithVerticalAlign(lines.length * font.getHeight(), w.getHeight(), textVAlign);
-    for (String line : lines) {
-      int yy = w.getY() + y;
-      if (Math.abs(xoffsetHack) > 0) {
+    if (Math.abs(xoffsetHack) > 0) {
+      FontMetrics metrics = getFontMetrics(font);
+      for (String line : lines) {
+        int yy = w.getY() + y;
         int fittingOffset = FontHelper.getVisibleCharactersFromStart(font, line, Math.abs(xoffsetHack), 1.0f);
         String cut = line.substring(0, fittingOffset);
         String substring = line.substring(fittingOffset, line.length());
-        int xx = w.getX() + xoffsetHack + font.getWidth(cut);
+        int xx = w.getX() + xoffsetHack + metrics.getWidth(cut);
         renderLine(xx, yy, substring, r, selectionStart - fittingOffset, selectionEnd - fittingOffset);
-      } else {
-        int xx = w.getX() + getStartXWithHorizontalAlign(font.getWidth(line), w.getWidth(), textHAlign);
-        renderLine(xx, yy, line, r, selectionStart, selectionEnd);
+        y += font.getHeight();
+      }
+    } else {
+      int[] offsets = getLineOffsets(lines, font, w.getWidth());
+      for (int i=0; i<lines.length; i++) {
+        renderLine(w.getX() + offsets[i], w.getY() + y, lines[i], r, selectionStart, selectionEnd);
+        y += font.getHeight();
       }
-      y += font.getHeight();
     }
 
     restoreRenderEngine(r, stateSaved);
@@ -216,6 +279,37 @@ public class TextRenderer implements ElementRenderer {
     }
   }
 
+  private int[] getLineOffsets(final String[] lines, final RenderFont renderFont, final int elementWidth) {
+    if (lineOffsets != null &&
+        lineOffsetsLines == lines &&
+        lineOffsetsFont == renderFont &&
+        lineOffsetsElementWidth == elementWidth &&
+        lineOffsetsHAlign == textHAlign) {
+      return lineOffsets;
+    }
+    FontMetrics metrics = getFontMetrics(renderFont);
+    int[] offsets = new int[lines.length];
+    for (int i=0; i<lines.length; i++) {
+      offsets[i] = getStartXWithHorizontalAlign(metrics.getWidth(lines[i]), elementWidth, textHAlign);
+    }
+    lineOffsets = offsets;
+    lineOffsetsLines = lines;
+    lineOffsetsFont = renderFont;
+    lineOffsetsElementWidth = elementWidth;
+    lineOffsetsHAlign = textHAlign;
+    return offsets;
+  }
+
+  private FontMetrics getFontMetrics(final RenderFont renderFont) {
+    if (renderFont != font) {
+      return FontMetrics.getFontMetrics(renderFont);
+    }
+    if (fontMetrics == null) {
+      fontMetrics = FontMetrics.getFontMetrics(font);
+    }
+    return fontMetrics;
+  }
+
   private RenderFont ensureFont(final NiftyRenderEngine r) {
     RenderFont font = r.getFont();
     if (font == null) {
@@ -324,6 +418,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setXoffsetHack(final int newXoffsetHack) {
     this.xoffsetHack = newXoffsetHack;
+    markRenderDirty();
   }
 
   /**
@@ -342,6 +437,7 @@ public class TextRenderer implements ElementRenderer {
   public void setSelection(final int selectionStartParam, final int selectionEndParam) {
     this.selectionStart = selectionStartParam;
     this.selectionEnd = selectionEndParam;
+    markRenderDirty();
   }
 
   /**
@@ -349,10 +445,17 @@ public class TextRenderer implements ElementRenderer {
    * @param fontParam font
    */
   public void setFont(final RenderFont fontParam) {
-    if (fontParam == null) {
+    if (fontParam == null || fontParam == font) {
       return;
     }
     this.font = fontParam;
+    this.fontMetrics = null;
+    if (textLines.length > 0) {
+      // the lines (and the line wrapping) have been measured with the old font
+      setLines(originalText);
+    } else {
+      markRenderDirty();
+    }
   }
 
   /**
@@ -361,6 +464,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextSelectionColor(final Color textSelectionColorParam) {
     this.textSelectionColor = textSelectionColorParam;
+    markRenderDirty();
   }
 
   /**
@@ -369,6 +473,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextVAlign(final VerticalAlign newTextVAlign) {
     this.textVAlign = newTextVAlign;
+    markRenderDirty();
   }
 
   /**
@@ -377,6 +482,7 @@ public class TextRenderer implements ElementRenderer {
    */
   public void setTextHAlign(final HorizontalAlign newTextHAlign) {
     this.textHAlign = newTextHAlign;
+    markRenderDirty();
   }
 
   /**
@@ -386,6 +492,7 @@ public class TextRenderer implements ElementRenderer {
   public void setColor(final Color newColor) {
     if (newColor != null) {
       this.color = newColor;
+      markRenderDirty();
     }
   }
 
@@ -438,16 +545,23 @@ public class TextRenderer implements ElementRenderer {
 
   private String[] wrapText(final int width, final NiftyRenderEngine r, final String[] textLines) {
     RenderFont font = ensureFont(r);
-    List < String > lines = new ArrayList < String > ();
+    FontMetrics metrics = getFontMetrics(font);
+    if (textBreak == null) {
+      textBreak = new TextBreak();
+      wrappedLines = new ArrayList < String > ();
+    }
+    wrappedLines.clear();
     for (String line : textLines) {
-      int lineLengthInPixel = font.getWidth(line);
+      int lineLengthInPixel = metrics.getWidth(line);
       if (lineLengthInPixel > width) {
-        lines.addAll(new TextBreak(line, width, font).split());
+        textBreak.split(line, width, font, wrappedLines);
       } else {
-        lines.add(line);
+        wrappedLines.add(line);
       }
     }
-    return lines.toArray(new String[0]);
+    String[] result = wrappedLines.toArray(new String[wrappedLines.size()]);
+    wrappedLines.clear();
+    return result;
   }
 
   public void setWidthConstraint(final Element element, final SizeValue elementConstraintWidth, final int parentWidth, final NiftyRenderEngine renderEngine) {
@@ -464,8 +578,9 @@ public class TextRenderer implements ElementRenderer {
     this.textLines = wrapText(valueAsInt, renderEngine, originalText.split("\n", -1));
     maxWidth = valueAsInt;
     if (maxWidth == 0) {
+      FontMetrics metrics = getFontMetrics(font);
       for (String line : textLines) {
-        int lineWidth = font.getWidth(line);
+        int lineWidth = metrics.getWidth(line);
         if (lineWidth > maxWidth) {
           maxWidth = lineWidth;
         }
@@ -474,10 +589,15 @@ public class TextRenderer implements ElementRenderer {
     element.setConstraintWidth(new SizeValue(getTextWidth() + "px"));
     element.setConstraintHeight(new SizeValue(getTextHeight() + "px"));
     isCalculatedLineWrapping = true;
+    markRenderDirty();
   }
 
   public void setLineWrapping(final boolean lineWrapping) {
     this.lineWrapping = lineWrapping; 
+    markRenderDirty();
+    if (element != null) {
+      element.markLayoutDirty();
+    }
   }
 
   public boolean isLineWrapping() {
@@ -12,14 +12,15 @@ public class FontHelper {
    * @return the character index into the string.
    */
   public static int getVisibleCharactersFromStart(final RenderFont font, final String text, final int width, final float size) {
+    FontMetrics metrics = FontMetrics.getFontMetrics(font);
     int widthRemaining = width;
 
     for (int i=0; i<text.length(); i++) {
       char currentCharacter = text.charAt(i);
       char nextCharacter = getNextCharacter(text, i);
 
-      Integer w = font.getCharacterAdvance(currentCharacter, nextCharacter, size);
-      if (w != null) { 
+      int w = metrics.getCharacterAdvance(currentCharacter, nextCharacter, size);
+      if (w != FontMetrics.NO_ADVANCE) {
         widthRemaining -= w;
         if (widthRemaining < 0) {
           // this character will underflow the width. we return the last save index.
@@ -38,14 +39,15 @@ public class FontHelper {
    * @return the character index into the string.
    */
   public static int getVisibleCharactersFromEnd(final RenderFont font, final String text, final int width, final float size) {
+    FontMetrics metrics = FontMetrics.getFontMetrics(font);
     int widthRemaining = width;
 
     for (int i=text.length()-1; i>=0; i--) {
       char currentCharacter = text.charAt(i);
       char prevCharacter = getPrevCharacter(text, i);
 
-      Integer w = font.getCharacterAdvance(prevCharacter, currentCharacter, size);
-      if (w != null) {
+      int w = metrics.getCharacterAdvance(prevCharacter, currentCharacter, size);
+      if (w != FontMetrics.NO_ADVANCE) {
         widthRemaining -= w;
         if (widthRemaining < 0) {
           // this character will underflow the width. we return the last save index.
@@ -69,13 +71,14 @@ public class FontHelper {
       return -1;
     }
 
+    FontMetrics metrics = FontMetrics.getFontMetrics(font);
     int current = 0;
     for (int i=0; i<text.length(); i++) {
       char currentCharacter = text.charAt(i);
       char nextCharacter = getNextCharacter(text, i);
 
-      Integer w = font.getCharacterAdvance(currentCharacter, nextCharacter, size);
-      if (w != null) {
+      int w = metrics.getCharacterAdvance(currentCharacter, nextCharacter, size);
+      if (w != FontMetrics.NO_ADVANCE) {
         if ((pixel >= current) && (pixel <= current + w)) {
           return i;
         }
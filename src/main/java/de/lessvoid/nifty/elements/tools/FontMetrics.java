@@ -0,0 +1,141 @@
+package de.lessvoid.nifty.elements.tools;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+/**
+ * Caches the metrics of a single RenderFont. All TextRenderers (and FontHelper) that use the same
+ * RenderFont share the same FontMetrics instance.
+ *
+ * - the advance of character pairs for characters below 128 and the default size of 1.0 are kept in a
+ *   primitive table so that we don't need to call RenderFont.getCharacterAdvance() (which returns a boxed
+ *   Integer) for every character over and over again.
+ * - the width of the last strings that have been measured are kept in a small direct mapped cache so that
+ *   labels that are set to the same text again (timers, scores) don't measure the text again.
+ *
+ * FontMetrics can be used from more than one thread. The global map is synchronized. The tables are created
+ * completely before they are published through volatile fields so no thread sees a table that is not
+ * initialized yet. After that a value is only written once (int writes are atomic) and a race between two
+ * threads would at worst compute the same value twice. The width cache replaces whole immutable entries so a
+ * reader never sees a text with the width of another text.
+ *
+ * @author void
+ */
+public class FontMetrics {
+  /**
+   * returned by getCharacterAdvance() when the font doesn't know the character.
+   */
+  public static final int NO_ADVANCE = Integer.MIN_VALUE;
+
+  private static final int NOT_CACHED = Integer.MIN_VALUE + 1;
+  private static final int ADVANCE_TABLE_CHARACTERS = 128;
+  private static final int WIDTH_CACHE_SIZE = 64;
+
+  private static Map < RenderFont, FontMetrics > fontMetrics = new WeakHashMap < RenderFont, FontMetrics >();
+
+  /**
+   * The key of fontMetrics is weak. We must not keep a strong reference to the font or it would never be
+   * removed from the map.
+   */
+  private final WeakReference < RenderFont > font;
+  private volatile int[] advances;
+  private volatile WidthEntry[] widths;
+
+  private FontMetrics(final RenderFont fontParam) {
+    font = new WeakReference < RenderFont >(fontParam);
+  }
+
+  /**
+   * Get the FontMetrics of the given RenderFont.
+   * @param font the RenderFont
+   * @return the FontMetrics
+   */
+  public static FontMetrics getFontMetrics(final RenderFont font) {
+    synchronized (fontMetrics) {
+      FontMetrics result = fontMetrics.get(font);
+      if (result == null) {
+        result = new FontMetrics(font);
+        fontMetrics.put(font, result);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Get the width of the given text. This is RenderFont.getWidth(text) but the result is cached.
+   * @param text the text
+   * @return width in pixel
+   */
+  public int getWidth(final String text) {
+    WidthEntry[] cache = widths;
+    if (cache == null) {
+      cache = new WidthEntry[WIDTH_CACHE_SIZE];
+      widths = cache;
+    }
+    int index = text.hashCode() & (WIDTH_CACHE_SIZE - 1);
+    WidthEntry entry = cache[index];
+    if (entry != null && (entry.text == text || entry.text.equals(text))) {
+      return entry.width;
+    }
+    int width = getRenderFont().getWidth(text);
+    cache[index] = new WidthEntry(text, width);
+    return width;
+  }
+
+  /**
+   * Get the advance of the current character. This is RenderFont.getCharacterAdvance() but the result is
+   * cached for the common case.
+   * @param currentCharacter current character
+   * @param nextCharacter next character
+   * @param size font size
+   * @return the advance in pixel or NO_ADVANCE when the font doesn't know the character
+   */
+  public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+    if (size != 1.0f || currentCharacter >= ADVANCE_TABLE_CHARACTERS || nextCharacter >= ADVANCE_TABLE_CHARACTERS) {
+      return toAdvance(getRenderFont().getCharacterAdvance(currentCharacter, nextCharacter, size));
+    }
+    int[] table = advances;
+    if (table == null) {
+      table = new int[ADVANCE_TABLE_CHARACTERS * ADVANCE_TABLE_CHARACTERS];
+      for (int i=0; i<table.length; i++) {
+        table[i] = NOT_CACHED;
+      }
+      advances = table;
+    }
+    int index = currentCharacter * ADVANCE_TABLE_CHARACTERS + nextCharacter;
+    int advance = table[index];
+    if (advance == NOT_CACHED) {
+      advance = toAdvance(getRenderFont().getCharacterAdvance(currentCharacter, nextCharacter, size));
+      table[index] = advance;
+    }
+    return advance;
+  }
+
+  private RenderFont getRenderFont() {
+    RenderFont result = font.get();
+    if (result == null) {
+      throw new IllegalStateException("the RenderFont of this FontMetrics has been garbage collected");
+    }
+    return result;
+  }
+
+  private static int toAdvance(final Integer advance) {
+    if (advance == null) {
+      return NO_ADVANCE;
+    }
+    return advance;
+  }
+
+  private static class WidthEntry {
+    private final String text;
+    private final int width;
+
+    private WidthEntry(final String text, final int width) {
+      this.text = text;
+      this.width = width;
+    }
+  }
+}
@@ -5,89 +5,201 @@ import java.util.List;
 
 import de.lessvoid.nifty.spi.render.RenderFont;
 
+/**
+ * Breaks a text into lines that are less than a given width.
+ *
+ * The text is broken after spaces. A word that is wider than the width on its own is broken into several
+ * lines. A '\n' in the text always starts a new line.
+ *
+ * The advance of every character is only requested once (through FontMetrics) and summed up into prefix
+ * sums. The width of any part of the text is then just the difference of two prefix sums and the break
+ * positions are found with a binary search. A TextBreak instance can be used to break several texts and
+ * keeps its buffers between the calls. It must not be used by several threads at the same time.
+ *
+ * @author void
+ */
 public class TextBreak {
-  private String[] words;
+  private static final float SIZE = 1.0f;
+
+  private String line;
   private int width;
   private RenderFont font;
 
+  /**
+   * prefixWidths[i] is the width of the first i characters of the text.
+   */
+  private int[] prefixWidths = new int[1];
+
+  /**
+   * the end index (exclusive) of the words of the current paragraph.
+   */
+  private int[] wordEnds = new int[1];
+
+  /**
+   * Create a TextBreak that is used with split(String, int, RenderFont, List).
+   */
+  public TextBreak() {
+  }
+
   public TextBreak(final String line, final int width, final RenderFont font) {
-    this.words = line.split(" ", -1);
+    this.line = line;
     this.width = width;
     this.font = font;
   }
 
   public List < String > split() {
-    if (isSingleLine()) {
-      return singleResult();
-    }
-    return processWords();
-  }
-
-  private List < String > singleResult() {
     List < String > result = new ArrayList < String > ();
-    result.add(words[0]);
+    split(line, width, font, result);
     return result;
   }
 
-  private List < String > processWords() {
-    List < String > result = new ArrayList < String > ();
-    int i = 0, length;
-    String currentWord = "";
-    StringBuffer currentLine = new StringBuffer();
-    while (isValidIndex(i)) {
-    	//Empty StringBuffer
-      currentLine.setLength(0);
-      length = 0;
-      while (isBelowLimit(length) && isValidIndex(i)) {
-        currentWord = getWord(i);
-        length += font.getWidth(currentWord);
-        if (isBelowLimit(length)) {
-          currentLine.append(currentWord);
-          i++;
-        }
+  /**
+   * Break the given text into lines.
+   * @param text the text
+   * @param maxWidth every line will be less than maxWidth (if possible)
+   * @param renderFont the font to measure the text with
+   * @param result the lines are added to this list
+   */
+  public void split(final String text, final int maxWidth, final RenderFont renderFont, final List < String > result) {
+    calculatePrefixWidths(text, renderFont);
+
+    int start = 0;
+    while (true) {
+      int end = text.indexOf('\n', start);
+      if (end == -1) {
+        splitParagraph(text, start, text.length(), maxWidth, result);
+        return;
+      }
+      splitParagraph(text, start, end, maxWidth, result);
+      start = end + 1;
+    }
+  }
+
+  private void calculatePrefixWidths(final String text, final RenderFont renderFont) {
+    int length = text.length();
+    if (prefixWidths.length < length + 1) {
+      prefixWidths = new int[length + 1];
+    }
+    FontMetrics metrics = FontMetrics.getFontMetrics(renderFont);
+    int sum = 0;
+    prefixWidths[0] = 0;
+    for (int i=0; i<length; i++) {
+      char nextCharacter = FontHelper.getNextCharacter(text, i);
+      if (nextCharacter == '\n') {
+        nextCharacter = 0;
       }
-      if(currentLine.length() > 0) {
-    	  result.add(currentLine.toString());
+      int advance = metrics.getCharacterAdvance(text.charAt(i), nextCharacter, SIZE);
+      if (advance != FontMetrics.NO_ADVANCE) {
+        sum += advance;
       }
-      else { //If we get here the word itself is longer than the wrapping width
-    	  //We break it up
-    	  String wordPart = currentWord;
-    	  int p;
-    	  do {
-    		  p = 0;
-	    	  while(!isBelowLimit(font.getWidth(wordPart)) && wordPart.length() > 0) {
-	    		  //Remove one character from the end and see if the new word fits
-	    		  wordPart = wordPart.substring(0, wordPart.length()-1);
-	    		  p++;
-	    	  }
-	    	  result.add(wordPart);
-	    	  //Set the new word part to the rest of the word
-	    	  wordPart = currentWord.substring(currentWord.length()-p);
-    	  } while(p > 0);
-    	  i++;
+      prefixWidths[i + 1] = sum;
+    }
+  }
+
+  /**
+   * Break the characters from start to end (exclusive) that don't contain a '\n'.
+   */
+  private void splitParagraph(
+      final String text,
+      final int start,
+      final int end,
+      final int maxWidth,
+      final List < String > result) {
+    if (start == end) {
+      result.add("");
+      return;
+    }
+    int wordCount = findWords(text, start, end);
+    int lineStart = start;
+    int word = 0;
+    while (word < wordCount) {
+      int lastWord = findLast(wordEnds, word, wordCount, prefixWidths[lineStart] + maxWidth);
+      if (lastWord >= word) {
+        result.add(text.substring(lineStart, wordEnds[lastWord]));
+        lineStart = wordEnds[lastWord];
+        word = lastWord + 1;
+      } else {
+        // the word itself is wider than maxWidth and we need to break it up
+        splitWord(text, lineStart, wordEnds[word], maxWidth, result);
+        lineStart = wordEnds[word];
+        word++;
       }
     }
-    return result;
   }
 
-  private boolean isValidIndex(final int i) {
-    return i < words.length;
+  /**
+   * Find the words between start and end. A word includes the space that follows it.
+   * @return the number of words
+   */
+  private int findWords(final String text, final int start, final int end) {
+    int wordCount = 0;
+    int position = start;
+    while (true) {
+      int space = text.indexOf(' ', position);
+      if (wordCount == wordEnds.length) {
+        int[] newWordEnds = new int[wordEnds.length * 2];
+        System.arraycopy(wordEnds, 0, newWordEnds, 0, wordEnds.length);
+        wordEnds = newWordEnds;
+      }
+      if (space == -1 || space >= end) {
+        wordEnds[wordCount++] = end;
+        return wordCount;
+      }
+      wordEnds[wordCount++] = space + 1;
+      position = space + 1;
+    }
   }
 
-  private boolean isBelowLimit(final int currentLineLength) {
-    return currentLineLength < width;
+  private void splitWord(final String text, final int start, final int end, final int maxWidth, final List < String > result) {
+    int partStart = start;
+    while (partStart < end) {
+      int partEnd = findLastCharacter(partStart, end, prefixWidths[partStart] + maxWidth);
+      if (partEnd == partStart) {
+        // not even a single character fits but we need to make progress
+        partEnd++;
+      }
+      result.add(text.substring(partStart, partEnd));
+      partStart = partEnd;
+    }
   }
 
-  private String getWord(final int i) {
-    String currentWord = words[i];
-    if (i < words.length-1) {
-      currentWord += " ";
+  /**
+   * Find the last index between from and to (exclusive) with prefixWidths[ends[index]] < limit.
+   * @return the index or from - 1 when there is none
+   */
+  private int findLast(final int[] ends, final int from, final int to, final int limit) {
+    int low = from;
+    int high = to - 1;
+    int found = from - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (prefixWidths[ends[middle]] < limit) {
+        found = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
     }
-    return currentWord;
+    return found;
   }
 
-  private boolean isSingleLine() {
-	//Check if there is only one word and it fits in one line
-    return (words.length == 1 && isBelowLimit(font.getWidth(words[0])));
+  /**
+   * Find the last character index between from (exclusive) and to (inclusive) with prefixWidths[index] < limit.
+   * @return the index or from when there is none
+   */
+  private int findLastCharacter(final int from, final int to, final int limit) {
+    int low = from + 1;
+    int high = to;
+    int found = from;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (prefixWidths[middle] < limit) {
+        found = middle;
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return found;
   }
 }
@@ -47,6 +47,11 @@ public class BoxConstraints {
   private SizeValue paddingTop;
   private SizeValue paddingBottom;
 
+  /**
+   * Incremented on every change of the constraints.
+   */
+  private int version;
+
   /**
    * default constructor.
    */
@@ -114,6 +119,7 @@ public class BoxConstraints {
    */
   public final void setX(final SizeValue newX) {
     this.x = newX;
+    version++;
   }
 
   /**
@@ -130,6 +136,7 @@ public class BoxConstraints {
    */
   public final void setY(final SizeValue newY) {
     this.y = newY;
+    version++;
   }
 
   /**
@@ -146,6 +153,7 @@ public class BoxConstraints {
    */
   public final void setHeight(final SizeValue newHeight) {
     this.height = newHeight;
+    version++;
   }
 
   /**
@@ -162,6 +170,7 @@ public class BoxConstraints {
    */
   public final void setWidth(final SizeValue newWidth) {
     this.width = newWidth;
+    version++;
   }
 
   /**
@@ -178,6 +187,7 @@ public class BoxConstraints {
    */
   public final void setHorizontalAlign(final HorizontalAlign newHorizontalAlign) {
     this.horizontalAlign = newHorizontalAlign;
+    version++;
   }
 
   /**
@@ -194,6 +204,15 @@ public class BoxConstraints {
    */
   public final void setVerticalAlign(final VerticalAlign newVerticalAlign) {
     this.verticalAlign = newVerticalAlign;
+    version++;
+  }
+
+  /**
+   * Get the version of the constraints. It changes every time one of the constraints is changed.
+   * @return the version
+   */
+  public int getVersion() {
+    return version;
   }
 
   public SizeValue getPaddingLeft() {
@@ -214,18 +233,22 @@ public class BoxConstraints {
 
   public void setPaddingLeft(final SizeValue paddingLeftParam) {
     paddingLeft = paddingLeftParam;
+    version++;
   }
 
   public void setPaddingRight(final SizeValue paddingRightParam) {
     paddingRight = paddingRightParam;
+    version++;
   }
 
   public void setPaddingTop(final SizeValue paddingTopParam) {
     paddingTop = paddingTopParam;
+    version++;
   }
 
   public void setPaddingBottom(final SizeValue paddingBottomParam) {
     paddingBottom = paddingBottomParam;
+    version++;
   }
 
   public void setPadding(final SizeValue topBottomParam, final SizeValue leftRightParam) {
@@ -233,6 +256,7 @@ public class BoxConstraints {
     paddingRight = leftRightParam;
     paddingTop = topBottomParam;
     paddingBottom = topBottomParam;
+    version++;
   }
 
   public void setPadding(final SizeValue topParam, final SizeValue leftRightParam, final SizeValue bottomParam) {
@@ -240,6 +264,7 @@ public class BoxConstraints {
     paddingRight = leftRightParam;
     paddingTop = topParam;
     paddingBottom = bottomParam;
+    version++;
   }
 
   public void setPadding(
@@ -251,6 +276,7 @@ public class BoxConstraints {
     paddingRight = rightParam;
     paddingTop = topParam;
     paddingBottom = bottomParam;
+    version++;
   }
 
   public void setPadding(final SizeValue padding) {
@@ -258,5 +284,6 @@ public class BoxConstraints {
     paddingRight = padding;
     paddingTop = padding;
     paddingBottom = padding;
+    version++;
   }
 }
@@ -0,0 +1,265 @@
+package de.lessvoid.nifty.layout.manager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.layout.BoxConstraints;
+import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.tools.SizeValue;
+
+/**
+ * A vertical layout for a virtual list. The list has rowCount rows but only some of them exist as child elements.
+ * The child elements can be in any order: setChildRows() tells the layout which row each child currently shows
+ * (-1 for a child that isn't used). Every child is placed at the position of its row minus the scroll offset, so
+ * the visible part of the list is the same as if all rows existed and were arranged by a VerticalLayout.
+ *
+ * All rows have the same height by default. With measureRows enabled a row takes the height constraint (in px)
+ * of the child that shows it and remembers it. Rows that have not been measured yet use the default row height.
+ *
+ * @author void
+ */
+public class VirtualVerticalLayout implements LayoutManager {
+  private static final int[] NO_ROWS = new int[0];
+
+  private int rowHeight = 1;
+  private boolean measureRows;
+  private int rowCount;
+  private int[] measuredHeights = NO_ROWS;
+  private int[] offsets = new int[1];
+  private int validOffsets;
+  private int[] childRows = NO_ROWS;
+  private int scrollY;
+
+  public void layoutElements(final LayoutPart root, final List < LayoutPart > children) {
+    if (root == null || children == null || children.isEmpty()) {
+      return;
+    }
+
+    int rootBoxX = getRootBoxX(root);
+    int rootBoxY = getRootBoxY(root);
+    int rootBoxWidth = getRootBoxWidth(root);
+
+    // measure all rows first so that the positions below take all known heights into account
+    if (measureRows) {
+      for (int i=0; i<children.size(); i++) {
+        int row = getChildRow(i);
+        if (row != -1) {
+          measure(row, children.get(i).getBoxConstraints());
+        }
+      }
+    }
+
+    for (int i=0; i<children.size(); i++) {
+      Box currentBox = children.get(i).getBox();
+      int row = getChildRow(i);
+      if (row == -1) {
+        currentBox.setX(rootBoxX);
+        currentBox.setY(rootBoxY);
+        currentBox.setWidth(0);
+        currentBox.setHeight(0);
+        continue;
+      }
+      currentBox.setX(rootBoxX);
+      currentBox.setY(rootBoxY + getRowY(row) - scrollY);
+      currentBox.setWidth(processWidthConstraints(rootBoxWidth, children.get(i).getBoxConstraints()));
+      currentBox.setHeight(getRowHeight(row));
+    }
+  }
+
+  /**
+   * The size of a virtual list can't be calculated from its children. The element needs a width constraint.
+   */
+  public SizeValue calculateConstraintWidth(final LayoutPart root, final List < LayoutPart > children) {
+    return null;
+  }
+
+  /**
+   * The size of a virtual list can't be calculated from its children. The element needs a height constraint.
+   */
+  public SizeValue calculateConstraintHeight(final LayoutPart root, final List < LayoutPart > children) {
+    return null;
+  }
+
+  /**
+   * @param rowHeight the height of rows that have not been measured (or of all rows when measureRows is disabled)
+   */
+  public void setRowHeight(final int rowHeight) {
+    this.rowHeight = Math.max(1, rowHeight);
+    validOffsets = 0;
+  }
+
+  public int getRowHeight() {
+    return rowHeight;
+  }
+
+  /**
+   * @param measureRows true to take the height of each row from the child element that shows it
+   */
+  public void setMeasureRows(final boolean measureRows) {
+    this.measureRows = measureRows;
+    if (!measureRows) {
+      Arrays.fill(measuredHeights, 0);
+    }
+    validOffsets = 0;
+  }
+
+  public boolean isMeasureRows() {
+    return measureRows;
+  }
+
+  /**
+   * Change the number of rows. The heights measured for the rows that still exist are kept.
+   * @param rowCount the new number of rows
+   */
+  public void setRowCount(final int rowCount) {
+    int newCount = Math.max(0, rowCount);
+    if (newCount > measuredHeights.length) {
+      measuredHeights = Arrays.copyOf(measuredHeights, Math.max(newCount, measuredHeights.length * 2));
+    } else {
+      Arrays.fill(measuredHeights, newCount, this.rowCount, 0);
+    }
+    if (newCount + 1 > offsets.length) {
+      offsets = Arrays.copyOf(offsets, Math.max(newCount + 1, offsets.length * 2));
+    }
+    validOffsets = Math.min(validOffsets, Math.min(this.rowCount, newCount));
+    this.rowCount = newCount;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Forget the measured height of a row, for instance because its content changed.
+   * @param row the row
+   */
+  public void invalidateRow(final int row) {
+    if (row >= 0 && row < rowCount) {
+      measuredHeights[row] = 0;
+      validOffsets = Math.min(validOffsets, row);
+    }
+  }
+
+  /**
+   * Tell the layout which row each child element shows. The array is used directly and not copied.
+   * @param childRows the row for each child element or -1 for unused child elements
+   */
+  public void setChildRows(final int[] childRows) {
+    this.childRows = childRows;
+  }
+
+  /**
+   * @param scrollY the scroll offset in pixel
+   */
+  public void setScrollY(final int scrollY) {
+    this.scrollY = scrollY;
+  }
+
+  public int getScrollY() {
+    return scrollY;
+  }
+
+  /**
+   * @param row the row
+   * @return the height of the row
+   */
+  public int getRowHeight(final int row) {
+    if (measureRows && measuredHeights[row] > 0) {
+      return measuredHeights[row];
+    }
+    return rowHeight;
+  }
+
+  /**
+   * @param row the row (rowCount is allowed and returns the content height)
+   * @return the y position of the row relative to the first row
+   */
+  public int getRowY(final int row) {
+    if (!measureRows) {
+      return row * rowHeight;
+    }
+    updateOffsets(row);
+    return offsets[row];
+  }
+
+  /**
+   * @return the height of all rows
+   */
+  public int getContentHeight() {
+    return getRowY(rowCount);
+  }
+
+  /**
+   * @param y a y position relative to the first row
+   * @return the row at the given position (clamped to the existing rows) or -1 when there are no rows
+   */
+  public int getRowAt(final int y) {
+    if (rowCount == 0) {
+      return -1;
+    }
+    if (y <= 0) {
+      return 0;
+    }
+    if (!measureRows) {
+      return Math.min(rowCount - 1, y / rowHeight);
+    }
+    updateOffsets(rowCount);
+    int index = Arrays.binarySearch(offsets, 0, rowCount + 1, y);
+    if (index < 0) {
+      // the insertion point is the first row that starts below y
+      index = -index - 2;
+    }
+    return Math.min(rowCount - 1, index);
+  }
+
+  private void measure(final int row, final BoxConstraints constraints) {
+    int height = rowHeight;
+    if (constraints != null && constraints.getHeight() != null && constraints.getHeight().isPixel()) {
+      height = Math.max(1, constraints.getHeight().getValueAsInt(0));
+    }
+    if (measuredHeights[row] != height) {
+      measuredHeights[row] = height;
+      validOffsets = Math.min(validOffsets, row);
+    }
+  }
+
+  private void updateOffsets(final int upTo) {
+    for (int i=validOffsets; i<upTo; i++) {
+      offsets[i + 1] = offsets[i] + getRowHeight(i);
+    }
+    if (upTo > validOffsets) {
+      validOffsets = upTo;
+    }
+  }
+
+  private int getChildRow(final int childIndex) {
+    if (childIndex >= childRows.length) {
+      return -1;
+    }
+    int row = childRows[childIndex];
+    if (row < 0 || row >= rowCount) {
+      return -1;
+    }
+    return row;
+  }
+
+  private int processWidthConstraints(final int rootBoxWidth, final BoxConstraints constraints) {
+    if (constraints != null && constraints.getWidth() != null && !constraints.getWidth().hasWildcard()) {
+      return constraints.getWidth().getValueAsInt(rootBoxWidth);
+    }
+    return rootBoxWidth;
+  }
+
+  private int getRootBoxX(final LayoutPart root) {
+    return root.getBox().getX() + root.getBoxConstraints().getPaddingLeft().getValueAsInt(root.getBox().getWidth());
+  }
+
+  private int getRootBoxY(final LayoutPart root) {
+    return root.getBox().getY() + root.getBoxConstraints().getPaddingTop().getValueAsInt(root.getBox().getHeight());
+  }
+
+  private int getRootBoxWidth(final LayoutPart root) {
+    return root.getBox().getWidth() - root.getBoxConstraints().getPaddingLeft().getValueAsInt(root.getBox().getWidth()) - root.getBoxConstraints().getPaddingRight().getValueAsInt(root.getBox().getWidth());
+  }
+}
@@ -0,0 +1,236 @@
+package de.lessvoid.nifty.loaderv2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import de.lessvoid.nifty.tools.resourceloader.ResourceLoader;
+import de.lessvoid.xml.xpp3.CompiledXmlPullParser;
+import de.lessvoid.xml.xpp3.CompiledXmlWriter;
+import de.lessvoid.xml.xpp3.XmlParser;
+
+/**
+ * A nifty xml file and all the style and control files it uses (<useStyles> and <useControls>, including
+ * the files these files use) compiled into a single binary file. Loading the compiled file with
+ * Nifty.fromBinary() doesn't need to read and parse any xml anymore.
+ *
+ * The compiled file can be created at build time (see main()) or by the application on the first run.
+ * It's not possible to compile the screens any further. When a screen is created the elements depend on
+ * the resource bundles, the screen controller, the global properties and the registered styles and
+ * controls which are only known at runtime.
+ *
+ * The file starts with MAGIC and VERSION (int) followed by the number of documents (int) and for every
+ * document the filename (modified UTF-8), the length (int) and the data written by CompiledXmlWriter.
+ * The first document is the main document.
+ *
+ * @author void
+ */
+public class CompiledNiftyXml {
+  public static final int MAGIC = 0x4E696674;
+  public static final int VERSION = 1;
+
+  private static Logger log = Logger.getLogger(CompiledNiftyXml.class.getName());
+  private Map < String, ByteBuffer > documents = new LinkedHashMap < String, ByteBuffer >();
+  private String mainDocument;
+
+  private CompiledNiftyXml() {
+  }
+
+  /**
+   * Compile the given nifty xml file (and all the style and control files it uses).
+   * @param filename the nifty xml file (loaded with the ResourceLoader)
+   * @param out the compiled data is written to this stream
+   * @throws Exception when one of the files could not be read or parsed
+   */
+  public static void compile(final String filename, final OutputStream out) throws Exception {
+    Map < String, byte[] > compiled = new LinkedHashMap < String, byte[] >();
+    List < String > pending = new ArrayList < String >();
+    pending.add(filename);
+    while (!pending.isEmpty()) {
+      String current = pending.remove(0);
+      if (compiled.containsKey(current)) {
+        continue;
+      }
+      byte[] document = compileDocument(current);
+      compiled.put(current, document);
+      findIncludes(document, pending);
+    }
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(compiled.size());
+    for (Map.Entry < String, byte[] > document : compiled.entrySet()) {
+      data.writeUTF(document.getKey());
+      data.writeInt(document.getValue().length);
+      data.write(document.getValue());
+    }
+    data.flush();
+  }
+
+  /**
+   * Compile the given nifty xml file into a byte array.
+   * @param filename the nifty xml file (loaded with the ResourceLoader)
+   * @return the compiled data
+   * @throws Exception when one of the files could not be read or parsed
+   */
+  public static byte[] compile(final String filename) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    compile(filename, out);
+    return out.toByteArray();
+  }
+
+  private static byte[] compileDocument(final String filename) throws Exception {
+    InputStream stream = ResourceLoader.getResourceAsStream(filename);
+    if (stream == null) {
+      throw new IOException("could not find [" + filename + "]");
+    }
+    try {
+      return CompiledXmlWriter.compile(stream);
+    } finally {
+      stream.close();
+    }
+  }
+
+  private static void findIncludes(final byte[] document, final List < String > includes) throws Exception {
+    CompiledXmlPullParser xpp = new CompiledXmlPullParser(ByteBuffer.wrap(document));
+    while (xpp.next() != CompiledXmlPullParser.END_DOCUMENT) {
+      if (xpp.getEventType() == CompiledXmlPullParser.START_TAG &&
+          ("useStyles".equals(xpp.getName()) || "useControls".equals(xpp.getName()))) {
+        String include = xpp.getAttributeValue(null, "filename");
+        if (include != null) {
+          includes.add(include);
+        }
+      }
+    }
+  }
+
+  /**
+   * Read a compiled nifty xml file. When the file is a local file it's memory mapped.
+   * @param filename the compiled file (loaded with the ResourceLoader)
+   * @return the CompiledNiftyXml
+   * @throws Exception when the file could not be read
+   */
+  public static CompiledNiftyXml read(final String filename) throws Exception {
+    URL url = ResourceLoader.getResource(filename);
+    if (url == null) {
+      throw new IOException("could not find [" + filename + "]");
+    }
+    if ("file".equals(url.getProtocol())) {
+      RandomAccessFile file = new RandomAccessFile(new File(url.toURI()), "r");
+      try {
+        FileChannel channel = file.getChannel();
+        return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      } finally {
+        file.close();
+      }
+    }
+    InputStream stream = url.openStream();
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      return read(ByteBuffer.wrap(bytes.toByteArray()));
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * Read compiled nifty xml from the given buffer.
+   * @param data the compiled data
+   * @return the CompiledNiftyXml
+   * @throws Exception when the data is not valid
+   */
+  public static CompiledNiftyXml read(final ByteBuffer data) throws Exception {
+    ByteBuffer buffer = data.duplicate();
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("not a compiled nifty xml file");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IOException("compiled nifty xml version [" + version + "] is not supported (expected [" + VERSION + "])");
+    }
+    CompiledNiftyXml result = new CompiledNiftyXml();
+    int count = buffer.getInt();
+    for (int i=0; i<count; i++) {
+      String name = readUTF(buffer);
+      int length = buffer.getInt();
+      ByteBuffer document = buffer.slice();
+      document.limit(length);
+      buffer.position(buffer.position() + length);
+      if (i == 0) {
+        result.mainDocument = name;
+      }
+      result.documents.put(name, document);
+    }
+    return result;
+  }
+
+  private static String readUTF(final ByteBuffer buffer) throws IOException {
+    int length = buffer.getShort() & 0xFFFF;
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    // the filenames are written with writeUTF() which only differs from UTF-8 for \0 and supplementary characters
+    return new String(bytes, "UTF-8");
+  }
+
+  /**
+   * @return the filename of the main document
+   */
+  public String getMainDocument() {
+    return mainDocument;
+  }
+
+  public boolean hasDocument(final String filename) {
+    return documents.containsKey(filename);
+  }
+
+  /**
+   * Create a XmlParser for the given document.
+   * @param filename the filename of the document
+   * @return the XmlParser
+   */
+  public XmlParser createParser(final String filename) {
+    ByteBuffer document = documents.get(filename);
+    if (document == null) {
+      throw new IllegalArgumentException("[" + filename + "] is not part of the compiled nifty xml");
+    }
+    return new XmlParser(new CompiledXmlPullParser(document.duplicate()));
+  }
+
+  /**
+   * Compile a nifty xml file at build time.
+   * @param args the nifty xml file (found with the ResourceLoader) and the output file
+   * @throws Exception when the file could not be compiled
+   */
+  public static void main(final String[] args) throws Exception {
+    if (args.length != 2) {
+      System.err.println("usage: " + CompiledNiftyXml.class.getName() + " <nifty xml file> <output file>");
+      System.exit(1);
+    }
+    OutputStream out = new FileOutputStream(args[1]);
+    try {
+      compile(args[0], out);
+    } finally {
+      out.close();
+    }
+    log.info("compiled [" + args[0] + "] into [" + args[1] + "]");
+  }
+}
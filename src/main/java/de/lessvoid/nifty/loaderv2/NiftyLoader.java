@@ -30,6 +30,11 @@ public class NiftyLoader {
   private Map < String, Schema > schemes = new LinkedHashMap< String, Schema >();
   private TimeProvider timeProvider;
 
+  /**
+   * While a compiled nifty xml file is loaded style and control files are taken from it.
+   */
+  private CompiledNiftyXml compiledNiftyXml;
+
   public NiftyLoader(final TimeProvider timeProvider) {
     this.timeProvider = timeProvider;
   }
@@ -58,6 +63,39 @@ public class NiftyLoader {
     }
   }
 
+  /**
+   * Load a compiled nifty xml file (see CompiledNiftyXml). The style and control files the main document
+   * uses are taken from the compiled file as well.
+   * @param schemaId the schema to use
+   * @param compiled the compiled nifty xml
+   * @param nifty nifty
+   * @return the NiftyType
+   * @throws Exception exception
+   */
+  public NiftyType loadNiftyBinary(
+      final String schemaId,
+      final CompiledNiftyXml compiled,
+      final Nifty nifty) throws Exception {
+    CompiledNiftyXml previous = compiledNiftyXml;
+    compiledNiftyXml = compiled;
+    try {
+      long start = timeProvider.getMsTime();
+      log.info("loading compiled nifty xml file [" + compiled.getMainDocument() + "] with schemaId [" + schemaId + "]");
+
+      XmlParser parser = compiled.createParser(compiled.getMainDocument());
+      NiftyType niftyType = (NiftyType) getSchema(schemaId).loadXml(parser);
+      niftyType.loadStyles(this, nifty);
+      niftyType.loadControls(this);
+
+      long end = timeProvider.getMsTime();
+      log.info("loaded compiled nifty xml file [" + compiled.getMainDocument() + "] took [" + (end - start) + " ms]");
+
+      return niftyType;
+    } finally {
+      compiledNiftyXml = previous;
+    }
+  }
+
   public boolean validateNiftyXml(final InputStream inputStreamXml) throws Exception {
     long start = timeProvider.getMsTime();
 
@@ -98,6 +136,12 @@ public class NiftyLoader {
       final Nifty nifty) throws Exception {
     log.info("loading new nifty style xml file [" + styleFilename + "] with schemaId [" + schemaId + "]");
 
+    if (compiledNiftyXml != null && compiledNiftyXml.hasDocument(styleFilename)) {
+      NiftyStylesType niftyStylesType = (NiftyStylesType) getSchema(schemaId).loadXml(compiledNiftyXml.createParser(styleFilename));
+      niftyStylesType.loadStyles(this, niftyType, nifty, log);
+      return;
+    }
+
     XmlParser parser = new XmlParser(new MXParser());
     InputStream stream = ResourceLoader.getResourceAsStream(styleFilename);
     try {
@@ -115,6 +159,12 @@ public class NiftyLoader {
       final NiftyType niftyType) throws Exception {
     log.info("loading new nifty controls xml file [" + controlFilename + "] with schemaId [" + schemaId + "]");
 
+    if (compiledNiftyXml != null && compiledNiftyXml.hasDocument(controlFilename)) {
+      NiftyControlsType niftyControlsType = (NiftyControlsType) getSchema(schemaId).loadXml(compiledNiftyXml.createParser(controlFilename));
+      niftyControlsType.loadControls(this, niftyType);
+      return;
+    }
+
     XmlParser parser = new XmlParser(new MXParser());
     InputStream stream = ResourceLoader.getResourceAsStream(controlFilename);
     try {
@@ -100,6 +100,41 @@ public class EffectsType extends XmlBaseType {
     return dst;
   }
 
+  /**
+   * @return true when no effect has been added
+   */
+  boolean hasNoEffects() {
+    return onStartScreen.isEmpty() && onEndScreen.isEmpty() && onHover.isEmpty() && onStartHover.isEmpty()
+      && onEndHover.isEmpty() && onClick.isEmpty() && onFocus.isEmpty() && onLostFocus.isEmpty()
+      && onGetFocus.isEmpty() && onActive.isEmpty() && onCustom.isEmpty() && onShow.isEmpty() && onHide.isEmpty()
+      && onEnabled.isEmpty() && onDisabled.isEmpty();
+  }
+
+  void replaceInAttributes(final String search, final String replacement) {
+    getAttributes().replaceInValues(search, replacement);
+    replaceInAttributes(onStartScreen, search, replacement);
+    replaceInAttributes(onEndScreen, search, replacement);
+    replaceInAttributes(onHover, search, replacement);
+    replaceInAttributes(onStartHover, search, replacement);
+    replaceInAttributes(onEndHover, search, replacement);
+    replaceInAttributes(onClick, search, replacement);
+    replaceInAttributes(onFocus, search, replacement);
+    replaceInAttributes(onLostFocus, search, replacement);
+    replaceInAttributes(onGetFocus, search, replacement);
+    replaceInAttributes(onActive, search, replacement);
+    replaceInAttributes(onCustom, search, replacement);
+    replaceInAttributes(onShow, search, replacement);
+    replaceInAttributes(onHide, search, replacement);
+    replaceInAttributes(onEnabled, search, replacement);
+    replaceInAttributes(onDisabled, search, replacement);
+  }
+
+  private void replaceInAttributes(final Collection < EffectType > effects, final String search, final String replacement) {
+    for (EffectType e : effects) {
+      e.getAttributes().replaceInValues(search, replacement);
+    }
+  }
+
   void copyEffects(
       final Collection < EffectType > dst,
       final Collection < EffectType > src) {
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.controls.Controller;
@@ -13,6 +14,7 @@ import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.input.NiftyInputMapping;
 import de.lessvoid.nifty.input.mapping.DefaultInputMapping;
 import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.loaderv2.types.apply.Convert;
 import de.lessvoid.nifty.loaderv2.types.helper.CollectionLogger;
 import de.lessvoid.nifty.loaderv2.types.helper.ElementRendererCreator;
 import de.lessvoid.nifty.loaderv2.types.resolver.style.StyleResolver;
@@ -283,12 +285,75 @@ public class ElementType extends XmlBaseType {
 
   public void prepare(final Nifty nifty, final Screen screen, final ElementType rootElementType) {
     translateSpecialValues(nifty, screen);
+    prepareTemplate(nifty, rootElementType);
+    resolveControllers(new LinkedList < Object >());
+  }
+
+  /**
+   * The part of prepare() that only depends on this type, the control definitions, the styles and the attributes
+   * of the root element type. The result can be copied and reused for every instance.
+   */
+  void prepareTemplate(final Nifty nifty, final ElementType rootElementType) {
     makeFlat();
     applyControls(nifty);
     applyStyles(nifty.getDefaultStyleResolver());
     makeFlatControls();
     resolveParameters(rootElementType.getAttributes());
-    resolveControllers(new LinkedList < Object >());
+  }
+
+  /**
+   * Append everything prepareTemplate() depends on for this element and its children to the key. Elements that
+   * use special values, declare effects of their own or contain tagged attributes can't be shared and false is
+   * returned for them.
+   * @param key the key to append to
+   * @param withId false to leave the id of this element out of the key
+   * @return true when the key is complete and false when this type can't be used as a template
+   */
+  boolean appendTemplateKey(final StringBuilder key, final boolean withId) {
+    if (!effects.hasNoEffects() || getAttributes().isTagged() || interact.getAttributes().isTagged()) {
+      return false;
+    }
+    key.append(getClass().getName()).append('(').append(tagName).append(')');
+    if (!appendAttributes(key, getAttributes(), withId) || !appendAttributes(key, interact.getAttributes(), true)) {
+      return false;
+    }
+    key.append('[');
+    for (int i=0; i<elements.size(); i++) {
+      if (!elements.get(i).appendTemplateKey(key, true)) {
+        return false;
+      }
+    }
+    key.append(']');
+    return true;
+  }
+
+  private boolean appendAttributes(final StringBuilder key, final Attributes attributes, final boolean withId) {
+    for (Map.Entry < String, String > entry : attributes.getAttributes().entrySet()) {
+      String value = entry.getValue();
+      if (value != null && value.indexOf("${") != -1) {
+        return false;
+      }
+      if (!withId && "id".equals(entry.getKey())) {
+        continue;
+      }
+      key.append(entry.getKey()).append('=').append(value).append('\u0000');
+    }
+    key.append('|');
+    return true;
+  }
+
+  /**
+   * Replace all occurrences of search in the attributes of this element and all of its children.
+   * @param search the String to search for
+   * @param replacement the replacement
+   */
+  void replaceInAttributes(final String search, final String replacement) {
+    getAttributes().replaceInValues(search, replacement);
+    interact.getAttributes().replaceInValues(search, replacement);
+    effects.replaceInAttributes(search, replacement);
+    for (int i=0; i<elements.size(); i++) {
+      elements.get(i).replaceInAttributes(search, replacement);
+    }
   }
 
   public void translateSpecialValues(final Nifty nifty, final Screen screen) {
@@ -366,6 +431,25 @@ public class ElementType extends XmlBaseType {
     }
   }
 
+  /**
+   * Preload the images this element and all of its children will use. Call this after prepare().
+   * @param renderEngine the NiftyRenderEngine
+   * @param priority the priority to preload the images with
+   */
+  public void preloadImages(final NiftyRenderEngine renderEngine, final int priority) {
+    preloadImage(renderEngine, "backgroundImage", priority);
+    for (ElementType elementType : elements) {
+      elementType.preloadImages(renderEngine, priority);
+    }
+  }
+
+  void preloadImage(final NiftyRenderEngine renderEngine, final String attributeName, final int priority) {
+    String filename = getAttributes().get(attributeName);
+    if (filename != null) {
+      renderEngine.preloadImage(filename, getAttributes().getAsBoolean("filter", Convert.DEFAULT_IMAGE_FILTER), priority);
+    }
+  }
+
   public void removeWithTag(final String styleId) {
     getAttributes().removeWithTag(styleId);
     effects.removeWithTag(styleId);
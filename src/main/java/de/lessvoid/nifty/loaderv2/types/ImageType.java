@@ -5,6 +5,7 @@ import de.lessvoid.nifty.elements.render.ElementRenderer;
 import de.lessvoid.nifty.elements.render.ImageRenderer;
 import de.lessvoid.nifty.loaderv2.types.helper.ElementRendererCreator;
 import de.lessvoid.nifty.render.NiftyImage;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.xml.xpp3.Attributes;
 
 public class ImageType extends ElementType {
@@ -61,6 +62,11 @@ public class ImageType extends ElementType {
 //    };
 //  }
 
+  public void preloadImages(final NiftyRenderEngine renderEngine, final int priority) {
+    preloadImage(renderEngine, "filename", priority);
+    super.preloadImages(renderEngine, priority);
+  }
+
   private String getFilename() {
     return getAttributes().get("filename");
   }
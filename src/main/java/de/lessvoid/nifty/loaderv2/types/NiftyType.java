@@ -2,11 +2,17 @@ package de.lessvoid.nifty.loaderv2.types;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.loaderv2.NiftyLoader;
 import de.lessvoid.nifty.loaderv2.types.helper.CollectionLogger;
+import de.lessvoid.nifty.screen.Screen;
 import de.lessvoid.nifty.tools.StopWatch;
 import de.lessvoid.nifty.tools.TimeProvider;
 
@@ -70,6 +76,7 @@ public class NiftyType extends XmlBaseType {
   }
 
   public void create(final Nifty nifty, final TimeProvider timeProvider) {
+    ExecutorService executor = nifty.getLoadingExecutor();
     StopWatch stopWatch = new StopWatch(timeProvider);
     stopWatch.start();
     log.info("debug out [" + stopWatch.stop() + "]");
@@ -89,9 +96,18 @@ public class NiftyType extends XmlBaseType {
     log.info("registerStyle [" + stopWatch.stop() + "]");
 
     stopWatch.start();
+    List < Callable < Void > > tasks = new ArrayList < Callable < Void > >();
+    for (final ControlDefinitionType controlDefintion : controlDefinitions) {
+      tasks.add(new Callable < Void >() {
+        public Void call() {
+          controlDefintion.translateSpecialValues(nifty, null);
+          controlDefintion.makeFlat();
+          return null;
+        }
+      });
+    }
+    runAll(executor, tasks);
     for (ControlDefinitionType controlDefintion : controlDefinitions) {
-      controlDefintion.translateSpecialValues(nifty, null);
-      controlDefintion.makeFlat();
       nifty.registerControlDefintion(controlDefintion);
     }
     log.info("registerControlDefinition [" + stopWatch.stop() + "]");
@@ -125,20 +141,97 @@ public class NiftyType extends XmlBaseType {
     log.info("registerMouseCursor [" + stopWatch.stop() + "]");
 
     stopWatch.start();
+    tasks.clear();
+    for (final PopupType popup : popups) {
+      tasks.add(new Callable < Void >() {
+        public Void call() {
+          popup.translateSpecialValues(nifty, null);
+          return null;
+        }
+      });
+    }
+    runAll(executor, tasks);
     for (PopupType popup : popups) {
-      popup.translateSpecialValues(nifty, null);
       nifty.registerPopup(popup);
     }
     log.info("registerPopup [" + stopWatch.stop() + "]");
 
     stopWatch.start();
-    for (ScreenType screen : screens) {
+    if (executor == null && !nifty.isImagePreloadingSupported()) {
+      for (ScreenType screen : screens) {
+        screen.translateSpecialValues(nifty, null);
+        screen.create(nifty, this, timeProvider);
+      }
+      log.info("create Screens [" + stopWatch.stop() + "]");
+      return;
+    }
+
+    // all screens are prepared first (on the executor when there is one) so that the images of all screens can
+    // be preloaded before the elements are created. the Screen instances and the elements are created here.
+    final List < Screen > created = new ArrayList < Screen >();
+    tasks.clear();
+    for (final ScreenType screen : screens) {
       screen.translateSpecialValues(nifty, null);
-      screen.create(nifty, this, timeProvider);
+      final Screen newScreen = screen.createScreen(nifty, timeProvider);
+      created.add(newScreen);
+      tasks.add(new Callable < Void >() {
+        public Void call() {
+          screen.prepare(nifty, newScreen, timeProvider);
+          return null;
+        }
+      });
+    }
+    runAll(executor, tasks);
+
+    // when the RenderDevice supports it the images of all screens are decoded in the background while the
+    // elements are created, the images of the first screens first
+    int priority = screens.size();
+    for (ScreenType screen : screens) {
+      screen.preloadImages(nifty, priority--);
+    }
+
+    int i = 0;
+    for (ScreenType screen : screens) {
+      screen.createElements(nifty, created.get(i++), timeProvider);
     }
     log.info("create Screens [" + stopWatch.stop() + "]");
   }
 
+  /**
+   * Run all the tasks with the given executor and wait until all of them are done. Without an executor
+   * the tasks are run on the calling thread. The first exception thrown by a task is rethrown.
+   * @param executor the ExecutorService or null
+   * @param tasks the tasks
+   */
+  private void runAll(final ExecutorService executor, final List < Callable < Void > > tasks) {
+    try {
+      if (executor == null) {
+        for (Callable < Void > task : tasks) {
+          task.call();
+        }
+        return;
+      }
+      for (Future < Void > future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("interrupted while preparing nifty xml", e);
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   public void loadStyles(final NiftyLoader niftyLoader, final Nifty nifty) throws Exception {
     for (UseStylesType useStyle : useStyles) {
       useStyle.loadStyle(niftyLoader, this, nifty);
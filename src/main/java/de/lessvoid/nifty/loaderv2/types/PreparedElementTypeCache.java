@@ -0,0 +1,117 @@
+package de.lessvoid.nifty.loaderv2.types;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.screen.Screen;
+
+/**
+ * Caches prepared ElementTypes so that creating the same element or control over and over again (list rows, chat
+ * lines and the like) doesn't merge the control definitions, apply the styles and resolve the parameters each
+ * time.
+ *
+ * The template is prepared once with a placeholder instead of the id of the element. Every instance is a copy of
+ * the template with the placeholder replaced by the real id (which gives the same child ids ControlType would have
+ * created) and its own controllers. Types that use special values ("${...}") or declare effects of their own are
+ * prepared the usual way.
+ *
+ * The cache must be cleared whenever a style or a control definition changes.
+ *
+ * @author void
+ */
+public class PreparedElementTypeCache {
+  private static final String ID_PLACEHOLDER = "\u0000id\u0000";
+  private static final int DEFAULT_MAX_SIZE = 64;
+
+  private int maxSize = DEFAULT_MAX_SIZE;
+  private Map < String, ElementType > templates = new LinkedHashMap < String, ElementType >(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry < String, ElementType > eldest) {
+      return size() > maxSize;
+    }
+  };
+  private int hits;
+  private int misses;
+
+  /**
+   * Get a prepared copy of the given type. The result is the same as type.copy() followed by prepare().
+   * @param nifty Nifty
+   * @param screen the screen the element will be created for
+   * @param type the type to prepare (this is not modified)
+   * @return the prepared copy
+   */
+  public ElementType prepare(final Nifty nifty, final Screen screen, final ElementType type) {
+    ElementType rootElementType = screen.getRootElement().getElementType();
+    String key = createKey(type, rootElementType);
+    if (key == null) {
+      ElementType elementType = type.copy();
+      elementType.prepare(nifty, screen, rootElementType);
+      return elementType;
+    }
+
+    String id = type.getAttributes().get("id");
+    ElementType template = templates.get(key);
+    if (template == null) {
+      misses++;
+      template = type.copy();
+      if (id != null) {
+        template.getAttributes().set("id", ID_PLACEHOLDER);
+      }
+      template.prepareTemplate(nifty, rootElementType);
+      templates.put(key, template);
+    } else {
+      hits++;
+    }
+
+    ElementType elementType = template.copy();
+    if (id != null) {
+      elementType.replaceInAttributes(ID_PLACEHOLDER, id);
+    }
+    elementType.resolveControllers(new LinkedList < Object >());
+    return elementType;
+  }
+
+  /**
+   * Forget all templates. Call this when styles or control definitions have been changed.
+   */
+  public void clear() {
+    templates.clear();
+  }
+
+  /**
+   * @param maxSize the maximum number of templates to keep
+   */
+  public void setMaxSize(final int maxSize) {
+    this.maxSize = maxSize;
+    if (templates.size() > maxSize) {
+      templates.clear();
+    }
+  }
+
+  public int getSize() {
+    return templates.size();
+  }
+
+  public int getHits() {
+    return hits;
+  }
+
+  public int getMisses() {
+    return misses;
+  }
+
+  private String createKey(final ElementType type, final ElementType rootElementType) {
+    StringBuilder key = new StringBuilder();
+    key.append(type.getAttributes().get("id") == null ? '-' : '+');
+    if (!type.appendTemplateKey(key, false)) {
+      return null;
+    }
+    // the attributes of the root element type are the parameters for resolveParameters()
+    key.append(rootElementType.getAttributes().getAttributes());
+    return key.toString();
+  }
+}
@@ -38,6 +38,18 @@ public class ScreenType extends XmlBaseType {
       final Nifty nifty,
       final NiftyType niftyType,
       final TimeProvider timeProvider) {
+    Screen screen = createScreen(nifty, timeProvider);
+    prepare(nifty, screen, timeProvider);
+    createElements(nifty, screen, timeProvider);
+  }
+
+  /**
+   * Create the Screen and its root element. This is the first step of create().
+   * @param nifty nifty
+   * @param timeProvider timeProvider
+   * @return the new Screen
+   */
+  public Screen createScreen(final Nifty nifty, final TimeProvider timeProvider) {
     String controller = getAttributes().get("controller");
     ScreenController screenController = resolveScreenController(nifty, controller);
     
@@ -66,28 +78,58 @@ public class ScreenType extends XmlBaseType {
 
     Element rootElement = nifty.getRootLayerFactory().createRootLayer("root", nifty, screen, timeProvider);
     screen.setRootElement(rootElement);
+    return screen;
+  }
 
+  /**
+   * Prepare the layers of the given Screen. This only changes the types of this screen and only reads the
+   * styles and controls registered with Nifty so it can be called for different screens at the same time.
+   * @param nifty nifty
+   * @param screen the Screen created with createScreen()
+   * @param timeProvider timeProvider
+   */
+  public void prepare(final Nifty nifty, final Screen screen, final TimeProvider timeProvider) {
     StopWatch stopWatch = new StopWatch(timeProvider);
     stopWatch.start();
     for (LayerType layerType : layers) {
-      layerType.prepare(nifty, screen, rootElement.getElementType());
+      layerType.prepare(nifty, screen, screen.getRootElement().getElementType());
     }
-    Logger.getLogger(NiftyLoader.class.getName()).info("internal prepare screen (" + id + ") [" + stopWatch.stop() + "]");
+    Logger.getLogger(NiftyLoader.class.getName()).info("internal prepare screen (" + screen.getScreenId() + ") [" + stopWatch.stop() + "]");
+  }
 
+  /**
+   * Preload the images of the prepared screen.
+   * @param nifty nifty
+   * @param priority the priority to preload the images with
+   */
+  public void preloadImages(final Nifty nifty, final int priority) {
+    for (LayerType layerType : layers) {
+      layerType.preloadImages(nifty.getRenderEngine(), priority);
+    }
+  }
+
+  /**
+   * Create the elements of the prepared Screen and add the Screen to Nifty.
+   * @param nifty nifty
+   * @param screen the Screen prepared with prepare()
+   * @param timeProvider timeProvider
+   */
+  public void createElements(final Nifty nifty, final Screen screen, final TimeProvider timeProvider) {
+    StopWatch stopWatch = new StopWatch(timeProvider);
     stopWatch.start();
     for (LayerType layerType : layers) {
       LayoutPart layerLayout = nifty.getRootLayerFactory().createRootLayerLayoutPart(nifty);
       screen.addLayerElement(
           layerType.create(
-              rootElement,
+              screen.getRootElement(),
               nifty,
               screen,
               layerLayout));
     }
-    Logger.getLogger(NiftyLoader.class.getName()).info("internal create screen (" + id + ") [" + stopWatch.stop() + "]");
+    Logger.getLogger(NiftyLoader.class.getName()).info("internal create screen (" + screen.getScreenId() + ") [" + stopWatch.stop() + "]");
 
     screen.processAddAndRemoveLayerElements();
-    nifty.addScreen(id, screen);
+    nifty.addScreen(screen.getScreenId(), screen);
   }
 
   private ScreenController resolveScreenController(final Nifty nifty, final String controller) {
@@ -0,0 +1,179 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.lessvoid.nifty.spi.render.RenderImage;
+
+/**
+ * A single page of the TextureAtlas. The images are packed with the skyline bottom-left algorithm: the page keeps
+ * the upper outline of all images placed so far as a list of horizontal segments and every new image is put at
+ * the lowest position of that outline where it fits. Free space below the outline (from removed images) is only
+ * reused when the page is compacted by the TextureAtlas.
+ *
+ * @author void
+ */
+class AtlasPage {
+  private RenderImage renderImage;
+  private int size;
+  private int padding;
+  private boolean filterLinear;
+  private int[] segmentX = new int[16];
+  private int[] segmentY = new int[16];
+  private int[] segmentWidth = new int[16];
+  private int segmentCount;
+  private List < AtlasRenderImage > images = new ArrayList < AtlasRenderImage >();
+  private long usedArea;
+
+  AtlasPage(final RenderImage renderImage, final int size, final int padding, final boolean filterLinear) {
+    this.renderImage = renderImage;
+    this.size = size;
+    this.padding = padding;
+    this.filterLinear = filterLinear;
+    segmentWidth[0] = size;
+    segmentCount = 1;
+  }
+
+  /**
+   * Find a place for the image and add it to this page.
+   * @param image the image
+   * @return true when the image has been added and false when there is no space left for it
+   */
+  boolean add(final AtlasRenderImage image) {
+    int width = image.getWidth() + 2 * padding;
+    int height = image.getHeight() + 2 * padding;
+    int bestIndex = -1;
+    int bestY = Integer.MAX_VALUE;
+    int bestSegmentWidth = Integer.MAX_VALUE;
+    for (int i=0; i<segmentCount; i++) {
+      int y = fit(i, width, height);
+      if (y >= 0 && (y < bestY || (y == bestY && segmentWidth[i] < bestSegmentWidth))) {
+        bestIndex = i;
+        bestY = y;
+        bestSegmentWidth = segmentWidth[i];
+      }
+    }
+    if (bestIndex == -1) {
+      return false;
+    }
+    int x = segmentX[bestIndex];
+    insertSegment(bestIndex, x, bestY + height, width);
+    image.setLocation(this, x + padding, bestY + padding);
+    images.add(image);
+    usedArea += (long) width * height;
+    return true;
+  }
+
+  /**
+   * Remove the image from this page. The space is not reused until the page is compacted.
+   * @param image the image
+   */
+  void remove(final AtlasRenderImage image) {
+    if (images.remove(image)) {
+      usedArea -= (long) (image.getWidth() + 2 * padding) * (image.getHeight() + 2 * padding);
+    }
+  }
+
+  /**
+   * @return the part of the page (0.0 - 1.0) that is covered by the images currently on this page
+   */
+  float getUsage() {
+    return usedArea / (float) ((long) size * size);
+  }
+
+  boolean isEmpty() {
+    return images.isEmpty();
+  }
+
+  List < AtlasRenderImage > getImages() {
+    return images;
+  }
+
+  RenderImage getRenderImage() {
+    return renderImage;
+  }
+
+  boolean isFilterLinear() {
+    return filterLinear;
+  }
+
+  void dispose() {
+    renderImage.dispose();
+  }
+
+  /**
+   * Check if an area of the given size fits at the start of the given segment.
+   * @return the y position the area would get or -1 when it doesn't fit
+   */
+  private int fit(final int index, final int width, final int height) {
+    if (segmentX[index] + width > size) {
+      return -1;
+    }
+    int y = 0;
+    int remaining = width;
+    for (int i=index; remaining > 0; i++) {
+      y = Math.max(y, segmentY[i]);
+      if (y + height > size) {
+        return -1;
+      }
+      remaining -= segmentWidth[i];
+    }
+    return y;
+  }
+
+  private void insertSegment(final int index, final int x, final int y, final int width) {
+    ensureCapacity(segmentCount + 1);
+    System.arraycopy(segmentX, index, segmentX, index + 1, segmentCount - index);
+    System.arraycopy(segmentY, index, segmentY, index + 1, segmentCount - index);
+    System.arraycopy(segmentWidth, index, segmentWidth, index + 1, segmentCount - index);
+    segmentX[index] = x;
+    segmentY[index] = y;
+    segmentWidth[index] = width;
+    segmentCount++;
+
+    // cut away the parts of the following segments that are now covered by the new segment
+    int end = x + width;
+    int i = index + 1;
+    while (i < segmentCount && segmentX[i] < end) {
+      int covered = end - segmentX[i];
+      if (covered >= segmentWidth[i]) {
+        removeSegment(i);
+      } else {
+        segmentX[i] += covered;
+        segmentWidth[i] -= covered;
+        break;
+      }
+    }
+
+    // merge neighbours with the same height
+    for (i=0; i<segmentCount - 1; i++) {
+      if (segmentY[i] == segmentY[i + 1]) {
+        segmentWidth[i] += segmentWidth[i + 1];
+        removeSegment(i + 1);
+        i--;
+      }
+    }
+  }
+
+  private void removeSegment(final int index) {
+    System.arraycopy(segmentX, index + 1, segmentX, index, segmentCount - index - 1);
+    System.arraycopy(segmentY, index + 1, segmentY, index, segmentCount - index - 1);
+    System.arraycopy(segmentWidth, index + 1, segmentWidth, index, segmentCount - index - 1);
+    segmentCount--;
+  }
+
+  private void ensureCapacity(final int capacity) {
+    if (segmentX.length < capacity) {
+      int newCapacity = segmentX.length * 2;
+      int[] newX = new int[newCapacity];
+      int[] newY = new int[newCapacity];
+      int[] newWidth = new int[newCapacity];
+      System.arraycopy(segmentX, 0, newX, 0, segmentCount);
+      System.arraycopy(segmentY, 0, newY, 0, segmentCount);
+      System.arraycopy(segmentWidth, 0, newWidth, 0, segmentCount);
+      segmentX = newX;
+      segmentY = newY;
+      segmentWidth = newWidth;
+    }
+  }
+}
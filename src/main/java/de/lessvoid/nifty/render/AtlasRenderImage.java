@@ -0,0 +1,100 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.spi.render.RenderImage;
+
+/**
+ * An image that has been packed into a page of the TextureAtlas. It behaves like an image of its own (the size is
+ * the size of the original image) but it's rendered as a part of the atlas page. CompoundImageMode translates the
+ * source area of the image into the area of the atlas page so all AreaProvider and RenderStrategy implementations
+ * work unchanged. The image might be moved to another page when the atlas is compacted.
+ *
+ * @author void
+ */
+public class AtlasRenderImage implements RenderImage {
+  private TextureAtlas atlas;
+  private String filename;
+  private boolean filterLinear;
+  private int width;
+  private int height;
+  private AtlasPage page;
+  private int x;
+  private int y;
+  private Box pageArea = new Box();
+
+  AtlasRenderImage(final TextureAtlas atlas, final String filename, final boolean filterLinear, final int width, final int height) {
+    this.atlas = atlas;
+    this.filename = filename;
+    this.filterLinear = filterLinear;
+    this.width = width;
+    this.height = height;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Remove the image from the atlas.
+   */
+  public void dispose() {
+    atlas.release(this);
+  }
+
+  /**
+   * @return the RenderImage of the atlas page this image is on
+   */
+  public RenderImage getPageImage() {
+    return page.getRenderImage();
+  }
+
+  /**
+   * @return x position of the image on the atlas page
+   */
+  public int getX() {
+    return x;
+  }
+
+  /**
+   * @return y position of the image on the atlas page
+   */
+  public int getY() {
+    return y;
+  }
+
+  /**
+   * Translate an area of this image into the same area of the atlas page. The returned Box is reused by the
+   * next call.
+   * @param area the area of this image
+   * @return the area of the atlas page
+   */
+  public Box getPageArea(final Box area) {
+    pageArea.setX(x + area.getX());
+    pageArea.setY(y + area.getY());
+    pageArea.setWidth(area.getWidth());
+    pageArea.setHeight(area.getHeight());
+    return pageArea;
+  }
+
+  String getFilename() {
+    return filename;
+  }
+
+  boolean isFilterLinear() {
+    return filterLinear;
+  }
+
+  AtlasPage getPage() {
+    return page;
+  }
+
+  void setLocation(final AtlasPage page, final int x, final int y) {
+    this.page = page;
+    this.x = x;
+    this.y = y;
+  }
+}
@@ -0,0 +1,448 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * A DisplayList records all the NiftyRenderEngine calls of a single Element while they are forwarded to
+ * the real NiftyRenderEngine. When the Element has not changed since it was recorded, the DisplayList
+ * can be replayed instead of walking the Element again.
+ *
+ * Only calls that change the render state or produce output are recorded. Queries (like getFont() or
+ * isColorChanged()) are always forwarded to the target.
+ *
+ * DisplayLists nest: When the target of a recording is a DisplayList itself (which is the case for child
+ * elements of an element that is being recorded) the output goes straight to the real target and the
+ * parent only stores a reference to the child DisplayList. This way every primitive is only stored once.
+ *
+ * Op instances are kept between recordings, so re-recording an element doesn't create garbage.
+ *
+ * @author void
+ */
+public class DisplayList implements NiftyRenderEngine {
+  private static final int RENDER_QUAD = 0;
+  private static final int RENDER_QUAD_GRADIENT = 1;
+  private static final int RENDER_IMAGE = 2;
+  private static final int RENDER_TEXT = 3;
+  private static final int SET_FONT = 4;
+  private static final int SET_COLOR = 5;
+  private static final int SET_COLOR_ALPHA = 6;
+  private static final int SET_COLOR_IGNORE_ALPHA = 7;
+  private static final int SET_BLEND_MODE = 8;
+  private static final int MOVE_TO = 9;
+  private static final int ENABLE_CLIP = 10;
+  private static final int DISABLE_CLIP = 11;
+  private static final int SET_RENDER_TEXT_SIZE = 12;
+  private static final int SET_IMAGE_SCALE = 13;
+  private static final int SET_GLOBAL_POSITION = 14;
+  private static final int SAVE_STATE = 15;
+  private static final int RESTORE_STATE = 16;
+  private static final int CHILD = 17;
+
+  private ArrayList < Op > ops = new ArrayList < Op >();
+  private int opCount;
+
+  private NiftyRenderEngine target;
+  private DisplayList parent;
+
+  /**
+   * Start recording. All recorded calls are forwarded to the given NiftyRenderEngine too.
+   * @param renderEngine the NiftyRenderEngine to forward to (might be a DisplayList that is recording)
+   */
+  public void beginRecording(final NiftyRenderEngine renderEngine) {
+    for (int i=0; i<opCount; i++) {
+      ops.get(i).clearReferences();
+    }
+    opCount = 0;
+    if (renderEngine instanceof DisplayList) {
+      parent = (DisplayList) renderEngine;
+      target = parent.target;
+    } else {
+      parent = null;
+      target = renderEngine;
+    }
+  }
+
+  /**
+   * Stop recording. When we've been recorded into a parent DisplayList we're added to it now.
+   */
+  public void endRecording() {
+    if (parent != null) {
+      parent.nextOp(CHILD).child = this;
+    }
+    parent = null;
+    target = null;
+  }
+
+  /**
+   * Replay all recorded calls to the given NiftyRenderEngine. When the given NiftyRenderEngine is a
+   * DisplayList that is currently recording we'll add ourself to it.
+   * @param renderEngine the NiftyRenderEngine to render to
+   */
+  public void replay(final NiftyRenderEngine renderEngine) {
+    if (renderEngine instanceof DisplayList) {
+      DisplayList recording = (DisplayList) renderEngine;
+      recording.nextOp(CHILD).child = this;
+      replayOps(recording.target);
+    } else {
+      replayOps(renderEngine);
+    }
+  }
+
+  /**
+   * @return number of recorded calls (child DisplayLists count as a single call)
+   */
+  public int getOpCount() {
+    return opCount;
+  }
+
+  private void replayOps(final NiftyRenderEngine r) {
+    for (int i=0; i<opCount; i++) {
+      ops.get(i).replay(r);
+    }
+  }
+
+  private Op nextOp(final int type) {
+    Op op;
+    if (opCount < ops.size()) {
+      op = ops.get(opCount);
+    } else {
+      op = new Op();
+      ops.add(op);
+    }
+    opCount++;
+    op.type = type;
+    return op;
+  }
+
+  public int getWidth() {
+    return target.getWidth();
+  }
+
+  public int getHeight() {
+    return target.getHeight();
+  }
+
+  public void beginFrame() {
+    target.beginFrame();
+  }
+
+  public void endFrame() {
+    target.endFrame();
+  }
+
+  public void clear() {
+    target.clear();
+  }
+
+  public NiftyImage createImage(final String name, final boolean filterLinear) {
+    return target.createImage(name, filterLinear);
+  }
+
+  public void preloadImage(final String name, final boolean filterLinear, final int priority) {
+    target.preloadImage(name, filterLinear, priority);
+  }
+
+  public RenderFont createFont(final String name) {
+    return target.createFont(name);
+  }
+
+  public void renderQuad(final int x, final int y, final int width, final int height) {
+    Op op = nextOp(RENDER_QUAD);
+    op.setArea(x, y, width, height);
+    target.renderQuad(x, y, width, height);
+  }
+
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color topLeft,
+      final Color topRight,
+      final Color bottomRight,
+      final Color bottomLeft) {
+    Op op = nextOp(RENDER_QUAD_GRADIENT);
+    op.setArea(x, y, width, height);
+    op.color = copyColor(op.color, topLeft);
+    op.color2 = copyColor(op.color2, topRight);
+    op.color3 = copyColor(op.color3, bottomRight);
+    op.color4 = copyColor(op.color4, bottomLeft);
+    target.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  public void renderImage(final NiftyImage image, final int x, final int y, final int width, final int height) {
+    Op op = nextOp(RENDER_IMAGE);
+    op.image = image;
+    op.setArea(x, y, width, height);
+    target.renderImage(image, x, y, width, height);
+  }
+
+  public void renderText(
+      final String text,
+      final int x,
+      final int y,
+      final int selectionStart,
+      final int selectionEnd,
+      final Color textSelectionColor) {
+    Op op = nextOp(RENDER_TEXT);
+    op.text = text;
+    op.setArea(x, y, selectionStart, selectionEnd);
+    op.color = copyColor(op.color, textSelectionColor);
+    target.renderText(text, x, y, selectionStart, selectionEnd, textSelectionColor);
+  }
+
+  public void setFont(final RenderFont font) {
+    nextOp(SET_FONT).font = font;
+    target.setFont(font);
+  }
+
+  public RenderFont getFont() {
+    return target.getFont();
+  }
+
+  public void setColor(final Color colorParam) {
+    Op op = nextOp(SET_COLOR);
+    op.color = copyColor(op.color, colorParam);
+    target.setColor(colorParam);
+  }
+
+  public void setColor(final float red, final float green, final float blue, final float alpha) {
+    Op op = nextOp(SET_COLOR);
+    op.color = setColor(op.color, red, green, blue, alpha);
+    target.setColor(red, green, blue, alpha);
+  }
+
+  public void setColorAlpha(final float newColorAlpha) {
+    nextOp(SET_COLOR_ALPHA).value1 = newColorAlpha;
+    target.setColorAlpha(newColorAlpha);
+  }
+
+  public void setColorIgnoreAlpha(final Color color) {
+    Op op = nextOp(SET_COLOR_IGNORE_ALPHA);
+    op.color = copyColor(op.color, color);
+    target.setColorIgnoreAlpha(color);
+  }
+
+  public void setColorIgnoreAlpha(final float red, final float green, final float blue, final float alpha) {
+    Op op = nextOp(SET_COLOR_IGNORE_ALPHA);
+    op.color = setColor(op.color, red, green, blue, alpha);
+    target.setColorIgnoreAlpha(red, green, blue, alpha);
+  }
+
+  public boolean isColorChanged() {
+    return target.isColorChanged();
+  }
+
+  public boolean isColorAlphaChanged() {
+    return target.isColorAlphaChanged();
+  }
+
+  public void setBlendMode(final BlendMode blendMode) {
+    nextOp(SET_BLEND_MODE).blendMode = blendMode;
+    target.setBlendMode(blendMode);
+  }
+
+  public void moveTo(final float xParam, final float yParam) {
+    Op op = nextOp(MOVE_TO);
+    op.value1 = xParam;
+    op.value2 = yParam;
+    target.moveTo(xParam, yParam);
+  }
+
+  public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+    nextOp(ENABLE_CLIP).setArea(x0, y0, x1, y1);
+    target.enableClip(x0, y0, x1, y1);
+  }
+
+  public void disableClip() {
+    nextOp(DISABLE_CLIP);
+    target.disableClip();
+  }
+
+  public void setRenderTextSize(final float size) {
+    nextOp(SET_RENDER_TEXT_SIZE).value1 = size;
+    target.setRenderTextSize(size);
+  }
+
+  public void setImageScale(final float scale) {
+    nextOp(SET_IMAGE_SCALE).value1 = scale;
+    target.setImageScale(scale);
+  }
+
+  public void setGlobalPosition(final float xPos, final float yPos) {
+    Op op = nextOp(SET_GLOBAL_POSITION);
+    op.value1 = xPos;
+    op.value2 = yPos;
+    target.setGlobalPosition(xPos, yPos);
+  }
+
+  public void saveState(final Set < RenderStateType > statesToSave) {
+    Op op = nextOp(SAVE_STATE);
+    if (statesToSave == null) {
+      op.allStates = true;
+    } else {
+      op.allStates = false;
+      if (op.states == null) {
+        op.states = EnumSet.noneOf(RenderStateType.class);
+      }
+      op.states.clear();
+      op.states.addAll(statesToSave);
+    }
+    target.saveState(statesToSave);
+  }
+
+  public void restoreState() {
+    nextOp(RESTORE_STATE);
+    target.restoreState();
+  }
+
+  public RenderDevice getRenderDevice() {
+    return target.getRenderDevice();
+  }
+
+  public void disposeImage(final RenderImage image) {
+    target.disposeImage(image);
+  }
+
+  public void pinImage(final RenderImage image, final boolean pin) {
+    target.pinImage(image, pin);
+  }
+
+  public RenderImage reload(final RenderImage image) {
+    return target.reload(image);
+  }
+
+  public void displayResolutionChanged() {
+    target.displayResolutionChanged();
+  }
+
+  private static Color copyColor(final Color target, final Color source) {
+    if (source == null) {
+      return null;
+    }
+    if (target == null) {
+      return new Color(source);
+    }
+    return setColor(target, source.getRed(), source.getGreen(), source.getBlue(), source.getAlpha());
+  }
+
+  private static Color setColor(final Color target, final float red, final float green, final float blue, final float alpha) {
+    if (target == null) {
+      return new Color(red, green, blue, alpha);
+    }
+    target.setRed(red);
+    target.setGreen(green);
+    target.setBlue(blue);
+    target.setAlpha(alpha);
+    return target;
+  }
+
+  /**
+   * A single recorded call.
+   * @author void
+   */
+  private static class Op {
+    private int type;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+    private float value1;
+    private float value2;
+    private Color color;
+    private Color color2;
+    private Color color3;
+    private Color color4;
+    private NiftyImage image;
+    private RenderFont font;
+    private String text;
+    private BlendMode blendMode;
+    private boolean allStates;
+    private EnumSet < RenderStateType > states;
+    private DisplayList child;
+
+    private void setArea(final int newX, final int newY, final int newWidth, final int newHeight) {
+      x = newX;
+      y = newY;
+      width = newWidth;
+      height = newHeight;
+    }
+
+    private void clearReferences() {
+      image = null;
+      font = null;
+      text = null;
+      child = null;
+    }
+
+    private void replay(final NiftyRenderEngine r) {
+      switch (type) {
+        case RENDER_QUAD:
+          r.renderQuad(x, y, width, height);
+          break;
+        case RENDER_QUAD_GRADIENT:
+          r.renderQuad(x, y, width, height, color, color2, color3, color4);
+          break;
+        case RENDER_IMAGE:
+          r.renderImage(image, x, y, width, height);
+          break;
+        case RENDER_TEXT:
+          r.renderText(text, x, y, width, height, color);
+          break;
+        case SET_FONT:
+          r.setFont(font);
+          break;
+        case SET_COLOR:
+          r.setColor(color);
+          break;
+        case SET_COLOR_ALPHA:
+          r.setColorAlpha(value1);
+          break;
+        case SET_COLOR_IGNORE_ALPHA:
+          r.setColorIgnoreAlpha(color);
+          break;
+        case SET_BLEND_MODE:
+          r.setBlendMode(blendMode);
+          break;
+        case MOVE_TO:
+          r.moveTo(value1, value2);
+          break;
+        case ENABLE_CLIP:
+          r.enableClip(x, y, width, height);
+          break;
+        case DISABLE_CLIP:
+          r.disableClip();
+          break;
+        case SET_RENDER_TEXT_SIZE:
+          r.setRenderTextSize(value1);
+          break;
+        case SET_IMAGE_SCALE:
+          r.setImageScale(value1);
+          break;
+        case SET_GLOBAL_POSITION:
+          r.setGlobalPosition(value1, value2);
+          break;
+        case SAVE_STATE:
+          if (allStates) {
+            r.saveState(null);
+          } else {
+            r.saveState(states);
+          }
+          break;
+        case RESTORE_STATE:
+          r.restoreState();
+          break;
+        case CHILD:
+          child.replayOps(r);
+          break;
+      }
+    }
+  }
+}
@@ -50,7 +50,41 @@ public class NiftyImage {
    * @param scale scale
    */
   public void render(final int x, final int y, final int width, final int height, final Color color, final float scale) {
-    imageMode.render(niftyRenderEngine.getRenderDevice(), image, x, y, width, height, color, scale);
+    RenderImage renderImage = image;
+    if (image instanceof PreloadedRenderImage) {
+      renderImage = ((PreloadedRenderImage) image).getRenderImage();
+      if (renderImage == null) {
+        return;
+      }
+    }
+    imageMode.render(niftyRenderEngine.getRenderDevice(), renderImage, x, y, width, height, color, scale);
+  }
+
+  /**
+   * Returns true when the image can be rendered. Images that are preloaded in the background are not
+   * rendered until they have been uploaded.
+   * @return true when the image is loaded
+   */
+  public boolean isLoaded() {
+    return !(image instanceof PreloadedRenderImage) || ((PreloadedRenderImage) image).isLoaded();
+  }
+
+  /**
+   * Raise the priority of the image when it's still being preloaded.
+   * @param priority the new priority
+   */
+  public void setLoadPriority(final int priority) {
+    if (image instanceof PreloadedRenderImage) {
+      ((PreloadedRenderImage) image).setPriority(priority);
+    }
+  }
+
+  /**
+   * Pin the image. A pinned image is not disposed when it's not used anymore but kept for the next use.
+   * @param pin true to pin and false to unpin the image
+   */
+  public void setPinned(final boolean pin) {
+    niftyRenderEngine.pinImage(image, pin);
   }
 
   /**
@@ -1,41 +1,459 @@
 package de.lessvoid.nifty.render;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.NiftyStopwatch;
+import de.lessvoid.nifty.spi.render.AsyncRenderDevice;
+import de.lessvoid.nifty.spi.render.AtlasRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.spi.render.RenderImageData;
+import de.lessvoid.nifty.tools.TimeProvider;
 
+/**
+ * Creates and caches the RenderImages. When the RenderDevice is an AsyncRenderDevice images can be preloaded:
+ * they are decoded on background threads (highest priority first) and uploaded on the render thread with
+ * uploadPreloadedImages() which only takes a limited amount of time each frame. getImage() for an image that
+ * is still being preloaded returns a placeholder that is replaced once the upload is done.
+ *
+ * When the RenderDevice is an AtlasRenderDevice small images are packed into the pages of a TextureAtlas instead
+ * of getting a texture of their own.
+ *
+ * Images are reference counted. Images that are not referenced anymore are kept in a LRU cache as long as the
+ * estimated size of all resident images stays below the cache budget. The budget is 0 by default which disposes
+ * images as soon as they are not referenced anymore. Pinned images are never evicted.
+ * @author void
+ */
 public class NiftyImageManager {
+  private static final long DEFAULT_UPLOAD_TIME_BUDGET = 4;
+  private static final int DEFAULT_BYTES_PER_PIXEL = 4;
+  private static final int LOADER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
   private Logger log = Logger.getLogger("NiftyImageManager");
   private RenderDevice renderDevice;
+  private AsyncRenderDevice asyncRenderDevice;
+  private TextureAtlas textureAtlas;
   private Map <String, ReferencedCountedImage> imageCache = new LinkedHashMap< String, ReferencedCountedImage >();
   private Map <RenderImage, ReferencedCountedImage> backReference = new LinkedHashMap <RenderImage, ReferencedCountedImage>();
+  private Map < String, PreloadedRenderImage > preloading = new HashMap < String, PreloadedRenderImage >();
+  private PriorityBlockingQueue < PreloadedRenderImage > loadQueue = new PriorityBlockingQueue < PreloadedRenderImage >();
+  private PriorityBlockingQueue < PreloadedRenderImage > uploadQueue = new PriorityBlockingQueue < PreloadedRenderImage >();
+  private ExecutorService executor;
+  private long uploadTimeBudget = DEFAULT_UPLOAD_TIME_BUDGET;
+  private TimeProvider timeProvider = new TimeProvider();
+  private long preloadSequence;
+  private Map < String, ReferencedCountedImage > retained = new LinkedHashMap < String, ReferencedCountedImage >();
+  private Set < String > pinned = new HashSet < String >();
+  private long cacheBudget;
+  private int bytesPerPixel = DEFAULT_BYTES_PER_PIXEL;
+  private long residentBytes;
+  private long cacheHits;
+  private long cacheMisses;
+  private long cacheEvictions;
+
+  /**
+   * every execution loads the image with the highest priority that is waiting.
+   */
+  private Runnable loadTask = new Runnable() {
+    public void run() {
+      PreloadedRenderImage image = loadQueue.poll();
+      if (image != null) {
+        load(image);
+      }
+    }
+  };
 
   public NiftyImageManager(final RenderDevice renderDevice) {
+    this(renderDevice, null);
+  }
+
+  /**
+   * Create the NiftyImageManager.
+   * @param renderDevice the RenderDevice to create images with
+   * @param asyncRenderDevice the AsyncRenderDevice to preload images with or null when preloading is not supported
+   */
+  public NiftyImageManager(final RenderDevice renderDevice, final AsyncRenderDevice asyncRenderDevice) {
     this.renderDevice = renderDevice;
+    this.asyncRenderDevice = asyncRenderDevice;
+    if (asyncRenderDevice instanceof AtlasRenderDevice) {
+      textureAtlas = new TextureAtlas((AtlasRenderDevice) asyncRenderDevice);
+    }
   }
 
   public RenderImage getImage(final String filename, final boolean filterLinear) {
     String key = buildName(filename, filterLinear);
-    if (imageCache.containsKey(key)) {
-      RenderImage existingEntry = imageCache.get(key).addReference();
-      log.finer(key + " exists [" + imageCache.get(key).references + "]");
+    ReferencedCountedImage existing = imageCache.get(key);
+    if (existing != null) {
+      if (existing.getReferences() == 0) {
+        retained.remove(key);
+      }
+      cacheHits++;
+      RenderImage existingEntry = existing.addReference();
+      log.finer(key + " exists [" + existing.getReferences() + "]");
       return existingEntry;
     }
+    PreloadedRenderImage preloaded = preloading.get(key);
+    if (preloaded != null) {
+      cacheHits++;
+      preloaded.use();
+      ReferencedCountedImage newEntry = new ReferencedCountedImage(filename, filterLinear, preloaded, 1);
+      backReference.put(preloaded, newEntry);
+      imageCache.put(key, newEntry);
+      log.finer(key + " placeholder [" + newEntry.references + "]");
+      return preloaded;
+    }
     NiftyStopwatch.start();
 
-    RenderImage createImage = renderDevice.createImage(filename, filterLinear);
-    ReferencedCountedImage newEntry = new ReferencedCountedImage(filename, filterLinear, createImage);
+    cacheMisses++;
+    RenderImage createImage = createImage(filename, filterLinear);
+    ReferencedCountedImage newEntry = new ReferencedCountedImage(filename, filterLinear, createImage, 1);
+    newEntry.updateBytes();
     backReference.put(createImage, newEntry);
     imageCache.put(key, newEntry);
-    log.finer(key + " create [" + imageCache.get(key).references + "]");
+    log.finer(key + " create [" + newEntry.getReferences() + "]");
+    evict();
 
     NiftyStopwatch.stop("imageManager.getImage(" + filename + ")");
     return newEntry.getRenderImage();
   }
 
+  /**
+   * Start loading the given image in the background. This does nothing when the image is already loaded or when
+   * the RenderDevice doesn't support preloading. When the image is already being preloaded its priority is raised.
+   * @param filename the image file
+   * @param filterLinear filter
+   * @param priority images with a higher priority are loaded and uploaded first
+   */
+  public void preload(final String filename, final boolean filterLinear, final int priority) {
+    if (asyncRenderDevice == null || filename == null) {
+      return;
+    }
+    String key = buildName(filename, filterLinear);
+    if (imageCache.containsKey(key)) {
+      return;
+    }
+    PreloadedRenderImage preloaded = preloading.get(key);
+    if (preloaded != null) {
+      preloaded.setPriority(priority);
+      return;
+    }
+    preloaded = new PreloadedRenderImage(this, filename, filterLinear, key, priority, preloadSequence++);
+    preloading.put(key, preloaded);
+    loadQueue.add(preloaded);
+    getExecutor().execute(loadTask);
+  }
+
+  /**
+   * Upload the preloaded images that have been decoded in the meantime. This needs to be called once per frame
+   * on the render thread and uploads images (highest priority first) until the upload time budget is used up.
+   */
+  public void uploadPreloadedImages() {
+    if (textureAtlas != null) {
+      textureAtlas.compact();
+    }
+    if (preloading.isEmpty()) {
+      return;
+    }
+    long start = timeProvider.getMsTime();
+    PreloadedRenderImage image;
+    while ((image = uploadQueue.poll()) != null) {
+      upload(image);
+      if (timeProvider.getMsTime() - start >= uploadTimeBudget) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the number of preloaded images that are not uploaded yet
+   */
+  public int getPreloadingCount() {
+    return preloading.size();
+  }
+
+  /**
+   * Set the time uploadPreloadedImages() may take each frame. At least one image is uploaded per frame.
+   * @param uploadTimeBudgetMs time in ms
+   */
+  public void setUploadTimeBudget(final long uploadTimeBudgetMs) {
+    this.uploadTimeBudget = uploadTimeBudgetMs;
+  }
+
+  /**
+   * @param timeProvider the TimeProvider the upload time budget is measured with
+   */
+  public void setTimeProvider(final TimeProvider timeProvider) {
+    this.timeProvider = timeProvider;
+  }
+
+  /**
+   * Set the memory budget for the images. Images that are not referenced anymore are kept (and reused by
+   * getImage()) until the estimated size of all resident images exceeds this budget. Then the least recently
+   * released images are disposed. Referenced and pinned images are never disposed, so the budget might be
+   * exceeded by them. A budget of 0 (the default) disposes images as soon as they are not referenced anymore.
+   * @param cacheBudgetBytes the budget in bytes
+   */
+  public void setCacheBudget(final long cacheBudgetBytes) {
+    this.cacheBudget = cacheBudgetBytes;
+    evict();
+  }
+
+  /**
+   * @return the memory budget for the images in bytes
+   */
+  public long getCacheBudget() {
+    return cacheBudget;
+  }
+
+  /**
+   * Set the number of bytes a pixel of an image takes on the graphics card. This is used to estimate the size of
+   * the images (width * height * bytesPerPixel). The default is 4.
+   * @param bytesPerPixel bytes per pixel
+   */
+  public void setBytesPerPixel(final int bytesPerPixel) {
+    this.bytesPerPixel = bytesPerPixel;
+  }
+
+  /**
+   * Pin or unpin the image. A pinned image is kept even when it's not referenced anymore (for instance for
+   * images of screens that are shown often). Pinning is remembered by filename, so this works for images that
+   * have been disposed and loaded again too.
+   * @param image the image
+   * @param pin true to pin the image and false to unpin it
+   */
+  public void pin(final RenderImage image, final boolean pin) {
+    ReferencedCountedImage reference = backReference.get(image);
+    if (reference == null) {
+      return;
+    }
+    if (pin) {
+      pinned.add(reference.getName());
+      retained.remove(reference.getName());
+    } else if (pinned.remove(reference.getName()) && reference.getReferences() == 0) {
+      retained.put(reference.getName(), reference);
+      evict();
+    }
+  }
+
+  /**
+   * @return the estimated size of all images that are currently resident in bytes
+   */
+  public long getResidentBytes() {
+    return residentBytes;
+  }
+
+  /**
+   * @return the number of images that are not referenced anymore but still kept in the cache
+   */
+  public int getRetainedCount() {
+    return retained.size();
+  }
+
+  /**
+   * @return the number of getImage() calls that have been served from the cache (or from a preloaded image)
+   */
+  public long getCacheHits() {
+    return cacheHits;
+  }
+
+  /**
+   * @return the number of getImage() calls that needed to load the image
+   */
+  public long getCacheMisses() {
+    return cacheMisses;
+  }
+
+  /**
+   * @return the number of unreferenced images that have been disposed to stay within the cache budget
+   */
+  public long getCacheEvictions() {
+    return cacheEvictions;
+  }
+
+  /**
+   * Reset the hit, miss and eviction counters.
+   */
+  public void resetCacheStatistics() {
+    cacheHits = 0;
+    cacheMisses = 0;
+    cacheEvictions = 0;
+  }
+
+  /**
+   * Set the TextureAtlas small images are packed into. When the RenderDevice is an AtlasRenderDevice a
+   * TextureAtlas with the default settings is used, null disables the atlas.
+   * @param textureAtlas the TextureAtlas or null
+   */
+  public void setTextureAtlas(final TextureAtlas textureAtlas) {
+    this.textureAtlas = textureAtlas;
+  }
+
+  /**
+   * Set the ExecutorService that decodes the preloaded images. When no ExecutorService is set a few daemon
+   * threads are started the first time an image is preloaded. The NiftyImageManager doesn't shut it down.
+   * @param executor the ExecutorService
+   */
+  public void setExecutor(final ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  void changePriority(final PreloadedRenderImage image, final int priority) {
+    // the queues are only reordered when an element is added so the image must not be queued while it changes
+    if (loadQueue.remove(image)) {
+      image.setPriorityInternal(priority);
+      loadQueue.add(image);
+    } else if (uploadQueue.remove(image)) {
+      image.setPriorityInternal(priority);
+      uploadQueue.add(image);
+    }
+  }
+
+  /**
+   * Wait until the image has been decoded. When no loader thread has started with the image yet it's decoded on
+   * the calling thread.
+   * @param image the image
+   * @return the decoded image or null when decoding failed
+   */
+  RenderImageData waitForImageData(final PreloadedRenderImage image) {
+    if (loadQueue.remove(image)) {
+      load(image);
+    }
+    image.awaitLoaded();
+    return image.getImageData();
+  }
+
+  /**
+   * Upload the given image right now.
+   * @param image the image
+   * @return the uploaded RenderImage
+   */
+  RenderImage uploadNow(final PreloadedRenderImage image) {
+    waitForImageData(image);
+    uploadQueue.remove(image);
+    upload(image);
+    return image.getRenderImage();
+  }
+
+  private void load(final PreloadedRenderImage image) {
+    try {
+      image.setImageData(asyncRenderDevice.loadImageData(image.getFilename(), image.isFilterLinear()));
+    } catch (Exception e) {
+      log.log(Level.WARNING, "preloading image [" + image.getFilename() + "] failed", e);
+    } finally {
+      // queue it first so that uploadNow() is able to remove it again once awaitLoaded() returns
+      uploadQueue.add(image);
+      image.loaded();
+    }
+  }
+
+  private void upload(final PreloadedRenderImage image) {
+    if (preloading.remove(image.getKey()) == null) {
+      return;
+    }
+    RenderImageData data = image.getImageData();
+    if (image.isUsed() && image.isDisposed()) {
+      // the placeholder has been disposed before the image was uploaded
+      if (data != null) {
+        data.dispose();
+      }
+      return;
+    }
+
+    NiftyStopwatch.start();
+    RenderImage renderImage;
+    if (data == null) {
+      renderImage = renderDevice.createImage(image.getFilename(), image.isFilterLinear());
+    } else {
+      renderImage = createImage(image.getFilename(), image.isFilterLinear(), data);
+    }
+    NiftyStopwatch.stop("imageManager.upload(" + image.getFilename() + ")");
+
+    image.setRenderImage(renderImage);
+    if (!image.isUsed()) {
+      // nobody asked for the image yet, keep it without any references until getImage() is called
+      ReferencedCountedImage newEntry = new ReferencedCountedImage(image.getFilename(), image.isFilterLinear(), renderImage, 0);
+      newEntry.updateBytes();
+      backReference.put(renderImage, newEntry);
+      imageCache.put(image.getKey(), newEntry);
+    } else {
+      ReferencedCountedImage entry = backReference.get(image);
+      if (entry != null) {
+        entry.updateBytes();
+      }
+    }
+    evict();
+    log.finer(image.getKey() + " uploaded");
+  }
+
+  private RenderImage createImage(final String filename, final boolean filterLinear) {
+    if (textureAtlas != null) {
+      RenderImageData data;
+      try {
+        data = asyncRenderDevice.loadImageData(filename, filterLinear);
+      } catch (Exception e) {
+        log.log(Level.WARNING, "loading image [" + filename + "] failed", e);
+        return renderDevice.createImage(filename, filterLinear);
+      }
+      return createImage(filename, filterLinear, data);
+    }
+    return renderDevice.createImage(filename, filterLinear);
+  }
+
+  private RenderImage createImage(final String filename, final boolean filterLinear, final RenderImageData data) {
+    if (textureAtlas != null) {
+      RenderImage atlasImage = textureAtlas.add(filename, filterLinear, data);
+      if (atlasImage != null) {
+        data.dispose();
+        return atlasImage;
+      }
+    }
+    return asyncRenderDevice.createImage(data);
+  }
+
+  private ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(LOADER_THREADS, new ThreadFactory() {
+        public Thread newThread(final Runnable runnable) {
+          Thread thread = new Thread(runnable, "nifty-image-loader");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * Dispose the least recently released images until the resident images fit into the cache budget.
+   */
+  private void evict() {
+    Iterator < ReferencedCountedImage > it = retained.values().iterator();
+    // placeholders of images that are still being preloaded don't have a size yet, so check the 0 budget explicitly
+    while (it.hasNext() && (cacheBudget <= 0 || residentBytes > cacheBudget)) {
+      ReferencedCountedImage reference = it.next();
+      it.remove();
+      imageCache.remove(reference.getName());
+      backReference.remove(reference.getRenderImage());
+      reference.dispose();
+      cacheEvictions++;
+      log.finer(reference.getName() + " evicted");
+    }
+  }
+
+  private long estimateBytes(final RenderImage image) {
+    if (image instanceof PreloadedRenderImage && !((PreloadedRenderImage) image).isLoaded()) {
+      // don't force loading the image just to get its size, it's counted once it has been uploaded
+      return 0;
+    }
+    return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+  }
+
   public RenderImage reload(final RenderImage image) {
     if (backReference.containsKey(image)) {
       return backReference.get(image).reload();
@@ -46,9 +464,9 @@ public class NiftyImageManager {
   public void dispose(final RenderImage image) {
     if (backReference.containsKey(image)) {
       ReferencedCountedImage reference = backReference.get(image);
-      if (reference.removeReference()) {
-        imageCache.remove(reference.getName());
-        backReference.remove(image);
+      if (reference.removeReference() && !pinned.contains(reference.getName())) {
+        retained.put(reference.getName(), reference);
+        evict();
       }
       log.finer(reference.getName() + " remove [" + reference.getReferences() + "]");
     }
@@ -57,6 +475,11 @@ public class NiftyImageManager {
   public String getInfoString() {
     StringBuffer result = new StringBuffer(); 
     result.append("I have " + imageCache.size() + " entries in cache and " + backReference.size() + " backreference entries.\n");
+    result.append("resident: " + residentBytes + " of " + cacheBudget + " bytes, retained: " + retained.size() + ", pinned: " + pinned.size() +
+        ", hits: " + cacheHits + ", misses: " + cacheMisses + ", evictions: " + cacheEvictions + "\n");
+    if (textureAtlas != null) {
+      result.append("The texture atlas uses " + textureAtlas.getPageCount() + " pages.\n");
+    }
     SortedSet<String> values = new TreeSet<String>();
     for (Map.Entry<String, ReferencedCountedImage> entry : imageCache.entrySet()) {
       values.add(entry.getKey() + " -> " + entry.getValue().getReferences() + "\n");
@@ -77,21 +500,36 @@ public class NiftyImageManager {
     private String key;
     private RenderImage renderImage;
     private int references;
+    private long bytes;
 
-    public ReferencedCountedImage(final String filename, final boolean filterLinear, final RenderImage renderImage) {
+    public ReferencedCountedImage(final String filename, final boolean filterLinear, final RenderImage renderImage, final int references) {
       this.filename = filename;
       this.filterLinear = filterLinear;
       this.key = buildName(filename, filterLinear);
       this.renderImage = renderImage;
-      this.references = 1;
+      this.references = references;
     }
 
     public RenderImage reload() {
       renderImage.dispose();
-      renderImage = renderDevice.createImage(filename, filterLinear);
+      renderImage = createImage(filename, filterLinear);
+      updateBytes();
       return renderImage;
     }
 
+    public void updateBytes() {
+      residentBytes -= bytes;
+      bytes = estimateBytes(renderImage);
+      residentBytes += bytes;
+    }
+
+    public void dispose() {
+      log.finer(key + " DISPOSE");
+      renderImage.dispose();
+      residentBytes -= bytes;
+      bytes = 0;
+    }
+
     public RenderImage addReference() {
       references++;
       return renderImage;
@@ -99,12 +537,7 @@ public class NiftyImageManager {
 
     public boolean removeReference() {
       references--;
-      if (references == 0) {
-        log.finer(key + " DISPOSE");
-        renderImage.dispose();
-        return true;
-      }
-      return false;
+      return references == 0;
     }
 
     public int getReferences() {
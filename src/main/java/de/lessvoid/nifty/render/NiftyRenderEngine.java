@@ -48,6 +48,15 @@ public interface NiftyRenderEngine {
    */
   NiftyImage createImage(String name, boolean filterLinear);
 
+  /**
+   * Start loading the given image in the background. Images with a higher priority are loaded first.
+   * This does nothing when the RenderDevice doesn't support preloading (see AsyncRenderDevice).
+   * @param name file name to use
+   * @param filterLinear filter
+   * @param priority priority
+   */
+  void preloadImage(String name, boolean filterLinear, int priority);
+
   /**
    * Create a new RenderFont.
    * @param name name of the font
@@ -116,6 +125,15 @@ public interface NiftyRenderEngine {
    */
   void setColor(Color colorParam);
 
+  /**
+   * Set a new color from its components. This is the same as setColor(Color) without the need for a Color instance.
+   * @param red red
+   * @param green green
+   * @param blue blue
+   * @param alpha alpha
+   */
+  void setColor(float red, float green, float blue, float alpha);
+
   /**
    * set only the color alpha.
    * @param newColorAlpha new alpha value
@@ -128,6 +146,15 @@ public interface NiftyRenderEngine {
    */
   void setColorIgnoreAlpha(Color color);
 
+  /**
+   * Same as setColorIgnoreAlpha(Color) without the need for a Color instance.
+   * @param red red
+   * @param green green
+   * @param blue blue
+   * @param alpha alpha
+   */
+  void setColorIgnoreAlpha(float red, float green, float blue, float alpha);
+
   /**
    * return true when color has been changed.
    * @return color changed
@@ -208,6 +235,13 @@ public interface NiftyRenderEngine {
    */
   void disposeImage(RenderImage image);
 
+  /**
+   * Pin or unpin the image. Pinned images stay loaded even when they are not used anymore.
+   * @param image image to pin
+   * @param pin true to pin and false to unpin the image
+   */
+  void pinImage(RenderImage image, boolean pin);
+
   /**
    * Dispose the given image and reload it.
    * @param image image
@@ -1,19 +1,22 @@
 package de.lessvoid.nifty.render;
 
+import java.util.EmptyStackException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 import java.util.logging.Logger;
 
+import de.lessvoid.nifty.NiftyStatistics;
+import de.lessvoid.nifty.NiftyStatistics.Counter;
 import de.lessvoid.nifty.NiftyStopwatch;
 import de.lessvoid.nifty.elements.render.TextRenderer.RenderFontNull;
+import de.lessvoid.nifty.render.batch.BatchingRenderDevice;
+import de.lessvoid.nifty.spi.render.AsyncRenderDevice;
+import de.lessvoid.nifty.spi.render.BatchRenderDevice;
 import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.render.RenderFont;
 import de.lessvoid.nifty.spi.render.RenderImage;
 import de.lessvoid.nifty.tools.Color;
-import de.lessvoid.nifty.tools.ObjectPool;
-import de.lessvoid.nifty.tools.ObjectPool.Factory;
 
 /**
  * The Nifty RenderEngine.
@@ -63,6 +66,23 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    */
   private Color color = new Color(1.0f, 1.0f, 1.0f, 1.0f);
 
+  /**
+   * true when the render calls are recorded by a BatchingRenderDevice. It copies the color values right away
+   * so we can reuse our Color instances. Other RenderDevices might keep the Color they get and so they still
+   * get a new instance for every call.
+   */
+  private boolean reuseColors;
+
+  /**
+   * reused colors for the render calls that need a color derived from the current color (only used when
+   * reuseColors is true).
+   */
+  private Color imageColor = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  private Color topLeftColor = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  private Color topRightColor = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  private Color bottomRightColor = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  private Color bottomLeftColor = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+
   /**
    * color changed.
    */
@@ -91,31 +111,41 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   /**
    * stack to save data.
    */
-  private Stack < SavedRenderState > stack = new Stack < SavedRenderState >();
+  private RenderStateStack stack = new RenderStateStack();
 
   /**
-   * ObjectPool to reuse SavedRenderState instances.
+   * current clip area.
    */
-  private ObjectPool<SavedRenderState> pool = new ObjectPool<SavedRenderState>(32, new Factory<SavedRenderState>() {
-    @Override
-    public SavedRenderState createNew() {
-      return new SavedRenderState();
-    }
-  });
+  private boolean clipEnabled = false;
+  private int clipX0;
+  private int clipY0;
+  private int clipX1;
+  private int clipY1;
 
-  private Clip clipEnabled = null;
   private BlendMode blendMode = BlendMode.BLEND;
   private NiftyImageManager imageManager;
+  private NiftyStatistics statistics = new NiftyStatistics(1);
 
   /**
-   * create the device.
+   * create the device. When the given RenderDevice supports batching all render calls are recorded
+   * and submitted as batches at the end of the frame. When it implements AsyncRenderDevice images can be
+   * preloaded in the background.
    * @param renderDeviceParam RenderDevice
    */
   public NiftyRenderEngineImpl(final RenderDevice renderDeviceParam) {
-    renderDevice = renderDeviceParam;
+    if (renderDeviceParam instanceof BatchRenderDevice) {
+      renderDevice = new BatchingRenderDevice((BatchRenderDevice) renderDeviceParam);
+      reuseColors = true;
+    } else {
+      renderDevice = renderDeviceParam;
+    }
     displayWidth = renderDevice.getWidth();
     displayHeight = renderDevice.getHeight();
-    imageManager = new NiftyImageManager(renderDeviceParam);
+    if (renderDeviceParam instanceof AsyncRenderDevice) {
+      imageManager = new NiftyImageManager(renderDevice, (AsyncRenderDevice) renderDeviceParam);
+    } else {
+      imageManager = new NiftyImageManager(renderDevice);
+    }
   }
 
   /**
@@ -137,6 +167,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void beginFrame() {
     renderDevice.beginFrame();
     colorChanged = false;
+    imageManager.uploadPreloadedImages();
   }
 
   public void endFrame() {
@@ -160,6 +191,24 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     return new NiftyImage(this, imageManager.getImage(filename, filterLinear));
   }
 
+  /**
+   * @see de.lessvoid.nifty.render.NiftyRenderEngine#preloadImage(java.lang.String, boolean, int)
+   * @param filename name
+   * @param filterLinear filter
+   * @param priority priority
+   */
+  public void preloadImage(final String filename, final boolean filterLinear, final int priority) {
+    imageManager.preload(filename, filterLinear, priority);
+  }
+
+  /**
+   * Get the NiftyImageManager that creates and caches the images.
+   * @return the NiftyImageManager
+   */
+  public NiftyImageManager getImageManager() {
+    return imageManager;
+  }
+
   /**
    * @see de.lessvoid.nifty.render.NiftyRenderEngine#createFont(java.lang.String)
    * @param filename name
@@ -188,16 +237,29 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param height height
    */
   public void renderQuad(final int x, final int y, final int width, final int height) {
+    statistics.count(Counter.QUADS);
     renderDevice.renderQuad(x + getX(), y + getY(), width, height, color);
   }
 
   public void renderQuad(final int x, final int y, final int width, final int height, final Color topLeft, final Color topRight, final Color bottomRight, final Color bottomLeft) {
-    if (isColorAlphaChanged()) {
+    statistics.count(Counter.QUADS);
+    if (isColorAlphaChanged() && !reuseColors) {
       Color a = new Color(topLeft, color.getAlpha());
       Color b = new Color(topRight, color.getAlpha());
       Color c = new Color(bottomRight, color.getAlpha());
       Color d = new Color(bottomLeft, color.getAlpha());
       renderDevice.renderQuad(x + getX(), y + getY(), width, height, a, b, c, d);
+    } else if (isColorAlphaChanged()) {
+      float alpha = color.getAlpha();
+      renderDevice.renderQuad(
+          x + getX(),
+          y + getY(),
+          width,
+          height,
+          copyColor(topLeftColor, topLeft, alpha),
+          copyColor(topRightColor, topRight, alpha),
+          copyColor(bottomRightColor, bottomRight, alpha),
+          copyColor(bottomLeftColor, bottomLeft, alpha));
     } else {
       renderDevice.renderQuad(x + getX(), y + getY(), width, height, topLeft, topRight, bottomRight, bottomLeft);
     }
@@ -212,11 +274,23 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param height height
    */
   public void renderImage(final NiftyImage image, final int x, final int y, final int width, final int height) {
+    statistics.count(Counter.IMAGES);
     float alpha = 1.0f;
     if (color != null) {
       alpha = color.getAlpha();
     }
-    image.render(x + getX(), y + getY(), width, height, new Color(1.0f, 1.0f, 1.0f, alpha), imageScale);
+    if (reuseColors) {
+      image.render(x + getX(), y + getY(), width, height, imageColor.setAlpha(alpha), imageScale);
+    } else {
+      image.render(x + getX(), y + getY(), width, height, new Color(1.0f, 1.0f, 1.0f, alpha), imageScale);
+    }
+  }
+
+  private Color copyColor(final Color target, final Color source, final float alpha) {
+    target.setRed(source.getRed());
+    target.setGreen(source.getGreen());
+    target.setBlue(source.getBlue());
+    return target.setAlpha(alpha);
   }
 
   /**
@@ -235,6 +309,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
       final int selectionStart,
       final int selectionEnd,
       final Color textSelectionColor) {
+    statistics.count(Counter.TEXTS);
     if (isSelection(selectionStart, selectionEnd)) {
       renderSelectionText(
           text, x + getX(), y + getY(), color, textSelectionColor, textScale, selectionStart, selectionEnd);
@@ -354,7 +429,31 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param colorParam color
    */
   public void setColor(final Color colorParam) {
-    color = new Color(colorParam);
+    if (reuseColors) {
+      copyColor(color, colorParam, colorParam.getAlpha());
+    } else {
+      color = new Color(colorParam);
+    }
+    colorChanged = true;
+    colorAlphaChanged = true;
+  }
+
+  /**
+   * @see de.lessvoid.nifty.render.NiftyRenderEngine#setColor(float, float, float, float)
+   * @param red red
+   * @param green green
+   * @param blue blue
+   * @param alpha alpha
+   */
+  public void setColor(final float red, final float green, final float blue, final float alpha) {
+    if (reuseColors) {
+      color.setRed(red);
+      color.setGreen(green);
+      color.setBlue(blue);
+      color.setAlpha(alpha);
+    } else {
+      color = new Color(red, green, blue, alpha);
+    }
     colorChanged = true;
     colorAlphaChanged = true;
   }
@@ -373,13 +472,24 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param newColor color
    */
   public void setColorIgnoreAlpha(final Color newColor) {
-    color.setRed(newColor.getRed());
-    color.setGreen(newColor.getGreen());
-    color.setBlue(newColor.getBlue());
+    setColorIgnoreAlpha(newColor.getRed(), newColor.getGreen(), newColor.getBlue(), newColor.getAlpha());
+  }
+
+  /**
+   * @see de.lessvoid.nifty.render.NiftyRenderEngine#setColorIgnoreAlpha(float, float, float, float)
+   * @param red red
+   * @param green green
+   * @param blue blue
+   * @param alpha alpha
+   */
+  public void setColorIgnoreAlpha(final float red, final float green, final float blue, final float alpha) {
+    color.setRed(red);
+    color.setGreen(green);
+    color.setBlue(blue);
     colorChanged = true;
 
-    if (colorAlphaChanged && color.getAlpha() > newColor.getAlpha()) {
-      color.setAlpha(newColor.getAlpha());
+    if (colorAlphaChanged && color.getAlpha() > alpha) {
+      color.setAlpha(alpha);
       colorAlphaChanged = true;
     }
   }
@@ -420,25 +530,30 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void enableClip(final int x0, final int y0, final int x1, final int y1) {
     // in case there already is a clipping area set we can't override it. not sure if this is correct tho but it
     // fixes issues when some parent element has set a clipping area in which child elements should not be able to override the area.
-    if (clipEnabled != null) {
+    if (clipEnabled) {
       return;
     }
-    updateClip(new Clip(x0 + getX(), y0 + getY(), x1 + getX(), y1 + getY()));
+    updateClip(true, x0 + getX(), y0 + getY(), x1 + getX(), y1 + getY());
   }
 
   /**
    * @see de.lessvoid.nifty.render.NiftyRenderEngine#disableClip()
    */
   public void disableClip() {
-    updateClip(null);
+    updateClip(false, 0, 0, 0, 0);
   }
 
-  void updateClip(final Clip clip) {
-    clipEnabled = clip;
-    if (clipEnabled == null) {
-      renderDevice.disableClip();
+  void updateClip(final boolean enabled, final int x0, final int y0, final int x1, final int y1) {
+    statistics.count(Counter.CLIP_CHANGES);
+    clipEnabled = enabled;
+    clipX0 = x0;
+    clipY0 = y0;
+    clipX1 = x1;
+    clipY1 = y1;
+    if (enabled) {
+      renderDevice.enableClip(x0, y0, x1, y1);
     } else {
-      clipEnabled.apply();
+      renderDevice.disableClip();
     }
   }
   /**
@@ -499,15 +614,12 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   }
 
   public void saveState(final Set < RenderStateType > statesToSave) {
-    SavedRenderState savedRenderState = pool.allocate();
-    savedRenderState.save(statesToSave);
-    stack.push(savedRenderState);
+    statistics.count(Counter.SAVE_STATES);
+    stack.push(RenderStateType.maskForStates(statesToSave));
   }
 
   public void restoreState() {
-    SavedRenderState restored = stack.pop();
-    restored.restore();
-    pool.free(restored);
+    stack.pop();
   }
 
   public void setBlendMode(final BlendMode blendModeParam) {
@@ -515,6 +627,14 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     renderDevice.setBlendMode(blendModeParam);
   }
 
+  /**
+   * Set the NiftyStatistics that count the render calls.
+   * @param newStatistics the NiftyStatistics
+   */
+  public void setStatistics(final NiftyStatistics newStatistics) {
+    statistics = newStatistics;
+  }
+
   public RenderDevice getRenderDevice() {
     return renderDevice;
   }
@@ -523,225 +643,177 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     imageManager.dispose(image);
   }
 
+  public void pinImage(final RenderImage image, final boolean pin) {
+    imageManager.pin(image, pin);
+  }
+
   public RenderImage reload(final RenderImage image) {
     return imageManager.reload(image);
   }
 
-  private class SavedRenderState {
-    private float x;
-    private float y;
-    private boolean statePositionChanged;
-
-    private float colorR;
-    private float colorG;
-    private float colorB;
-    private boolean colorChanged;
-    private boolean stateColorChanged;
-    
-    private float colorAlpha;
-    private boolean colorAlphaChanged;
-    private boolean stateAlphaChanged;
-    
-    private RenderFont font;
-    private boolean stateFontChanged;
-    
-    private float textSize;
-    private boolean stateTextSizeChanged;
-    
-    private float imageScale;
-    private boolean stateImageScaleChanged;
-    
-    private Clip clipEnabled;
-    private boolean stateClipChanged;
-    
-    private BlendMode blendMode;
-    private boolean stateBlendModeChanged;
-
-    private boolean restoreAll = false;
-
-    public SavedRenderState() {
-    }
-
-    public void save(final Set<RenderStateType> statesToSave) {
-      statePositionChanged = false;
-      stateColorChanged = false;
-      stateAlphaChanged = false;
-      stateFontChanged = false;
-      stateTextSizeChanged = false;
-      stateImageScaleChanged = false;
-      stateClipChanged = false;
-      stateBlendModeChanged = false;
-      restoreAll = false;
-
-      if (statesToSave == null) {
-        savePosition();
-        saveColor();
-        saveColorAlpha();
-        saveTextSize();
-        saveImageSize();
-        saveFont();
-        saveClipEnabled();
-        saveBlendMode();
-        restoreAll = true;
-        return;
+  // the RenderStateType masks used by the RenderStateStack
+  private static final int POSITION = RenderStateType.position.getMask();
+  private static final int COLOR = RenderStateType.color.getMask();
+  private static final int ALPHA = RenderStateType.alpha.getMask();
+  private static final int TEXT_SIZE = RenderStateType.textSize.getMask();
+  private static final int IMAGE_SCALE = RenderStateType.imageScale.getMask();
+  private static final int FONT = RenderStateType.font.getMask();
+  private static final int CLIP = RenderStateType.clip.getMask();
+  private static final int BLEND_MODE = RenderStateType.blendMode.getMask();
+
+  /**
+   * The saved render states. Every state is kept in its own array (indexed by the stack position) so saving and
+   * restoring only writes and reads a few array elements. The arrays only grow when the stack gets deeper than
+   * ever before.
+   */
+  private class RenderStateStack {
+    private static final int FLAG_COLOR_CHANGED = 1 << 0;
+    private static final int FLAG_COLOR_ALPHA_CHANGED = 1 << 1;
+    private static final int FLAG_CLIP_ENABLED = 1 << 2;
+
+    private int size;
+    private int[] states = new int[32];
+    private int[] flags = new int[32];
+    private float[] x = new float[32];
+    private float[] y = new float[32];
+    private float[] red = new float[32];
+    private float[] green = new float[32];
+    private float[] blue = new float[32];
+    private float[] alpha = new float[32];
+    private float[] textSize = new float[32];
+    private float[] imageScale = new float[32];
+    private RenderFont[] font = new RenderFont[32];
+    private int[] clip = new int[32 * 4];
+    private BlendMode[] blendMode = new BlendMode[32];
+
+    /**
+     * Save the given states.
+     * @param statesMask the mask of the RenderStateTypes to save
+     */
+    public void push(final int statesMask) {
+      if (size == states.length) {
+        grow();
+      }
+      int i = size++;
+      int flag = 0;
+      states[i] = statesMask;
+      if ((statesMask & POSITION) != 0) {
+        x[i] = currentX;
+        y[i] = currentY;
+      }
+      if ((statesMask & COLOR) != 0) {
+        red[i] = color.getRed();
+        green[i] = color.getGreen();
+        blue[i] = color.getBlue();
+        if (colorChanged) {
+          flag |= FLAG_COLOR_CHANGED;
+        }
+      }
+      if ((statesMask & ALPHA) != 0) {
+        alpha[i] = color.getAlpha();
+        if (colorAlphaChanged) {
+          flag |= FLAG_COLOR_ALPHA_CHANGED;
+        }
+      }
+      if ((statesMask & TEXT_SIZE) != 0) {
+        textSize[i] = textScale;
+      }
+      if ((statesMask & IMAGE_SCALE) != 0) {
+        imageScale[i] = NiftyRenderEngineImpl.this.imageScale;
+      }
+      if ((statesMask & FONT) != 0) {
+        font[i] = NiftyRenderEngineImpl.this.font;
       }
-      for (RenderStateType state : statesToSave) {
-        if (RenderStateType.position.equals(state)) {
-          savePosition();
-        } else if (RenderStateType.color.equals(state)) {
-          saveColor();
-        } else if (RenderStateType.alpha.equals(state)) {
-          saveColorAlpha();
-        } else if (RenderStateType.textSize.equals(state)) {
-          saveTextSize();
-        } else if (RenderStateType.imageScale.equals(state)) {
-          saveImageSize();
-        } else if (RenderStateType.font.equals(state)) {
-          saveFont();
-        } else if (RenderStateType.clip.equals(state)) {
-          saveClipEnabled();
-        } else if (RenderStateType.blendMode.equals(state)) {
-          saveBlendMode();
+      if ((statesMask & CLIP) != 0) {
+        if (clipEnabled) {
+          flag |= FLAG_CLIP_ENABLED;
         }
+        clip[i * 4] = clipX0;
+        clip[i * 4 + 1] = clipY0;
+        clip[i * 4 + 2] = clipX1;
+        clip[i * 4 + 3] = clipY1;
       }
+      if ((statesMask & BLEND_MODE) != 0) {
+        blendMode[i] = NiftyRenderEngineImpl.this.blendMode;
+      }
+      flags[i] = flag;
     }
 
-    public void restore() {
-      if (restoreAll) {
-        restorePosition();
-        restoreColor();
-        restoreAlpha();
-        restoreFont();
-        restoreTextSize();
-        restoreImageScale();
-        restoreClip();
-        restoreBlend();
-        return;
+    /**
+     * Restore the states saved with the last push().
+     */
+    public void pop() {
+      if (size == 0) {
+        throw new EmptyStackException();
       }
-      if (statePositionChanged) {
-        restorePosition();
+      int i = --size;
+      int statesMask = states[i];
+      int flag = flags[i];
+      if ((statesMask & POSITION) != 0) {
+        currentX = x[i];
+        currentY = y[i];
       }
-      if (stateColorChanged) {
-        restoreColor();
+      if ((statesMask & COLOR) != 0) {
+        color.setRed(red[i]);
+        color.setGreen(green[i]);
+        color.setBlue(blue[i]);
+        colorChanged = (flag & FLAG_COLOR_CHANGED) != 0;
       }
-      if (stateAlphaChanged) {
-        restoreAlpha();
+      if ((statesMask & ALPHA) != 0) {
+        color.setAlpha(alpha[i]);
+        colorAlphaChanged = (flag & FLAG_COLOR_ALPHA_CHANGED) != 0;
       }
-      if (stateFontChanged) {
-        restoreFont();
+      if ((statesMask & FONT) != 0) {
+        NiftyRenderEngineImpl.this.font = font[i];
+        font[i] = null;
       }
-      if (stateTextSizeChanged) {
-        restoreTextSize();
+      if ((statesMask & TEXT_SIZE) != 0) {
+        textScale = textSize[i];
       }
-      if (stateImageScaleChanged) {
-        restoreImageScale();
+      if ((statesMask & IMAGE_SCALE) != 0) {
+        NiftyRenderEngineImpl.this.imageScale = imageScale[i];
       }
-      if (stateClipChanged) {
-        restoreClip();
+      if ((statesMask & CLIP) != 0) {
+        updateClip((flag & FLAG_CLIP_ENABLED) != 0, clip[i * 4], clip[i * 4 + 1], clip[i * 4 + 2], clip[i * 4 + 3]);
       }
-      if (stateBlendModeChanged) {
-        restoreBlend();
+      if ((statesMask & BLEND_MODE) != 0) {
+        setBlendMode(blendMode[i]);
+        blendMode[i] = null;
       }
     }
 
-    private void saveBlendMode() {
-      blendMode = NiftyRenderEngineImpl.this.blendMode;
-      stateBlendModeChanged = true;
-    }
-
-    private void saveClipEnabled() {
-      clipEnabled = NiftyRenderEngineImpl.this.clipEnabled;
-      stateClipChanged = true;
-    }
-
-    private void saveFont() {
-      font = NiftyRenderEngineImpl.this.font;
-      stateFontChanged = true;
-    }
-
-    private void saveImageSize() {
-      imageScale = NiftyRenderEngineImpl.this.imageScale;
-      stateImageScaleChanged = true;
-    }
-
-    private void saveTextSize() {
-      textSize = NiftyRenderEngineImpl.this.textScale;
-      stateTextSizeChanged = true;
-    }
-
-    private void saveColorAlpha() {
-      colorAlpha = NiftyRenderEngineImpl.this.color.getAlpha();
-      colorAlphaChanged = NiftyRenderEngineImpl.this.colorAlphaChanged;
-      stateAlphaChanged = true;
-    }
-
-    private void saveColor() {
-      colorR = NiftyRenderEngineImpl.this.color.getRed();
-      colorG = NiftyRenderEngineImpl.this.color.getGreen();
-      colorB = NiftyRenderEngineImpl.this.color.getBlue();
-      colorChanged = NiftyRenderEngineImpl.this.colorChanged;
-      stateColorChanged = true;
-    }
-
-    private void savePosition() {
-      x = NiftyRenderEngineImpl.this.currentX;
-      y = NiftyRenderEngineImpl.this.currentY;
-      statePositionChanged = true;
-    }
-
-    private void restoreBlend() {
-      NiftyRenderEngineImpl.this.setBlendMode(blendMode);
-    }
-
-    private void restoreClip() {
-      NiftyRenderEngineImpl.this.updateClip(clipEnabled);
+    private void grow() {
+      int capacity = states.length * 2;
+      states = copyOf(states, capacity);
+      flags = copyOf(flags, capacity);
+      x = copyOf(x, capacity);
+      y = copyOf(y, capacity);
+      red = copyOf(red, capacity);
+      green = copyOf(green, capacity);
+      blue = copyOf(blue, capacity);
+      alpha = copyOf(alpha, capacity);
+      textSize = copyOf(textSize, capacity);
+      imageScale = copyOf(imageScale, capacity);
+      clip = copyOf(clip, capacity * 4);
+      RenderFont[] newFont = new RenderFont[capacity];
+      System.arraycopy(font, 0, newFont, 0, size);
+      font = newFont;
+      BlendMode[] newBlendMode = new BlendMode[capacity];
+      System.arraycopy(blendMode, 0, newBlendMode, 0, size);
+      blendMode = newBlendMode;
     }
 
-    private void restoreImageScale() {
-      NiftyRenderEngineImpl.this.imageScale = this.imageScale;
+    private int[] copyOf(final int[] source, final int capacity) {
+      int[] result = new int[capacity];
+      System.arraycopy(source, 0, result, 0, source.length);
+      return result;
     }
 
-    private void restoreTextSize() {
-      NiftyRenderEngineImpl.this.textScale = this.textSize;
-    }
-
-    private void restoreFont() {
-      NiftyRenderEngineImpl.this.font = font;
-    }
-
-    private void restoreAlpha() {
-      NiftyRenderEngineImpl.this.color.setAlpha(colorAlpha);
-      NiftyRenderEngineImpl.this.colorAlphaChanged = colorAlphaChanged;
-    }
-
-    private void restoreColor() {
-      NiftyRenderEngineImpl.this.color.setRed(colorR);
-      NiftyRenderEngineImpl.this.color.setGreen(colorG);
-      NiftyRenderEngineImpl.this.color.setBlue(colorB);
-      NiftyRenderEngineImpl.this.colorChanged = colorChanged;
-    }
-
-    private void restorePosition() {
-      NiftyRenderEngineImpl.this.currentX = this.x;
-      NiftyRenderEngineImpl.this.currentY = this.y;
+    private float[] copyOf(final float[] source, final int capacity) {
+      float[] result = new float[capacity];
+      System.arraycopy(source, 0, result, 0, source.length);
+      return result;
     }
   }
 
-  public class Clip {
-    private int x0;
-    private int y0;
-    private int x1;
-    private int y1;
-
-    public Clip(final int x0, final int y0, final int x1, final int y1) {
-      this.x0 = x0;
-      this.y0 = y0;
-      this.x1 = x1;
-      this.y1 = y1;
-    }
-
-    public void apply() {
-      renderDevice.enableClip(x0, y0, x1, y1);
-    }
-  }
 }
@@ -0,0 +1,175 @@
+package de.lessvoid.nifty.render;
+
+import java.util.concurrent.CountDownLatch;
+
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.spi.render.RenderImageData;
+
+/**
+ * An image that is preloaded by the NiftyImageManager. It's decoded in the background and uploaded on the
+ * render thread later. Until then it can already be used as a placeholder: the size is known as soon as the
+ * image has been decoded but nothing is rendered until it has been uploaded.
+ *
+ * The image data is written by the loader thread, everything else is only accessed from the render thread.
+ *
+ * @author void
+ */
+class PreloadedRenderImage implements RenderImage, Comparable < PreloadedRenderImage > {
+  private NiftyImageManager imageManager;
+  private String filename;
+  private boolean filterLinear;
+  private String key;
+  private long sequence;
+  private volatile int priority;
+  private volatile RenderImageData imageData;
+  private CountDownLatch loaded = new CountDownLatch(1);
+  private RenderImage renderImage;
+  private boolean used;
+  private boolean disposed;
+
+  PreloadedRenderImage(
+      final NiftyImageManager imageManager,
+      final String filename,
+      final boolean filterLinear,
+      final String key,
+      final int priority,
+      final long sequence) {
+    this.imageManager = imageManager;
+    this.filename = filename;
+    this.filterLinear = filterLinear;
+    this.key = key;
+    this.priority = priority;
+    this.sequence = sequence;
+  }
+
+  public int getWidth() {
+    if (renderImage != null) {
+      return renderImage.getWidth();
+    }
+    RenderImageData data = imageManager.waitForImageData(this);
+    if (data != null) {
+      return data.getWidth();
+    }
+    return imageManager.uploadNow(this).getWidth();
+  }
+
+  public int getHeight() {
+    if (renderImage != null) {
+      return renderImage.getHeight();
+    }
+    RenderImageData data = imageManager.waitForImageData(this);
+    if (data != null) {
+      return data.getHeight();
+    }
+    return imageManager.uploadNow(this).getHeight();
+  }
+
+  public void dispose() {
+    disposed = true;
+    if (renderImage != null) {
+      renderImage.dispose();
+      renderImage = null;
+    }
+  }
+
+  /**
+   * Higher priorities first and images with the same priority in the order they have been requested.
+   */
+  public int compareTo(final PreloadedRenderImage other) {
+    if (priority != other.priority) {
+      return priority > other.priority ? -1 : 1;
+    }
+    if (sequence != other.sequence) {
+      return sequence < other.sequence ? -1 : 1;
+    }
+    return 0;
+  }
+
+  /**
+   * Raise the priority of this image when it's not loaded yet.
+   * @param newPriority the new priority
+   */
+  public void setPriority(final int newPriority) {
+    if (renderImage == null && newPriority > priority) {
+      imageManager.changePriority(this, newPriority);
+    }
+  }
+
+  /**
+   * @return true when the image has been uploaded and can be rendered
+   */
+  public boolean isLoaded() {
+    return renderImage != null;
+  }
+
+  /**
+   * @return the uploaded RenderImage or null when it's not available yet
+   */
+  public RenderImage getRenderImage() {
+    return renderImage;
+  }
+
+  void setRenderImage(final RenderImage renderImage) {
+    this.renderImage = renderImage;
+    this.imageData = null;
+  }
+
+  void setPriorityInternal(final int newPriority) {
+    priority = newPriority;
+  }
+
+  int getPriority() {
+    return priority;
+  }
+
+  void setImageData(final RenderImageData imageData) {
+    this.imageData = imageData;
+  }
+
+  RenderImageData getImageData() {
+    return imageData;
+  }
+
+  void loaded() {
+    loaded.countDown();
+  }
+
+  void awaitLoaded() {
+    boolean interrupted = false;
+    while (loaded.getCount() > 0) {
+      try {
+        loaded.await();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  void use() {
+    used = true;
+    disposed = false;
+  }
+
+  boolean isUsed() {
+    return used;
+  }
+
+  boolean isDisposed() {
+    return disposed;
+  }
+
+  String getFilename() {
+    return filename;
+  }
+
+  boolean isFilterLinear() {
+    return filterLinear;
+  }
+
+  String getKey() {
+    return key;
+  }
+}
@@ -1,5 +1,7 @@
 package de.lessvoid.nifty.render;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -49,6 +51,50 @@ public enum RenderStateType {
    */
   blendMode;
 
+  /**
+   * Get the bit of this state for use in a render state mask.
+   * @return the mask with only the bit for this state set
+   */
+  public int getMask() {
+    return 1 << ordinal();
+  }
+
+  /**
+   * Get a mask with the bits of all states set.
+   * @return the mask for all states
+   */
+  public static int allStatesMask() {
+    return allStatesMask;
+  }
+
+  /**
+   * Get the states of the given mask as a set. The sets are shared and can't be modified so this doesn't
+   * create any new objects.
+   * @param mask the render state mask
+   * @return the set of all states that have their bit set in the mask
+   */
+  public static Set < RenderStateType > statesForMask(final int mask) {
+    return statesForMask[mask & allStatesMask];
+  }
+
+  /**
+   * Get the mask of the given set of states.
+   * @param states the states or null for all states
+   * @return the render state mask
+   */
+  public static int maskForStates(final Set < RenderStateType > states) {
+    if (states == null) {
+      return allStatesMask;
+    }
+    int mask = 0;
+    for (int i=0; i<values.length; i++) {
+      if (states.contains(values[i])) {
+        mask |= values[i].getMask();
+      }
+    }
+    return mask;
+  }
+
   /**
    * Helper to get all available RenderStates as a set.
    * @return the set of all available render states.
@@ -61,11 +107,32 @@ public enum RenderStateType {
     return new HashSet<RenderStateType>(allStates());
   }
 
+  private static RenderStateType[] values = values();
   private static Set < RenderStateType > allStates = new HashSet < RenderStateType >();
+  private static int allStatesMask;
+  private static Set < RenderStateType >[] statesForMask;
 
   static {
     for (RenderStateType state : RenderStateType.values()) {
       allStates.add(state);
+      allStatesMask |= state.getMask();
+    }
+
+    statesForMask = createStatesForMask();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Set < RenderStateType >[] createStatesForMask() {
+    Set < RenderStateType >[] result = new Set[allStatesMask + 1];
+    for (int mask=0; mask<result.length; mask++) {
+      EnumSet < RenderStateType > states = EnumSet.noneOf(RenderStateType.class);
+      for (RenderStateType state : RenderStateType.values()) {
+        if ((mask & state.getMask()) != 0) {
+          states.add(state);
+        }
+      }
+      result[mask] = Collections.unmodifiableSet(states);
     }
+    return result;
   }
 }
@@ -0,0 +1,164 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.lessvoid.nifty.spi.render.AtlasRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderImageData;
+
+/**
+ * Packs small images into a few large atlas pages so that they share a texture. Used by the NiftyImageManager when
+ * the RenderDevice implements AtlasRenderDevice.
+ *
+ * Images are removed from their page when they are disposed. Pages without any images left are disposed right
+ * away. When a page gets too empty it's compacted: compact() (called once per frame by the NiftyImageManager)
+ * loads the remaining images of that page again, moves them to other pages and disposes the page.
+ *
+ * @author void
+ */
+public class TextureAtlas {
+  public static final int DEFAULT_PAGE_SIZE = 1024;
+  public static final int DEFAULT_MAX_IMAGE_SIZE = 128;
+  private static final int PADDING = 1;
+  private static final float COMPACT_USAGE = 0.25f;
+
+  private Logger log = Logger.getLogger(TextureAtlas.class.getName());
+  private AtlasRenderDevice renderDevice;
+  private int pageSize;
+  private int maxImageSize;
+  private List < AtlasPage > pages = new ArrayList < AtlasPage >();
+  private boolean compactionNeeded;
+
+  public TextureAtlas(final AtlasRenderDevice renderDevice) {
+    this(renderDevice, DEFAULT_PAGE_SIZE, DEFAULT_MAX_IMAGE_SIZE);
+  }
+
+  /**
+   * Create a TextureAtlas.
+   * @param renderDevice the AtlasRenderDevice
+   * @param pageSize width and height of the atlas pages
+   * @param maxImageSize images that are wider or higher than this are not added to the atlas
+   */
+  public TextureAtlas(final AtlasRenderDevice renderDevice, final int pageSize, final int maxImageSize) {
+    this.renderDevice = renderDevice;
+    this.pageSize = pageSize;
+    this.maxImageSize = Math.min(maxImageSize, pageSize - 2 * PADDING);
+  }
+
+  /**
+   * Add the decoded image to the atlas. The image data is only copied, it's still owned by the caller.
+   * @param filename the filename of the image (needed to move the image when the atlas is compacted)
+   * @param filterLinear filter
+   * @param imageData the decoded image
+   * @return the AtlasRenderImage or null when the image is too large for the atlas
+   */
+  public AtlasRenderImage add(final String filename, final boolean filterLinear, final RenderImageData imageData) {
+    if (imageData.getWidth() <= 0 || imageData.getHeight() <= 0 ||
+        imageData.getWidth() > maxImageSize || imageData.getHeight() > maxImageSize) {
+      return null;
+    }
+    AtlasRenderImage image = new AtlasRenderImage(this, filename, filterLinear, imageData.getWidth(), imageData.getHeight());
+    place(image, imageData);
+    return image;
+  }
+
+  /**
+   * Compact the emptiest page that is used less than COMPACT_USAGE by moving its images to the other pages. At
+   * most one page is compacted per call because the images need to be loaded again. Images that don't fit on any
+   * other page stay where they are.
+   */
+  public void compact() {
+    if (!compactionNeeded) {
+      return;
+    }
+    compactionNeeded = false;
+    AtlasPage emptiest = null;
+    int candidates = 0;
+    for (AtlasPage page : pages) {
+      if (page.getUsage() < COMPACT_USAGE) {
+        candidates++;
+        if (emptiest == null || page.getUsage() < emptiest.getUsage()) {
+          emptiest = page;
+        }
+      }
+    }
+    if (emptiest == null || pages.size() < 2) {
+      return;
+    }
+
+    List < AtlasRenderImage > images = new ArrayList < AtlasRenderImage >(emptiest.getImages());
+    for (AtlasRenderImage image : images) {
+      RenderImageData imageData = load(image);
+      if (imageData != null) {
+        if (placeOnExistingPage(image, imageData, emptiest)) {
+          emptiest.remove(image);
+        }
+        imageData.dispose();
+      }
+    }
+    if (emptiest.isEmpty()) {
+      pages.remove(emptiest);
+      emptiest.dispose();
+      log.fine("compacted atlas page, [" + pages.size() + "] pages left");
+    }
+    compactionNeeded = candidates > 1;
+  }
+
+  /**
+   * @return the number of atlas pages
+   */
+  public int getPageCount() {
+    return pages.size();
+  }
+
+  /**
+   * Remove the image from its page.
+   * @param image the image
+   */
+  void release(final AtlasRenderImage image) {
+    AtlasPage page = image.getPage();
+    if (page == null) {
+      return;
+    }
+    page.remove(image);
+    image.setLocation(null, 0, 0);
+    if (page.isEmpty()) {
+      pages.remove(page);
+      page.dispose();
+    } else if (page.getUsage() < COMPACT_USAGE) {
+      compactionNeeded = true;
+    }
+  }
+
+  private void place(final AtlasRenderImage image, final RenderImageData imageData) {
+    if (placeOnExistingPage(image, imageData, null)) {
+      return;
+    }
+    AtlasPage page = new AtlasPage(renderDevice.createAtlasPage(pageSize, pageSize, image.isFilterLinear()), pageSize, PADDING, image.isFilterLinear());
+    page.add(image);
+    pages.add(page);
+    renderDevice.addToAtlasPage(page.getRenderImage(), imageData, image.getX(), image.getY());
+  }
+
+  private boolean placeOnExistingPage(final AtlasRenderImage image, final RenderImageData imageData, final AtlasPage excluded) {
+    for (int i=0; i<pages.size(); i++) {
+      AtlasPage page = pages.get(i);
+      if (page != excluded && page.isFilterLinear() == image.isFilterLinear() && page.add(image)) {
+        renderDevice.addToAtlasPage(page.getRenderImage(), imageData, image.getX(), image.getY());
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private RenderImageData load(final AtlasRenderImage image) {
+    try {
+      return renderDevice.loadImageData(image.getFilename(), image.isFilterLinear());
+    } catch (Exception e) {
+      log.log(Level.WARNING, "could not load [" + image.getFilename() + "] to compact the atlas", e);
+      return null;
+    }
+  }
+}
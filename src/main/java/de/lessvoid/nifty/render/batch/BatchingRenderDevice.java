@@ -0,0 +1,139 @@
+package de.lessvoid.nifty.render.batch;
+
+import java.io.IOException;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.spi.render.BatchRenderDevice;
+import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * A RenderDevice that records all render calls into a RenderCommandBuffer and flushes them to the
+ * wrapped BatchRenderDevice in endFrame(). All other calls are forwarded directly.
+ * @author void
+ */
+public class BatchingRenderDevice implements RenderDevice {
+  private BatchRenderDevice target;
+  private RenderCommandBuffer commandBuffer = new RenderCommandBuffer();
+
+  public BatchingRenderDevice(final BatchRenderDevice target) {
+    this.target = target;
+  }
+
+  public RenderImage createImage(final String filename, final boolean filterLinear) {
+    return target.createImage(filename, filterLinear);
+  }
+
+  public RenderFont createFont(final String filename) {
+    return target.createFont(filename);
+  }
+
+  public int getWidth() {
+    return target.getWidth();
+  }
+
+  public int getHeight() {
+    return target.getHeight();
+  }
+
+  public void beginFrame() {
+    commandBuffer.reset();
+    commandBuffer.setBlendMode(BlendMode.BLEND);
+    commandBuffer.disableClip();
+    target.beginFrame();
+  }
+
+  public void endFrame() {
+    commandBuffer.flush(target);
+    commandBuffer.reset();
+    target.endFrame();
+  }
+
+  /**
+   * Clearing the screen discards everything that has been rendered so far. So we simply forget all
+   * the commands we've recorded before we forward the call.
+   */
+  public void clear() {
+    commandBuffer.reset();
+    target.clear();
+  }
+
+  public void setBlendMode(final BlendMode renderMode) {
+    commandBuffer.setBlendMode(renderMode);
+  }
+
+  public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+    commandBuffer.addQuad(x, y, width, height, color);
+  }
+
+  public void renderQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color topLeft,
+      final Color topRight,
+      final Color bottomRight,
+      final Color bottomLeft) {
+    commandBuffer.addQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color,
+      final float imageScale) {
+    commandBuffer.addImage(image, x, y, width, height, color, imageScale);
+  }
+
+  public void renderImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final Color color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    commandBuffer.addImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+  }
+
+  public void renderFont(final RenderFont font, final String text, final int x, final int y, final Color fontColor, final float size) {
+    commandBuffer.addText(font, text, x, y, fontColor, size);
+  }
+
+  public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+    commandBuffer.enableClip(x0, y0, x1, y1);
+  }
+
+  public void disableClip() {
+    commandBuffer.disableClip();
+  }
+
+  public MouseCursor createMouseCursor(final String filename, final int hotspotX, final int hotspotY) throws IOException {
+    return target.createMouseCursor(filename, hotspotX, hotspotY);
+  }
+
+  public void enableMouseCursor(final MouseCursor mouseCursor) {
+    target.enableMouseCursor(mouseCursor);
+  }
+
+  public void disableMouseCursor() {
+    target.disableMouseCursor();
+  }
+
+  public RenderCommandBuffer getCommandBuffer() {
+    return commandBuffer;
+  }
+}
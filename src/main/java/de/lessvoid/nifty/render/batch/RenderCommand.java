@@ -0,0 +1,100 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * A single recorded primitive. Instances are owned by the RenderCommandBuffer and reused every frame, so
+ * all the values (including colors) are copied when the command is recorded.
+ * @author void
+ */
+class RenderCommand {
+  static final int QUAD = 0;
+  static final int QUAD_GRADIENT = 1;
+  static final int IMAGE = 2;
+  static final int SUB_IMAGE = 3;
+  static final int TEXT = 4;
+
+  int type;
+  RenderImage image;
+  RenderFont font;
+  String text;
+
+  int x;
+  int y;
+  int width;
+  int height;
+  int srcX;
+  int srcY;
+  int srcW;
+  int srcH;
+  int centerX;
+  int centerY;
+  float scale;
+
+  final Color color = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  final Color topRight = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  final Color bottomRight = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+  final Color bottomLeft = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+
+  /**
+   * screen space bounds of this primitive. used to decide if the primitive can be moved into an older batch.
+   */
+  int minX;
+  int minY;
+  int maxX;
+  int maxY;
+
+  /**
+   * index of the next command in the same batch or -1 if this is the last one.
+   */
+  int next;
+
+  /**
+   * The texture this command is using or null for untextured quads.
+   * @return the RenderImage or RenderFont of this command
+   */
+  Object getTexture() {
+    if (image != null) {
+      return image;
+    }
+    return font;
+  }
+
+  /**
+   * Replay this command on the given RenderDevice.
+   * @param renderDevice the device to render to
+   */
+  void render(final RenderDevice renderDevice) {
+    switch (type) {
+      case QUAD:
+        renderDevice.renderQuad(x, y, width, height, color);
+        break;
+      case QUAD_GRADIENT:
+        renderDevice.renderQuad(x, y, width, height, color, topRight, bottomRight, bottomLeft);
+        break;
+      case IMAGE:
+        renderDevice.renderImage(image, x, y, width, height, color, scale);
+        break;
+      case SUB_IMAGE:
+        renderDevice.renderImage(image, x, y, width, height, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+        break;
+      case TEXT:
+        renderDevice.renderFont(font, text, x, y, color, scale);
+        break;
+    }
+  }
+
+  boolean intersects(final int otherMinX, final int otherMinY, final int otherMaxX, final int otherMaxY) {
+    return minX < otherMaxX && otherMinX < maxX && minY < otherMaxY && otherMinY < maxY;
+  }
+
+  static void copyColor(final Color target, final Color source) {
+    target.setRed(source.getRed());
+    target.setGreen(source.getGreen());
+    target.setBlue(source.getBlue());
+    target.setAlpha(source.getAlpha());
+  }
+}
@@ -0,0 +1,390 @@
+package de.lessvoid.nifty.render.batch;
+
+import java.util.ArrayList;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.spi.render.BatchRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+/**
+ * Records all primitives of a frame and merges them into batches that share the same texture, blend mode
+ * and clip rectangle.
+ *
+ * Primitives are only moved into an older batch when they don't overlap anything that has been recorded
+ * after that batch. This way the visible result is exactly the same as rendering all primitives in the
+ * order they have been recorded. The RenderCommand and batch instances are kept between frames so that
+ * recording a frame doesn't create any garbage once the buffer has grown to its working size.
+ *
+ * @author void
+ */
+public class RenderCommandBuffer {
+
+  /**
+   * How many batches we look back to find a batch with the same state. This keeps recording linear.
+   */
+  private static final int MAX_BATCH_LOOK_BACK = 16;
+
+  private ArrayList<RenderCommand> commands = new ArrayList<RenderCommand>();
+  private int commandCount;
+
+  private ArrayList<RenderBatch> batches = new ArrayList<RenderBatch>();
+  private int batchCount;
+
+  private BlendMode blendMode = BlendMode.BLEND;
+  private boolean clipEnabled;
+  private int clipX0;
+  private int clipY0;
+  private int clipX1;
+  private int clipY1;
+
+  /**
+   * Forget all recorded commands. This is called at the beginning of each frame.
+   */
+  public void reset() {
+    for (int i=0; i<commandCount; i++) {
+      RenderCommand command = commands.get(i);
+      command.image = null;
+      command.font = null;
+      command.text = null;
+    }
+    commandCount = 0;
+    batchCount = 0;
+  }
+
+  /**
+   * Change the blend mode for all commands recorded from now on.
+   * @param newBlendMode blend mode
+   */
+  public void setBlendMode(final BlendMode newBlendMode) {
+    blendMode = newBlendMode;
+  }
+
+  /**
+   * Enable clipping for all commands recorded from now on.
+   * @param x0 x0
+   * @param y0 y0
+   * @param x1 x1
+   * @param y1 y1
+   */
+  public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+    clipEnabled = true;
+    clipX0 = x0;
+    clipY0 = y0;
+    clipX1 = x1;
+    clipY1 = y1;
+  }
+
+  /**
+   * Disable clipping for all commands recorded from now on.
+   */
+  public void disableClip() {
+    clipEnabled = false;
+  }
+
+  public void addQuad(final int x, final int y, final int width, final int height, final Color color) {
+    RenderCommand command = nextCommand(RenderCommand.QUAD);
+    setArea(command, x, y, width, height);
+    RenderCommand.copyColor(command.color, color);
+    setBounds(command, x, y, x + width, y + height);
+    add(command);
+  }
+
+  public void addQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color topLeft,
+      final Color topRight,
+      final Color bottomRight,
+      final Color bottomLeft) {
+    RenderCommand command = nextCommand(RenderCommand.QUAD_GRADIENT);
+    setArea(command, x, y, width, height);
+    RenderCommand.copyColor(command.color, topLeft);
+    RenderCommand.copyColor(command.topRight, topRight);
+    RenderCommand.copyColor(command.bottomRight, bottomRight);
+    RenderCommand.copyColor(command.bottomLeft, bottomLeft);
+    setBounds(command, x, y, x + width, y + height);
+    add(command);
+  }
+
+  public void addImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final Color color,
+      final float imageScale) {
+    RenderCommand command = nextCommand(RenderCommand.IMAGE);
+    command.image = image;
+    setArea(command, x, y, width, height);
+    RenderCommand.copyColor(command.color, color);
+    command.scale = imageScale;
+    setScaledBounds(command, x, y, width, height, x + width / 2, y + height / 2, imageScale);
+    add(command);
+  }
+
+  public void addImage(
+      final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      final Color color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    RenderCommand command = nextCommand(RenderCommand.SUB_IMAGE);
+    command.image = image;
+    setArea(command, x, y, w, h);
+    command.srcX = srcX;
+    command.srcY = srcY;
+    command.srcW = srcW;
+    command.srcH = srcH;
+    RenderCommand.copyColor(command.color, color);
+    command.scale = scale;
+    command.centerX = centerX;
+    command.centerY = centerY;
+    setScaledBounds(command, x, y, w, h, centerX, centerY, scale);
+    add(command);
+  }
+
+  public void addText(final RenderFont font, final String text, final int x, final int y, final Color fontColor, final float size) {
+    RenderCommand command = nextCommand(RenderCommand.TEXT);
+    command.font = font;
+    command.text = text;
+    command.x = x;
+    command.y = y;
+    RenderCommand.copyColor(command.color, fontColor);
+    command.scale = size;
+    if (font == null || text == null) {
+      setBounds(command, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    } else {
+      setBounds(command, x, y, x + (int) Math.ceil(font.getWidth(text) * size), y + (int) Math.ceil(font.getHeight() * size));
+    }
+    add(command);
+  }
+
+  /**
+   * Submit all recorded batches to the given device. The buffer is left unchanged. Call reset() to start
+   * a new frame.
+   * @param renderDevice the device to render to
+   */
+  public void flush(final BatchRenderDevice renderDevice) {
+    BlendMode currentBlendMode = null;
+    boolean firstBatch = true;
+    boolean currentClipEnabled = false;
+    int currentClipX0 = 0;
+    int currentClipY0 = 0;
+    int currentClipX1 = 0;
+    int currentClipY1 = 0;
+
+    for (int i=0; i<batchCount; i++) {
+      RenderBatch batch = batches.get(i);
+      if (batch.blendMode != currentBlendMode) {
+        renderDevice.setBlendMode(batch.blendMode);
+        currentBlendMode = batch.blendMode;
+      }
+      if (batch.clipEnabled) {
+        if (firstBatch ||
+            !currentClipEnabled ||
+            currentClipX0 != batch.clipX0 ||
+            currentClipY0 != batch.clipY0 ||
+            currentClipX1 != batch.clipX1 ||
+            currentClipY1 != batch.clipY1) {
+          renderDevice.enableClip(batch.clipX0, batch.clipY0, batch.clipX1, batch.clipY1);
+          currentClipEnabled = true;
+          currentClipX0 = batch.clipX0;
+          currentClipY0 = batch.clipY0;
+          currentClipX1 = batch.clipX1;
+          currentClipY1 = batch.clipY1;
+        }
+      } else if (firstBatch || currentClipEnabled) {
+        renderDevice.disableClip();
+        currentClipEnabled = false;
+      }
+      firstBatch = false;
+
+      renderDevice.beginBatch();
+      int index = batch.first;
+      while (index != -1) {
+        RenderCommand command = commands.get(index);
+        command.render(renderDevice);
+        index = command.next;
+      }
+      renderDevice.endBatch();
+    }
+
+    if (currentClipEnabled) {
+      renderDevice.disableClip();
+    }
+  }
+
+  /**
+   * @return number of primitives recorded this frame
+   */
+  public int getCommandCount() {
+    return commandCount;
+  }
+
+  /**
+   * @return number of batches the recorded primitives have been merged into
+   */
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  private RenderCommand nextCommand(final int type) {
+    RenderCommand command;
+    if (commandCount < commands.size()) {
+      command = commands.get(commandCount);
+    } else {
+      command = new RenderCommand();
+      commands.add(command);
+    }
+    commandCount++;
+    command.type = type;
+    command.next = -1;
+    return command;
+  }
+
+  private void setArea(final RenderCommand command, final int x, final int y, final int width, final int height) {
+    command.x = x;
+    command.y = y;
+    command.width = width;
+    command.height = height;
+  }
+
+  private void setScaledBounds(
+      final RenderCommand command,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      final int centerX,
+      final int centerY,
+      final float scale) {
+    if (scale == 1.0f) {
+      setBounds(command, x, y, x + width, y + height);
+      return;
+    }
+    int x0 = (int) Math.floor(centerX + (x - centerX) * scale);
+    int y0 = (int) Math.floor(centerY + (y - centerY) * scale);
+    int x1 = (int) Math.ceil(centerX + (x + width - centerX) * scale);
+    int y1 = (int) Math.ceil(centerY + (y + height - centerY) * scale);
+    setBounds(command, Math.min(x0, x1), Math.min(y0, y1), Math.max(x0, x1), Math.max(y0, y1));
+  }
+
+  private void setBounds(final RenderCommand command, final int minX, final int minY, final int maxX, final int maxY) {
+    if (clipEnabled) {
+      command.minX = Math.max(minX, clipX0);
+      command.minY = Math.max(minY, clipY0);
+      command.maxX = Math.min(maxX, clipX1);
+      command.maxY = Math.min(maxY, clipY1);
+    } else {
+      command.minX = minX;
+      command.minY = minY;
+      command.maxX = maxX;
+      command.maxY = maxY;
+    }
+  }
+
+  private void add(final RenderCommand command) {
+    Object texture = command.getTexture();
+    int lookBackEnd = Math.max(0, batchCount - MAX_BATCH_LOOK_BACK);
+    for (int i=batchCount - 1; i>=lookBackEnd; i--) {
+      RenderBatch batch = batches.get(i);
+      if (batch.matches(texture, blendMode, clipEnabled, clipX0, clipY0, clipX1, clipY1)) {
+        batch.append(command, commandCount - 1, commands);
+        return;
+      }
+      // we can't move the command in front of something it overlaps
+      if (command.intersects(batch.minX, batch.minY, batch.maxX, batch.maxY)) {
+        break;
+      }
+    }
+    nextBatch(texture).append(command, commandCount - 1, commands);
+  }
+
+  private RenderBatch nextBatch(final Object texture) {
+    RenderBatch batch;
+    if (batchCount < batches.size()) {
+      batch = batches.get(batchCount);
+    } else {
+      batch = new RenderBatch();
+      batches.add(batch);
+    }
+    batchCount++;
+    batch.texture = texture;
+    batch.blendMode = blendMode;
+    batch.clipEnabled = clipEnabled;
+    batch.clipX0 = clipX0;
+    batch.clipY0 = clipY0;
+    batch.clipX1 = clipX1;
+    batch.clipY1 = clipY1;
+    batch.first = -1;
+    batch.last = -1;
+    return batch;
+  }
+
+  /**
+   * A run of commands that can be rendered with the same device state.
+   * @author void
+   */
+  private static class RenderBatch {
+    private Object texture;
+    private BlendMode blendMode;
+    private boolean clipEnabled;
+    private int clipX0;
+    private int clipY0;
+    private int clipX1;
+    private int clipY1;
+    private int first;
+    private int last;
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+
+    private boolean matches(
+        final Object otherTexture,
+        final BlendMode otherBlendMode,
+        final boolean otherClipEnabled,
+        final int otherClipX0,
+        final int otherClipY0,
+        final int otherClipX1,
+        final int otherClipY1) {
+      if (texture != otherTexture || blendMode != otherBlendMode || clipEnabled != otherClipEnabled) {
+        return false;
+      }
+      if (!clipEnabled) {
+        return true;
+      }
+      return clipX0 == otherClipX0 && clipY0 == otherClipY0 && clipX1 == otherClipX1 && clipY1 == otherClipY1;
+    }
+
+    private void append(final RenderCommand command, final int commandIndex, final ArrayList<RenderCommand> commands) {
+      if (first == -1) {
+        first = commandIndex;
+        minX = command.minX;
+        minY = command.minY;
+        maxX = command.maxX;
+        maxY = command.maxY;
+      } else {
+        commands.get(last).next = commandIndex;
+        minX = Math.min(minX, command.minX);
+        minY = Math.min(minY, command.minY);
+        maxX = Math.max(maxX, command.maxX);
+        maxY = Math.max(maxY, command.maxY);
+      }
+      last = commandIndex;
+    }
+  }
+}
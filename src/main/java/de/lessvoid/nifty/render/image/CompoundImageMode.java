@@ -1,6 +1,8 @@
 package de.lessvoid.nifty.render.image;
 
 import de.lessvoid.nifty.Size;
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.render.AtlasRenderImage;
 import de.lessvoid.nifty.render.NiftyImage;
 import de.lessvoid.nifty.render.image.areaprovider.AreaProvider;
 import de.lessvoid.nifty.render.image.renderstrategy.RenderStrategy;
@@ -25,8 +27,15 @@ public class CompoundImageMode implements ImageMode {
 	@Override
 	public void render(RenderDevice renderDevice, RenderImage renderImage, int x, int y, int width, int height,
 			Color color, float scale) {
-		m_renderStrategy.render(renderDevice, renderImage, m_areaProvider.getSourceArea(renderImage), x, y, width,
-				height, color, scale);
+		Box sourceArea = m_areaProvider.getSourceArea(renderImage);
+		if (renderImage instanceof AtlasRenderImage) {
+			// render the same area of the atlas page instead
+			AtlasRenderImage atlasImage = (AtlasRenderImage) renderImage;
+			m_renderStrategy.render(renderDevice, atlasImage.getPageImage(), atlasImage.getPageArea(sourceArea), x, y,
+					width, height, color, scale);
+			return;
+		}
+		m_renderStrategy.render(renderDevice, renderImage, sourceArea, x, y, width, height, color, scale);
 	}
 
 	@Override
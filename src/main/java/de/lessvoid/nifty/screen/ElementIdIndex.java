@@ -0,0 +1,257 @@
+package de.lessvoid.nifty.screen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.lessvoid.nifty.elements.Element;
+
+/**
+ * Maps element ids to the elements of a Screen so that findElementByName() doesn't need to search the
+ * whole element tree.
+ *
+ * Every element is stored with its id and additionally with every part of its id that starts with a "#".
+ * An element with the id "dialog#panel#button" can be found with "dialog#panel#button", "#panel#button"
+ * and "#button". This is exactly what the "#id" lookup in Element.findElementByName() matches.
+ *
+ * When there are several candidates the one that comes first in the element tree is returned, which is
+ * the same element a search of the element tree would have found. Candidates are verified on every
+ * lookup, so an element that has been moved or is not part of the layers anymore is never returned.
+ *
+ * @author void
+ */
+class ElementIdIndex {
+
+  /**
+   * The value is either a single Element or an ArrayList of Elements when the key is used more than once.
+   * Most ids are unique and so we don't need a list for every element.
+   */
+  private Map < String, Object > index = new HashMap < String, Object >();
+
+  /**
+   * Add the element with its current id.
+   * @param element the element
+   * @return true when there already was another element registered with exactly the same id
+   */
+  public boolean add(final Element element) {
+    String id = element.getId();
+    if (id == null) {
+      return false;
+    }
+    boolean conflict = false;
+    if (!id.startsWith("#")) {
+      conflict = hasOtherElementWithId(id, element);
+      addKey(id, element);
+    }
+    int pos = id.indexOf('#');
+    while (pos != -1) {
+      String key = id.substring(pos);
+      if (pos == 0) {
+        conflict = hasOtherElementWithId(key, element);
+      }
+      addKey(key, element);
+      pos = id.indexOf('#', pos + 1);
+    }
+    return conflict;
+  }
+
+  /**
+   * Remove the element. This must be called with the same id the element had when it was added.
+   * @param element the element
+   */
+  public void remove(final Element element) {
+    String id = element.getId();
+    if (id == null) {
+      return;
+    }
+    if (!id.startsWith("#")) {
+      removeKey(id, element);
+    }
+    int pos = id.indexOf('#');
+    while (pos != -1) {
+      removeKey(id.substring(pos), element);
+      pos = id.indexOf('#', pos + 1);
+    }
+  }
+
+  /**
+   * Find the first element in tree order that matches the name.
+   * @param name the id or "#id" to look for
+   * @param base when not null only the base element and elements below it are returned
+   * @param layers only elements that are part of these layers are returned (only used when base is null)
+   * @return the element or null when there is no matching element in the index
+   */
+  public Element find(final String name, final Element base, final List < Element > layers) {
+    Object value = index.get(name);
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Element) {
+      Element element = (Element) value;
+      if (isValid(element, name, base, layers)) {
+        return element;
+      }
+      return null;
+    }
+
+    Element result = null;
+    int resultLayer = -1;
+    ArrayList < ?> list = (ArrayList < ?>) value;
+    for (int i=0; i<list.size(); i++) {
+      Element element = (Element) list.get(i);
+      if (!isValid(element, name, base, layers)) {
+        continue;
+      }
+      int layer = base == null ? findLayer(element, layers) : 0;
+      if (result == null || layer < resultLayer || (layer == resultLayer && isBefore(element, result))) {
+        result = element;
+        resultLayer = layer;
+      }
+    }
+    return result;
+  }
+
+  private boolean hasOtherElementWithId(final String key, final Element element) {
+    Object value = index.get(key);
+    if (value == null) {
+      return false;
+    }
+    if (value instanceof Element) {
+      return value != element && key.equals(((Element) value).getId());
+    }
+    ArrayList < ?> list = (ArrayList < ?>) value;
+    for (int i=0; i<list.size(); i++) {
+      Element other = (Element) list.get(i);
+      if (other != element && key.equals(other.getId())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addKey(final String key, final Element element) {
+    Object value = index.get(key);
+    if (value == null) {
+      index.put(key, element);
+    } else if (value instanceof Element) {
+      if (value != element) {
+        ArrayList < Element > list = new ArrayList < Element >(2);
+        list.add((Element) value);
+        list.add(element);
+        index.put(key, list);
+      }
+    } else {
+      ArrayList < Element > list = (ArrayList < Element >) value;
+      if (!list.contains(element)) {
+        list.add(element);
+      }
+    }
+  }
+
+  private void removeKey(final String key, final Element element) {
+    Object value = index.get(key);
+    if (value == null) {
+      return;
+    }
+    if (value instanceof Element) {
+      if (value == element) {
+        index.remove(key);
+      }
+      return;
+    }
+    ArrayList < ?> list = (ArrayList < ?>) value;
+    list.remove(element);
+    if (list.size() == 1) {
+      index.put(key, list.get(0));
+    } else if (list.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  private boolean isValid(final Element element, final String name, final Element base, final List < Element > layers) {
+    String id = element.getId();
+    if (id == null) {
+      return false;
+    }
+    if (name.startsWith("#")) {
+      if (!id.endsWith(name)) {
+        return false;
+      }
+    } else if (!id.equals(name)) {
+      return false;
+    }
+    if (base != null) {
+      return isSelfOrAncestor(base, element);
+    }
+    return findLayer(element, layers) != -1;
+  }
+
+  private boolean isSelfOrAncestor(final Element ancestor, final Element element) {
+    Element current = element;
+    while (current != null) {
+      if (current == ancestor) {
+        return true;
+      }
+      current = current.getParent();
+    }
+    return false;
+  }
+
+  private int findLayer(final Element element, final List < Element > layers) {
+    Element current = element;
+    while (current != null) {
+      int layer = layers.indexOf(current);
+      if (layer != -1) {
+        return layer;
+      }
+      current = current.getParent();
+    }
+    return -1;
+  }
+
+  /**
+   * Check if element a comes before element b when the element tree is searched depth first.
+   * @param a element a
+   * @param b element b
+   * @return true when a is found first
+   */
+  private boolean isBefore(final Element a, final Element b) {
+    Element currentA = a;
+    Element currentB = b;
+    int depthA = getDepth(a);
+    int depthB = getDepth(b);
+    while (depthA > depthB) {
+      currentA = currentA.getParent();
+      depthA--;
+    }
+    while (depthB > depthA) {
+      currentB = currentB.getParent();
+      depthB--;
+    }
+    if (currentA == currentB) {
+      // one is the parent of the other one and the parent is found first
+      return currentA == a;
+    }
+    while (currentA.getParent() != currentB.getParent()) {
+      currentA = currentA.getParent();
+      currentB = currentB.getParent();
+    }
+    Element parent = currentA.getParent();
+    if (parent == null) {
+      return false;
+    }
+    return parent.getElements().indexOf(currentA) < parent.getElements().indexOf(currentB);
+  }
+
+  private int getDepth(final Element element) {
+    int depth = 0;
+    Element current = element.getParent();
+    while (current != null) {
+      depth++;
+      current = current.getParent();
+    }
+    return depth;
+  }
+}
@@ -0,0 +1,292 @@
+package de.lessvoid.nifty.screen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+
+/**
+ * A spatial index of all the elements of a single layer that are visible to mouse events. It replaces
+ * walking the whole element tree with Element.buildMouseOverElements() for every mouse event.
+ *
+ * All elements that are visible to mouse events are kept in a list in the same order the element tree
+ * would be walked. The index in this list is the z-order of the element. Additionally the area of the layer
+ * is split into a uniform grid and each cell knows which of these elements overlap it. For a mouse event we
+ * only look at the candidates of the cell below the mouse and add the ones the mouse is really inside of as
+ * mouse over elements.
+ *
+ * Elements the mouse is not over only get the mouse event when they need it:
+ * <ul>
+ * <li>the elements the mouse has been over with the last event (to end hover effects),</li>
+ * <li>elements a mouse button has been pressed on and not released yet (drag and release),</li>
+ * <li>the element with the exclusive mouse focus and</li>
+ * <li>elements with a hover Falloff (the hover area of these can be larger than the element).</li>
+ * </ul>
+ * All elements are given to the MouseOverHandler in z-order, so the front-to-back order of the mouse event
+ * processing doesn't change.
+ *
+ * The index is rebuilt when the layout version of the layer changed, which happens after the layout
+ * of any element of the layer has been done again or an element has been added.
+ *
+ * @author void
+ */
+class MouseOverIndex {
+  private static final int CELL_SIZE = 64;
+
+  private ArrayList < Element > elements = new ArrayList < Element >();
+  private Map < Element, Integer > zOrder = new IdentityHashMap < Element, Integer >();
+  private boolean valid;
+  private int layoutVersion;
+
+  private int gridX;
+  private int gridY;
+  private int columns;
+  private int rows;
+
+  /**
+   * for each cell the index of its first entry in cellEntries. cellStart[cell + 1] is the end.
+   */
+  private int[] cellStart = new int[1];
+
+  /**
+   * indices into elements for all cells (sorted by cell and then by element index).
+   */
+  private int[] cellEntries = new int[0];
+
+  /**
+   * indices into elements of the elements with a hover Falloff.
+   */
+  private int[] falloffEntries = new int[0];
+
+  /**
+   * indices into elements of the elements the last event has been given to and if the mouse was over them.
+   */
+  private int[] lastEntries = new int[0];
+  private boolean[] lastMouseOver = new boolean[0];
+  private int lastCount;
+
+  /**
+   * the candidates for the current event. each entry is the index into elements shifted left by one. the
+   * lowest bit is set when the element needs the event even when the mouse isn't over it.
+   */
+  private int[] candidates = new int[16];
+  private int candidateCount;
+
+  /**
+   * Add all elements of the given layer that need the mouse event to the MouseOverHandler. The mouse over
+   * elements are the same as with layer.buildMouseOverElements().
+   * @param layer the layer element
+   * @param focusHandler the FocusHandler of the screen
+   * @param mouseEvent the mouse event
+   * @param mouseOverHandler the MouseOverHandler to add to
+   */
+  public void buildMouseOverElements(
+      final Element layer,
+      final FocusHandler focusHandler,
+      final NiftyMouseInputEvent mouseEvent,
+      final MouseOverHandler mouseOverHandler) {
+    if (!valid || layoutVersion != layer.getLayoutVersion()) {
+      rebuild(layer);
+    }
+
+    int mouseX = mouseEvent.getMouseX();
+    int mouseY = mouseEvent.getMouseY();
+    int cell = cellRow(mouseY) * columns + cellColumn(mouseX);
+
+    candidateCount = 0;
+    for (int i=cellStart[cell]; i<cellStart[cell + 1]; i++) {
+      addCandidate(cellEntries[i], false);
+    }
+    for (int i=0; i<falloffEntries.length; i++) {
+      addCandidate(falloffEntries[i], true);
+    }
+    for (int i=0; i<lastCount; i++) {
+      if (lastMouseOver[i] || elements.get(lastEntries[i]).isMouseDown()) {
+        addCandidate(lastEntries[i], true);
+      }
+    }
+    Integer mouseFocus = zOrder.get(focusHandler.getMouseFocusElement());
+    if (mouseFocus != null) {
+      addCandidate(mouseFocus, true);
+    }
+    // sorting keeps the entries of the same element next to each other
+    Arrays.sort(candidates, 0, candidateCount);
+
+    ensureLastCapacity(candidateCount);
+    lastCount = 0;
+    int i = 0;
+    while (i < candidateCount) {
+      int index = candidates[i] >> 1;
+      boolean needsEvent = false;
+      while (i < candidateCount && (candidates[i] >> 1) == index) {
+        needsEvent |= (candidates[i] & 1) != 0;
+        i++;
+      }
+      Element element = elements.get(index);
+      if (!element.canHandleMouseEvents()) {
+        continue;
+      }
+      boolean mouseOver = element.isMouseInsideElement(mouseX, mouseY);
+      if (mouseOver) {
+        mouseOverHandler.addMouseOverElement(element);
+      } else if (needsEvent) {
+        mouseOverHandler.addMouseElement(element);
+      } else {
+        continue;
+      }
+      lastEntries[lastCount] = index;
+      lastMouseOver[lastCount] = mouseOver;
+      lastCount++;
+    }
+  }
+
+  private void addCandidate(final int index, final boolean needsEvent) {
+    if (candidateCount == candidates.length) {
+      candidates = Arrays.copyOf(candidates, candidates.length * 2);
+    }
+    candidates[candidateCount++] = (index << 1) | (needsEvent ? 1 : 0);
+  }
+
+  private void ensureLastCapacity(final int count) {
+    if (lastEntries.length < count) {
+      int size = Math.max(count, lastEntries.length * 2);
+      lastEntries = Arrays.copyOf(lastEntries, size);
+      lastMouseOver = Arrays.copyOf(lastMouseOver, size);
+    }
+  }
+
+  /**
+   * Forget everything. The index will be rebuilt on the next mouse event.
+   */
+  public void invalidate() {
+    valid = false;
+  }
+
+  /**
+   * @return number of elements in the index
+   */
+  public int getElementCount() {
+    return elements.size();
+  }
+
+  private void rebuild(final Element layer) {
+    // the elements of the last event are kept by element because their indices change
+    Element[] lastElements = new Element[lastCount];
+    for (int i=0; i<lastCount; i++) {
+      lastElements[i] = elements.get(lastEntries[i]);
+    }
+
+    elements.clear();
+    zOrder.clear();
+    collectElements(layer);
+
+    int newLastCount = 0;
+    for (int i=0; i<lastElements.length; i++) {
+      Integer index = zOrder.get(lastElements[i]);
+      if (index != null) {
+        lastEntries[newLastCount] = index;
+        lastMouseOver[newLastCount] = lastMouseOver[i];
+        newLastCount++;
+      }
+    }
+    lastCount = newLastCount;
+
+    int falloffCount = 0;
+    for (int i=0; i<elements.size(); i++) {
+      if (elements.get(i).getFalloff() != null) {
+        falloffCount++;
+      }
+    }
+    falloffEntries = new int[falloffCount];
+    falloffCount = 0;
+    for (int i=0; i<elements.size(); i++) {
+      if (elements.get(i).getFalloff() != null) {
+        falloffEntries[falloffCount++] = i;
+      }
+    }
+
+    gridX = layer.getX();
+    gridY = layer.getY();
+    columns = Math.max(1, (layer.getWidth() + CELL_SIZE - 1) / CELL_SIZE);
+    rows = Math.max(1, (layer.getHeight() + CELL_SIZE - 1) / CELL_SIZE);
+    int cellCount = columns * rows;
+
+    // first pass: count the entries of every cell
+    int[] start = new int[cellCount + 1];
+    for (int i=0; i<elements.size(); i++) {
+      Element element = elements.get(i);
+      int col0 = cellColumn(element.getX());
+      int col1 = cellColumn(element.getX() + element.getWidth());
+      int row0 = cellRow(element.getY());
+      int row1 = cellRow(element.getY() + element.getHeight());
+      for (int row=row0; row<=row1; row++) {
+        for (int col=col0; col<=col1; col++) {
+          start[row * columns + col + 1]++;
+        }
+      }
+    }
+    for (int cell=0; cell<cellCount; cell++) {
+      start[cell + 1] += start[cell];
+    }
+
+    // second pass: fill the entries. elements are processed in order so every cell stays sorted.
+    int[] entries = new int[start[cellCount]];
+    int[] next = new int[cellCount];
+    System.arraycopy(start, 0, next, 0, cellCount);
+    for (int i=0; i<elements.size(); i++) {
+      Element element = elements.get(i);
+      int col0 = cellColumn(element.getX());
+      int col1 = cellColumn(element.getX() + element.getWidth());
+      int row0 = cellRow(element.getY());
+      int row1 = cellRow(element.getY() + element.getHeight());
+      for (int row=row0; row<=row1; row++) {
+        for (int col=col0; col<=col1; col++) {
+          entries[next[row * columns + col]++] = i;
+        }
+      }
+    }
+
+    cellStart = start;
+    cellEntries = entries;
+    layoutVersion = layer.getLayoutVersion();
+    valid = true;
+  }
+
+  private void collectElements(final Element element) {
+    if (element.isVisibleToMouseEvents()) {
+      zOrder.put(element, elements.size());
+      elements.add(element);
+    }
+    for (int i=0; i<element.getElements().size(); i++) {
+      collectElements(element.getElements().get(i));
+    }
+  }
+
+  /**
+   * Elements (and the mouse) outside of the layer are clamped to the border cells. Because clamping keeps
+   * the order of the values a point inside an element always ends up in one of the cells of the element.
+   * @param x x position
+   * @return column
+   */
+  private int cellColumn(final int x) {
+    return clamp((x - gridX) / CELL_SIZE, columns);
+  }
+
+  private int cellRow(final int y) {
+    return clamp((y - gridY) / CELL_SIZE, rows);
+  }
+
+  private int clamp(final int value, final int count) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value >= count) {
+      return count - 1;
+    }
+    return value;
+  }
+}
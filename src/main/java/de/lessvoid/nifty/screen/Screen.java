@@ -1,15 +1,16 @@
 package de.lessvoid.nifty.screen;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.NiftyStatistics;
 import de.lessvoid.nifty.NiftyStopwatch;
 import de.lessvoid.nifty.controls.Controller;
 import de.lessvoid.nifty.controls.FocusHandler;
@@ -53,15 +54,19 @@ public class Screen {
   private TimeProvider timeProvider;
   private FocusHandler focusHandler;
   private MouseOverHandler mouseOverHandler;
+  private Map < Element, MouseOverIndex > mouseOverIndices = new HashMap < Element, MouseOverIndex >();
   private Nifty nifty;
   private List < InputHandlerWithMapping > postInputHandlers = new ArrayList < InputHandlerWithMapping >();
   private List < InputHandlerWithMapping > preInputHandlers = new ArrayList < InputHandlerWithMapping >();
   private Element rootElement;
   private String defaultFocusElementId;
   private boolean running = false;
-  private Set<String> registeredIds = new HashSet<String>();
+  private ElementIdIndex elementIdIndex = new ElementIdIndex();
 
   private boolean bound;
+  private int updateDepth;
+  private boolean layoutPending;
+  private List < Element > elementsToStart = new ArrayList < Element >();
 
   public Screen(
       final Nifty newNifty,
@@ -80,16 +85,29 @@ public class Screen {
     mouseOverHandler = new MouseOverHandler();
   }
 
-  public void registerElementId(final String id) {
-    if (id != null && registeredIds.contains(id)) {
-      log.warning("Possible conflicting id [" + id + "] detected. Consider making all Ids unique or use #id in control-definitions.");
-    } else {
-      registeredIds.add(id);
+  /**
+   * Register the element with its current id so that it can be found with findElementByName().
+   * @param element the element
+   */
+  public void registerElement(final Element element) {
+    if (elementIdIndex.add(element)) {
+      log.warning("Possible conflicting id [" + element.getId() + "] detected. Consider making all Ids unique or use #id in control-definitions.");
     }
   }
 
-  public void unregisterElementId(final String id) {
-    registeredIds.remove(id);
+  /**
+   * Remove the element from the id index. This must be called before the id of the element changes.
+   * @param element the element
+   */
+  public void unregisterElement(final Element element) {
+    elementIdIndex.remove(element);
+  }
+
+  private void registerElementTree(final Element element) {
+    elementIdIndex.add(element);
+    for (int i=0; i<element.getElements().size(); i++) {
+      registerElementTree(element.getElements().get(i));
+    }
   }
 
   public String getScreenId() {
@@ -200,7 +218,7 @@ public class Screen {
 
     focusHandler.resetFocusElements();
     resetLayers();
-    layoutLayers();
+    layoutLayersNow();
     bindControls();
 
     // bind happens right BEFORE the onStartScreen
@@ -229,15 +247,91 @@ public class Screen {
     startLayers(EffectEventId.onEndScreen, endNotify);
   }
 
+  /**
+   * Layout all layers of this screen. While an update is in progress (see beginUpdate()) the layout is deferred
+   * until commit() is called.
+   */
   public void layoutLayers() {
-    NiftyStopwatch.start();
+    if (updateDepth > 0) {
+      layoutPending = true;
+      return;
+    }
+    layoutLayersNow();
+  }
+
+  /**
+   * Start an update of this screen. Until the matching commit() is called all calls to layoutLayers() are
+   * collected into a single layout and elements created for this screen with Nifty.createElementFromType() or an
+   * ElementBuilder are not started. This allows to create, remove or change many elements with a single layout
+   * instead of one layout for each change. Calls to beginUpdate() can be nested, only the outermost commit()
+   * finishes the update.
+   */
+  public void beginUpdate() {
+    updateDepth++;
+  }
+
+  /**
+   * Finish an update started with beginUpdate(). When this is the outermost update the screen is layouted once
+   * and all elements that have been created during the update are started (bindControls(), initControls() and
+   * the onStartScreen and onActive effects).
+   */
+  public void commit() {
+    if (updateDepth == 0) {
+      throw new IllegalStateException("commit() without beginUpdate() for screen [" + screenId + "]");
+    }
+    updateDepth--;
+    if (updateDepth > 0) {
+      return;
+    }
+    if (layoutPending || !elementsToStart.isEmpty()) {
+      layoutPending = false;
+      layoutLayersNow();
+    }
+    if (!elementsToStart.isEmpty()) {
+      List < Element > copy = new ArrayList < Element >(elementsToStart);
+      elementsToStart.clear();
+      for (int i=0; i<copy.size(); i++) {
+        startElement(copy.get(i));
+      }
+    }
+  }
+
+  /**
+   * @return true while an update started with beginUpdate() has not been committed yet
+   */
+  public boolean isUpdating() {
+    return updateDepth > 0;
+  }
+
+  /**
+   * Start an element that has been added to this screen while the screen is already bound. During an update the
+   * element is started when the update is committed.
+   * @param element the element to start
+   */
+  public void startElement(final Element element) {
+    if (updateDepth > 0) {
+      // the element is bound when the update is committed but it can already be found with findElementByName()
+      registerElementTree(element);
+      elementsToStart.add(element);
+      return;
+    }
+    element.bindControls(this);
+    element.initControls();
+    element.startEffect(EffectEventId.onStartScreen);
+    element.startEffect(EffectEventId.onActive);
+    element.onStartScreen();
+  }
+
+  private void layoutLayersNow() {
+    NiftyStatistics statistics = nifty.getStatistics();
+    long layoutStart = statistics.startTiming();
     layoutLayersCallCount++;
 
     for (int i=0; i<layerElements.size(); i++) {
       Element w = layerElements.get(i);
-      w.layoutElements();
+      w.layoutDirtyElements();
     }
-    NiftyStopwatch.stop("Screen.layoutLayers()");
+    statistics.stopTiming(NiftyStatistics.Timing.LAYOUT, layoutStart);
   }
 
   private void resetLayers() {
@@ -349,7 +443,7 @@ public class Screen {
     long eventTime = timeProvider.getMsTime();
     for (int i=0; i<layerList.size(); i++) {
       Element layer = layerList.get(i);
-      layer.buildMouseOverElements(inputEvent, eventTime, mouseOverHandler);
+      getMouseOverIndex(layer).buildMouseOverElements(layer, getFocusHandler(), inputEvent, mouseOverHandler);
     }
 
     if (log.isLoggable(Level.FINE)) {
@@ -362,12 +456,44 @@ public class Screen {
     return mouseOverHandler.hitsElement();
   }
 
+  /**
+   * Find an element below the given element using the id index of this screen.
+   * @param parent the element to start the search at
+   * @param name the id or "#id" to look for
+   * @return the element or null when the index doesn't know a matching element below parent
+   */
+  public Element findIndexedElementByName(final Element parent, final String name) {
+    return elementIdIndex.find(name, parent, layerElements);
+  }
+
+  private MouseOverIndex getMouseOverIndex(final Element layer) {
+    MouseOverIndex index = mouseOverIndices.get(layer);
+    if (index == null) {
+      index = new MouseOverIndex();
+      mouseOverIndices.put(layer, index);
+    }
+    return index;
+  }
+
   /**
    * find an element by name.
    * @param name the id to find
    * @return the element or null
    */
   public Element findElementByName(final String name) {
+    if (name == null) {
+      return null;
+    }
+    if (!bound) {
+      // the elements are added to the index when they are bound to the screen in startScreen()
+      return findElementByNameInLayers(name);
+    }
+    Element indexed = elementIdIndex.find(name, null, layerElements);
+    assert indexed == findElementByNameInLayers(name) : "id index of screen [" + screenId + "] is out of date for [" + name + "]";
+    return indexed;
+  }
+
+  private Element findElementByNameInLayers(final String name) {
     for (int i=0; i<layerElements.size(); i++) {
       Element layer = layerElements.get(i);
       Element found = layer.findElementByName(name);
@@ -557,6 +683,9 @@ public class Screen {
     // add/remove layer elements
     layerElements.addAll(layerElementsToAdd);
     layerElements.removeAll(layerElementsToRemove);
+    for (Element layer : layerElementsToRemove) {
+      mouseOverIndices.remove(layer);
+    }
     layerElementsToAdd.clear();
     layerElementsToRemove.clear();
 
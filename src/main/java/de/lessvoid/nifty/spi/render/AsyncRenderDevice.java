@@ -0,0 +1,33 @@
+package de.lessvoid.nifty.spi.render;
+
+import java.io.IOException;
+
+/**
+ * Optional extension of the RenderDevice for render systems that are able to load images in the background.
+ *
+ * When the RenderDevice given to Nifty implements this interface images can be preloaded. Reading and decoding
+ * the image file is done by loadImageData() on a background thread. Only the upload of the decoded data with
+ * createImage(RenderImageData) is done on the render thread, limited to a small amount of time each frame.
+ * Until the upload is done Nifty knows the size of the image but doesn't render it.
+ *
+ * @author void
+ */
+public interface AsyncRenderDevice extends RenderDevice {
+
+  /**
+   * Read and decode the given image. This is called on a background thread and must not access the graphics
+   * context. Several images might be loaded at the same time.
+   * @param filename the image file to load
+   * @param filterLinear true when the image should be rendered with linear filtering
+   * @return the decoded image
+   * @throws IOException when the image could not be loaded
+   */
+  RenderImageData loadImageData(String filename, boolean filterLinear) throws IOException;
+
+  /**
+   * Create the RenderImage from the decoded image. This is called on the render thread.
+   * @param imageData the data returned by loadImageData()
+   * @return the RenderImage
+   */
+  RenderImage createImage(RenderImageData imageData);
+}
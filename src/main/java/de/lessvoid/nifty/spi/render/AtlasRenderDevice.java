@@ -0,0 +1,35 @@
+package de.lessvoid.nifty.spi.render;
+
+/**
+ * Optional extension of the AsyncRenderDevice for render systems that are able to copy images into a shared
+ * texture.
+ *
+ * When the RenderDevice given to Nifty implements this interface small images are packed into a few large atlas
+ * pages instead of getting a texture of their own. All images on the same page share one texture so a screen full
+ * of icons doesn't need a texture switch for every icon anymore (and a BatchRenderDevice gets much larger batches).
+ * The atlas pages are used like any other RenderImage: Nifty only renders parts of them with the sub image
+ * variant of RenderDevice.renderImage().
+ *
+ * @author void
+ */
+public interface AtlasRenderDevice extends AsyncRenderDevice {
+
+  /**
+   * Create a new, transparent atlas page.
+   * @param width width of the page in pixel
+   * @param height height of the page in pixel
+   * @param filterLinear true when the page should be rendered with linear filtering
+   * @return the new atlas page
+   */
+  RenderImage createAtlasPage(int width, int height, boolean filterLinear);
+
+  /**
+   * Copy the decoded image into the atlas page. The area is always inside of the page and is not used by any
+   * other image.
+   * @param atlasPage the atlas page created with createAtlasPage()
+   * @param imageData the decoded image (loaded with loadImageData())
+   * @param x x position of the image on the atlas page
+   * @param y y position of the image on the atlas page
+   */
+  void addToAtlasPage(RenderImage atlasPage, RenderImageData imageData, int x, int y);
+}
@@ -0,0 +1,32 @@
+package de.lessvoid.nifty.spi.render;
+
+/**
+ * Optional extension of the RenderDevice for render systems that are able to batch primitives.
+ *
+ * When the RenderDevice given to Nifty implements this interface the renderQuad(), renderImage() and
+ * renderFont() calls are not forwarded immediately anymore. Nifty records them for the whole frame, merges
+ * all primitives that share the same texture (RenderImage or RenderFont), blend mode and clip rectangle into
+ * batches and submits everything once when the frame ends.
+ *
+ * Each batch is surrounded by a beginBatch() and endBatch() call. All render calls between these two calls
+ * are guaranteed to use the same texture, blend mode and clip rectangle so the device can collect them into
+ * a single vertex buffer and issue a single draw call in endBatch(). setBlendMode(), enableClip() and
+ * disableClip() are only called between batches.
+ *
+ * The Color instances given to the render calls are owned by Nifty and reused for the next frame. Copy the
+ * values when you need them after endBatch().
+ *
+ * @author void
+ */
+public interface BatchRenderDevice extends RenderDevice {
+
+  /**
+   * Start a new batch. The render calls that follow until endBatch() all share the same state.
+   */
+  void beginBatch();
+
+  /**
+   * End the current batch. The device should submit all primitives collected since beginBatch() now.
+   */
+  void endBatch();
+}
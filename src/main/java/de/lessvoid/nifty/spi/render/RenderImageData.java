@@ -0,0 +1,26 @@
+package de.lessvoid.nifty.spi.render;
+
+/**
+ * A decoded image that has not been uploaded yet. Created by AsyncRenderDevice.loadImageData().
+ * @author void
+ */
+public interface RenderImageData {
+
+  /**
+   * Get the width of the image.
+   * @return width of image in pixel
+   */
+  int getWidth();
+
+  /**
+   * Get the height of the image.
+   * @return height of image in pixel
+   */
+  int getHeight();
+
+  /**
+   * The decoded data is not needed anymore because it has been copied into an atlas page (see
+   * AtlasRenderDevice) or because it will not be uploaded at all. You should free it.
+   */
+  void dispose();
+}
@@ -1,54 +1,143 @@
 package de.lessvoid.nifty.tools;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.logging.Logger;
 
+/**
+ * A pool of reusable objects. The free objects are kept in an array that is used as a stack, so allocate() and
+ * free() are a single array access without any hashing, boxing or locking. When the pool runs out of objects its
+ * capacity is doubled.
+ *
+ * The pool is not thread safe. Every thread that needs pooled objects should use its own pool.
+ *
+ * With leak detection enabled the pool remembers where each object has been allocated. free() then complains
+ * about objects that have not been allocated from this pool (or that have been freed twice) and getLeaks()
+ * reports the objects that have not been given back yet. This is slow and meant for debugging only.
+ *
+ * @author void
+ */
 public class ObjectPool<T> {
   private static Logger log = Logger.getLogger(ObjectPool.class.getName());
-  private List<T> pool;
-  private List<Integer> free;
-  private Map<T, Integer> indexLookUp;
   private Factory<T> factory;
+  private Object[] free;
+  private int freeCount;
+  private int capacity;
+  private int peakUsedCount;
+  private int growCount;
+  private Map < T, Throwable > allocated;
 
   public ObjectPool(final int size, final Factory<T> initialFactory) {
     this.factory = initialFactory;
-    pool = new ArrayList<T>(size);
-    free = new ArrayList<Integer>(size);
-    indexLookUp = new LinkedHashMap<T, Integer>(size);
-    for (int i=0; i<size; i++) {
-      T item = initialFactory.createNew();
-      pool.add(item);
-      free.add(i);
-      indexLookUp.put(item, i);
-    }
+    free = new Object[Math.max(1, size)];
+    grow(size);
   }
 
+  @SuppressWarnings("unchecked")
   public T allocate() {
-    if (free.isEmpty()) {
-      // this means we're running out of capacity. duplicate the list and complain in the log...
-      int size = pool.size();
-      log.warning("running ouf of pool objects! used capacity [" + size + "] new capacity [" + size * 2 + "]");
-      for (int i=0; i<size; i++) {
-        T item = factory.createNew();
-        pool.add(item);
-        free.add(size + i);
-        indexLookUp.put(item, size + i);
-      }
+    if (freeCount == 0) {
+      // this means we're running out of capacity. double the capacity and remember that for the statistics.
+      log.fine("running out of pool objects! used capacity [" + capacity + "] new capacity [" + Math.max(1, capacity * 2) + "]");
+      grow(Math.max(1, capacity));
+      growCount++;
+    }
+    T item = (T) free[--freeCount];
+    free[freeCount] = null;
+    int usedCount = capacity - freeCount;
+    if (usedCount > peakUsedCount) {
+      peakUsedCount = usedCount;
+    }
+    if (allocated != null) {
+      allocated.put(item, new Throwable("allocated here"));
     }
-    final Integer index = free.remove(free.size() - 1);
-    return pool.get(index);
+    return item;
   }
 
   public void free(final T item) {
-    int index = indexLookUp.get(item);
-    free.add(index);
+    if (allocated != null && allocated.remove(item) == null) {
+      throw new IllegalArgumentException("the object [" + item + "] has not been allocated from this pool or has already been freed");
+    }
+    if (freeCount == free.length) {
+      // only possible when objects are freed that haven't been allocated from this pool
+      Object[] newFree = new Object[free.length * 2];
+      System.arraycopy(free, 0, newFree, 0, freeCount);
+      free = newFree;
+    }
+    free[freeCount++] = item;
   }
 
+  /**
+   * @return the number of objects that are available for allocate() without growing the pool
+   */
   public int getFreeCount() {
-    return pool.size() - free.size();
+    return freeCount;
+  }
+
+  /**
+   * @return the number of objects that are currently allocated
+   */
+  public int getUsedCount() {
+    return capacity - freeCount;
+  }
+
+  /**
+   * @return the maximum number of objects that have been allocated at the same time
+   */
+  public int getPeakUsedCount() {
+    return peakUsedCount;
+  }
+
+  /**
+   * @return the number of objects this pool has created
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return how often the pool had to grow because it ran out of objects
+   */
+  public int getGrowCount() {
+    return growCount;
+  }
+
+  /**
+   * Enable or disable leak detection. Only objects allocated while leak detection is enabled are tracked.
+   * @param enable true to enable and false to disable leak detection
+   */
+  public void setLeakDetection(final boolean enable) {
+    if (enable && allocated == null) {
+      allocated = new IdentityHashMap < T, Throwable >();
+    } else if (!enable) {
+      allocated = null;
+    }
+  }
+
+  /**
+   * Get the objects that have been allocated while leak detection was enabled but have not been freed yet. The
+   * stack trace of the Throwable shows where the object has been allocated.
+   * @return the allocated objects and where they have been allocated
+   */
+  public Map < T, Throwable > getLeaks() {
+    if (allocated == null) {
+      return new IdentityHashMap < T, Throwable >();
+    }
+    return new IdentityHashMap < T, Throwable >(allocated);
+  }
+
+  private void grow(final int count) {
+    // all objects might be freed at the same time so the array needs room for the whole capacity
+    if (free.length < capacity + count) {
+      Object[] newFree = new Object[capacity + count];
+      System.arraycopy(free, 0, newFree, 0, freeCount);
+      free = newFree;
+    }
+    // filled from the top so that the objects are handed out in the order they have been created
+    for (int i=0; i<count; i++) {
+      free[freeCount + count - 1 - i] = factory.createNew();
+    }
+    freeCount += count;
+    capacity += count;
   }
 
   public interface Factory<T> {
@@ -0,0 +1,179 @@
+package de.lessvoid.nifty.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of the last n values that have been added. Older values fall out of the histogram when new
+ * values are added.
+ *
+ * Values are counted in power of two buckets: bucket 0 counts the value 0 and bucket b counts the values
+ * from 2^(b-1) to 2^b - 1. Additionally the last n values are kept so that exact min, max and mean values
+ * can be calculated.
+ *
+ * Only a single thread may add values (usually the thread that calls Nifty.update() and Nifty.render())
+ * but any other thread can read the histogram at any time without locking. A reader might see a value
+ * that is being replaced at that moment, which is fine for statistics.
+ *
+ * @author void
+ */
+public class RollingHistogram {
+  public static final int BUCKET_COUNT = 64;
+
+  private AtomicLongArray values;
+  private AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private AtomicLong added = new AtomicLong();
+
+  /**
+   * Create a histogram for the last windowSize values.
+   * @param windowSize the number of values to keep
+   */
+  public RollingHistogram(final int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException("windowSize must be at least 1 but was [" + windowSize + "]");
+    }
+    values = new AtomicLongArray(windowSize);
+  }
+
+  /**
+   * Add a value. Negative values are counted as 0.
+   * @param value the value
+   */
+  public void add(final long value) {
+    long v = Math.max(0, value);
+    long count = added.get();
+    int index = (int) (count % values.length());
+    if (count >= values.length()) {
+      buckets.decrementAndGet(getBucket(values.get(index)));
+    }
+    values.set(index, v);
+    buckets.incrementAndGet(getBucket(v));
+    added.set(count + 1);
+  }
+
+  /**
+   * Remove all values. Like add() this may only be called by the thread that adds the values.
+   */
+  public void clear() {
+    added.set(0);
+    for (int i=0; i<BUCKET_COUNT; i++) {
+      buckets.set(i, 0);
+    }
+  }
+
+  /**
+   * @return the number of values that are currently part of the histogram
+   */
+  public int getCount() {
+    return (int) Math.min(added.get(), values.length());
+  }
+
+  /**
+   * @return the number of values that have been added since the last clear()
+   */
+  public long getTotalCount() {
+    return added.get();
+  }
+
+  /**
+   * @return the value that has been added last or 0 when there is none
+   */
+  public long getLast() {
+    long count = added.get();
+    if (count == 0) {
+      return 0;
+    }
+    return values.get((int) ((count - 1) % values.length()));
+  }
+
+  public long getMin() {
+    int count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long min = Long.MAX_VALUE;
+    for (int i=0; i<count; i++) {
+      min = Math.min(min, values.get(i));
+    }
+    return min;
+  }
+
+  public long getMax() {
+    long max = 0;
+    int count = getCount();
+    for (int i=0; i<count; i++) {
+      max = Math.max(max, values.get(i));
+    }
+    return max;
+  }
+
+  public double getMean() {
+    int count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    long sum = 0;
+    for (int i=0; i<count; i++) {
+      sum += values.get(i);
+    }
+    return (double) sum / count;
+  }
+
+  /**
+   * Get the number of values in the given bucket.
+   * @param bucket the bucket (0 to BUCKET_COUNT - 1)
+   * @return number of values
+   */
+  public long getBucketCount(final int bucket) {
+    return buckets.get(bucket);
+  }
+
+  /**
+   * Get an upper bound of the given percentile. This is the largest value of the bucket that contains the
+   * percentile but never more than the largest value in the histogram.
+   * @param percentile the percentile (0.0 to 1.0), for instance 0.99
+   * @return the upper bound of the percentile
+   */
+  public long getPercentile(final double percentile) {
+    long total = 0;
+    for (int i=0; i<BUCKET_COUNT; i++) {
+      total += buckets.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long wanted = (long) Math.ceil(Math.max(0.0, Math.min(1.0, percentile)) * total);
+    long seen = 0;
+    for (int i=0; i<BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= wanted && seen > 0) {
+        return Math.min(getBucketMax(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Get the bucket a value is counted in.
+   * @param value the value (not negative)
+   * @return the bucket
+   */
+  public static int getBucket(final long value) {
+    return 64 - Long.numberOfLeadingZeros(value);
+  }
+
+  /**
+   * Get the largest value that is counted in the given bucket.
+   * @param bucket the bucket
+   * @return the largest value
+   */
+  public static long getBucketMax(final int bucket) {
+    if (bucket == 0) {
+      return 0;
+    }
+    if (bucket >= BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+    return (1L << bucket) - 1;
+  }
+}
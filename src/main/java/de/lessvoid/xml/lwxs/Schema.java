@@ -1,8 +1,11 @@
 package de.lessvoid.xml.lwxs;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import de.lessvoid.xml.lwxs.elements.Element;
@@ -11,6 +14,8 @@ import de.lessvoid.xml.lwxs.elements.Type;
 import de.lessvoid.xml.lwxs.elements.XmlProcessorType;
 import de.lessvoid.xml.lwxs.processor.IncludeProcessor;
 import de.lessvoid.xml.lwxs.processor.TypeProcessor;
+import de.lessvoid.xml.tools.ClassHelper;
+import de.lessvoid.xml.tools.MethodResolver;
 import de.lessvoid.xml.xpp3.Attributes;
 import de.lessvoid.xml.xpp3.XmlParser;
 import de.lessvoid.xml.xpp3.XmlProcessor;
@@ -22,6 +27,21 @@ public class Schema implements XmlProcessor {
   private String root;
   private String type;
 
+  /**
+   * The binding of this Schema to the XmlType classes. The constructor of every XmlType class is resolved
+   * when it is needed for the first time. After that loading xml with this Schema doesn't need to lookup
+   * classes anymore. The methods that link a child XmlType to its parent are cached by the MethodResolver.
+   */
+  private Map < String, Constructor < ? extends XmlType > > constructors =
+    new ConcurrentHashMap < String, Constructor < ? extends XmlType > >();
+
+  /**
+   * The processor created by loadXml() is kept so that the next loadXml() call can use it again (and all
+   * the processors it has created while it processed the last xml file). It's only shared with a single
+   * loadXml() call at a time.
+   */
+  private XmlProcessorType cachedXmlProcessor;
+
   public void process(final XmlParser xmlParser, final Attributes attributes) throws Exception {
     packageString = attributes.get("package");
     if (packageString == null) {
@@ -61,18 +81,87 @@ public class Schema implements XmlProcessor {
   }
 
   public XmlType loadXml(final XmlParser parser) throws Exception {
-    Type t = getType(type);
-    XmlProcessorType xmlType = t.createXmlProcessor(this);
-    parser.nextTag();
-    parser.required(root, xmlType);
-    return xmlType.getXmlType();
+    XmlProcessorType xmlType = takeXmlProcessor();
+    try {
+      parser.nextTag();
+      parser.required(root, xmlType);
+      return xmlType.getXmlType();
+    } finally {
+      xmlType.clearXmlType();
+      releaseXmlProcessor(xmlType);
+    }
+  }
+
+  private XmlProcessorType takeXmlProcessor() throws Exception {
+    synchronized (this) {
+      if (cachedXmlProcessor != null) {
+        XmlProcessorType result = cachedXmlProcessor;
+        cachedXmlProcessor = null;
+        return result;
+      }
+    }
+    return getType(type).createXmlProcessor(this);
+  }
+
+  private synchronized void releaseXmlProcessor(final XmlProcessorType xmlProcessor) {
+    cachedXmlProcessor = xmlProcessor;
+  }
+
+  /**
+   * Create a new instance of the given XmlType class.
+   * @param fullClassName the full class name of the XmlType
+   * @return the new instance or null when the class could not be instantiated
+   */
+  public XmlType createXmlType(final String fullClassName) {
+    Constructor < ? extends XmlType > constructor = constructors.get(fullClassName);
+    if (constructor == null) {
+      constructor = resolveConstructor(fullClassName);
+      if (constructor == null) {
+        return null;
+      }
+      constructors.put(fullClassName, constructor);
+    }
+    try {
+      return constructor.newInstance();
+    } catch (Exception e) {
+      log.warning("class [" + fullClassName + "] could not be instanziated (" + e.toString() + ")");
+      return null;
+    }
+  }
+
+  private Constructor < ? extends XmlType > resolveConstructor(final String fullClassName) {
+    Class < ? > cls = ClassHelper.loadClass(fullClassName);
+    if (cls == null) {
+      return null;
+    }
+    if (!XmlType.class.isAssignableFrom(cls)) {
+      log.warning("given class [" + fullClassName + "] does not implement [" + XmlType.class.getName() + "]");
+      return null;
+    }
+    try {
+      return cls.asSubclass(XmlType.class).getConstructor();
+    } catch (Exception e) {
+      log.warning("class [" + fullClassName + "] could not be instanziated (" + e.toString() + ")");
+      return null;
+    }
+  }
+
+  /**
+   * Get the method of the given parent class that links a child to it (for instance "addPanel"). The
+   * method name is matched case insensitive.
+   * @param parentClass the class of the parent XmlType
+   * @param methodName the name of the method without parameters
+   * @return the method or null when the parent class doesn't have such a method
+   */
+  public Method getParentLinkMethod(final Class < ? > parentClass, final String methodName) {
+    return MethodResolver.findMethodByName(parentClass, methodName);
   }
 
   public XmlProcessorType getInstance(
       final String className,
       final Collection < Element > elements,
       final Collection < SubstitutionGroup> substitutionGroups) throws Exception {
-    XmlProcessorType processor = new XmlProcessorType(packageString + "." + className);
+    XmlProcessorType processor = new XmlProcessorType(this, packageString + "." + className);
     for (Element child : elements) {
       child.addToProcessor(this, processor);
     }
@@ -47,20 +47,25 @@ public class Element {
       final Schema schema,
       final SubstitutionGroup substitutionGroup,
       final XmlType xmlType) throws Exception {
+    substitutionGroup.add(getTagName(), new Helper(xmlType, createSubstGroupProcessor(schema)));
+  }
+
+  /**
+   * Create the XmlProcessorElement for this element as part of a substitution group.
+   * @param schema the Schema
+   * @return the XmlProcessorElement
+   * @throws Exception exception
+   */
+  public XmlProcessorElement createSubstGroupProcessor(final Schema schema) throws Exception {
     Type type = schema.getType(tagType);
     if (type == null) {
       throw new Exception("type [" + tagType + "] not found");
     }
     Type typeParent = type.getTypeParent(schema);
     if (typeParent != null) {
-      XmlProcessorElement xmlProcessorElement = new XmlProcessorElement(
-          typeParent.createXmlProcessorFromType(schema, type), tagName, tagType, occurs);
-      substitutionGroup.add(getTagName(), new Helper(xmlType, xmlProcessorElement));
-    } else {
-      XmlProcessorElement xmlProcessorElement = new XmlProcessorElement(
-          type.createXmlProcessor(schema), tagName, tagType, occurs);
-      substitutionGroup.add(getTagName(), new Helper(xmlType, xmlProcessorElement));
+      return new XmlProcessorElement(typeParent.createXmlProcessorFromType(schema, type), tagName, tagType, occurs);
     }
+    return new XmlProcessorElement(type.createXmlProcessor(schema), tagName, tagType, occurs);
   }
 
   public String getTagName() {
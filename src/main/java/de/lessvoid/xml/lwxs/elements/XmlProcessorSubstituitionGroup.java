@@ -2,28 +2,91 @@ package de.lessvoid.xml.lwxs.elements;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 import de.lessvoid.xml.lwxs.Schema;
 import de.lessvoid.xml.lwxs.XmlType;
+import de.lessvoid.xml.xpp3.Attributes;
 import de.lessvoid.xml.xpp3.SubstitutionGroup;
+import de.lessvoid.xml.xpp3.XmlParser;
+import de.lessvoid.xml.xpp3.XmlProcessor;
 
 public class XmlProcessorSubstituitionGroup {
   private Collection < Element > elements = new ArrayList < Element >();
-  private SubstitutionGroup substitutionGroup = new SubstitutionGroup();
   private Schema schema;
 
+  /**
+   * The XmlProcessorElements of all elements. They are created when this group is used for the first time
+   * and then used for every parent.
+   */
+  private Map < String, XmlProcessorElement > processors;
+
   public XmlProcessorSubstituitionGroup(final Schema schemaParam) {
     schema = schemaParam;
   }
 
   public void addElement(final Element e) throws Exception {
     elements.add(e);
+    processors = null;
   }
 
   public SubstitutionGroup getSubstGroup(final XmlType xmlType) throws Exception {
-    for (Element e : elements) {
-      e.addToSubstGroup(schema, substitutionGroup, xmlType);
+    if (processors == null) {
+      Map < String, XmlProcessorElement > newProcessors = new HashMap < String, XmlProcessorElement >();
+      for (Element e : elements) {
+        newProcessors.put(e.getTagName(), e.createSubstGroupProcessor(schema));
+      }
+      processors = newProcessors;
+    }
+    return new ParentSubstitutionGroup(processors, xmlType);
+  }
+
+  /**
+   * The SubstitutionGroup for a single parent. It doesn't change after it has been created, every match
+   * returns a new MatchedElement instead.
+   * @author void
+   */
+  private static class ParentSubstitutionGroup extends SubstitutionGroup {
+    private Map < String, XmlProcessorElement > processors;
+    private XmlType xmlTypeParent;
+
+    public ParentSubstitutionGroup(final Map < String, XmlProcessorElement > processorsParam, final XmlType xmlTypeParentParam) {
+      processors = processorsParam;
+      xmlTypeParent = xmlTypeParentParam;
+    }
+
+    public XmlProcessor matches(final String tag) {
+      if (tag == null) {
+        return null;
+      }
+      XmlProcessorElement matched = processors.get(tag);
+      if (matched == null) {
+        return null;
+      }
+      return new MatchedElement(matched, xmlTypeParent);
+    }
+
+    public SubstitutionGroup add(final String tag, final XmlProcessor xmlElement) {
+      throw new UnsupportedOperationException("the elements are defined by the schema");
+    }
+  }
+
+  /**
+   * Processes a single element that has been matched by a ParentSubstitutionGroup.
+   * @author void
+   */
+  private static class MatchedElement implements XmlProcessor {
+    private XmlProcessorElement element;
+    private XmlType xmlTypeParent;
+
+    public MatchedElement(final XmlProcessorElement elementParam, final XmlType xmlTypeParentParam) {
+      element = elementParam;
+      xmlTypeParent = xmlTypeParentParam;
+    }
+
+    public void process(final XmlParser xmlParser, final Attributes attributes) throws Exception {
+      element.processSubstGroup(xmlParser, xmlTypeParent, attributes);
     }
-    return substitutionGroup;
   }
 }
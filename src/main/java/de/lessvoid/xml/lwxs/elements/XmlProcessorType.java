@@ -1,25 +1,43 @@
 package de.lessvoid.xml.lwxs.elements;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
 
+import de.lessvoid.xml.lwxs.Schema;
 import de.lessvoid.xml.lwxs.XmlType;
 import de.lessvoid.xml.tools.ClassHelper;
-import de.lessvoid.xml.tools.MethodInvoker;
+import de.lessvoid.xml.tools.MethodResolver;
 import de.lessvoid.xml.xpp3.Attributes;
 import de.lessvoid.xml.xpp3.XmlParser;
 import de.lessvoid.xml.xpp3.XmlProcessor;
 
 public class XmlProcessorType implements XmlProcessor {
+  private static Logger log = Logger.getLogger(XmlProcessorType.class.getName());
+  private Schema schema;
   private String fullClassName;
-  private Collection < XmlProcessorElement > elements = new ArrayList < XmlProcessorElement >();
-  private Collection < XmlProcessorSubstituitionGroup > substGroups = new ArrayList < XmlProcessorSubstituitionGroup >();
+  private List < XmlProcessorElement > elements = new ArrayList < XmlProcessorElement >();
+  private List < XmlProcessorSubstituitionGroup > substGroups = new ArrayList < XmlProcessorSubstituitionGroup >();
   private XmlType xmlTypeParentSingle;
   private XmlType xmlTypeParentMultiple;
   private String xmlTypeParentName;
+  private String setMethodName;
+  private String addMethodName;
   private XmlType xmlType;
 
   public XmlProcessorType(final String fullClassNameParam) {
+    this(null, fullClassNameParam);
+  }
+
+  /**
+   * Create a XmlProcessorType that uses the binding of the given Schema to create the XmlType instances
+   * and to link them to their parents.
+   * @param schemaParam the Schema
+   * @param fullClassNameParam full class name of the XmlType
+   */
+  public XmlProcessorType(final Schema schemaParam, final String fullClassNameParam) {
+    schema = schemaParam;
     fullClassName = fullClassNameParam;
   }
 
@@ -32,42 +50,100 @@ public class XmlProcessorType implements XmlProcessor {
   }
 
   public void process(final XmlParser xmlParser, final Attributes attributes) throws Exception {
-    xmlType = ClassHelper.getInstance(fullClassName, XmlType.class);
-    xmlType.initFromAttributes(attributes);
+    // the same processor is used for nested elements of the same type. so we can't keep anything in a
+    // field while we process the children.
+    XmlType current = createXmlType();
+    xmlType = current;
+    current.initFromAttributes(attributes);
 
     if (xmlTypeParentSingle != null) {
-      invoke(xmlType, xmlTypeParentSingle, "set");
+      invoke(current, xmlTypeParentSingle, "set");
     } else if (xmlTypeParentMultiple != null) {
-      invoke(xmlType, xmlTypeParentMultiple, "add");
+      invoke(current, xmlTypeParentMultiple, "add");
     }
 
     xmlParser.nextTag();
-    for (XmlProcessorElement child : elements) {
-      child.process(xmlParser, xmlType);
+    for (int i=0; i<elements.size(); i++) {
+      elements.get(i).process(xmlParser, current);
     }
-    for (XmlProcessorSubstituitionGroup subst : substGroups) {
-      xmlParser.zeroOrMore(subst.getSubstGroup(xmlType));
+    for (int i=0; i<substGroups.size(); i++) {
+      xmlParser.zeroOrMore(substGroups.get(i).getSubstGroup(current));
     }
+    xmlType = current;
   }
 
   public XmlType getXmlType() {
     return xmlType;
   }
 
+  /**
+   * Forget the XmlType that has been processed last.
+   */
+  public void clearXmlType() {
+    xmlType = null;
+  }
+
+  private XmlType createXmlType() {
+    if (schema == null) {
+      return ClassHelper.getInstance(fullClassName, XmlType.class);
+    }
+    return schema.createXmlType(fullClassName);
+  }
+
   private void invoke(final XmlType child, final XmlType parent, final String qualifier) {
-    MethodInvoker methodInvoker = new MethodInvoker(qualifier + xmlTypeParentName + "()", parent);
-    methodInvoker.invoke(child);
+    String methodName = getLinkMethodName(qualifier);
+    Method method;
+    if (schema == null) {
+      method = MethodResolver.findMethodByName(parent.getClass(), methodName);
+    } else {
+      method = schema.getParentLinkMethod(parent.getClass(), methodName);
+    }
+    if (method == null) {
+      log.warning("invoke for method [" + methodName + "()] failed");
+      return;
+    }
+    try {
+      if (method.getParameterTypes().length == 1) {
+        method.invoke(parent, child);
+      } else {
+        method.invoke(parent);
+      }
+    } catch (Exception e) {
+      log.warning("error: " + e.getMessage());
+    }
+  }
+
+  private String getLinkMethodName(final String qualifier) {
+    if ("set".equals(qualifier)) {
+      if (setMethodName == null) {
+        setMethodName = qualifier + xmlTypeParentName;
+      }
+      return setMethodName;
+    }
+    if (addMethodName == null) {
+      addMethodName = qualifier + xmlTypeParentName;
+    }
+    return addMethodName;
   }
 
   public void parentLinkSet(final XmlType xmlTypeParent, final String elementName) {
     xmlTypeParentSingle = xmlTypeParent;
     xmlTypeParentMultiple = null;
-    xmlTypeParentName = elementName;
+    setParentName(elementName);
   }
 
   public void parentLinkAdd(final XmlType xmlTypeParent, final String elementName) {
     xmlTypeParentSingle = null;
     xmlTypeParentMultiple = xmlTypeParent;
+    setParentName(elementName);
+  }
+
+  private void setParentName(final String elementName) {
+    if (elementName != null && elementName.equals(xmlTypeParentName)) {
+      return;
+    }
     xmlTypeParentName = elementName;
+    setMethodName = null;
+    addMethodName = null;
   }
 }
@@ -1,19 +1,33 @@
 package de.lessvoid.xml.tools;
 
 import java.lang.reflect.Method;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 /**
- * A object and a method for the object.
+ * A object and a method for the object. The methods of the target objects are resolved with the first invoke
+ * and the parameters encoded in the method string when the MethodInvoker is created.
  * @author void
  */
 public class MethodInvoker {
   private static Logger log = Logger.getLogger(MethodInvoker.class.getName());
 
+  private static final Object[] NO_PARAMETERS = new Object[0];
+
   private Object[] target;
   private String methodWithName;
 
+  /**
+   * the resolved method for each target object or null when the methods have not been resolved yet.
+   */
+  private Method[] methods;
+
+  /**
+   * the parameters encoded in methodWithName.
+   */
+  private Object[] encodedParameters = NO_PARAMETERS;
+
   /**
    * create null MethodInvoker.
    */
@@ -29,6 +43,9 @@ public class MethodInvoker {
    */
   public MethodInvoker(final String methodParam, final Object ... targetParam) {
     this.methodWithName = methodParam;
+    if (methodWithName != null) {
+      this.encodedParameters = MethodResolver.extractParameters(methodWithName);
+    }
     if (targetParam == null || targetParam.length == 0) {
       this.target = null;
     } else {
@@ -71,6 +88,7 @@ public class MethodInvoker {
       copy[copy.length - 1] = object;
       target = copy;
     }
+    methods = null;
   }
 
   /**
@@ -84,46 +102,58 @@ public class MethodInvoker {
       return null;
     }
 
+    if (methods == null) {
+      methods = resolveMethods();
+    }
+
     // process all methods (first one wins)
-    for (Object object : target) {
-      if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
-        if (method != null) {
-          // we've found a method with the given name. now we need to match the parameters.
-          //
-          // 1) if the target method has parameters encoded we ignore the invokeParametersParam we've been
-          //    called with and call the method as is.
-          // 2) if the target method has no parameters there are two possibilities:
-          //    2a) invokeParametersParam are given, in this case we'll try to forward them to the method
-          //        if this is not possible we fall back to 2b)
-          //    2b) just call the method without any parameters
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
-          if (invokeParameters.length > 0) {
-            // does the method supports the parameters?
-            // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
-              log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
-              return callMethod(object, method, invokeParameters);
-            } else {
-              log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
-              return callMethod(object, method, new Object[0]);
+    for (int i=0; i<target.length; i++) {
+      Object object = target[i];
+      Method method = methods[i];
+      if (object != null && method != null) {
+        // we've found a method with the given name. now we need to match the parameters.
+        //
+        // 1) if the target method has parameters encoded we ignore the invokeParametersParam we've been
+        //    called with and call the method as is.
+        // 2) if the target method has no parameters there are two possibilities:
+        //    2a) invokeParametersParam are given, in this case we'll try to forward them to the method
+        //        if this is not possible we fall back to 2b)
+        //    2b) just call the method without any parameters
+        if (encodedParameters.length > 0) {
+          // does the method supports the parameters?
+          // TODO: not only check for the count but check the type too
+          if (getMethodParameterCount(method) == encodedParameters.length) {
+            if (log.isLoggable(Level.FINE)) {
+              log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(encodedParameters) + ")");
             }
+            return callMethod(object, method, encodedParameters);
           } else {
-            // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
-            if (invokeParametersParam.length > 0) {
-              if (getMethodParameterCount(method) == invokeParametersParam.length) {
+            if (log.isLoggable(Level.FINE)) {
+              log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
+            }
+            return callMethod(object, method, NO_PARAMETERS);
+          }
+        } else {
+          // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
+          if (invokeParametersParam.length > 0) {
+            if (getMethodParameterCount(method) == invokeParametersParam.length) {
+              if (log.isLoggable(Level.FINE)) {
                 log.fine("invoking method '" + methodWithName + "' with the actual parameters ("
                     + debugParaString(invokeParametersParam) + ")");
-                return callMethod(object, method, invokeParametersParam);
-              } else {
+              }
+              return callMethod(object, method, invokeParametersParam);
+            } else {
+              if (log.isLoggable(Level.FINE)) {
                 log.fine("invoking method '" + methodWithName
                     + "' without parameters (invokeParametersParam mismatch)");
-                return callMethod(object, method, null);
               }
-            } else {
-              log.fine("invoking method '" + methodWithName + "' without parameters");
               return callMethod(object, method, null);
             }
+          } else {
+            if (log.isLoggable(Level.FINE)) {
+              log.fine("invoking method '" + methodWithName + "' without parameters");
+            }
+            return callMethod(object, method, null);
           }
         }
       }
@@ -132,6 +162,16 @@ public class MethodInvoker {
     return null;
   }
 
+  private Method[] resolveMethods() {
+    Method[] result = new Method[target.length];
+    for (int i=0; i<target.length; i++) {
+      if (target[i] != null) {
+        result[i] = MethodResolver.findMethod(target[i].getClass(), methodWithName);
+      }
+    }
+    return result;
+  }
+
   /**
    * Invoke the given method on the given object.
    * @param targetObject target object to invoke method on
@@ -141,15 +181,6 @@ public class MethodInvoker {
    */
   private Object callMethod(final Object targetObject, final Method method, final Object[] invokeParameters) {
     try {
-      log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + invokeParameters);
-      if (method != null) {
-        log.fine(method.getName());
-      }
-      if (invokeParameters != null) {
-        for (Object o : invokeParameters) {
-          log.fine("parameter: " + o);
-        }
-      }
       return method.invoke(targetObject, invokeParameters);
     } catch (Exception e) {
       log.warning("error: " + e.getMessage());
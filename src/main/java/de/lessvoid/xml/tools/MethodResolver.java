@@ -2,15 +2,29 @@ package de.lessvoid.xml.tools;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
  * MethodResolver helper class.
+ *
+ * The public methods of each class are looked up only once. They are kept by their lower case name so that
+ * finding a method by name is a single map lookup. All method invokers share this cache.
+ *
  * @author void
  */
 public class MethodResolver {
   private static Logger log = Logger.getLogger(MethodResolver.class.getName());
 
+  /**
+   * the public methods of a class by their lower case name. the first method with a name wins.
+   */
+  private static Map < Class < ? >, Map < String, Method > > methodsByClass =
+    new ConcurrentHashMap < Class < ? >, Map < String, Method > >();
+
   /**
    * you can't instantiate this class it's a helper class.
    */
@@ -32,13 +46,36 @@ public class MethodResolver {
       log.warning("Could not extract method from [" + methodName + "]");
       return null;
     }
-    Method[] ms = c.getMethods();
-    for (Method m : ms) {
-      if (methodNameOnly.equalsIgnoreCase(m.getName())) {
-        return m;
+    return findMethodByName(c, methodNameOnly);
+  }
+
+  /**
+   * find a public method of the given class by its name only. The name is matched case insensitive.
+   * @param c the class to look for
+   * @param methodNameOnly the name of the method without the parameter list
+   * @return the Method instance or null when the class doesn't have such a method
+   */
+  public static Method findMethodByName(final Class < ? > c, final String methodNameOnly) {
+    if (c == null) {
+      return null;
+    }
+    return getMethods(c).get(methodNameOnly.toLowerCase(Locale.ENGLISH));
+  }
+
+  private static Map < String, Method > getMethods(final Class < ? > c) {
+    Map < String, Method > methods = methodsByClass.get(c);
+    if (methods == null) {
+      // getMethods() already contains all public methods of the super classes
+      methods = new HashMap < String, Method >();
+      for (Method m : c.getMethods()) {
+        String name = m.getName().toLowerCase(Locale.ENGLISH);
+        if (!methods.containsKey(name)) {
+          methods.put(name, m);
+        }
       }
+      methodsByClass.put(c, methods);
     }
-    return findMethod(c.getSuperclass(), methodName);
+    return methods;
   }
 
   public static Method findMethodWithArgs(final Class<?> c, final String methodName, final Class<?> ... parameters) {
@@ -93,7 +130,12 @@ public class MethodResolver {
     return methodName.substring(startIdx + 1, endIdx);
   }
 
-  private static String extractMethodName(final String methodName) {
+  /**
+   * extract the name of the method.
+   * @param methodName complete methodname with argument list in ()
+   * @return the part before the () or null when there is no argument list
+   */
+  public static String extractMethodName(final String methodName) {
     if (!methodName.contains("(")) {
       return null;
     }
@@ -43,8 +43,11 @@ public class Attributes {
     attributes = new LinkedHashMap < String, String >();
     attributes.putAll(source.attributes);
 
+    // the tag sets are copied too because mergeAndTag() changes them
     taggedAttributes = new LinkedHashMap < String, Set < String >>();
-    taggedAttributes.putAll(source.taggedAttributes);
+    for (Map.Entry < String, Set < String >> entry : source.taggedAttributes.entrySet()) {
+      taggedAttributes.put(entry.getKey(), new HashSet < String >(entry.getValue()));
+    }
   }
 
   public void translateSpecialValues(final Map<String, ResourceBundle> resourceBundle, final ScreenController screenController, final Properties globalProperties) {
@@ -340,6 +343,27 @@ public class Attributes {
     return extractParameters();
   }
 
+  /**
+   * @return true when at least one attribute has been tagged with mergeAndTag()
+   */
+  public boolean isTagged() {
+    return !taggedAttributes.isEmpty();
+  }
+
+  /**
+   * Replace all occurrences of search in all attribute values.
+   * @param search the String to search for
+   * @param replacement the replacement
+   */
+  public void replaceInValues(final String search, final String replacement) {
+    for (Map.Entry < String, String > entry : attributes.entrySet()) {
+      String value = entry.getValue();
+      if (value != null && value.indexOf(search) != -1) {
+        entry.setValue(value.replace(search, replacement));
+      }
+    }
+  }
+
   public void removeWithTag(final String tag) {
     Set < String > tagged = taggedAttributes.get(tag);
     if (tagged != null) {
@@ -0,0 +1,331 @@
+package de.lessvoid.xml.xpp3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+/**
+ * A XmlPullParser for documents that have been compiled with CompiledXmlWriter. Because there is no text
+ * to parse it only reports START_DOCUMENT, START_TAG, END_TAG and END_DOCUMENT events and it's a lot faster
+ * than parsing the original xml. The data can be read directly from a (memory mapped) ByteBuffer.
+ *
+ * Only the parts of XmlPullParser that make sense without text and namespaces are supported.
+ *
+ * @author void
+ */
+public class CompiledXmlPullParser implements XmlPullParser {
+  static final int RECORD_END_DOCUMENT = 0;
+  static final int RECORD_START_TAG = 1;
+  static final int RECORD_END_TAG = 2;
+
+  private ByteBuffer data;
+  private List < String > strings = new ArrayList < String >();
+  private byte[] stringBuffer = new byte[64];
+  private int eventType;
+  private int depth;
+  private List < String > tagNames = new ArrayList < String >();
+  private String name;
+  private int attributeCount;
+  private String[] attributeNames = new String[8];
+  private String[] attributeValues = new String[8];
+
+  /**
+   * Create a parser that reads from the stream given to setInput().
+   */
+  public CompiledXmlPullParser() {
+  }
+
+  /**
+   * Create a parser that reads the given data.
+   * @param dataParam compiled document from the current position to the limit of the buffer
+   */
+  public CompiledXmlPullParser(final ByteBuffer dataParam) {
+    setData(dataParam);
+  }
+
+  private void setData(final ByteBuffer dataParam) {
+    data = dataParam.slice();
+    strings.clear();
+    tagNames.clear();
+    eventType = START_DOCUMENT;
+    depth = 0;
+    name = null;
+    attributeCount = 0;
+  }
+
+  public void setInput(final InputStream inputStream, final String inputEncoding) throws XmlPullParserException {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        bytes.write(buffer, 0, read);
+      }
+      setData(ByteBuffer.wrap(bytes.toByteArray()));
+    } catch (IOException e) {
+      throw new XmlPullParserException("could not read compiled xml", this, e);
+    }
+  }
+
+  public void setInput(final Reader in) throws XmlPullParserException {
+    throw new XmlPullParserException("compiled xml can only be read from an InputStream");
+  }
+
+  public int next() throws XmlPullParserException, IOException {
+    if (eventType == END_TAG) {
+      depth--;
+      tagNames.remove(tagNames.size() - 1);
+    }
+    attributeCount = 0;
+    if (eventType == END_DOCUMENT) {
+      return eventType;
+    }
+    if (!data.hasRemaining()) {
+      throw new XmlPullParserException("unexpected end of compiled xml", this, null);
+    }
+    int record = data.get();
+    if (record == RECORD_START_TAG) {
+      try {
+        name = readString();
+        attributeCount = readVarInt();
+        ensureAttributeCapacity(attributeCount);
+        for (int i=0; i<attributeCount; i++) {
+          attributeNames[i] = readString();
+          attributeValues[i] = readString();
+        }
+      } catch (BufferUnderflowException e) {
+        attributeCount = 0;
+        throw new XmlPullParserException("unexpected end of compiled xml", this, e);
+      }
+      depth++;
+      tagNames.add(name);
+      eventType = START_TAG;
+    } else if (record == RECORD_END_TAG) {
+      if (tagNames.isEmpty()) {
+        throw new XmlPullParserException("end tag without start tag in compiled xml", this, null);
+      }
+      name = tagNames.get(tagNames.size() - 1);
+      eventType = END_TAG;
+    } else if (record == RECORD_END_DOCUMENT) {
+      name = null;
+      eventType = END_DOCUMENT;
+    } else {
+      throw new XmlPullParserException("unknown record [" + record + "] in compiled xml", this, null);
+    }
+    return eventType;
+  }
+
+  public int nextToken() throws XmlPullParserException, IOException {
+    return next();
+  }
+
+  public int nextTag() throws XmlPullParserException, IOException {
+    int result = next();
+    if (result != START_TAG && result != END_TAG) {
+      throw new XmlPullParserException("expected start or end tag", this, null);
+    }
+    return result;
+  }
+
+  public String nextText() throws XmlPullParserException, IOException {
+    if (eventType != START_TAG) {
+      throw new XmlPullParserException("parser must be on START_TAG to read next text", this, null);
+    }
+    if (next() != END_TAG) {
+      throw new XmlPullParserException("compiled xml doesn't contain mixed content", this, null);
+    }
+    return "";
+  }
+
+  public void require(final int type, final String namespace, final String nameParam) throws XmlPullParserException {
+    if (type != eventType || (nameParam != null && !nameParam.equals(name))) {
+      throw new XmlPullParserException("expected " + TYPES[type] + " " + nameParam + " but was " + getPositionDescription(), this, null);
+    }
+  }
+
+  public int getEventType() {
+    return eventType;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public boolean isEmptyElementTag() {
+    return false;
+  }
+
+  public int getAttributeCount() {
+    if (eventType != START_TAG) {
+      return -1;
+    }
+    return attributeCount;
+  }
+
+  public String getAttributeName(final int index) {
+    checkAttributeIndex(index);
+    return attributeNames[index];
+  }
+
+  public String getAttributeValue(final int index) {
+    checkAttributeIndex(index);
+    return attributeValues[index];
+  }
+
+  public String getAttributeValue(final String namespace, final String attributeName) {
+    for (int i=0; i<attributeCount; i++) {
+      if (attributeNames[i].equals(attributeName)) {
+        return attributeValues[i];
+      }
+    }
+    return null;
+  }
+
+  public String getAttributeNamespace(final int index) {
+    checkAttributeIndex(index);
+    return NO_NAMESPACE;
+  }
+
+  public String getAttributePrefix(final int index) {
+    checkAttributeIndex(index);
+    return null;
+  }
+
+  public String getAttributeType(final int index) {
+    checkAttributeIndex(index);
+    return "CDATA";
+  }
+
+  public boolean isAttributeDefault(final int index) {
+    checkAttributeIndex(index);
+    return false;
+  }
+
+  public String getPositionDescription() {
+    return TYPES[eventType] + (name == null ? "" : " <" + name + ">") + " @" + (data == null ? 0 : data.position());
+  }
+
+  public int getLineNumber() {
+    return -1;
+  }
+
+  public int getColumnNumber() {
+    return -1;
+  }
+
+  public String getText() {
+    return null;
+  }
+
+  public char[] getTextCharacters(final int[] holderForStartAndLength) {
+    return null;
+  }
+
+  public boolean isWhitespace() throws XmlPullParserException {
+    throw new XmlPullParserException("compiled xml doesn't contain text", this, null);
+  }
+
+  public String getNamespace() {
+    return NO_NAMESPACE;
+  }
+
+  public String getNamespace(final String prefix) {
+    return null;
+  }
+
+  public String getPrefix() {
+    return null;
+  }
+
+  public int getNamespaceCount(final int depthParam) {
+    return 0;
+  }
+
+  public String getNamespacePrefix(final int pos) throws XmlPullParserException {
+    throw new XmlPullParserException("compiled xml doesn't contain namespaces", this, null);
+  }
+
+  public String getNamespaceUri(final int pos) throws XmlPullParserException {
+    throw new XmlPullParserException("compiled xml doesn't contain namespaces", this, null);
+  }
+
+  public void defineEntityReplacementText(final String entityName, final String replacementText) {
+  }
+
+  public void setFeature(final String featureName, final boolean state) throws XmlPullParserException {
+    if (state) {
+      throw new XmlPullParserException("unsupported feature [" + featureName + "]");
+    }
+  }
+
+  public boolean getFeature(final String featureName) {
+    return false;
+  }
+
+  public void setProperty(final String propertyName, final Object value) throws XmlPullParserException {
+    throw new XmlPullParserException("unsupported property [" + propertyName + "]");
+  }
+
+  public Object getProperty(final String propertyName) {
+    return null;
+  }
+
+  public String getInputEncoding() {
+    return "UTF-8";
+  }
+
+  private void checkAttributeIndex(final int index) {
+    if (eventType != START_TAG || index < 0 || index >= attributeCount) {
+      throw new IndexOutOfBoundsException("attribute index [" + index + "] is not valid");
+    }
+  }
+
+  private void ensureAttributeCapacity(final int count) {
+    if (attributeNames.length < count) {
+      attributeNames = new String[count];
+      attributeValues = new String[count];
+    }
+  }
+
+  private String readString() throws IOException {
+    int reference = readVarInt();
+    if (reference > 0) {
+      if (reference > strings.size()) {
+        throw new IOException("invalid string reference [" + reference + "] in compiled xml");
+      }
+      return strings.get(reference - 1);
+    }
+    int length = readVarInt();
+    if (stringBuffer.length < length) {
+      stringBuffer = new byte[Math.max(length, stringBuffer.length * 2)];
+    }
+    data.get(stringBuffer, 0, length);
+    String result = new String(stringBuffer, 0, length, "UTF-8");
+    strings.add(result);
+    return result;
+  }
+
+  private int readVarInt() throws IOException {
+    int result = 0;
+    for (int shift=0; shift<32; shift+=7) {
+      int b = data.get();
+      result |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IOException("invalid varint in compiled xml");
+  }
+}
@@ -0,0 +1,101 @@
+package de.lessvoid.xml.xpp3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.xmlpull.mxp1.MXParser;
+import org.xmlpull.v1.XmlPullParser;
+
+/**
+ * Writes the elements and attributes of a xml document in the compact binary format that
+ * CompiledXmlPullParser reads. Text content, comments and processing instructions are not kept.
+ *
+ * The format is a sequence of records:
+ * - START_TAG: the byte CompiledXmlPullParser.RECORD_START_TAG, the tag name, the number of attributes
+ *   (varint) and the name and the value of every attribute
+ * - END_TAG: the byte CompiledXmlPullParser.RECORD_END_TAG
+ * - the byte CompiledXmlPullParser.RECORD_END_DOCUMENT at the end
+ *
+ * Every string is written as a varint. 0 means that a new string follows (varint length and the UTF-8
+ * bytes) and any other value n is a reference to the n-th new string of the document.
+ *
+ * @author void
+ */
+public class CompiledXmlWriter {
+  private OutputStream out;
+  private Map < String, Integer > strings = new HashMap < String, Integer >();
+
+  private CompiledXmlWriter(final OutputStream outParam) {
+    out = outParam;
+  }
+
+  /**
+   * Compile the xml document from the given stream.
+   * @param xml the xml document
+   * @return the compiled document
+   * @throws Exception when the document could not be parsed
+   */
+  public static byte[] compile(final InputStream xml) throws Exception {
+    XmlPullParser xpp = new MXParser();
+    xpp.setInput(xml, null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    compile(xpp, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Compile the xml document the given XmlPullParser reads.
+   * @param xpp the XmlPullParser (input must already be set)
+   * @param out the compiled document is written to this stream
+   * @throws Exception when the document could not be parsed
+   */
+  public static void compile(final XmlPullParser xpp, final OutputStream out) throws Exception {
+    new CompiledXmlWriter(out).write(xpp);
+  }
+
+  private void write(final XmlPullParser xpp) throws Exception {
+    int eventType = xpp.getEventType();
+    while (eventType != XmlPullParser.END_DOCUMENT) {
+      if (eventType == XmlPullParser.START_TAG) {
+        out.write(CompiledXmlPullParser.RECORD_START_TAG);
+        writeString(xpp.getName());
+        writeVarInt(xpp.getAttributeCount());
+        for (int i=0; i<xpp.getAttributeCount(); i++) {
+          writeString(xpp.getAttributeName(i));
+          writeString(xpp.getAttributeValue(i));
+        }
+      } else if (eventType == XmlPullParser.END_TAG) {
+        out.write(CompiledXmlPullParser.RECORD_END_TAG);
+      }
+      eventType = xpp.next();
+    }
+    out.write(CompiledXmlPullParser.RECORD_END_DOCUMENT);
+    out.flush();
+  }
+
+  private void writeString(final String value) throws IOException {
+    Integer index = strings.get(value);
+    if (index != null) {
+      writeVarInt(index);
+      return;
+    }
+    strings.put(value, strings.size() + 1);
+    byte[] bytes = value.getBytes("UTF-8");
+    writeVarInt(0);
+    writeVarInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private void writeVarInt(final int value) throws IOException {
+    int v = value;
+    while ((v & ~0x7F) != 0) {
+      out.write((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    out.write(v);
+  }
+}
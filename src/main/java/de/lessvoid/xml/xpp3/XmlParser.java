@@ -1,6 +1,7 @@
 package de.lessvoid.xml.xpp3;
 
 import java.io.InputStream;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.xmlpull.v1.XmlPullParser;
@@ -145,7 +146,9 @@ public class XmlParser {
    * @throws Exception exception
    */
   private void processElement(final XmlProcessor xmlElement) throws Exception {
-    log.fine("process element: " + xmlElement.getClass().getName());
+    if (log.isLoggable(Level.FINE)) {
+      log.fine("process element: " + xmlElement.getClass().getName());
+    }
     try {
      xmlElement.process(this, new Attributes(xpp));
     } catch (Exception ex) {
@@ -178,11 +181,14 @@ public class XmlParser {
     int eventType = xpp.next();
     while (eventType != XmlPullParser.END_DOCUMENT) {
      if (eventType == XmlPullParser.END_TAG) {
-       indent();
-       log.fine(indent() + "END <" + xpp.getName() + ">");
+       if (log.isLoggable(Level.FINE)) {
+         log.fine(indent() + "END <" + xpp.getName() + ">");
+       }
        return;
      } else if (eventType == XmlPullParser.START_TAG) {
-       log.fine(indent() + "START <" + xpp.getName() + ">");
+       if (log.isLoggable(Level.FINE)) {
+         log.fine(indent() + "START <" + xpp.getName() + ">");
+       }
        return;
      }
      eventType = xpp.next();
@@ -0,0 +1,54 @@
+package de.lessvoid.nifty;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class NiftyEventAnnotationProcessorTest {
+  private Nifty nifty;
+  private Listener listener = new Listener();
+
+  @Before
+  public void before() {
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+  }
+
+  @Test
+  public void testProcessWithDispatcher() {
+    NiftyEventAnnotationProcessor.process(listener, nifty.getEventDispatcher());
+    nifty.publishEvent("button", new TestEvent());
+    NiftyEventAnnotationProcessor.unprocess(listener, nifty.getEventDispatcher());
+    nifty.publishEvent("button", new TestEvent());
+    assertEquals("[button]", listener.events.toString());
+  }
+
+  @Test
+  public void testProcessWithEventService() {
+    NiftyEventAnnotationProcessor.process(listener);
+    nifty.publishEvent("button", new TestEvent());
+    NiftyEventAnnotationProcessor.unprocess(listener);
+    nifty.publishEvent("button", new TestEvent());
+    assertEquals("[button]", listener.events.toString());
+  }
+
+  public static class Listener {
+    private List < String > events = new ArrayList < String >();
+
+    @NiftyEventSubscriber(id = "button")
+    public void onEvent(final String id, final TestEvent event) {
+      events.add(id);
+    }
+  }
+
+  public static class TestEvent implements NiftyEvent < Void > {
+  }
+}
@@ -0,0 +1,129 @@
+package de.lessvoid.nifty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+import org.bushe.swing.event.ProxySubscriber;
+import org.bushe.swing.event.annotation.ReferenceStrength;
+import org.junit.Test;
+
+public class NiftyEventDispatcherTest {
+  private NiftyEventDispatcher dispatcher = new NiftyEventDispatcher();
+  private List < String > log = new ArrayList < String >();
+
+  @Test
+  public void testIdAndPatternSubscribers() {
+    dispatcher.subscribe(Pattern.compile("button.*"), new LogSubscriber("pattern"));
+    dispatcher.subscribe("button1", new LogSubscriber("id"));
+    dispatcher.publish("button1", "a");
+    dispatcher.publish("button2", "b");
+    dispatcher.publish("label", "c");
+    assertEquals("[id button1 a, pattern button1 a, pattern button2 b]", log.toString());
+  }
+
+  @Test
+  public void testHasSubscribers() {
+    assertFalse(dispatcher.hasSubscribers("button1"));
+    LogSubscriber subscriber = new LogSubscriber("id");
+    dispatcher.subscribe("button1", subscriber);
+    assertTrue(dispatcher.hasSubscribers("button1"));
+    dispatcher.unsubscribe("button1", subscriber);
+    assertFalse(dispatcher.hasSubscribers("button1"));
+  }
+
+  @Test
+  public void testSubscribeTwice() {
+    LogSubscriber subscriber = new LogSubscriber("id");
+    dispatcher.subscribe("button1", subscriber);
+    dispatcher.subscribe("button1", subscriber);
+    dispatcher.publish("button1", "a");
+    assertEquals("[id button1 a]", log.toString());
+  }
+
+  @Test
+  public void testUnsubscribeProxiedSubscriber() {
+    Object target = new Object();
+    Proxy proxy = new Proxy(target);
+    dispatcher.subscribe(Pattern.compile("button.*"), proxy);
+    assertTrue(dispatcher.unsubscribe(Pattern.compile("button.*"), target));
+    assertTrue(proxy.unsubscribed);
+    assertFalse(dispatcher.hasSubscribers("button1"));
+  }
+
+  @Test
+  public void testFailingSubscriberDoesNotStopDispatch() {
+    dispatcher.subscribe("button1", new EventTopicSubscriber < Object >() {
+      public void onEvent(final String topic, final Object data) {
+        throw new RuntimeException("expected");
+      }
+    });
+    dispatcher.subscribe("button1", new LogSubscriber("id"));
+    dispatcher.publish("button1", "a");
+    assertEquals("[id button1 a]", log.toString());
+  }
+
+  @Test
+  public void testUnsubscribeWhileDispatching() {
+    final LogSubscriber second = new LogSubscriber("second");
+    dispatcher.subscribe("button1", new EventTopicSubscriber < Object >() {
+      public void onEvent(final String topic, final Object data) {
+        dispatcher.unsubscribe("button1", second);
+      }
+    });
+    dispatcher.subscribe("button1", second);
+    dispatcher.publish("button1", "a");
+    dispatcher.publish("button1", "b");
+    assertEquals("[second button1 a]", log.toString());
+  }
+
+  @Test
+  public void testPublishLater() {
+    dispatcher.subscribe("button1", new LogSubscriber("id"));
+    dispatcher.publishLater("button1", "a");
+    assertTrue(log.isEmpty());
+    dispatcher.dispatchQueuedEvents();
+    assertEquals("[id button1 a]", log.toString());
+  }
+
+  private class LogSubscriber implements EventTopicSubscriber < Object > {
+    private String name;
+
+    private LogSubscriber(final String name) {
+      this.name = name;
+    }
+
+    public void onEvent(final String topic, final Object data) {
+      log.add(name + " " + topic + " " + data);
+    }
+  }
+
+  private static class Proxy implements EventTopicSubscriber < Object >, ProxySubscriber {
+    private Object target;
+    private boolean unsubscribed;
+
+    private Proxy(final Object target) {
+      this.target = target;
+    }
+
+    public void onEvent(final String topic, final Object data) {
+    }
+
+    public Object getProxiedSubscriber() {
+      return target;
+    }
+
+    public void proxyUnsubscribed() {
+      unsubscribed = true;
+    }
+
+    public ReferenceStrength getReferenceStrength() {
+      return ReferenceStrength.STRONG;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package de.lessvoid.nifty;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class NiftyMethodInvokerTest {
+  private List < String > calls = new ArrayList < String >();
+
+  @Test
+  public void testEncodedParameters() {
+    new NiftyMethodInvoker(null, "twoParameters(a, b)", new Target("t")).performInvoke("ignored", "too");
+    assertEquals("[t:twoParameters(a,b)]", calls.toString());
+  }
+
+  @Test
+  public void testEncodedParametersMismatchCallsWithoutParameters() {
+    NiftyMethodInvoker invoker = new NiftyMethodInvoker(null, "noParameters(a)", new Target("t"));
+    invoker.performInvoke();
+    invoker.performInvoke();
+    assertEquals("[t:noParameters(), t:noParameters()]", calls.toString());
+  }
+
+  @Test
+  public void testActualParametersAreForwarded() {
+    new NiftyMethodInvoker(null, "twoParameters()", new Target("t")).performInvoke("x", "y");
+    assertEquals("[t:twoParameters(x,y)]", calls.toString());
+  }
+
+  @Test
+  public void testAllTargetsUntilOneReturnsTrue() {
+    new NiftyMethodInvoker(null, "consume()", new Object(), new Target("t1"), new Target("t2")).performInvoke();
+    assertEquals("[t1:consume()]", calls.toString());
+  }
+
+  @Test
+  public void testAllTargetsAreCalled() {
+    new NiftyMethodInvoker(null, "noParameters()", new Target("t1"), new Target("t2")).performInvoke();
+    assertEquals("[t1:noParameters(), t2:noParameters()]", calls.toString());
+  }
+
+  public class Target {
+    private String name;
+
+    public Target(final String name) {
+      this.name = name;
+    }
+
+    public void noParameters() {
+      calls.add(name + ":noParameters()");
+    }
+
+    public void twoParameters(final String a, final String b) {
+      calls.add(name + ":twoParameters(" + a + "," + b + ")");
+    }
+
+    public boolean consume() {
+      calls.add(name + ":consume()");
+      return true;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package de.lessvoid.nifty;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import junit.framework.TestCase;
+import de.lessvoid.nifty.NiftyStatistics.Counter;
+import de.lessvoid.nifty.NiftyStatistics.Timing;
+import de.lessvoid.nifty.render.NiftyRenderEngineImpl;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+
+public class NiftyStatisticsTest extends TestCase {
+  private NiftyStatistics statistics = new NiftyStatistics(10);
+
+  public void testDisabledByDefault() {
+    assertFalse(statistics.isEnabled());
+    assertEquals(0, statistics.startTiming());
+
+    statistics.count(Counter.QUADS);
+    statistics.stopTiming(Timing.RENDER, System.nanoTime());
+    statistics.endFrame();
+
+    assertEquals(0, statistics.getFrameCount());
+    assertEquals(0, statistics.getHistogram(Counter.QUADS).getCount());
+  }
+
+  public void testFrameValuesAreAddedAtEndOfFrame() {
+    statistics.setEnabled(true);
+    statistics.count(Counter.QUADS);
+    statistics.count(Counter.QUADS);
+    long start = statistics.startTiming();
+    statistics.stopTiming(Timing.RENDER, start);
+    assertEquals(0, statistics.getHistogram(Counter.QUADS).getCount());
+
+    statistics.endFrame();
+    statistics.count(Counter.QUADS);
+    statistics.endFrame();
+
+    assertEquals(2, statistics.getFrameCount());
+    assertEquals(2, statistics.getHistogram(Counter.QUADS).getMax());
+    assertEquals(1, statistics.getHistogram(Counter.QUADS).getLast());
+    assertEquals(0, statistics.getHistogram(Counter.IMAGES).getMax());
+    assertEquals(2, statistics.getHistogram(Timing.RENDER).getCount());
+  }
+
+  public void testEnabledBetweenStartAndStop() {
+    long start = statistics.startTiming();
+    statistics.setEnabled(true);
+    statistics.stopTiming(Timing.UPDATE, start);
+    statistics.endFrame();
+    assertEquals(0, statistics.getHistogram(Timing.UPDATE).getLast());
+  }
+
+  public void testRenderEngineCountsRenderCalls() {
+    RenderDevice renderDevice = createNiceMock(RenderDevice.class);
+    expect(renderDevice.getWidth()).andReturn(1024);
+    expect(renderDevice.getHeight()).andReturn(768);
+    replay(renderDevice);
+
+    NiftyRenderEngineImpl engine = new NiftyRenderEngineImpl(renderDevice);
+    engine.setStatistics(statistics);
+    statistics.setEnabled(true);
+
+    engine.saveState(null);
+    engine.renderQuad(0, 0, 10, 10);
+    engine.enableClip(0, 0, 10, 10);
+    engine.disableClip();
+    engine.restoreState();
+    statistics.endFrame();
+
+    assertEquals(1, statistics.getHistogram(Counter.QUADS).getLast());
+    assertEquals(1, statistics.getHistogram(Counter.SAVE_STATES).getLast());
+    assertTrue(statistics.getHistogram(Counter.CLIP_CHANGES).getLast() >= 2);
+  }
+}
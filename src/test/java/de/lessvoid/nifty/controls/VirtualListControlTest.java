@@ -0,0 +1,89 @@
+package de.lessvoid.nifty.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class VirtualListControlTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element list;
+  private VirtualListControl control;
+  private List < String > bound = new ArrayList < String >();
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty><screen id=\"start\"><layer id=\"layer\" childLayout=\"absolute\">" +
+        "<panel id=\"list\" x=\"0px\" y=\"0px\" width=\"200px\" height=\"100px\"" +
+        " controller=\"de.lessvoid.nifty.controls.VirtualListControl\" rowHeight=\"20\" overscan=\"1\"/>" +
+        "</layer></screen></nifty>";
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    screen = nifty.getCurrentScreen();
+    list = screen.findElementByName("list");
+    control = list.getControl(VirtualListControl.class);
+
+    control.setRowTemplate(new PanelBuilder() {{
+      height("20px");
+    }}.buildElementType());
+    control.setBinder(new VirtualListBinder() {
+      public void bind(final Element rowElement, final int row) {
+        bound.add(rowElement.getId() + "=" + row);
+      }
+    });
+    control.setRowCount(10000);
+  }
+
+  @Test
+  public void testOnlyVisibleRowsAreMaterialized() {
+    // 5 visible rows plus 1 row of overscan below
+    assertEquals(6, control.getRowElementCount());
+    assertEquals(6, list.getElements().size());
+    assertEquals(6, bound.size());
+    assertEquals(0, control.getRowElement(0).getY());
+    assertEquals(80, control.getRowElement(4).getY());
+    assertNull(control.getRowElement(6));
+  }
+
+  @Test
+  public void testScrollingRecyclesRows() {
+    control.scrollToRow(5000);
+    assertEquals(100000, control.getScrollY());
+    assertEquals(7, control.getRowElementCount());
+    assertEquals(0, control.getRowElement(5000).getY());
+    assertEquals(-20, control.getRowElement(4999).getY());
+
+    bound.clear();
+    control.scrollBy(20);
+    // only the row that scrolled into view is bound again
+    assertEquals(1, bound.size());
+    assertEquals(0, control.getRowElement(5001).getY());
+    assertEquals(7, list.getElements().size());
+  }
+
+  @Test
+  public void testScrollIsClamped() {
+    control.scrollTo(Integer.MAX_VALUE);
+    assertEquals(200000 - 100, control.getScrollY());
+    assertEquals(80, control.getRowElement(9999).getY());
+    control.setRowCount(3);
+    assertEquals(0, control.getScrollY());
+    assertNull(control.getRowElement(3));
+  }
+}
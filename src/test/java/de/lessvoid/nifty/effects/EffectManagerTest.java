@@ -0,0 +1,183 @@
+package de.lessvoid.nifty.effects;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.render.RenderStateType;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class EffectManagerTest {
+  private EffectManager effectManager;
+  private TimeProvider timeProvider = new TimeProvider();
+  private Color color = new Color("#f00f");
+
+  @Before
+  public void before() {
+    effectManager = new EffectManager();
+  }
+
+  @Test
+  public void testNoActiveEffectsSavesAllStates() {
+    NiftyRenderEngine renderEngine = createMock(NiftyRenderEngine.class);
+    renderEngine.saveState(EnumSet.allOf(RenderStateType.class));
+    renderEngine.restoreState();
+    replay(renderEngine);
+
+    renderFrame(renderEngine);
+    assertFalse(effectManager.hasActiveEffects());
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testInheritEffectStatesAreNotSaved() {
+    registerEffect(EffectEventId.onActive, true, false, false);
+    effectManager.startEffect(EffectEventId.onActive, null, timeProvider, null);
+    assertTrue(effectManager.hasActiveEffects());
+
+    NiftyRenderEngine renderEngine = createMock(NiftyRenderEngine.class);
+    renderEngine.saveState(EnumSet.complementOf(EnumSet.of(RenderStateType.color, RenderStateType.alpha)));
+    renderEngine.setColor(color);
+    renderEngine.restoreState();
+    replay(renderEngine);
+
+    renderFrame(renderEngine);
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testStoppedEffectIsNotRendered() {
+    registerEffect(EffectEventId.onCustom, false, false, false);
+    effectManager.startEffect(EffectEventId.onCustom, null, timeProvider, null);
+    effectManager.stopEffect(EffectEventId.onCustom);
+    assertFalse(effectManager.hasActiveEffects());
+
+    NiftyRenderEngine renderEngine = createMock(NiftyRenderEngine.class);
+    renderEngine.saveState(EnumSet.allOf(RenderStateType.class));
+    renderEngine.restoreState();
+    replay(renderEngine);
+
+    renderFrame(renderEngine);
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testRenderingDoesNotAllocate() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+
+    registerEffect(EffectEventId.onActive, true, false, false);
+    registerEffect(EffectEventId.onActive, false, true, false);
+    registerEffect(EffectEventId.onActive, false, false, true);
+    registerEffect(EffectEventId.onHover, false, false, false);
+    effectManager.startEffect(EffectEventId.onActive, null, timeProvider, null);
+
+    NiftyRenderEngine renderEngine = new NiftyRenderDeviceProxy();
+    int frames = 20000;
+    for (int i=0; i<frames; i++) {
+      renderFrame(renderEngine);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i=0; i<frames; i++) {
+      renderFrame(renderEngine);
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+    // a few bytes are allocated by getThreadAllocatedBytes() itself but there must not be anything per frame
+    assertTrue("allocated " + allocated + " bytes for " + frames + " frames", allocated < frames);
+  }
+
+  @Test
+  public void testEmptyEffectManagerHasNoEffects() {
+    EffectManager empty = EffectManager.EMPTY;
+    empty.startEffect(EffectEventId.onHover, null, timeProvider, null);
+    empty.handleHover(null, 0, 0);
+    empty.resetAll();
+    empty.resetForHide();
+    empty.restoreForShow();
+    assertTrue(empty.isEmpty());
+    assertFalse(empty.isActive(EffectEventId.onHover));
+    assertFalse(empty.hasActiveEffects());
+    assertEquals(0, empty.getEffects(EffectEventId.onHover, SetColorEffect.class).size());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testEmptyEffectManagerCantRegisterEffects() {
+    effectManager = EffectManager.EMPTY;
+    registerEffect(EffectEventId.onActive, false, false, false);
+  }
+
+  @Test
+  public void testEffectManagerWithoutEffectsIsSmall() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return;
+    }
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+      return;
+    }
+
+    int count = 1000;
+    EffectManager[] managers = new EffectManager[count];
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i=0; i<count; i++) {
+      managers[i] = new EffectManager();
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+    // the EffectProcessors are only created when effects are registered. all that's left is the EffectManager itself
+    assertTrue("allocated " + allocated + " bytes for " + count + " EffectManagers", allocated < count * 64);
+  }
+
+  private void renderFrame(final NiftyRenderEngine renderEngine) {
+    effectManager.begin(renderEngine, null);
+    effectManager.renderPre(renderEngine, null);
+    effectManager.renderPost(renderEngine, null);
+    effectManager.end(renderEngine);
+    effectManager.renderOverlay(renderEngine, null);
+  }
+
+  private void registerEffect(final EffectEventId id, final boolean inherit, final boolean post, final boolean overlay) {
+    Effect effect = new Effect(null, inherit, post, overlay, null, null, null, true, id);
+    effect.enableInfinite();
+    effect.init(null, new SetColorEffect(), new EffectProperties(new Properties()), timeProvider, new LinkedList < Object >());
+    effectManager.registerEffect(id, effect);
+  }
+
+  private class SetColorEffect implements EffectImpl {
+    public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
+    }
+
+    public void execute(final Element element, final float effectTime, final Falloff falloff, final NiftyRenderEngine r) {
+      r.setColor(color);
+    }
+
+    public void deactivate() {
+    }
+  }
+}
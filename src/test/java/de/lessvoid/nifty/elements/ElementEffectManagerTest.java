@@ -0,0 +1,154 @@
+package de.lessvoid.nifty.elements;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.effects.Effect;
+import de.lessvoid.nifty.effects.EffectEventId;
+import de.lessvoid.nifty.effects.EffectImpl;
+import de.lessvoid.nifty.effects.EffectManager;
+import de.lessvoid.nifty.effects.EffectProperties;
+import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class ElementEffectManagerTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element layer;
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty><screen id=\"start\"><layer id=\"layer\" childLayout=\"vertical\">" +
+        "<panel id=\"panel\" height=\"10px\" width=\"100px\"/><text id=\"text\" text=\"hello\"/>" +
+        "</layer></screen></nifty>";
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    screen = nifty.getCurrentScreen();
+    layer = screen.findElementByName("layer");
+  }
+
+  @Test
+  public void testElementsWithoutEffectsShareEmptyEffectManager() {
+    assertSame(EffectManager.EMPTY, layer.getCurrentEffectManager());
+    assertSame(EffectManager.EMPTY, screen.findElementByName("panel").getCurrentEffectManager());
+    assertSame(EffectManager.EMPTY, screen.findElementByName("text").getCurrentEffectManager());
+    assertNull(layer.getFalloff());
+  }
+
+  @Test
+  public void testRegisterEffectCreatesEffectManager() {
+    Element panel = screen.findElementByName("panel");
+    panel.setHotSpotFalloff(null);
+    assertSame(EffectManager.EMPTY, panel.getCurrentEffectManager());
+
+    panel.registerEffect(EffectEventId.onCustom, createEffect(EffectEventId.onCustom));
+    assertNotSame(EffectManager.EMPTY, panel.getCurrentEffectManager());
+    assertEquals(1, panel.getEffects(EffectEventId.onCustom, NoEffect.class).size());
+    assertSame(EffectManager.EMPTY, layer.getCurrentEffectManager());
+
+    panel.startEffect(EffectEventId.onCustom);
+    assertTrue(panel.isEffectActive(EffectEventId.onCustom));
+  }
+
+  @Test
+  public void testRegisterEffectWithGetEffectManager() {
+    Element panel = screen.findElementByName("panel");
+    EffectManager effectManager = panel.getEffectManager();
+    assertNotSame(EffectManager.EMPTY, effectManager);
+    assertSame(effectManager, panel.getCurrentEffectManager());
+
+    effectManager.registerEffect(EffectEventId.onCustom, createEffect(EffectEventId.onCustom));
+    assertEquals(1, panel.getEffects(EffectEventId.onCustom, NoEffect.class).size());
+  }
+
+  @Test
+  public void testCreatedElementsShareEmptyEffectManager() {
+    screen.beginUpdate();
+    for (int i=0; i<100; i++) {
+      new PanelBuilder("p" + i) {{
+        height("1px");
+        width("1px");
+      }}.build(nifty, screen, layer);
+    }
+    screen.commit();
+
+    for (int i=0; i<100; i++) {
+      assertSame(EffectManager.EMPTY, screen.findElementByName("p" + i).getCurrentEffectManager());
+    }
+  }
+
+  @Test
+  public void testFootprintOfElementsWithoutEffects() {
+    screen.beginUpdate();
+    for (int i=0; i<100; i++) {
+      new PanelBuilder("p" + i) {{
+        height("1px");
+        width("1px");
+      }}.build(nifty, screen, layer);
+    }
+    screen.commit();
+
+    // the old eager layout created an EffectManager with one EffectProcessor for every EffectEventId per element
+    int eagerPerElement = 1 + EffectEventId.values().length;
+    assertEquals(16, eagerPerElement);
+    assertEquals(102, layer.getElements().size());
+    assertEquals(0, countEffectObjects(layer.getElements()));
+
+    // an element with a single effect only gets the EffectManager and the EffectProcessor it needs
+    Element panel = screen.findElementByName("p0");
+    panel.registerEffect(EffectEventId.onCustom, createEffect(EffectEventId.onCustom));
+    assertEquals(2, countEffectObjects(layer.getElements()));
+    assertTrue(countEffectObjects(layer.getElements()) < eagerPerElement);
+  }
+
+  /**
+   * @return the number of EffectManagers and EffectProcessors the elements have allocated
+   */
+  private int countEffectObjects(final List < Element > elements) {
+    int count = 0;
+    for (Element element : elements) {
+      EffectManager effectManager = element.getCurrentEffectManager();
+      if (effectManager != EffectManager.EMPTY) {
+        count += 1 + effectManager.getEffectProcessorCount();
+      }
+    }
+    return count;
+  }
+
+  private Effect createEffect(final EffectEventId id) {
+    Effect effect = new Effect(nifty, false, false, false, null, null, null, true, id);
+    effect.enableInfinite();
+    effect.init(null, new NoEffect(), new EffectProperties(new Properties()), new TimeProvider(), new LinkedList < Object >());
+    return effect;
+  }
+
+  private static class NoEffect implements EffectImpl {
+    public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
+    }
+
+    public void execute(final Element element, final float effectTime, final Falloff falloff, final NiftyRenderEngine r) {
+    }
+
+    public void deactivate() {
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package de.lessvoid.nifty.elements;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.layout.manager.VerticalLayout;
+import de.lessvoid.nifty.tools.SizeValue;
+
+public class ElementLayoutDirtyTest {
+  private Nifty niftyMock;
+  private FocusHandler focusHandler = new FocusHandler();
+  private Element root;
+  private Element fixed;
+  private Element fixedChild;
+  private Element other;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+
+    root = createElement("root", null, "100px", "100px");
+    root.setWidth(100);
+    root.setHeight(100);
+    fixed = createElement("fixed", root, "100px", "50px");
+    fixedChild = createElement("fixedChild", fixed, "100%", "10px");
+    other = createElement("other", root, "100px", "20px");
+
+    root.layoutElements();
+  }
+
+  @Test
+  public void testLayoutElementsClearsDirtyFlags() {
+    assertFalse(root.isLayoutDirty());
+    assertFalse(fixed.isLayoutDirty());
+    assertFalse(fixedChild.isLayoutDirty());
+    assertFalse(other.isLayoutDirty());
+  }
+
+  @Test
+  public void testInvalidationStopsAtFixedSizeParent() {
+    fixedChild.setConstraintHeight(new SizeValue("20px"));
+
+    assertTrue(root.isLayoutDirty());
+    assertTrue(fixed.isLayoutDirty());
+    assertFalse(other.isLayoutDirty());
+
+    other.setWidth(42);
+    root.layoutDirtyElements();
+
+    assertEquals(20, fixedChild.getHeight());
+    assertEquals(42, other.getWidth());
+    assertFalse(root.isLayoutDirty());
+    assertFalse(fixed.isLayoutDirty());
+  }
+
+  @Test
+  public void testInvalidationContinuesWhenSizeDependsOnChildren() {
+    fixed.setConstraintHeight(null);
+    fixed.setConstraintWidth(null);
+    root.layoutDirtyElements();
+    fixedChild.setConstraintWidth(new SizeValue("80px"));
+    root.layoutDirtyElements();
+    assertEquals(10, fixed.getHeight());
+    assertEquals(10, other.getY());
+
+    fixedChild.setConstraintHeight(new SizeValue("30px"));
+    root.layoutDirtyElements();
+
+    assertEquals(30, fixed.getHeight());
+    assertEquals(30, other.getY());
+  }
+
+  @Test
+  public void testDirectBoxConstraintsChange() {
+    fixedChild.getLayoutPart().getBoxConstraints().setHeight(new SizeValue("25px"));
+    other.getLayoutPart().getBoxConstraints().setPaddingLeft(new SizeValue("5px"));
+    root.layoutDirtyElements();
+
+    assertEquals(25, fixedChild.getHeight());
+    assertFalse(root.isLayoutDirty());
+  }
+
+  @Test
+  public void testUnchangedBoxConstraintsAreNotLayoutedAgain() {
+    int layoutVersion = root.getLayoutVersion();
+    root.layoutDirtyElements();
+    assertEquals(layoutVersion, root.getLayoutVersion());
+
+    fixed.getLayoutPart().getBoxConstraints().setHeight(new SizeValue("60px"));
+    root.layoutDirtyElements();
+    assertEquals(60, other.getY());
+    assertTrue(root.getLayoutVersion() != layoutVersion);
+  }
+
+  private Element createElement(final String id, final Element parent, final String width, final String height) {
+    Element element = new Element(niftyMock, null, id, parent, focusHandler, false, null);
+    element.setLayoutManager(new VerticalLayout());
+    element.setConstraintWidth(new SizeValue(width));
+    element.setConstraintHeight(new SizeValue(height));
+    if (parent != null) {
+      parent.add(element);
+    }
+    return element;
+  }
+}
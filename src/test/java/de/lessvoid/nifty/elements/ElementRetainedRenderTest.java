@@ -0,0 +1,119 @@
+package de.lessvoid.nifty.elements;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedList;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.effects.Effect;
+import de.lessvoid.nifty.effects.EffectEventId;
+import de.lessvoid.nifty.effects.EffectImpl;
+import de.lessvoid.nifty.effects.EffectProperties;
+import de.lessvoid.nifty.effects.Falloff;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class ElementRetainedRenderTest {
+  private TestTimeProvider time;
+  private Nifty nifty;
+  private Element panel;
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty><screen id=\"start\"><layer id=\"layer\" childLayout=\"vertical\">" +
+        "<panel id=\"panel\" height=\"10px\" width=\"100px\"/>" +
+        "</layer></screen></nifty>";
+    time = new TestTimeProvider();
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), time);
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    nifty.setRetainedRenderMode(true);
+    panel = nifty.getCurrentScreen().findElementByName("panel");
+  }
+
+  @Test
+  public void testElementWithoutEffectsIsReplayed() {
+    nifty.render(false);
+    assertFalse(panel.isRenderDirty());
+  }
+
+  @Test
+  public void testNeverStopRenderingEffectIsRenderedAfterItHasEnded() {
+    CountingEffect counting = new CountingEffect();
+    panel.registerEffect(EffectEventId.onCustom, createEffect(counting, true));
+    panel.startEffect(EffectEventId.onCustom);
+
+    nifty.render(false);
+    assertEquals(1, counting.executed);
+
+    // the effect ends but keeps on rendering because of neverStopRendering
+    time.ms = 200;
+    nifty.render(false);
+    assertEquals(2, counting.executed);
+    assertFalse(panel.isEffectActive(EffectEventId.onCustom));
+
+    for (int i=0; i<3; i++) {
+      nifty.render(false);
+    }
+    assertEquals(5, counting.executed);
+    assertTrue(panel.isRenderDirty());
+  }
+
+  @Test
+  public void testEndedEffectIsReplayed() {
+    CountingEffect counting = new CountingEffect();
+    panel.registerEffect(EffectEventId.onCustom, createEffect(counting, false));
+    panel.startEffect(EffectEventId.onCustom);
+
+    nifty.render(false);
+    time.ms = 200;
+    nifty.render(false);
+    nifty.render(false);
+    int executed = counting.executed;
+
+    nifty.render(false);
+    assertEquals(executed, counting.executed);
+    assertFalse(panel.isRenderDirty());
+  }
+
+  private Effect createEffect(final EffectImpl effectImpl, final boolean neverStopRendering) {
+    Properties properties = new Properties();
+    properties.setProperty("length", "100");
+    Effect effect = new Effect(nifty, false, false, false, null, null, null, neverStopRendering, EffectEventId.onCustom);
+    effect.init(panel, effectImpl, new EffectProperties(properties), time, new LinkedList < Object >());
+    return effect;
+  }
+
+  private static class CountingEffect implements EffectImpl {
+    private int executed;
+
+    public void activate(final Nifty nifty, final Element element, final EffectProperties parameter) {
+    }
+
+    public void execute(final Element element, final float effectTime, final Falloff falloff, final NiftyRenderEngine r) {
+      executed++;
+    }
+
+    public void deactivate() {
+    }
+  }
+
+  private static class TestTimeProvider extends TimeProvider {
+    private long ms;
+
+    @Override
+    public long getMsTime() {
+      return ms;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package de.lessvoid.nifty.elements;
+
+import junit.framework.TestCase;
+import de.lessvoid.xml.tools.MethodResolver;
+
+public class MethodResolverFindMethodTest extends TestCase {
+
+  public void testMethodClassNull() {
+    assertNull(MethodResolver.findMethod(null, "methodThatDoesNotExist()"));
+  }
+
+  public void testMethodDoesNotExist() {
+    assertNull(MethodResolver.findMethod(MethodResolverFindMethodTest.class, "methodThatDoesNotExist()"));
+  }
+
+  public void testMethodWithoutArgumentList() {
+    assertNull(MethodResolver.findMethod(MethodResolverFindMethodTest.class, "publicMethod"));
+  }
+
+  public void testMethodIsMatchedCaseInsensitive() {
+    assertEquals("publicMethod", MethodResolver.findMethod(MethodResolverFindMethodTest.class, "PUBLICmethod(a, b)").getName());
+  }
+
+  public void testInheritedMethod() {
+    assertEquals(TestCase.class, MethodResolver.findMethodByName(MethodResolverFindMethodTest.class, "getName").getDeclaringClass());
+  }
+
+  public void testMethodIsCached() {
+    assertSame(
+        MethodResolver.findMethod(MethodResolverFindMethodTest.class, "publicMethod()"),
+        MethodResolver.findMethodByName(MethodResolverFindMethodTest.class, "publicmethod"));
+  }
+
+  public void publicMethod() {
+  }
+}
@@ -35,6 +35,27 @@ public class TextRendererTest extends TestCase {
     verify(niftyMock);
   }
 
+  public void testSetFontMeasuresTheTextAgain() {
+    Nifty niftyMock = createMock(Nifty.class);
+    expect(niftyMock.specialValuesReplace("abc")).andReturn("abc").times(2);
+    replay(niftyMock);
+
+    RenderFont widerFont = createMock(RenderFont.class);
+    expect(widerFont.getHeight()).andReturn(10).anyTimes();
+    expect(widerFont.getWidth("abc")).andReturn(30).anyTimes();
+    replay(widerFont);
+
+    TextRenderer render = new TextRenderer(niftyMock, renderFont, "abc");
+    assertEquals(0, render.getTextWidth());
+
+    // this is what ApplyRenderText does when the style changes the font but not the text
+    render.setFont(widerFont);
+    render.setText("abc");
+    assertEquals(30, render.getTextWidth());
+
+    verify(niftyMock);
+  }
+
   public void testGetStartYWithVerticalAlignTop() {
     assertEquals(0, TextRenderer.getStartYWithVerticalAlign(100, 200, VerticalAlign.top));
   }
@@ -0,0 +1,84 @@
+package de.lessvoid.nifty.elements.tools;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.spi.render.RenderFont;
+
+public class FontMetricsTest {
+  private RenderFont renderFontMock;
+
+  @Before
+  public void before() {
+    renderFontMock = createMock(RenderFont.class);
+  }
+
+  @After
+  public void after() {
+    verify(renderFontMock);
+  }
+
+  @Test
+  public void testSameInstanceForSameFont() {
+    replay(renderFontMock);
+    assertSame(FontMetrics.getFontMetrics(renderFontMock), FontMetrics.getFontMetrics(renderFontMock));
+  }
+
+  @Test
+  public void testWidthIsCached() {
+    expect(renderFontMock.getWidth("abc")).andReturn(12).once();
+    expect(renderFontMock.getWidth("de")).andReturn(8).once();
+    replay(renderFontMock);
+
+    FontMetrics metrics = FontMetrics.getFontMetrics(renderFontMock);
+    assertEquals(12, metrics.getWidth("abc"));
+    assertEquals(8, metrics.getWidth("de"));
+    assertEquals(12, metrics.getWidth(new String("abc")));
+    assertEquals(8, metrics.getWidth("de"));
+  }
+
+  @Test
+  public void testAdvanceIsCached() {
+    expect(renderFontMock.getCharacterAdvance('a', 'b', 1.0f)).andReturn(5).once();
+    expect(renderFontMock.getCharacterAdvance('b', 'a', 1.0f)).andReturn(null).once();
+    replay(renderFontMock);
+
+    FontMetrics metrics = FontMetrics.getFontMetrics(renderFontMock);
+    assertEquals(5, metrics.getCharacterAdvance('a', 'b', 1.0f));
+    assertEquals(5, metrics.getCharacterAdvance('a', 'b', 1.0f));
+    assertEquals(FontMetrics.NO_ADVANCE, metrics.getCharacterAdvance('b', 'a', 1.0f));
+    assertEquals(FontMetrics.NO_ADVANCE, metrics.getCharacterAdvance('b', 'a', 1.0f));
+  }
+
+  @Test
+  public void testUncachedAdvanceIsForwarded() {
+    expect(renderFontMock.getCharacterAdvance('\u00e4', 'b', 1.0f)).andReturn(7).times(2);
+    expect(renderFontMock.getCharacterAdvance('a', 'b', 2.0f)).andReturn(10).times(2);
+    replay(renderFontMock);
+
+    FontMetrics metrics = FontMetrics.getFontMetrics(renderFontMock);
+    assertEquals(7, metrics.getCharacterAdvance('\u00e4', 'b', 1.0f));
+    assertEquals(7, metrics.getCharacterAdvance('\u00e4', 'b', 1.0f));
+    assertEquals(10, metrics.getCharacterAdvance('a', 'b', 2.0f));
+    assertEquals(10, metrics.getCharacterAdvance('a', 'b', 2.0f));
+  }
+
+  @Test
+  public void testFontHelperUsesCachedAdvances() {
+    expect(renderFontMock.getCharacterAdvance('a', 'a', 1.0f)).andReturn(4).once();
+    expect(renderFontMock.getCharacterAdvance('a', (char) 0, 1.0f)).andReturn(4).once();
+    replay(renderFontMock);
+
+    assertEquals(2, FontHelper.getVisibleCharactersFromStart(renderFontMock, "aaaa", 10, 1.0f));
+    assertEquals(4, FontHelper.getVisibleCharactersFromStart(renderFontMock, "aaaa", 16, 1.0f));
+    assertEquals(1, FontHelper.getCharacterIndexFromPixelPosition(renderFontMock, "aaaa", 6, 1.0f));
+  }
+}
@@ -1,11 +1,14 @@
 package de.lessvoid.nifty.elements.tools;
 
+import static org.easymock.EasyMock.anyChar;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.classextension.EasyMock.createMock;
 import static org.easymock.classextension.EasyMock.replay;
 import static org.easymock.classextension.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.After;
@@ -23,6 +26,9 @@ public class TextBreakTest {
   public void before() {
     elementMock = createMock(Element.class);
     renderFontMock = createMock(RenderFont.class);
+    expect(renderFontMock.getCharacterAdvance(anyChar(), anyChar(), eq(1.0f))).andReturn(10).anyTimes();
+    replay(elementMock);
+    replay(renderFontMock);
   }
 
   @After
@@ -33,10 +39,6 @@ public class TextBreakTest {
 
   @Test
   public void testNoSplit() {
-    expect(renderFontMock.getWidth("abcdef")).andReturn(12);
-    replay(elementMock);
-    replay(renderFontMock);
-
     TextBreak textBreak = new TextBreak("abcdef", 100, renderFontMock);
     List < String > lines = textBreak.split();
 
@@ -46,13 +48,7 @@ public class TextBreakTest {
 
   @Test
   public void testSplit() {
-    replay(elementMock);
-
-    expect(renderFontMock.getWidth("abc ")).andReturn(95);
-    expect(renderFontMock.getWidth("def")).andReturn(95).times(2);
-    replay(renderFontMock);
-
-    TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
+    TextBreak textBreak = new TextBreak("abc def", 60, renderFontMock);
     List < String > lines = textBreak.split();
 
     assertEquals(2, lines.size());
@@ -62,12 +58,6 @@ public class TextBreakTest {
 
   @Test
   public void testNoneSplit() {
-    replay(elementMock);
-
-    expect(renderFontMock.getWidth("abc ")).andReturn(40);
-    expect(renderFontMock.getWidth("def")).andReturn(40);
-    replay(renderFontMock);
-
     TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
     List < String > lines = textBreak.split();
 
@@ -75,4 +65,61 @@ public class TextBreakTest {
     assertEquals("abc def", lines.get(0));
   }
 
+  @Test
+  public void testSeveralWordsPerLine() {
+    TextBreak textBreak = new TextBreak("ab cd ef gh", 70, renderFontMock);
+    List < String > lines = textBreak.split();
+
+    assertEquals(2, lines.size());
+    assertEquals("ab cd ", lines.get(0));
+    assertEquals("ef gh", lines.get(1));
+  }
+
+  @Test
+  public void testLongWordIsBrokenUp() {
+    TextBreak textBreak = new TextBreak("abcdefghij kl", 45, renderFontMock);
+    List < String > lines = textBreak.split();
+
+    assertEquals(4, lines.size());
+    assertEquals("abcd", lines.get(0));
+    assertEquals("efgh", lines.get(1));
+    assertEquals("ij ", lines.get(2));
+    assertEquals("kl", lines.get(3));
+  }
+
+  @Test
+  public void testHardBreak() {
+    TextBreak textBreak = new TextBreak("ab\n\ncd ef", 100, renderFontMock);
+    List < String > lines = textBreak.split();
+
+    assertEquals(3, lines.size());
+    assertEquals("ab", lines.get(0));
+    assertEquals("", lines.get(1));
+    assertEquals("cd ef", lines.get(2));
+  }
+
+  @Test
+  public void testWidthSmallerThanSingleCharacter() {
+    TextBreak textBreak = new TextBreak("abc", 5, renderFontMock);
+    List < String > lines = textBreak.split();
+
+    assertEquals(3, lines.size());
+    assertEquals("a", lines.get(0));
+    assertEquals("b", lines.get(1));
+    assertEquals("c", lines.get(2));
+  }
+
+  @Test
+  public void testReuse() {
+    TextBreak textBreak = new TextBreak();
+    List < String > lines = new ArrayList < String >();
+    textBreak.split("abcdefghijklmnop qr", 100, renderFontMock, lines);
+    textBreak.split("ab cd", 60, renderFontMock, lines);
+
+    assertEquals(4, lines.size());
+    assertEquals("abcdefghi", lines.get(0));
+    assertEquals("jklmnop ", lines.get(1));
+    assertEquals("qr", lines.get(2));
+    assertEquals("ab cd", lines.get(3));
+  }
 }
@@ -0,0 +1,90 @@
+package de.lessvoid.nifty.layout.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.layout.BoxConstraints;
+import de.lessvoid.nifty.layout.LayoutPart;
+import de.lessvoid.nifty.tools.SizeValue;
+
+public class VirtualVerticalLayoutTest extends TestCase {
+  private VirtualVerticalLayout layout = new VirtualVerticalLayout();
+  private LayoutPart root;
+  private List<LayoutPart> elements;
+  private LayoutPart first;
+  private LayoutPart second;
+
+  protected void setUp() throws Exception {
+    root = new LayoutPart(new Box(0, 100, 640, 100), new BoxConstraints());
+
+    elements = new ArrayList<LayoutPart>();
+    first = new LayoutPart(new Box(), new BoxConstraints());
+    elements.add(first);
+    second = new LayoutPart(new Box(), new BoxConstraints());
+    elements.add(second);
+
+    layout.setRowHeight(20);
+    layout.setRowCount(10000);
+  }
+
+  public void testUpdateEmpty() throws Exception {
+    layout.layoutElements(null, null);
+  }
+
+  public void testChildrenArePlacedAtTheirRows() {
+    layout.setChildRows(new int[] { 6, 5 });
+    layout.setScrollY(100);
+    layout.layoutElements(root, elements);
+    assertBox(second.getBox(), 0, 100, 640, 20);
+    assertBox(first.getBox(), 0, 120, 640, 20);
+  }
+
+  public void testUnusedChildren() {
+    layout.setChildRows(new int[] { -1, 10000 });
+    layout.layoutElements(root, elements);
+    assertEquals(0, first.getBox().getHeight());
+    assertEquals(0, second.getBox().getHeight());
+  }
+
+  public void testFixedRows() {
+    assertEquals(200000, layout.getContentHeight());
+    assertEquals(0, layout.getRowAt(-5));
+    assertEquals(5, layout.getRowAt(119));
+    assertEquals(9999, layout.getRowAt(500000));
+  }
+
+  public void testMeasuredRows() {
+    layout.setMeasureRows(true);
+    first.getBoxConstraints().setHeight(new SizeValue("50px"));
+    layout.setChildRows(new int[] { 0, 1 });
+    layout.layoutElements(root, elements);
+
+    assertBox(first.getBox(), 0, 100, 640, 50);
+    assertBox(second.getBox(), 0, 150, 640, 20);
+    assertEquals(200030, layout.getContentHeight());
+    assertEquals(0, layout.getRowAt(49));
+    assertEquals(1, layout.getRowAt(50));
+    assertEquals(2, layout.getRowAt(70));
+    assertEquals(70, layout.getRowY(2));
+
+    layout.invalidateRow(0);
+    assertEquals(200000, layout.getContentHeight());
+  }
+
+  public void testShrinkRowCount() {
+    layout.setRowCount(10);
+    assertEquals(200, layout.getContentHeight());
+    assertEquals(9, layout.getRowAt(1000));
+    layout.setRowCount(0);
+    assertEquals(-1, layout.getRowAt(0));
+  }
+
+  private void assertBox(final Box box, final int x, final int y, final int width, final int height) {
+    assertEquals(x, box.getX());
+    assertEquals(y, box.getY());
+    assertEquals(width, box.getWidth());
+    assertEquals(height, box.getHeight());
+  }
+}
@@ -0,0 +1,133 @@
+package de.lessvoid.nifty.loaderv2.types;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.screen.DefaultScreenController;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class NiftyTypeParallelTest {
+  private ExecutorService executor;
+
+  @Before
+  public void before() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void after() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testParallelLoadingCreatesTheSameScreens() throws Exception {
+    String xml = createXml(12);
+    String sequential = dump(load(xml, null));
+    String parallel = dump(load(xml, executor));
+    assertEquals(sequential, parallel);
+  }
+
+  @Test
+  public void testScreensAreAddedInDocumentOrder() throws Exception {
+    Nifty nifty = load(createXml(12), executor);
+    for (int i=0; i<12; i++) {
+      Screen screen = nifty.getScreen("screen" + i);
+      assertEquals("screen" + i + "-panel", screen.getLayerElements().get(0).getElements().get(0).getId());
+    }
+  }
+
+  @Test
+  public void testWithoutExecutorEachScreenIsCreatedBeforeTheNextOneStarts() throws Exception {
+    String xml =
+        "<nifty>" +
+        "<screen id=\"a\" controller=\"" + RecordingController.class.getName() + "\"/>" +
+        "<screen id=\"b\" controller=\"" + RecordingController.class.getName() + "\"/>" +
+        "</nifty>";
+    Nifty nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    RecordingController.nifty = nifty;
+    RecordingController.screenCounts.clear();
+    nifty.fromXmlWithoutStartScreen("test", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    RecordingController.nifty = null;
+    assertEquals("[0, 1]", RecordingController.screenCounts.toString());
+  }
+
+  private Nifty load(final String xml, final ExecutorService loadingExecutor) throws Exception {
+    Nifty nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.setLoadingExecutor(loadingExecutor);
+    nifty.fromXmlWithoutStartScreen("test", new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    return nifty;
+  }
+
+  private String createXml(final int screenCount) {
+    StringBuilder xml = new StringBuilder();
+    xml.append("<nifty>");
+    xml.append("<style id=\"base\"><attributes width=\"50%\" childLayout=\"horizontal\"/></style>");
+    xml.append("<style id=\"box\" base=\"base\"><attributes height=\"20px\"/></style>");
+    xml.append("<controlDefinition name=\"box\">");
+    xml.append("<panel style=\"box\"><panel id=\"#inner\" width=\"$size\" height=\"$size\"/></panel>");
+    xml.append("</controlDefinition>");
+    xml.append("<popup id=\"popup\" childLayout=\"center\"><panel width=\"10px\" height=\"10px\"/></popup>");
+    for (int i=0; i<screenCount; i++) {
+      xml.append("<screen id=\"screen").append(i).append("\">");
+      xml.append("<layer id=\"layer\" childLayout=\"vertical\">");
+      xml.append("<panel id=\"screen").append(i).append("-panel\" style=\"base\">");
+      for (int j=0; j<10; j++) {
+        xml.append("<control id=\"box").append(j).append("\" name=\"box\" size=\"").append(i + j).append("px\"/>");
+      }
+      xml.append("</panel>");
+      xml.append("</layer>");
+      xml.append("</screen>");
+    }
+    xml.append("</nifty>");
+    return xml.toString();
+  }
+
+  private String dump(final Nifty nifty) {
+    StringBuilder result = new StringBuilder();
+    for (String screenId : nifty.getAllScreensName()) {
+      result.append(screenId).append("\n");
+      for (Element layer : nifty.getScreen(screenId).getLayerElements()) {
+        dump(layer, result, " ");
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Remembers how many screens Nifty already knows when a screen creates its controller.
+   */
+  public static class RecordingController extends DefaultScreenController {
+    private static Nifty nifty;
+    private static List < Integer > screenCounts = new ArrayList < Integer >();
+
+    public RecordingController() {
+      screenCounts.add(nifty.getAllScreensName().size());
+    }
+  }
+
+  private void dump(final Element element, final StringBuilder result, final String indent) {
+    result.append(indent).append(element.getId())
+      .append(" ").append(element.getConstraintWidth())
+      .append(" ").append(element.getConstraintHeight())
+      .append(" ").append(element.getElementType().getAttributes().get("childLayout"))
+      .append("\n");
+    for (Element child : element.getElements()) {
+      dump(child, result, indent + " ");
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package de.lessvoid.nifty.loaderv2.types;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.ControlBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class PreparedElementTypeCacheTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element layer;
+  private PreparedElementTypeCache cache;
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty>" +
+        "<style id=\"row-style\"><attributes height=\"20px\"/></style>" +
+        "<controlDefinition name=\"row\">" +
+        "<panel id=\"#panel\" childLayout=\"horizontal\" style=\"row-style\">" +
+        "<text id=\"#label\" text=\"$text\"/>" +
+        "</panel>" +
+        "</controlDefinition>" +
+        "<screen id=\"start\"><layer id=\"layer\" childLayout=\"vertical\"/></screen>" +
+        "</nifty>";
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    screen = nifty.getCurrentScreen();
+    layer = screen.findElementByName("layer");
+    cache = nifty.getPreparedElementTypeCache();
+  }
+
+  @Test
+  public void testInstancesGetTheirOwnIds() {
+    createRow("row1", "hello");
+    createRow("row2", "hello");
+    assertEquals(1, cache.getMisses());
+    assertEquals(1, cache.getHits());
+
+    assertNotNull(screen.findElementByName("row1#label"));
+    assertNotNull(screen.findElementByName("row2#label"));
+    assertEquals("hello", screen.findElementByName("row2#label").getElementType().getAttributes().get("text"));
+  }
+
+  @Test
+  public void testDifferentParametersAreDifferentTemplates() {
+    createRow("row1", "hello");
+    createRow("row2", "world");
+    assertEquals(2, cache.getMisses());
+    assertEquals("world", screen.findElementByName("row2#label").getElementType().getAttributes().get("text"));
+  }
+
+  @Test
+  public void testCachedInstanceEqualsUncachedInstance() {
+    createRow("row1", "hello");
+    Element cached = createRow("row2", "hello");
+    cache.setMaxSize(0);
+    Element uncached = createRow("row2", "hello");
+    assertEquals(1, cache.getHits());
+    assertEquals(uncached.getElementType().output(0), cached.getElementType().output(0));
+  }
+
+  @Test
+  public void testSpecialValuesAreNotCached() {
+    createRow("row1", "${ENV.HOME}");
+    createRow("row2", "${ENV.HOME}");
+    assertEquals(0, cache.getMisses());
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testRegisterStyleClearsTheCache() {
+    createRow("row1", "hello");
+    assertEquals(1, cache.getSize());
+    nifty.registerStyle(new StyleType());
+    assertEquals(0, cache.getSize());
+  }
+
+  private Element createRow(final String id, final String text) {
+    return new ControlBuilder(id, "row") {{
+      parameter("text", text);
+    }}.build(nifty, screen, layer);
+  }
+}
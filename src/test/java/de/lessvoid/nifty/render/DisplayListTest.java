@@ -0,0 +1,114 @@
+package de.lessvoid.nifty.render;
+
+import static org.easymock.EasyMock.createStrictMock;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.reset;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.tools.Color;
+
+public class DisplayListTest {
+  private NiftyRenderEngine renderEngine = createStrictMock(NiftyRenderEngine.class);
+  private DisplayList displayList = new DisplayList();
+
+  @Test
+  public void testRecordForwardsAndReplayRepeats() {
+    expectCalls();
+    replay(renderEngine);
+
+    displayList.beginRecording(renderEngine);
+    renderCalls(displayList);
+    displayList.endRecording();
+    verify(renderEngine);
+    assertEquals(5, displayList.getOpCount());
+
+    reset(renderEngine);
+    expectCalls();
+    replay(renderEngine);
+
+    displayList.replay(renderEngine);
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testChildIsRecordedAsReference() {
+    expectCalls();
+    renderEngine.renderQuad(1, 2, 3, 4);
+    replay(renderEngine);
+
+    DisplayList child = new DisplayList();
+    displayList.beginRecording(renderEngine);
+    child.beginRecording(displayList);
+    renderCalls(child);
+    child.endRecording();
+    displayList.renderQuad(1, 2, 3, 4);
+    displayList.endRecording();
+    verify(renderEngine);
+    assertEquals(2, displayList.getOpCount());
+
+    reset(renderEngine);
+    expectCalls();
+    renderEngine.renderQuad(1, 2, 3, 4);
+    replay(renderEngine);
+
+    displayList.replay(renderEngine);
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testReplayIntoRecordingParent() {
+    DisplayList child = new DisplayList();
+    child.beginRecording(renderEngine);
+    renderCalls(child);
+    child.endRecording();
+
+    reset(renderEngine);
+    expectCalls();
+    expectCalls();
+    replay(renderEngine);
+
+    displayList.beginRecording(renderEngine);
+    child.replay(displayList);
+    displayList.endRecording();
+    assertEquals(1, displayList.getOpCount());
+
+    displayList.replay(renderEngine);
+    verify(renderEngine);
+  }
+
+  @Test
+  public void testRecordingStartsEmpty() {
+    displayList.beginRecording(renderEngine);
+    renderCalls(displayList);
+    displayList.endRecording();
+
+    reset(renderEngine);
+    replay(renderEngine);
+
+    displayList.beginRecording(renderEngine);
+    displayList.endRecording();
+    displayList.replay(renderEngine);
+    assertEquals(0, displayList.getOpCount());
+    verify(renderEngine);
+  }
+
+  private void renderCalls(final NiftyRenderEngine r) {
+    r.saveState(null);
+    r.setColor(new Color(1.0f, 0.0f, 0.0f, 1.0f));
+    r.renderQuad(10, 20, 30, 40);
+    r.renderText("text", 10, 20, -1, -1, null);
+    r.restoreState();
+  }
+
+  private void expectCalls() {
+    renderEngine.saveState(null);
+    renderEngine.setColor(isA(Color.class));
+    renderEngine.renderQuad(10, 20, 30, 40);
+    renderEngine.renderText("text", 10, 20, -1, -1, null);
+    renderEngine.restoreState();
+  }
+}
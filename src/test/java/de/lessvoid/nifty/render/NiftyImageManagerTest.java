@@ -0,0 +1,332 @@
+package de.lessvoid.nifty.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.spi.render.AsyncRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.spi.render.RenderImageData;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class NiftyImageManagerTest {
+  private TestRenderDevice renderDevice;
+  private ManualExecutor executor;
+  private NiftyImageManager imageManager;
+  private TestTimeProvider timeProvider = new TestTimeProvider();
+
+  @Before
+  public void before() {
+    renderDevice = new TestRenderDevice();
+    executor = new ManualExecutor();
+    imageManager = new NiftyImageManager(renderDevice, renderDevice);
+    imageManager.setExecutor(executor);
+    imageManager.setTimeProvider(timeProvider);
+  }
+
+  @Test
+  public void testWithoutAsyncRenderDevice() {
+    imageManager = new NiftyImageManager(renderDevice);
+    imageManager.preload("a.png", false, 0);
+    assertEquals(0, imageManager.getPreloadingCount());
+
+    RenderImage image = imageManager.getImage("a.png", false);
+    assertTrue(image instanceof TestImage);
+    assertEquals("[create a.png]", renderDevice.log.toString());
+  }
+
+  @Test
+  public void testPreloadedImageIsCachedUntilUsed() {
+    imageManager.preload("a.png", false, 0);
+    executor.runAll();
+    imageManager.uploadPreloadedImages();
+    assertEquals(0, imageManager.getPreloadingCount());
+
+    RenderImage image = imageManager.getImage("a.png", false);
+    assertTrue(image instanceof TestImage);
+    assertEquals("[load a.png, upload a.png]", renderDevice.log.toString());
+
+    imageManager.dispose(image);
+    assertTrue(((TestImage) image).disposed);
+  }
+
+  @Test
+  public void testPlaceholder() {
+    imageManager.preload("a.png", false, 0);
+    RenderImage placeholder = imageManager.getImage("a.png", false);
+    assertTrue(placeholder instanceof PreloadedRenderImage);
+    NiftyImage niftyImage = new NiftyImage(null, placeholder);
+    assertFalse(niftyImage.isLoaded());
+
+    // the size is needed before a loader thread started with the image so it's decoded right now
+    assertEquals(32, niftyImage.getWidth());
+    assertEquals(16, niftyImage.getHeight());
+    assertFalse(niftyImage.isLoaded());
+    assertEquals("[load a.png]", renderDevice.log.toString());
+
+    executor.runAll();
+    imageManager.uploadPreloadedImages();
+    assertTrue(niftyImage.isLoaded());
+    assertEquals("[load a.png, upload a.png]", renderDevice.log.toString());
+    assertSame(placeholder, imageManager.getImage("a.png", false));
+  }
+
+  @Test
+  public void testPriority() {
+    imageManager.preload("a.png", false, 1);
+    imageManager.preload("b.png", false, 5);
+    imageManager.preload("c.png", false, 3);
+    imageManager.preload("d.png", false, 3);
+    imageManager.preload("a.png", false, 4);
+    executor.runAll();
+    assertEquals("[load b.png, load a.png, load c.png, load d.png]", renderDevice.log.toString());
+
+    renderDevice.log.clear();
+    imageManager.preload("c.png", false, 10);
+    imageManager.uploadPreloadedImages();
+    assertEquals("[upload c.png, upload b.png, upload a.png, upload d.png]", renderDevice.log.toString());
+  }
+
+  @Test
+  public void testUploadTimeBudget() {
+    imageManager.preload("a.png", false, 0);
+    imageManager.preload("b.png", false, 0);
+    imageManager.preload("c.png", false, 0);
+    executor.runAll();
+
+    // every upload takes 2ms so the default budget of 4ms is used up after two images
+    timeProvider.timePerCall = 2;
+    imageManager.uploadPreloadedImages();
+    assertEquals(1, imageManager.getPreloadingCount());
+    imageManager.uploadPreloadedImages();
+    assertEquals(0, imageManager.getPreloadingCount());
+  }
+
+  @Test
+  public void testUploadTimeBudgetUploadsAtLeastOneImage() {
+    imageManager.setUploadTimeBudget(0);
+    imageManager.preload("a.png", false, 0);
+    imageManager.preload("b.png", false, 0);
+    executor.runAll();
+
+    imageManager.uploadPreloadedImages();
+    assertEquals(1, imageManager.getPreloadingCount());
+    imageManager.uploadPreloadedImages();
+    assertEquals(0, imageManager.getPreloadingCount());
+  }
+
+  @Test
+  public void testDisposePlaceholderBeforeUpload() {
+    imageManager.preload("a.png", false, 0);
+    RenderImage placeholder = imageManager.getImage("a.png", false);
+    imageManager.dispose(placeholder);
+    executor.runAll();
+    imageManager.uploadPreloadedImages();
+    assertEquals("[load a.png, dispose data a.png]", renderDevice.log.toString());
+
+    RenderImage image = imageManager.getImage("a.png", false);
+    assertNotSame(placeholder, image);
+    assertTrue(image instanceof TestImage);
+  }
+
+  @Test
+  public void testFailedPreloadFallsBackToCreateImage() {
+    imageManager.preload("missing.png", false, 0);
+    RenderImage placeholder = imageManager.getImage("missing.png", false);
+    executor.runAll();
+    assertEquals(32, placeholder.getWidth());
+    assertEquals("[load missing.png, create missing.png]", renderDevice.log.toString());
+    assertTrue(((PreloadedRenderImage) placeholder).isLoaded());
+  }
+
+  @Test
+  public void testDisposedImmediatelyWithoutBudget() {
+    RenderImage image = imageManager.getImage("a.png", false);
+    assertEquals(32 * 16 * 4, imageManager.getResidentBytes());
+    imageManager.dispose(image);
+    assertTrue(((TestImage) image).disposed);
+    assertEquals(0, imageManager.getResidentBytes());
+    assertEquals(1, imageManager.getCacheEvictions());
+  }
+
+  @Test
+  public void testUnreferencedImagesAreRetained() {
+    imageManager.setCacheBudget(32 * 16 * 4 * 2);
+    RenderImage image = imageManager.getImage("a.png", false);
+    imageManager.dispose(image);
+    assertFalse(((TestImage) image).disposed);
+    assertEquals(1, imageManager.getRetainedCount());
+
+    assertSame(image, imageManager.getImage("a.png", false));
+    assertEquals(0, imageManager.getRetainedCount());
+    assertEquals(1, imageManager.getCacheHits());
+    assertEquals(1, imageManager.getCacheMisses());
+    assertEquals("[create a.png]", renderDevice.log.toString());
+  }
+
+  @Test
+  public void testLeastRecentlyReleasedIsEvicted() {
+    imageManager.setCacheBudget(32 * 16 * 4 * 2);
+    RenderImage a = imageManager.getImage("a.png", false);
+    RenderImage b = imageManager.getImage("b.png", false);
+    imageManager.dispose(a);
+    imageManager.dispose(b);
+    assertEquals(2, imageManager.getRetainedCount());
+
+    RenderImage c = imageManager.getImage("c.png", false);
+    assertTrue(((TestImage) a).disposed);
+    assertFalse(((TestImage) b).disposed);
+    assertEquals(32 * 16 * 4 * 2, imageManager.getResidentBytes());
+    assertEquals(1, imageManager.getCacheEvictions());
+
+    // referenced images are never evicted, even when they exceed the budget
+    RenderImage d = imageManager.getImage("d.png", false);
+    RenderImage e = imageManager.getImage("e.png", false);
+    assertTrue(((TestImage) b).disposed);
+    assertFalse(((TestImage) c).disposed);
+    assertFalse(((TestImage) d).disposed);
+    assertFalse(((TestImage) e).disposed);
+    assertEquals(32 * 16 * 4 * 3, imageManager.getResidentBytes());
+  }
+
+  @Test
+  public void testPinnedImageIsKept() {
+    RenderImage image = imageManager.getImage("a.png", false);
+    imageManager.pin(image, true);
+    imageManager.dispose(image);
+    assertFalse(((TestImage) image).disposed);
+    assertSame(image, imageManager.getImage("a.png", false));
+
+    imageManager.dispose(image);
+    imageManager.pin(image, false);
+    assertTrue(((TestImage) image).disposed);
+  }
+
+  @Test
+  public void testReducingBudgetEvicts() {
+    imageManager.setCacheBudget(Long.MAX_VALUE);
+    RenderImage image = imageManager.getImage("a.png", false);
+    imageManager.dispose(image);
+    assertFalse(((TestImage) image).disposed);
+    imageManager.setCacheBudget(0);
+    assertTrue(((TestImage) image).disposed);
+    assertEquals(0, imageManager.getRetainedCount());
+  }
+
+  private static class TestRenderDevice extends NullRenderDevice implements AsyncRenderDevice {
+    private List < String > log = new ArrayList < String >();
+
+    public RenderImage createImage(final String filename, final boolean filterLinear) {
+      log.add("create " + filename);
+      return new TestImage();
+    }
+
+    public synchronized RenderImageData loadImageData(final String filename, final boolean filterLinear) throws IOException {
+      log.add("load " + filename);
+      if (filename.startsWith("missing")) {
+        throw new IOException("file not found");
+      }
+      return new TestImageData(filename);
+    }
+
+    public RenderImage createImage(final RenderImageData imageData) {
+      log.add("upload " + ((TestImageData) imageData).filename);
+      return new TestImage();
+    }
+
+    private class TestImageData implements RenderImageData {
+      private String filename;
+
+      TestImageData(final String filename) {
+        this.filename = filename;
+      }
+
+      public int getWidth() {
+        return 32;
+      }
+
+      public int getHeight() {
+        return 16;
+      }
+
+      public void dispose() {
+        log.add("dispose data " + filename);
+      }
+    }
+  }
+
+  private static class TestImage implements RenderImage {
+    private boolean disposed;
+
+    public int getWidth() {
+      return 32;
+    }
+
+    public int getHeight() {
+      return 16;
+    }
+
+    public void dispose() {
+      disposed = true;
+    }
+  }
+
+  private static class ManualExecutor extends AbstractExecutorService {
+    private List < Runnable > tasks = new ArrayList < Runnable >();
+
+    public void execute(final Runnable command) {
+      tasks.add(command);
+    }
+
+    public void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.remove(0).run();
+      }
+    }
+
+    public void shutdown() {
+    }
+
+    public List < Runnable > shutdownNow() {
+      return tasks;
+    }
+
+    public boolean isShutdown() {
+      return false;
+    }
+
+    public boolean isTerminated() {
+      return false;
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+      return true;
+    }
+  }
+
+  /**
+   * time only passes when the test wants it to (timePerCall ms for every call).
+   */
+  private static class TestTimeProvider extends TimeProvider {
+    private long time;
+    private long timePerCall;
+
+    @Override
+    public long getMsTime() {
+      time += timePerCall;
+      return time;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+public class NiftyRenderEngineColorTest extends TestCase {
+  private ColorRenderDevice renderDevice;
+  private NiftyRenderEngineImpl engine;
+
+  public void setUp() {
+    renderDevice = new ColorRenderDevice();
+    engine = new NiftyRenderEngineImpl(renderDevice);
+  }
+
+  public void testSetColorCopiesTheColor() {
+    Color color = new Color(0.1f, 0.2f, 0.3f, 0.4f);
+    engine.setColor(color);
+    color.setRed(1.0f);
+    color.setAlpha(1.0f);
+
+    engine.renderQuad(0, 0, 10, 10);
+    assertEquals("(0.1,0.2,0.3,0.4)", renderDevice.colors.get(0).toString());
+  }
+
+  public void testRenderImageUsesCurrentAlpha() {
+    NiftyImage image = new NiftyImage(engine, new RenderImageStub());
+    engine.setColorAlpha(0.5f);
+    engine.renderImage(image, 0, 0, 10, 10);
+    engine.setColorAlpha(0.25f);
+    engine.renderImage(image, 0, 0, 10, 10);
+    assertEquals("[(1.0,1.0,1.0,0.5), (1.0,1.0,1.0,0.25)]", renderDevice.colors.toString());
+  }
+
+  public void testSetColorWithComponents() {
+    engine.setColor(0.1f, 0.2f, 0.3f, 0.4f);
+    engine.renderQuad(0, 0, 10, 10);
+    engine.setColor(0.0f, 0.0f, 0.0f, 0.4f);
+    engine.setColorIgnoreAlpha(0.5f, 0.6f, 0.7f, 1.0f);
+    engine.renderQuad(0, 0, 10, 10);
+    assertEquals("[(0.1,0.2,0.3,0.4), (0.5,0.6,0.7,0.4)]", renderDevice.colors.toString());
+  }
+
+  public void testRenderDeviceCanKeepTheColors() {
+    engine.setColor(new Color(0.1f, 0.2f, 0.3f, 0.4f));
+    engine.renderQuad(0, 0, 10, 10);
+    engine.setColor(new Color(0.5f, 0.6f, 0.7f, 0.8f));
+    engine.renderQuad(0, 0, 10, 10);
+    assertEquals("[(0.1,0.2,0.3,0.4), (0.5,0.6,0.7,0.8)]", renderDevice.colors.toString());
+  }
+
+  public void testRenderQuadWithChangedAlpha() {
+    Color topLeft = new Color(1.0f, 0.0f, 0.0f, 1.0f);
+    Color topRight = new Color(0.0f, 1.0f, 0.0f, 1.0f);
+    Color bottomRight = new Color(0.0f, 0.0f, 1.0f, 1.0f);
+    Color bottomLeft = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+    engine.setColorAlpha(0.5f);
+    engine.renderQuad(0, 0, 10, 10, topLeft, topRight, bottomRight, bottomLeft);
+
+    assertEquals(
+        "[(1.0,0.0,0.0,0.5), (0.0,1.0,0.0,0.5), (0.0,0.0,1.0,0.5), (1.0,1.0,1.0,0.5)]",
+        renderDevice.colors.toString());
+    assertEquals(1.0f, topLeft.getAlpha());
+  }
+
+  private static class ColorRenderDevice extends NullRenderDevice {
+    private List < Color > colors = new ArrayList < Color >();
+
+    public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+      colors.add(color);
+    }
+
+    public void renderQuad(
+        final int x,
+        final int y,
+        final int width,
+        final int height,
+        final Color topLeft,
+        final Color topRight,
+        final Color bottomRight,
+        final Color bottomLeft) {
+      colors.add(topLeft);
+      colors.add(topRight);
+      colors.add(bottomRight);
+      colors.add(bottomLeft);
+    }
+
+    public void renderImage(
+        final RenderImage image,
+        final int x,
+        final int y,
+        final int width,
+        final int height,
+        final Color color,
+        final float imageScale) {
+      colors.add(color);
+    }
+
+    public void renderImage(
+        final RenderImage image,
+        final int x,
+        final int y,
+        final int w,
+        final int h,
+        final int srcX,
+        final int srcY,
+        final int srcW,
+        final int srcH,
+        final Color color,
+        final float scale,
+        final int centerX,
+        final int centerY) {
+      colors.add(color);
+    }
+  }
+
+  private static class RenderImageStub implements RenderImage {
+    public int getWidth() {
+      return 10;
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public void dispose() {
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package de.lessvoid.nifty.render;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.EnumSet;
+import java.util.List;
+
+import junit.framework.TestCase;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.tools.Color;
+
+public class NiftyRenderEngineStateTest extends TestCase {
+  private StateRenderDevice renderDevice;
+  private NiftyRenderEngineImpl engine;
+
+  public void setUp() {
+    renderDevice = new StateRenderDevice();
+    engine = new NiftyRenderEngineImpl(renderDevice);
+  }
+
+  public void testRestoreAll() {
+    engine.moveTo(10, 20);
+    engine.setColor(new Color(0.1f, 0.2f, 0.3f, 0.4f));
+    engine.setImageScale(2.0f);
+    engine.setRenderTextSize(3.0f);
+
+    engine.saveState(null);
+    engine.moveTo(100, 200);
+    engine.setColor(Color.WHITE);
+    engine.setImageScale(1.0f);
+    engine.setRenderTextSize(1.0f);
+    engine.restoreState();
+
+    engine.renderQuad(0, 0, 1, 1);
+    assertEquals("quad 10,20 (0.1,0.2,0.3,0.4)", renderDevice.log.get(renderDevice.log.size() - 1));
+  }
+
+  public void testRestoreOnlySavedStates() {
+    engine.moveTo(10, 20);
+    engine.setColor(new Color(0.1f, 0.2f, 0.3f, 0.4f));
+
+    engine.saveState(EnumSet.of(RenderStateType.alpha));
+    engine.moveTo(100, 200);
+    engine.setColor(new Color(1.0f, 1.0f, 1.0f, 1.0f));
+    engine.restoreState();
+
+    engine.renderQuad(0, 0, 1, 1);
+    assertEquals("quad 100,200 (1.0,1.0,1.0,0.4)", renderDevice.log.get(renderDevice.log.size() - 1));
+  }
+
+  public void testRestoreClip() {
+    engine.saveState(null);
+    engine.enableClip(0, 0, 10, 10);
+    engine.saveState(EnumSet.of(RenderStateType.clip));
+    engine.disableClip();
+    engine.enableClip(5, 5, 20, 20);
+    engine.restoreState();
+    engine.restoreState();
+
+    assertEquals(
+        "[clip 0,0,10,10, disableClip, clip 5,5,20,20, clip 0,0,10,10, disableClip, blend BLEND]",
+        renderDevice.log.toString());
+  }
+
+  public void testRestoreBlendMode() {
+    engine.saveState(EnumSet.of(RenderStateType.blendMode));
+    engine.setBlendMode(BlendMode.MULIPLY);
+    engine.restoreState();
+    assertEquals("[blend MULIPLY, blend BLEND]", renderDevice.log.toString());
+  }
+
+  public void testDeepStack() {
+    for (int i=0; i<100; i++) {
+      engine.moveTo(i, i);
+      engine.saveState(null);
+    }
+    for (int i=99; i>=0; i--) {
+      engine.moveTo(1000, 1000);
+      engine.restoreState();
+      engine.renderQuad(0, 0, 1, 1);
+      assertEquals("quad " + i + "," + i + " (1.0,1.0,1.0,1.0)", renderDevice.log.get(renderDevice.log.size() - 1));
+    }
+  }
+
+  public void testRestoreWithoutSave() {
+    try {
+      engine.restoreState();
+      fail("expected EmptyStackException");
+    } catch (EmptyStackException e) {
+    }
+  }
+
+  private static class StateRenderDevice extends NullRenderDevice {
+    private List < String > log = new ArrayList < String >();
+
+    public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+      log.add("quad " + x + "," + y + " " + color);
+    }
+
+    public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+      log.add("clip " + x0 + "," + y0 + "," + x1 + "," + y1);
+    }
+
+    public void disableClip() {
+      log.add("disableClip");
+    }
+
+    public void setBlendMode(final BlendMode renderMode) {
+      log.add("blend " + renderMode);
+    }
+  }
+}
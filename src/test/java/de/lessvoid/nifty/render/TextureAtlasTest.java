@@ -0,0 +1,224 @@
+package de.lessvoid.nifty.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.layout.Box;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.spi.render.AtlasRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.spi.render.RenderImageData;
+
+public class TextureAtlasTest {
+  private TestRenderDevice renderDevice;
+  private TextureAtlas atlas;
+
+  @Before
+  public void before() {
+    renderDevice = new TestRenderDevice();
+    atlas = new TextureAtlas(renderDevice, 256, 64);
+  }
+
+  @Test
+  public void testTooLargeImage() {
+    assertNull(atlas.add("large.png", false, new TestImageData(65, 10)));
+    assertNull(atlas.add("empty.png", false, new TestImageData(0, 0)));
+    assertEquals(0, atlas.getPageCount());
+  }
+
+  @Test
+  public void testRandomImagesDontOverlap() {
+    Random random = new Random(42);
+    List < AtlasRenderImage > images = new ArrayList < AtlasRenderImage >();
+    for (int i=0; i<300; i++) {
+      AtlasRenderImage image = add("image" + i, 1 + random.nextInt(64), 1 + random.nextInt(64), false);
+      assertNotNull(image);
+      images.add(image);
+    }
+    assertTrue(atlas.getPageCount() > 1);
+    assertNoOverlap(images);
+  }
+
+  @Test
+  public void testNewPageWhenFull() {
+    for (int i=0; i<16; i++) {
+      add("image" + i, 62, 62, false);
+    }
+    assertEquals(1, atlas.getPageCount());
+
+    AtlasRenderImage image = add("image16", 62, 62, false);
+    assertEquals(2, atlas.getPageCount());
+    assertEquals(1, image.getX());
+    assertEquals(1, image.getY());
+  }
+
+  @Test
+  public void testPagesPerFilter() {
+    AtlasRenderImage nearest = add("nearest.png", 10, 10, false);
+    AtlasRenderImage linear = add("linear.png", 10, 10, true);
+    assertEquals(2, atlas.getPageCount());
+    assertNotSame(nearest.getPageImage(), linear.getPageImage());
+    assertFalse(((TestPage) nearest.getPageImage()).filterLinear);
+    assertTrue(((TestPage) linear.getPageImage()).filterLinear);
+  }
+
+  @Test
+  public void testDisposeEvictsEmptyPage() {
+    AtlasRenderImage a = add("a.png", 10, 10, false);
+    AtlasRenderImage b = add("b.png", 10, 10, false);
+    TestPage page = (TestPage) a.getPageImage();
+
+    a.dispose();
+    assertEquals(1, atlas.getPageCount());
+    assertFalse(page.disposed);
+
+    b.dispose();
+    assertEquals(0, atlas.getPageCount());
+    assertTrue(page.disposed);
+  }
+
+  @Test
+  public void testCompaction() {
+    List < AtlasRenderImage > images = new ArrayList < AtlasRenderImage >();
+    for (int i=0; i<20; i++) {
+      images.add(add("image" + i, 62, 62, false));
+    }
+    assertEquals(2, atlas.getPageCount());
+    TestPage firstPage = (TestPage) images.get(0).getPageImage();
+
+    // free most of the first page, the remaining image is moved to the second page
+    for (int i=1; i<16; i++) {
+      images.get(i).dispose();
+    }
+    AtlasRenderImage remaining = images.get(0);
+    atlas.compact();
+    assertEquals(1, atlas.getPageCount());
+    assertTrue(firstPage.disposed);
+    assertSame(images.get(16).getPageImage(), remaining.getPageImage());
+    assertEquals("[load image0]", renderDevice.log.toString());
+
+    List < AtlasRenderImage > left = new ArrayList < AtlasRenderImage >(images.subList(16, 20));
+    left.add(remaining);
+    assertNoOverlap(left);
+  }
+
+  @Test
+  public void testPageArea() {
+    add("a.png", 20, 20, false);
+    AtlasRenderImage image = add("b.png", 10, 10, false);
+    Box pageArea = image.getPageArea(new Box(2, 3, 4, 5));
+    assertEquals(image.getX() + 2, pageArea.getX());
+    assertEquals(image.getY() + 3, pageArea.getY());
+    assertEquals(4, pageArea.getWidth());
+    assertEquals(5, pageArea.getHeight());
+  }
+
+  private AtlasRenderImage add(final String filename, final int width, final int height, final boolean filterLinear) {
+    renderDevice.sizes.put(filename, new int[] { width, height });
+    return atlas.add(filename, filterLinear, new TestImageData(width, height));
+  }
+
+  private void assertNoOverlap(final List < AtlasRenderImage > images) {
+    for (int i=0; i<images.size(); i++) {
+      AtlasRenderImage a = images.get(i);
+      assertTrue(a.getX() >= 1 && a.getX() + a.getWidth() <= 255);
+      assertTrue(a.getY() >= 1 && a.getY() + a.getHeight() <= 255);
+      for (int j=i + 1; j<images.size(); j++) {
+        AtlasRenderImage b = images.get(j);
+        if (a.getPageImage() != b.getPageImage()) {
+          continue;
+        }
+        boolean separated =
+          a.getX() + a.getWidth() + 1 <= b.getX() - 1 || b.getX() + b.getWidth() + 1 <= a.getX() - 1 ||
+          a.getY() + a.getHeight() + 1 <= b.getY() - 1 || b.getY() + b.getHeight() + 1 <= a.getY() - 1;
+        assertTrue(a.getFilename() + " overlaps " + b.getFilename(), separated);
+      }
+    }
+  }
+
+  private static class TestRenderDevice extends NullRenderDevice implements AtlasRenderDevice {
+    private List < String > log = new ArrayList < String >();
+    private Map < String, int[] > sizes = new HashMap < String, int[] >();
+
+    public RenderImageData loadImageData(final String filename, final boolean filterLinear) throws IOException {
+      log.add("load " + filename);
+      int[] size = sizes.get(filename);
+      return new TestImageData(size[0], size[1]);
+    }
+
+    public RenderImage createImage(final RenderImageData imageData) {
+      return null;
+    }
+
+    public RenderImage createAtlasPage(final int width, final int height, final boolean filterLinear) {
+      return new TestPage(width, height, filterLinear);
+    }
+
+    public void addToAtlasPage(final RenderImage atlasPage, final RenderImageData imageData, final int x, final int y) {
+      assertTrue(x >= 0 && x + imageData.getWidth() <= atlasPage.getWidth());
+      assertTrue(y >= 0 && y + imageData.getHeight() <= atlasPage.getHeight());
+      assertFalse(((TestPage) atlasPage).disposed);
+    }
+  }
+
+  private static class TestImageData implements RenderImageData {
+    private int width;
+    private int height;
+
+    TestImageData(final int width, final int height) {
+      this.width = width;
+      this.height = height;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public void dispose() {
+    }
+  }
+
+  private static class TestPage implements RenderImage {
+    private int width;
+    private int height;
+    private boolean filterLinear;
+    private boolean disposed;
+
+    TestPage(final int width, final int height, final boolean filterLinear) {
+      this.width = width;
+      this.height = height;
+      this.filterLinear = filterLinear;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public void dispose() {
+      disposed = true;
+    }
+  }
+}
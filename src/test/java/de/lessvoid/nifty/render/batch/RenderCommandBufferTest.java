@@ -0,0 +1,179 @@
+package de.lessvoid.nifty.render.batch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.spi.render.BatchRenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+public class RenderCommandBufferTest {
+  private RenderCommandBuffer buffer = new RenderCommandBuffer();
+  private LoggingBatchRenderDevice device = new LoggingBatchRenderDevice();
+  private RenderImage imageA = new TestImage("A");
+  private RenderImage imageB = new TestImage("B");
+
+  @Test
+  public void testSameTextureIsMergedIntoOneBatch() {
+    buffer.addImage(imageA, 0, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.addImage(imageA, 20, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.flush(device);
+
+    assertEquals(1, buffer.getBatchCount());
+    assertEquals("[blend BLEND, disableClip, begin, image A 0, image A 20, end]", device.log.toString());
+  }
+
+  @Test
+  public void testNonOverlappingPrimitiveIsMovedIntoOlderBatch() {
+    buffer.addImage(imageA, 0, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.addImage(imageB, 20, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.addImage(imageA, 40, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.flush(device);
+
+    assertEquals(2, buffer.getBatchCount());
+    assertEquals("[blend BLEND, disableClip, begin, image A 0, image A 40, end, begin, image B 20, end]", device.log.toString());
+  }
+
+  @Test
+  public void testOverlappingPrimitiveKeepsRenderOrder() {
+    buffer.addImage(imageA, 0, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.addImage(imageB, 5, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.addImage(imageA, 10, 0, 10, 10, Color.WHITE, 1.0f);
+    buffer.flush(device);
+
+    assertEquals(3, buffer.getBatchCount());
+    assertEquals("[blend BLEND, disableClip, begin, image A 0, end, begin, image B 5, end, begin, image A 10, end]", device.log.toString());
+  }
+
+  @Test
+  public void testDifferentClipStartsNewBatch() {
+    buffer.addQuad(0, 0, 10, 10, Color.WHITE);
+    buffer.enableClip(0, 0, 100, 100);
+    buffer.addQuad(20, 0, 10, 10, Color.WHITE);
+    buffer.disableClip();
+    buffer.addQuad(40, 0, 10, 10, Color.WHITE);
+    buffer.flush(device);
+
+    assertEquals(2, buffer.getBatchCount());
+    assertEquals("[blend BLEND, disableClip, begin, quad 0, quad 40, end, enableClip, begin, quad 20, end, disableClip]", device.log.toString());
+  }
+
+  @Test
+  public void testDifferentBlendModeStartsNewBatch() {
+    buffer.addQuad(0, 0, 10, 10, Color.WHITE);
+    buffer.setBlendMode(BlendMode.MULIPLY);
+    buffer.addQuad(0, 0, 10, 10, Color.WHITE);
+    buffer.flush(device);
+
+    assertEquals(2, buffer.getBatchCount());
+    assertEquals("[blend BLEND, disableClip, begin, quad 0, end, blend MULIPLY, begin, quad 0, end]", device.log.toString());
+  }
+
+  @Test
+  public void testColorIsCopiedWhenRecorded() {
+    Color color = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+    buffer.addQuad(0, 0, 10, 10, color);
+    color.setAlpha(0.5f);
+    buffer.flush(device);
+
+    assertEquals(1.0f, device.lastColor.getAlpha(), 0.0f);
+  }
+
+  @Test
+  public void testResetReusesCommands() {
+    buffer.addQuad(0, 0, 10, 10, Color.WHITE);
+    buffer.addText(new TestFont(), "text", 20, 0, Color.WHITE, 1.0f);
+    buffer.reset();
+    assertEquals(0, buffer.getCommandCount());
+    assertEquals(0, buffer.getBatchCount());
+
+    buffer.addQuad(0, 0, 10, 10, Color.WHITE);
+    buffer.flush(device);
+    assertEquals("[blend BLEND, disableClip, begin, quad 0, end]", device.log.toString());
+  }
+
+  private static class LoggingBatchRenderDevice extends NullRenderDevice implements BatchRenderDevice {
+    private List<String> log = new ArrayList<String>();
+    private Color lastColor;
+
+    public void beginBatch() {
+      log.add("begin");
+    }
+
+    public void endBatch() {
+      log.add("end");
+    }
+
+    public void setBlendMode(final BlendMode renderMode) {
+      log.add("blend " + renderMode);
+    }
+
+    public void enableClip(final int x0, final int y0, final int x1, final int y1) {
+      log.add("enableClip");
+    }
+
+    public void disableClip() {
+      log.add("disableClip");
+    }
+
+    public void renderQuad(final int x, final int y, final int width, final int height, final Color color) {
+      log.add("quad " + x);
+      lastColor = color;
+    }
+
+    public void renderImage(final RenderImage image, final int x, final int y, final int width, final int height, final Color color, final float imageScale) {
+      log.add("image " + image + " " + x);
+    }
+
+    public void renderFont(final RenderFont font, final String text, final int x, final int y, final Color fontColor, final float size) {
+      log.add("text " + text + " " + x);
+    }
+  }
+
+  private static class TestImage implements RenderImage {
+    private String name;
+
+    private TestImage(final String name) {
+      this.name = name;
+    }
+
+    public int getWidth() {
+      return 10;
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public void dispose() {
+    }
+
+    public String toString() {
+      return name;
+    }
+  }
+
+  private static class TestFont implements RenderFont {
+    public int getWidth(final String text) {
+      return text.length() * 10;
+    }
+
+    public int getHeight() {
+      return 10;
+    }
+
+    public Integer getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      return 10;
+    }
+
+    public void dispose() {
+    }
+  }
+}
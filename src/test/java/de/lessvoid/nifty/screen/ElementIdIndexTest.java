@@ -0,0 +1,102 @@
+package de.lessvoid.nifty.screen;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class ElementIdIndexTest {
+  private Nifty niftyMock;
+  private FocusHandler focusHandler = new FocusHandler();
+  private ElementIdIndex index = new ElementIdIndex();
+  private List < Element > layers = new ArrayList < Element >();
+  private Element layer;
+  private Element first;
+  private Element second;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+
+    layer = createElement("layer", null);
+    Element panel = createElement("panel", layer);
+    first = createElement("dialog#button", panel);
+    second = createElement("other#button", layer);
+    layers.add(layer);
+    addAll(layer);
+  }
+
+  @Test
+  public void testExactId() {
+    assertEquals(first, index.find("dialog#button", null, layers));
+    assertEquals(layer, index.find("layer", null, layers));
+    assertNull(index.find("button", null, layers));
+  }
+
+  @Test
+  public void testSubIdReturnsFirstInTreeOrder() {
+    assertEquals(first, index.find("#button", null, layers));
+    assertEquals(second, index.find("#button", second, layers));
+  }
+
+  @Test
+  public void testElementsOutsideOfTheLayersAreIgnored() {
+    layers.clear();
+    assertNull(index.find("dialog#button", null, layers));
+  }
+
+  @Test
+  public void testRemove() {
+    index.remove(first);
+    assertEquals(second, index.find("#button", null, layers));
+    index.remove(second);
+    assertNull(index.find("#button", null, layers));
+  }
+
+  @Test
+  public void testConflict() {
+    assertFalse(index.add(first));
+    Element duplicate = createElement("dialog#button", layer);
+    assertTrue(index.add(duplicate));
+  }
+
+  @Test
+  public void testSetIdUpdatesTheIndexOfTheScreen() {
+    Screen screen = new Screen(niftyMock, "screen", null, createNiceMock(TimeProvider.class));
+    layer.bindControls(screen);
+    assertEquals(first, layer.findElementByName("#button"));
+
+    first.setId("dialog#renamed");
+    assertEquals(second, layer.findElementByName("#button"));
+    assertEquals(first, screen.findIndexedElementByName(layer, "#renamed"));
+  }
+
+  private void addAll(final Element element) {
+    index.add(element);
+    for (int i=0; i<element.getElements().size(); i++) {
+      addAll(element.getElements().get(i));
+    }
+  }
+
+  private Element createElement(final String id, final Element parent) {
+    Element element = new Element(niftyMock, null, id, parent, focusHandler, false, null);
+    if (parent != null) {
+      parent.add(element);
+    }
+    return element;
+  }
+}
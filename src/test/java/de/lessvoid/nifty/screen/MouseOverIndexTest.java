@@ -0,0 +1,149 @@
+package de.lessvoid.nifty.screen;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import de.lessvoid.nifty.layout.manager.AbsolutePositionLayout;
+import de.lessvoid.nifty.tools.SizeValue;
+
+public class MouseOverIndexTest {
+  private Nifty niftyMock;
+  private FocusHandler focusHandler = new FocusHandler();
+  private MouseOverIndex index = new MouseOverIndex();
+  private Element layer;
+  private Element a;
+  private Element c;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+
+    layer = createElement("layer", null, false, 0, 0, 400, 300);
+    layer.setWidth(400);
+    layer.setHeight(300);
+    createElement("background", layer, false, 0, 0, 400, 300);
+    a = createElement("a", layer, true, 10, 10, 100, 100);
+    createElement("b", a, true, 20, 20, 50, 50);
+    c = createElement("c", layer, true, 200, 150, 150, 100);
+    Element hidden = createElement("hidden", layer, true, 0, 0, 120, 120);
+    hidden.internalHide();
+    createElement("front", layer, true, 60, 60, 200, 120);
+    layer.layoutElements();
+  }
+
+  @Test
+  public void testOnlyMouseVisibleElementsAreIndexed() {
+    index.buildMouseOverElements(layer, focusHandler, createMouseEvent(0, 0), new MouseOverHandler());
+    assertEquals(5, index.getElementCount());
+  }
+
+  @Test
+  public void testElementsAwayFromTheMouseDontGetTheEvent() {
+    assertEquals("mouse over elements: [a] mouse elements: ---", build(15, 15));
+  }
+
+  @Test
+  public void testLastMouseOverElementGetsOneMoreEvent() {
+    build(15, 15);
+    assertEquals("mouse over elements: [c] mouse elements: [a]", build(300, 200));
+    assertEquals("mouse over elements: [c] mouse elements: ---", build(300, 200));
+  }
+
+  @Test
+  public void testElementWithMouseDownGetsEventsUntilRelease() {
+    build(15, 15);
+    a.getElementInteraction().getPrimary().process(createMouseEvent(15, 15), true, true, false, 0, true, false, false, null);
+    assertTrue(a.isMouseDown());
+
+    build(300, 200);
+    assertEquals("mouse over elements: [c] mouse elements: [a]", build(310, 210));
+
+    a.resetMouseDown();
+    assertEquals("mouse over elements: [c] mouse elements: ---", build(300, 200));
+  }
+
+  @Test
+  public void testExclusiveMouseFocusElementGetsEvents() {
+    focusHandler.requestExclusiveMouseFocus(c);
+    // the other elements can't handle mouse events while c has the exclusive mouse focus
+    assertEquals("mouse over elements: --- mouse elements: [c]", build(15, 15));
+  }
+
+  @Test
+  public void testSameResultAsTreeWalk() {
+    assertSameResultEverywhere();
+  }
+
+  @Test
+  public void testIndexIsRebuiltAfterLayout() {
+    assertSameResultEverywhere();
+
+    c.setConstraintX(new SizeValue("10px"));
+    layer.layoutDirtyElements();
+
+    assertSameResultEverywhere();
+  }
+
+  private void assertSameResultEverywhere() {
+    for (int y=-20; y<=340; y+=5) {
+      for (int x=-20; x<=440; x+=5) {
+        NiftyMouseInputEvent mouseEvent = createMouseEvent(x, y);
+
+        MouseOverHandler expected = new MouseOverHandler();
+        layer.buildMouseOverElements(mouseEvent, 0, expected);
+
+        MouseOverHandler actual = new MouseOverHandler();
+        index.buildMouseOverElements(layer, focusHandler, mouseEvent, actual);
+
+        assertEquals("(" + x + ", " + y + ")", mouseOverElements(expected), mouseOverElements(actual));
+      }
+    }
+  }
+
+  private String build(final int x, final int y) {
+    MouseOverHandler mouseOverHandler = new MouseOverHandler();
+    index.buildMouseOverElements(layer, focusHandler, createMouseEvent(x, y), mouseOverHandler);
+    return mouseOverHandler.getInfoString();
+  }
+
+  private String mouseOverElements(final MouseOverHandler mouseOverHandler) {
+    String info = mouseOverHandler.getInfoString();
+    return info.substring(0, info.indexOf(" mouse elements:"));
+  }
+
+  private NiftyMouseInputEvent createMouseEvent(final int x, final int y) {
+    NiftyMouseInputEvent mouseEvent = new NiftyMouseInputEvent();
+    mouseEvent.initialize(x, y, 0, false, false, false);
+    return mouseEvent;
+  }
+
+  private Element createElement(
+      final String id,
+      final Element parent,
+      final boolean visibleToMouse,
+      final int x,
+      final int y,
+      final int width,
+      final int height) {
+    Element element = new Element(niftyMock, null, id, parent, focusHandler, visibleToMouse, null);
+    element.setLayoutManager(new AbsolutePositionLayout());
+    element.setConstraintX(new SizeValue(x + "px"));
+    element.setConstraintY(new SizeValue(y + "px"));
+    element.setConstraintWidth(new SizeValue(width + "px"));
+    element.setConstraintHeight(new SizeValue(height + "px"));
+    if (parent != null) {
+      parent.add(element);
+    }
+    return element;
+  }
+}
@@ -0,0 +1,90 @@
+package de.lessvoid.nifty.screen;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class ScreenFindElementByNameTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element layer;
+  private Element panel;
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty>" +
+        "<screen id=\"start\"><layer id=\"layer\" childLayout=\"vertical\">" +
+        "<panel id=\"panel\" height=\"10px\" width=\"100px\"/>" +
+        "</layer></screen>" +
+        "<screen id=\"other\"><layer id=\"otherLayer\" childLayout=\"vertical\"/></screen>" +
+        "</nifty>";
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    screen = nifty.getCurrentScreen();
+    layer = screen.findElementByName("layer");
+    panel = screen.findElementByName("panel");
+  }
+
+  @Test
+  public void testMissingId() {
+    assertNull(screen.findElementByName("missing"));
+    assertNull(layer.findElementByName("missing"));
+  }
+
+  @Test
+  public void testScreenThatHasNotBeenStarted() {
+    Screen other = nifty.getScreen("other");
+    assertSame(other.getLayerElements().get(0), other.findElementByName("otherLayer"));
+  }
+
+  @Test
+  public void testSetId() {
+    panel.setId("renamed");
+    assertSame(panel, screen.findElementByName("renamed"));
+    assertSame(panel, layer.findElementByName("renamed"));
+    assertNull(screen.findElementByName("panel"));
+  }
+
+  @Test
+  public void testRemovedElement() {
+    panel.markForRemoval();
+    nifty.update();
+    assertNull(screen.findElementByName("panel"));
+  }
+
+  @Test
+  public void testElementCreatedDuringUpdate() {
+    screen.beginUpdate();
+    Element created = new PanelBuilder("created") {{
+      height("10px");
+      width("100px");
+    }}.build(nifty, screen, layer);
+    assertSame(created, screen.findElementByName("created"));
+    screen.commit();
+    assertSame(created, screen.findElementByName("created"));
+  }
+
+  @Test
+  public void testElementsAreFoundAfterTheScreenHasBeenStartedAgain() {
+    nifty.gotoScreen("other");
+    nifty.update();
+    nifty.gotoScreen("start");
+    nifty.update();
+    assertSame(screen, nifty.getCurrentScreen());
+    assertSame(panel, screen.findIndexedElementByName(layer, "panel"));
+    assertSame(panel, screen.findElementByName("panel"));
+  }
+}
@@ -0,0 +1,108 @@
+package de.lessvoid.nifty.screen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullRenderDevice;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.tools.SizeValue;
+import de.lessvoid.nifty.tools.TimeProvider;
+
+public class ScreenUpdateTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element layer;
+
+  @Before
+  public void before() throws Exception {
+    String xml =
+        "<nifty><screen id=\"start\"><layer id=\"layer\" childLayout=\"vertical\" width=\"100px\" height=\"1000px\"/>" +
+        "</screen></nifty>";
+    nifty = new Nifty(new NullRenderDevice(), new NullSoundDevice(), new NullInputSystem(), new TimeProvider());
+    nifty.fromXml("test", new ByteArrayInputStream(xml.getBytes("UTF-8")), "start");
+    screen = nifty.getCurrentScreen();
+    layer = screen.findElementByName("layer");
+  }
+
+  @Test
+  public void testLayoutIsDeferredUntilCommit() {
+    int layoutCount = screen.layoutLayersCallCount;
+    screen.beginUpdate();
+    assertTrue(screen.isUpdating());
+    for (int i=0; i<20; i++) {
+      createPanel("panel" + i);
+    }
+    assertEquals(layoutCount, screen.layoutLayersCallCount);
+
+    screen.commit();
+    assertFalse(screen.isUpdating());
+    assertEquals(layoutCount + 1, screen.layoutLayersCallCount);
+    for (int i=0; i<20; i++) {
+      assertEquals(i * 10, screen.findElementByName("panel" + i).getY());
+    }
+  }
+
+  @Test
+  public void testNestedUpdates() {
+    int layoutCount = screen.layoutLayersCallCount;
+    screen.beginUpdate();
+    screen.beginUpdate();
+    createPanel("panel0");
+    screen.commit();
+    assertEquals(layoutCount, screen.layoutLayersCallCount);
+    createPanel("panel1");
+    screen.commit();
+    assertEquals(layoutCount + 1, screen.layoutLayersCallCount);
+    assertEquals(10, screen.findElementByName("panel1").getY());
+  }
+
+  @Test
+  public void testWithoutUpdateEveryCreateLayouts() {
+    int layoutCount = screen.layoutLayersCallCount;
+    createPanel("panel0");
+    createPanel("panel1");
+    assertTrue(screen.layoutLayersCallCount >= layoutCount + 2);
+  }
+
+  @Test
+  public void testLayoutLayersAfterChangingTheBoxConstraintsDirectly() {
+    createPanel("panel0");
+    Element panel1 = createPanel("panel1");
+    assertEquals(10, panel1.getY());
+
+    screen.findElementByName("panel0").getLayoutPart().getBoxConstraints().setHeight(new SizeValue("30px"));
+    panel1.getLayoutPart().getBoxConstraints().setWidth(new SizeValue("50px"));
+    screen.layoutLayers();
+
+    assertEquals(30, screen.findElementByName("panel0").getHeight());
+    assertEquals(30, panel1.getY());
+    assertEquals(50, panel1.getWidth());
+  }
+
+  @Test
+  public void testCommitWithoutBeginUpdate() {
+    try {
+      screen.commit();
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException e) {
+    }
+  }
+
+  private Element createPanel(final String id) {
+    return new PanelBuilder(id) {{
+      height("10px");
+      width("100px");
+    }}.build(nifty, screen, layer);
+  }
+}
@@ -1,6 +1,14 @@
 package de.lessvoid.nifty.tools;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -27,5 +35,53 @@ public class ObjectPoolTest {
     }
     long end = new Date().getTime();
     System.out.println(end - start);
-  } 
+  }
+
+  @Test
+  public void testReuse() {
+    Object o1 = pool.allocate();
+    pool.free(o1);
+    assertSame(o1, pool.allocate());
+    assertNotSame(o1, pool.allocate());
+  }
+
+  @Test
+  public void testGrowAndCounters() {
+    List < Object > objects = new ArrayList < Object >();
+    for (int i=0; i<250; i++) {
+      objects.add(pool.allocate());
+    }
+    assertEquals(400, pool.getCapacity());
+    assertEquals(1, pool.getGrowCount());
+    assertEquals(250, pool.getUsedCount());
+    assertEquals(150, pool.getFreeCount());
+
+    for (Object o : objects) {
+      pool.free(o);
+    }
+    assertEquals(0, pool.getUsedCount());
+    assertEquals(400, pool.getFreeCount());
+    assertEquals(250, pool.getPeakUsedCount());
+  }
+
+  @Test
+  public void testLeakDetection() {
+    pool.setLeakDetection(true);
+    Object o1 = pool.allocate();
+    Object o2 = pool.allocate();
+    pool.free(o1);
+    assertEquals(1, pool.getLeaks().size());
+    assertTrue(pool.getLeaks().containsKey(o2));
+
+    try {
+      pool.free(o1);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+    }
+    try {
+      pool.free(new Object());
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+    }
+  }
 }
@@ -0,0 +1,69 @@
+package de.lessvoid.nifty.tools;
+
+import junit.framework.TestCase;
+
+public class RollingHistogramTest extends TestCase {
+  private RollingHistogram histogram = new RollingHistogram(4);
+
+  public void testEmpty() {
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getLast());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(0.99));
+    assertEquals(0.0, histogram.getMean());
+  }
+
+  public void testValues() {
+    histogram.add(1);
+    histogram.add(3);
+    histogram.add(8);
+
+    assertEquals(3, histogram.getCount());
+    assertEquals(8, histogram.getLast());
+    assertEquals(1, histogram.getMin());
+    assertEquals(8, histogram.getMax());
+    assertEquals(4.0, histogram.getMean());
+    assertEquals(1, histogram.getBucketCount(1));
+    assertEquals(1, histogram.getBucketCount(2));
+    assertEquals(1, histogram.getBucketCount(4));
+  }
+
+  public void testOldValuesFallOut() {
+    histogram.add(1000);
+    histogram.add(1);
+    histogram.add(2);
+    histogram.add(3);
+    histogram.add(4);
+
+    assertEquals(4, histogram.getCount());
+    assertEquals(5, histogram.getTotalCount());
+    assertEquals(4, histogram.getMax());
+    assertEquals(0, histogram.getBucketCount(RollingHistogram.getBucket(1000)));
+  }
+
+  public void testPercentile() {
+    histogram.add(1);
+    histogram.add(1);
+    histogram.add(1);
+    histogram.add(100);
+
+    assertEquals(1, histogram.getPercentile(0.5));
+    assertEquals(100, histogram.getPercentile(0.99));
+  }
+
+  public void testClear() {
+    histogram.add(5);
+    histogram.clear();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getBucketCount(RollingHistogram.getBucket(5)));
+  }
+
+  public void testBuckets() {
+    assertEquals(0, RollingHistogram.getBucket(0));
+    assertEquals(1, RollingHistogram.getBucket(1));
+    assertEquals(2, RollingHistogram.getBucket(3));
+    assertEquals(3, RollingHistogram.getBucket(4));
+    assertEquals(7, RollingHistogram.getBucketMax(3));
+    assertEquals(Long.MAX_VALUE, RollingHistogram.getBucketMax(RollingHistogram.getBucket(Long.MAX_VALUE)));
+  }
+}
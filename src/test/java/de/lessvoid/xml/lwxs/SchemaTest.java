@@ -0,0 +1,109 @@
+package de.lessvoid.xml.lwxs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xmlpull.mxp1.MXParser;
+
+import de.lessvoid.xml.xpp3.Attributes;
+import de.lessvoid.xml.xpp3.XmlParser;
+
+public class SchemaTest {
+  private static final String SCHEMA =
+    "<nxs package=\"de.lessvoid.xml.lwxs\" root=\"tree\" type=\"SchemaTest$TreeType\">" +
+    "  <type name=\"SchemaTest$TreeType\">" +
+    "    <element name=\"node\" type=\"SchemaTest$NodeType\" occurs=\"zeroOrMore\" />" +
+    "  </type>" +
+    "  <type name=\"SchemaTest$NodeType\">" +
+    "    <group>" +
+    "      <element name=\"node\" type=\"SchemaTest$NodeType\" occurs=\"zeroOrMore\" />" +
+    "    </group>" +
+    "  </type>" +
+    "</nxs>";
+
+  private Schema schema;
+
+  @Before
+  public void before() throws Exception {
+    schema = new Schema();
+    XmlParser parser = createParser(SCHEMA);
+    parser.nextTag();
+    parser.required("nxs", schema);
+  }
+
+  @Test
+  public void testNestedElements() throws Exception {
+    TreeType tree = load("<tree><node id=\"a\"><node id=\"b\"><node id=\"c\" /></node><node id=\"d\" /></node><node id=\"e\" /></tree>");
+    assertEquals("a(b(c)d)e", tree.toString());
+  }
+
+  @Test
+  public void testLoadingAgainCreatesNewInstances() throws Exception {
+    TreeType first = load("<tree><node id=\"a\"><node id=\"b\" /></node></tree>");
+    TreeType second = load("<tree><node id=\"c\" /><node id=\"d\"><node id=\"e\" /></node></tree>");
+    assertNotSame(first, second);
+    assertEquals("a(b)", first.toString());
+    assertEquals("cd(e)", second.toString());
+  }
+
+  @Test
+  public void testCreateXmlType() {
+    assertNotNull(schema.createXmlType(NodeType.class.getName()));
+    assertNull(schema.createXmlType("de.lessvoid.xml.lwxs.DoesNotExist"));
+    assertNull(schema.createXmlType(String.class.getName()));
+  }
+
+  @Test
+  public void testParentLinkMethodIsCaseInsensitive() {
+    assertEquals("addNode", schema.getParentLinkMethod(NodeType.class, "addnode").getName());
+    assertNull(schema.getParentLinkMethod(NodeType.class, "setNode"));
+  }
+
+  private TreeType load(final String xml) throws Exception {
+    return (TreeType) schema.loadXml(createParser(xml));
+  }
+
+  private XmlParser createParser(final String xml) throws Exception {
+    XmlParser parser = new XmlParser(new MXParser());
+    parser.read(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    return parser;
+  }
+
+  public static class TreeType implements XmlType {
+    protected List < NodeType > nodes = new ArrayList < NodeType >();
+
+    public void initFromAttributes(final Attributes attributes) {
+    }
+
+    public void addNode(final NodeType node) {
+      nodes.add(node);
+    }
+
+    public String toString() {
+      StringBuilder result = new StringBuilder();
+      for (NodeType node : nodes) {
+        result.append(node.id);
+        if (!node.nodes.isEmpty()) {
+          result.append("(").append(node).append(")");
+        }
+      }
+      return result.toString();
+    }
+  }
+
+  public static class NodeType extends TreeType {
+    private String id;
+
+    public void initFromAttributes(final Attributes attributes) {
+      id = attributes.get("id");
+    }
+  }
+}
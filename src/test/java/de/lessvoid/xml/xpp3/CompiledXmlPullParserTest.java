@@ -0,0 +1,151 @@
+package de.lessvoid.xml.xpp3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+public class CompiledXmlPullParserTest {
+  private static final String XML =
+    "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+    "<!-- comment -->" +
+    "<nifty>" +
+    "  <screen id=\"start\" controller=\"a.b.C\">" +
+    "    <layer id=\"layer\" childLayout=\"vertical\">" +
+    "      <text id=\"text\" text=\"h\u00e4llo &amp; bye\" />" +
+    "      <panel id=\"panel\" childLayout=\"vertical\"></panel>" +
+    "    </layer>" +
+    "  </screen>" +
+    "</nifty>";
+
+  @Test
+  public void testEvents() throws Exception {
+    XmlPullParser xpp = compile(XML);
+    assertEquals(XmlPullParser.START_DOCUMENT, xpp.getEventType());
+    assertEquals(0, xpp.getDepth());
+
+    assertStartTag(xpp, "nifty", 1, 0);
+    assertStartTag(xpp, "screen", 2, 2);
+    assertEquals("start", xpp.getAttributeValue(null, "id"));
+    assertEquals("a.b.C", xpp.getAttributeValue(null, "controller"));
+    assertNull(xpp.getAttributeValue(null, "childLayout"));
+
+    assertStartTag(xpp, "layer", 3, 2);
+    assertEquals("childLayout", xpp.getAttributeName(1));
+    assertEquals("vertical", xpp.getAttributeValue(1));
+
+    assertStartTag(xpp, "text", 4, 2);
+    assertEquals("h\u00e4llo & bye", xpp.getAttributeValue(null, "text"));
+    assertEndTag(xpp, "text", 4);
+
+    assertStartTag(xpp, "panel", 4, 2);
+    assertEquals("vertical", xpp.getAttributeValue(null, "childLayout"));
+    assertEndTag(xpp, "panel", 4);
+
+    assertEndTag(xpp, "layer", 3);
+    assertEndTag(xpp, "screen", 2);
+    assertEndTag(xpp, "nifty", 1);
+    assertEquals(XmlPullParser.END_DOCUMENT, xpp.next());
+    assertEquals(0, xpp.getDepth());
+    assertEquals(XmlPullParser.END_DOCUMENT, xpp.next());
+  }
+
+  @Test
+  public void testRepeatedStringsAreWrittenOnce() throws Exception {
+    StringBuilder xml = new StringBuilder("<nifty>");
+    for (int i=0; i<100; i++) {
+      xml.append("<panel childLayout=\"vertical\" backgroundColor=\"#ff0000ff\" />");
+    }
+    xml.append("</nifty>");
+    byte[] compiled = CompiledXmlWriter.compile(new ByteArrayInputStream(xml.toString().getBytes("UTF-8")));
+    assertTrue(compiled.length < xml.length() / 4);
+
+    XmlPullParser xpp = new CompiledXmlPullParser(ByteBuffer.wrap(compiled));
+    assertStartTag(xpp, "nifty", 1, 0);
+    for (int i=0; i<100; i++) {
+      assertStartTag(xpp, "panel", 2, 2);
+      assertEquals("#ff0000ff", xpp.getAttributeValue(null, "backgroundColor"));
+      assertEndTag(xpp, "panel", 2);
+    }
+    assertEndTag(xpp, "nifty", 1);
+  }
+
+  @Test
+  public void testSetInput() throws Exception {
+    byte[] compiled = CompiledXmlWriter.compile(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+    CompiledXmlPullParser xpp = new CompiledXmlPullParser();
+    xpp.setInput(new ByteArrayInputStream(compiled), null);
+    assertStartTag(xpp, "nifty", 1, 0);
+  }
+
+  @Test
+  public void testXmlParser() throws Exception {
+    final StringBuilder ids = new StringBuilder();
+    XmlParser parser = new XmlParser(compile(XML));
+    parser.nextTag();
+    parser.required("nifty", new XmlProcessor() {
+      public void process(final XmlParser xmlParser, final Attributes attributes) throws Exception {
+        xmlParser.nextTag();
+        xmlParser.required("screen", new XmlProcessor() {
+          public void process(final XmlParser screenParser, final Attributes screenAttributes) throws Exception {
+            ids.append(screenAttributes.get("id"));
+            screenParser.nextTag();
+            screenParser.optional("layer", new XmlProcessor() {
+              public void process(final XmlParser layerParser, final Attributes layerAttributes) throws Exception {
+                ids.append(",").append(layerAttributes.get("id"));
+                layerParser.nextTag();
+                layerParser.zeroOrMore("text", new XmlProcessor() {
+                  public void process(final XmlParser textParser, final Attributes textAttributes) throws Exception {
+                    ids.append(",").append(textAttributes.get("id"));
+                    textParser.nextTag();
+                  }
+                });
+                layerParser.zeroOrMore("panel", new XmlProcessor() {
+                  public void process(final XmlParser panelParser, final Attributes panelAttributes) throws Exception {
+                    ids.append(",").append(panelAttributes.get("id"));
+                    panelParser.nextTag();
+                  }
+                });
+              }
+            });
+          }
+        });
+      }
+    });
+    assertEquals("start,layer,text,panel", ids.toString());
+  }
+
+  @Test(expected = XmlPullParserException.class)
+  public void testTruncatedData() throws Exception {
+    byte[] compiled = CompiledXmlWriter.compile(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+    ByteBuffer data = ByteBuffer.wrap(compiled);
+    data.limit(1);
+    XmlPullParser xpp = new CompiledXmlPullParser(data);
+    while (xpp.next() != XmlPullParser.END_DOCUMENT) {
+    }
+  }
+
+  private XmlPullParser compile(final String xml) throws Exception {
+    byte[] compiled = CompiledXmlWriter.compile(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+    return new CompiledXmlPullParser(ByteBuffer.wrap(compiled));
+  }
+
+  private void assertStartTag(final XmlPullParser xpp, final String name, final int depth, final int attributeCount) throws Exception {
+    assertEquals(XmlPullParser.START_TAG, xpp.next());
+    assertEquals(name, xpp.getName());
+    assertEquals(depth, xpp.getDepth());
+    assertEquals(attributeCount, xpp.getAttributeCount());
+  }
+
+  private void assertEndTag(final XmlPullParser xpp, final String name, final int depth) throws Exception {
+    assertEquals(XmlPullParser.END_TAG, xpp.next());
+    assertEquals(name, xpp.getName());
+    assertEquals(depth, xpp.getDepth());
+  }
+}